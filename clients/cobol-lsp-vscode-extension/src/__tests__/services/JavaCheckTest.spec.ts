@@ -12,6 +12,7 @@
  *   Broadcom, Inc. - initial API and implementation
  */
 
+import * as cp from "child_process";
 import { JavaCheck } from "../../services/JavaCheck";
 import { mockSpawnProcess } from "../../__mocks__/child_process.utility";
 
@@ -59,6 +60,66 @@ describe("Checks Java version", () => {
   });
 });
 
+describe("Checks Java runtime", () => {
+  const properties = `Property settings:
+    file.encoding = UTF-8
+    java.vendor = Eclipse Adoptium
+    java.vendor.url = https://adoptium.net/
+    java.version = 17.0.2
+    java.version.date = 2022-01-18
+`;
+  const runtime = { version: "17.0.2", vendor: "Eclipse Adoptium" };
+
+  it("reads the version and the vendor from the JVM properties", () => {
+    expect(JavaCheck.parseJavaRuntime(properties)).toEqual(runtime);
+    expect(
+      JavaCheck.parseJavaRuntime('java version "17.0.2"'),
+    ).toBeUndefined();
+  });
+
+  it("runs the java command once per java path", async () => {
+    const execFile = jest
+      .spyOn(cp, "execFile")
+      .mockImplementation(((...args: any[]) => {
+        args[args.length - 1](null, "", properties);
+        return {} as cp.ChildProcess;
+      }) as any);
+
+    const runtimes = await Promise.all([
+      JavaCheck.getJavaRuntime("/jdk17/bin/java"),
+      JavaCheck.getJavaRuntime("/jdk17/bin/java"),
+    ]);
+    expect(runtimes).toEqual([runtime, runtime]);
+    expect(await JavaCheck.getJavaRuntime("/jdk17/bin/java")).toEqual(runtime);
+    expect(execFile).toHaveBeenCalledTimes(1);
+    await JavaCheck.getJavaRuntime("/jdk21/bin/java");
+    expect(execFile).toHaveBeenCalledTimes(2);
+    execFile.mockRestore();
+  });
+
+  it("runs the java command again after it fails", async () => {
+    const execFile = jest
+      .spyOn(cp, "execFile")
+      .mockImplementation(((...args: any[]) => {
+        args[args.length - 1](new Error("spawn java ENOENT"), "", "");
+        return {} as cp.ChildProcess;
+      }) as any);
+
+    expect(await JavaCheck.getJavaRuntime("/missing/java")).toBeUndefined();
+    expect(await JavaCheck.getJavaRuntime("/missing/java")).toBeUndefined();
+    expect(execFile).toHaveBeenCalledTimes(2);
+    execFile.mockRestore();
+  });
+
+  it("gets the major version", () => {
+    expect(JavaCheck.getMajorVersion("1.8.0_292")).toBe(8);
+    expect(JavaCheck.getMajorVersion("11.0.21")).toBe(11);
+    expect(JavaCheck.getMajorVersion("17")).toBe(17);
+    expect(JavaCheck.getMajorVersion("21-ea+35")).toBe(21);
+    expect(JavaCheck.getMajorVersion("unknown")).toBe(0);
+  });
+});
+
 describe("Checks Java installation", () => {
   let javaCheck: JavaCheck;
   const expectedErrMsgSupportedJavaVersion =
@@ -25,6 +25,7 @@ import { Utils } from "../../services/util/Utils";
 import { EXP_LANGUAGE_ID, HP_LANGUAGE_ID } from "../../constants";
 import { mockSpawnProcess } from "../../__mocks__/child_process.utility";
 import { getErrorMessage } from "../../services/util/ErrorsUtils";
+import { SettingsService } from "../../services/Settings";
 
 jest.mock("../../services/reporter/TelemetryService");
 jest.mock("../../services/copybook/CopybookURI");
@@ -285,6 +286,97 @@ describe("LanguageClientService positive scenario", () => {
   });
 });
 
+describe("LanguageClientService class data sharing", () => {
+  beforeEach(() => {
+    languageClientService = new LanguageClientService(
+      vscode.window.createOutputChannel("test"),
+      vscode.Uri.file("/storagePath"),
+    );
+    languageClientService["extensionVersion"] = "2.0.0";
+    jest
+      .spyOn(SettingsService, "isClassDataSharingEnabled")
+      .mockReturnValue(true);
+    jest.spyOn(SettingsService, "getLspPort").mockReturnValue(undefined);
+    jest.spyOn(fs, "mkdirSync").mockReturnValue(undefined);
+  });
+
+  afterEach(() => {
+    jest.restoreAllMocks();
+  });
+
+  test("No archive flags when the setting is off", async () => {
+    jest
+      .spyOn(SettingsService, "isClassDataSharingEnabled")
+      .mockReturnValue(false);
+    const runtime = jest.spyOn(JavaCheck, "getJavaRuntime");
+
+    expect(await languageClientService["classDataSharingArgs"]()).toEqual([]);
+    expect(runtime).not.toHaveBeenCalled();
+  });
+
+  test("No archive flags when the server is not started with java", async () => {
+    const runtime = jest.spyOn(JavaCheck, "getJavaRuntime");
+    const port = jest.spyOn(SettingsService, "getLspPort");
+    port.mockReturnValue(9999);
+    expect(await languageClientService["classDataSharingArgs"]()).toEqual([]);
+    port.mockReturnValue(undefined);
+    languageClientService["isNativeBuildEnabled"] = true;
+    expect(await languageClientService["classDataSharingArgs"]()).toEqual([]);
+    expect(runtime).not.toHaveBeenCalled();
+  });
+
+  test("No archive flags before Java 13", async () => {
+    const runtime = jest.spyOn(JavaCheck, "getJavaRuntime");
+    runtime.mockResolvedValue({ version: "1.8.0_292", vendor: "Temurin" });
+    expect(await languageClientService["classDataSharingArgs"]()).toEqual([]);
+    runtime.mockResolvedValue({ version: "11.0.21", vendor: "Temurin" });
+    expect(await languageClientService["classDataSharingArgs"]()).toEqual([]);
+    runtime.mockResolvedValue(undefined);
+    expect(await languageClientService["classDataSharingArgs"]()).toEqual([]);
+  });
+
+  test("The archive is named by the extension and the Java runtime", async () => {
+    jest
+      .spyOn(JavaCheck, "getJavaRuntime")
+      .mockResolvedValue({ version: "17.0.2", vendor: "Eclipse Adoptium" });
+    const archive = join(
+      "/storagePath",
+      "server-2.0.0-17.0.2-Eclipse_Adoptium.jsa",
+    );
+    const exists = jest.spyOn(fs, "existsSync").mockReturnValue(false);
+
+    expect(await languageClientService["classDataSharingArgs"]()).toEqual([
+      "-XX:ArchiveClassesAtExit=" + archive,
+    ]);
+    exists.mockReturnValue(true);
+    expect(await languageClientService["classDataSharingArgs"]()).toEqual([
+      "-XX:SharedArchiveFile=" + archive,
+    ]);
+  });
+
+  test("The archive flags are passed to the started server", async () => {
+    jest
+      .spyOn(JavaCheck, "getJavaRuntime")
+      .mockResolvedValue({ version: "17.0.2", vendor: "Eclipse Adoptium" });
+    jest.spyOn(fs, "existsSync").mockReturnValue(true);
+    LanguageClient.prototype.start = jest.fn().mockResolvedValue(undefined);
+    const archive = join(
+      "/storagePath",
+      "server-2.0.0-17.0.2-Eclipse_Adoptium.jsa",
+    );
+
+    await languageClientService.start();
+    expect(LanguageClient).toHaveBeenCalledWith(
+      SERVER_ID,
+      SERVER_DESC,
+      expect.objectContaining({
+        args: expect.arrayContaining(["-XX:SharedArchiveFile=" + archive]),
+      }),
+      expect.anything(),
+    );
+  });
+});
+
 describe("LanguageClientService negative scenario.", () => {
   test("LSP port not defined and jar path doesn't exists", async () => {
     const mockProcess = mockSpawnProcess(
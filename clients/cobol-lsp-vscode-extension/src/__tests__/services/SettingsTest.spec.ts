@@ -166,6 +166,21 @@ describe("SettingsService evaluate variables", () => {
     SettingsService.serverRuntime();
     expect(tracking).toHaveBeenCalledWith("cobol-lsp.serverRuntime");
   });
+
+  test("Get class data sharing settings", () => {
+    vscode.workspace.getConfiguration = jest.fn().mockReturnValue({
+      get: jest.fn().mockReturnValue(undefined),
+    });
+    expect(SettingsService.isClassDataSharingEnabled()).toBe(false);
+    const tracking = jest.fn().mockReturnValue(true);
+    vscode.workspace.getConfiguration = jest.fn().mockReturnValue({
+      get: tracking,
+    });
+    expect(SettingsService.isClassDataSharingEnabled()).toBe(true);
+    expect(tracking).toHaveBeenCalledWith(
+      "cobol-lsp.server.class-data-sharing",
+    );
+  });
 });
 
 test("getWorkspaceFoldersPath return an array of paths", () => {
@@ -17,10 +17,67 @@ const versionPattern = new RegExp(
   '(java|openjdk) (version)? ?"?((9|[0-9][0-9])|(1|9|[0-9][0-9]).(1|8|[0-9][0-9]).*).*',
 );
 
+const javaVersionProperty = /^\s*java\.version = (.+)$/m;
+const javaVendorProperty = /^\s*java\.vendor = (.+)$/m;
+
+export interface JavaRuntime {
+  version: string;
+  vendor: string;
+}
+
 export class JavaCheck {
+  private static runtimes = new Map<string, Promise<JavaRuntime | undefined>>();
+
   public static isJavaVersionSupported(versionString: string) {
     return versionPattern.test(versionString);
   }
+
+  /**
+   * Read the version and the vendor of the JVM that runs the server. The java command is run once
+   * per java path, the next calls share its result.
+   * @param javaPath the java command
+   * @returns the runtime or undefined if the java command fails or doesn't print them
+   */
+  public static getJavaRuntime(
+    javaPath: string = "java",
+  ): Promise<JavaRuntime | undefined> {
+    let runtime = JavaCheck.runtimes.get(javaPath);
+    if (!runtime) {
+      runtime = new Promise((resolve) => {
+        cp.execFile(
+          javaPath,
+          ["-XshowSettings:properties", "-version"],
+          { encoding: "utf8" },
+          (error, _stdout, stderr) =>
+            resolve(error ? undefined : JavaCheck.parseJavaRuntime(stderr)),
+        );
+      });
+      JavaCheck.runtimes.set(javaPath, runtime);
+      // Java may be installed later, so only the found runtimes are kept
+      runtime.then((result) => {
+        if (!result) {
+          JavaCheck.runtimes.delete(javaPath);
+        }
+      });
+    }
+    return runtime;
+  }
+
+  public static parseJavaRuntime(properties: string): JavaRuntime | undefined {
+    const version = javaVersionProperty.exec(properties)?.[1].trim();
+    const vendor = javaVendorProperty.exec(properties)?.[1].trim();
+    return version && vendor ? { version, vendor } : undefined;
+  }
+
+  /**
+   * Get the feature release of a java.version, e.g. 8 for 1.8.0_292 and 17 for 17.0.2
+   * @returns the major version or 0 if it cannot be parsed
+   */
+  public static getMajorVersion(version: string): number {
+    const parts = version.split(/[.\-+_]/);
+    const major = parseInt(parts[0] === "1" ? parts[1] : parts[0], 10);
+    return isNaN(major) ? 0 : major;
+  }
   public async isJavaInstalled() {
     return new Promise((resolve, reject) => {
       let resolved = false;
@@ -32,20 +32,25 @@ import { TelemetryService } from "./reporter/TelemetryService";
 import { SettingsService } from "./Settings";
 
 const extensionId = "BroadcomMFD.cobol-language-support";
+// -XX:ArchiveClassesAtExit creates dynamic archives since Java 13
+const MIN_DYNAMIC_CDS_JAVA_VERSION = 13;
 
 export class LanguageClientService {
   private executablePath: string;
+  private extensionVersion: string;
   private dialectsPath: string;
   private languageClient: LanguageClient | undefined;
   private handlers: Array<(languageClient: LanguageClient) => void> = [];
   private isNativeBuildEnabled: boolean = false;
   private executableService: NativeExecutableService;
+  private dataSharingArgs: string[] = [];
 
   constructor(
     private outputChannel: vscode.OutputChannel,
     private storagePath: vscode.Uri,
   ) {
     const ext = vscode.extensions.getExtension(extensionId)!;
+    this.extensionVersion = ext.packageJSON?.version;
     this.executablePath = join(
       ext.extensionPath,
       "server",
@@ -118,6 +123,9 @@ export class LanguageClientService {
   }
 
   public async start() {
+    if (!this.languageClient) {
+      this.dataSharingArgs = await this.classDataSharingArgs();
+    }
     const languageClient = this.getLanguageClient();
     await languageClient.start();
     this.initHandlers();
@@ -185,6 +193,7 @@ export class LanguageClientService {
         "-Dline.separator=\r\n",
         "-Ddialect.path=" + this.dialectsPath,
         "-Xmx768M",
+        ...this.dataSharingArgs,
         "-jar",
         jarPath,
         "pipeEnabled",
@@ -193,4 +202,36 @@ export class LanguageClientService {
       options: { detached: false },
     };
   }
+
+  private async classDataSharingArgs(): Promise<string[]> {
+    if (
+      !SettingsService.isClassDataSharingEnabled() ||
+      this.isNativeBuildEnabled ||
+      SettingsService.getLspPort()
+    ) {
+      return [];
+    }
+    const runtime = await JavaCheck.getJavaRuntime();
+    if (
+      !runtime ||
+      JavaCheck.getMajorVersion(runtime.version) < MIN_DYNAMIC_CDS_JAVA_VERSION
+    ) {
+      return [];
+    }
+    // The archive is valid only for the jar and the JVM it was created with
+    const archive = join(
+      this.storagePath.fsPath,
+      `server-${this.extensionVersion}-${toFileName(runtime.version)}-${toFileName(runtime.vendor)}.jsa`,
+    );
+    fs.mkdirSync(this.storagePath.fsPath, { recursive: true });
+    return [
+      fs.existsSync(archive)
+        ? "-XX:SharedArchiveFile=" + archive
+        : "-XX:ArchiveClassesAtExit=" + archive,
+    ];
+  }
+}
+
+function toFileName(value: string): string {
+  return value.replace(/[^A-Za-z0-9._-]+/g, "_");
 }
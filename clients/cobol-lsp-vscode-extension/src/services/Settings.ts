@@ -19,6 +19,7 @@ import {
   PATHS_LOCAL_KEY,
   PATHS_USS,
   PATHS_DSN,
+  SERVER_CDS,
   SERVER_PORT,
   SERVER_RUNTIME,
   SETTINGS_CPY_EXTENSIONS,
@@ -312,6 +313,15 @@ export class SettingsService {
     return vscode.workspace.getConfiguration().get(SERVER_RUNTIME);
   }
 
+  /**
+   * Check if the Java server should use a class data sharing archive
+   *
+   * @returns true if class data sharing is enabled
+   */
+  public static isClassDataSharingEnabled(): boolean {
+    return !!vscode.workspace.getConfiguration().get(SERVER_CDS);
+  }
+
   public static getCobolProgramLayout() {
     return vscode.workspace.getConfiguration().get(COBOL_PRGM_LAYOUT);
   }
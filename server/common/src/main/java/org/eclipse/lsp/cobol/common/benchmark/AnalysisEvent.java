@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.common.benchmark;
+
+/**
+ * A JDK Flight Recorder event of the analysis. The event is recorded only if the runtime supports
+ * JFR and a recording with the event enabled is running, otherwise all the methods do nothing.
+ *
+ * <p>Usage: {@code AnalysisEvent event = AnalysisEvent.begin(type, name, uri); ... event.end(outcome);}
+ */
+public final class AnalysisEvent {
+  private static final boolean JFR_AVAILABLE = isJfrAvailable();
+  private static final AnalysisEvent DISABLED = new AnalysisEvent(null);
+
+  private final AnalysisJfrEvents.Base event;
+
+  /** The type of the analysis event */
+  public enum Type {
+    PIPELINE_STAGE,
+    PROCESSOR_PHASE,
+    DIALECT,
+    COPYBOOK_RESOLVE,
+    MESSAGE_QUEUE
+  }
+
+  private AnalysisEvent(AnalysisJfrEvents.Base event) {
+    this.event = event;
+  }
+
+  /**
+   * Start the event
+   *
+   * @param type the event type
+   * @param name the name of the stage, phase, dialect, copybook or message
+   * @param uri the document URI, may be null
+   * @return the started event
+   */
+  public static AnalysisEvent begin(Type type, String name, String uri) {
+    if (!JFR_AVAILABLE) {
+      return DISABLED;
+    }
+    AnalysisJfrEvents.Base event = AnalysisJfrEvents.create(type);
+    if (!event.isEnabled()) {
+      return DISABLED;
+    }
+    event.name = name;
+    event.uri = uri;
+    event.begin();
+    return new AnalysisEvent(event);
+  }
+
+  /**
+   * Set the size of the processed document or copybook
+   *
+   * @param size the size in characters
+   * @return this event
+   */
+  public AnalysisEvent size(long size) {
+    if (event != null) {
+      event.size = size;
+    }
+    return this;
+  }
+
+  /**
+   * Check if the event is recorded
+   *
+   * @return true if a recording with this event is running
+   */
+  public boolean isRecorded() {
+    return event != null;
+  }
+
+  /**
+   * End the event and commit it to the recording
+   *
+   * @param outcome the outcome of the operation
+   */
+  public void end(String outcome) {
+    if (event != null) {
+      event.outcome = outcome;
+      event.end();
+      if (event.shouldCommit()) {
+        event.commit();
+      }
+    }
+  }
+
+  private static boolean isJfrAvailable() {
+    try {
+      Class.forName("jdk.jfr.Event", false, AnalysisEvent.class.getClassLoader());
+      return true;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+}
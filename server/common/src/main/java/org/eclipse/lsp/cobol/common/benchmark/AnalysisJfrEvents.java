@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.common.benchmark;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event types of the analysis. This class is loaded only if the runtime
+ * supports JFR, see {@link AnalysisEvent}.
+ */
+final class AnalysisJfrEvents {
+  private static final String CATEGORY = "COBOL Language Support";
+
+  private AnalysisJfrEvents() {
+  }
+
+  static Base create(AnalysisEvent.Type type) {
+    switch (type) {
+      case PIPELINE_STAGE:
+        return new PipelineStage();
+      case PROCESSOR_PHASE:
+        return new ProcessorPhase();
+      case DIALECT:
+        return new Dialect();
+      case COPYBOOK_RESOLVE:
+        return new CopybookResolve();
+      default:
+        return new MessageQueue();
+    }
+  }
+
+  /** Common fields of the analysis events */
+  @Category({CATEGORY, "Analysis"})
+  @StackTrace(false)
+  abstract static class Base extends Event {
+    @Label("Name")
+    String name;
+
+    @Label("Document URI")
+    String uri;
+
+    @Label("Size")
+    @Description("The size of the processed text in characters")
+    long size;
+
+    @Label("Outcome")
+    String outcome;
+  }
+
+  /** Pipeline stage execution */
+  @Name("org.eclipse.lsp.cobol.PipelineStage")
+  @Label("Pipeline Stage")
+  static final class PipelineStage extends Base {
+  }
+
+  /** Syntax tree processing phase */
+  @Name("org.eclipse.lsp.cobol.ProcessorPhase")
+  @Label("Processor Phase")
+  static final class ProcessorPhase extends Base {
+  }
+
+  /** Dialect text processing */
+  @Name("org.eclipse.lsp.cobol.Dialect")
+  @Label("Dialect Processing")
+  static final class Dialect extends Base {
+  }
+
+  /** Copybook resolution, the outcome is "hit" or "miss" of the copybook cache */
+  @Name("org.eclipse.lsp.cobol.CopybookResolve")
+  @Label("Copybook Resolve")
+  static final class CopybookResolve extends Base {
+  }
+
+  /** The time a LSP message waits in the queue before it is processed */
+  @Name("org.eclipse.lsp.cobol.MessageQueue")
+  @Label("LSP Message Queueing")
+  static final class MessageQueue extends Base {
+  }
+}
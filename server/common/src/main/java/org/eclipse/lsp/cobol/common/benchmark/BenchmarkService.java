@@ -18,6 +18,7 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
 import java.util.List;
+import java.util.Map;
 
 /** Collecting timing data. */
 public interface BenchmarkService {
@@ -46,4 +47,49 @@ public interface BenchmarkService {
    * Log accumulated timing information.
    */
   void logTiming();
+
+  /**
+   * Log timing information of the finished session and add its measurements to the stage
+   * latencies. The session is logged only once.
+   *
+   * @param session the finished benchmark session
+   */
+  void logTiming(BenchmarkSession session);
+
+  /**
+   * Get latency histograms of the logged sessions by measurement id.
+   *
+   * @return a map of stage latencies
+   */
+  Map<String, LatencyHistogram> getStageLatencies();
+
+  /**
+   * Generate json object with stage latencies
+   *
+   * @return a json object with count, percentiles and max latency in seconds for each stage
+   */
+  JsonObject stageLatenciesToJson();
+
+  /**
+   * Record a lookup in a cache that saves the analysis work
+   *
+   * @param cacheId the id of the cache
+   * @param hit true if the lookup returned a cached value
+   * @param savedTime the time in nanoseconds that the hit saved, ignored for misses
+   */
+  void logCacheLookup(String cacheId, boolean hit, long savedTime);
+
+  /**
+   * Get the statistics of the cache lookups by cache id.
+   *
+   * @return a map of cache statistics
+   */
+  Map<String, CacheStatistics> getCacheStatistics();
+
+  /**
+   * Generate json object with cache statistics
+   *
+   * @return a json object with hits, misses, hit rate and saved time in seconds for each cache
+   */
+  JsonObject cacheStatisticsToJson();
 }
@@ -16,6 +16,7 @@ package org.eclipse.lsp.cobol.common.benchmark;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,24 +26,44 @@ import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.text.DecimalFormat;
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+/**
+ * Keeps the latest benchmark sessions in a ring buffer of a fixed capacity, so a long-living server
+ * doesn't accumulate them. The measurements of the logged sessions are aggregated into per-stage
+ * latency histograms.
+ */
 public class BenchmarkServiceImpl implements BenchmarkService {
   private final static Logger LOG = LoggerFactory.getLogger(BenchmarkServiceImpl.class);
   private static final String PERFORMANCE_LOG_PATH = "performance.log.path";
-  private final List<BenchmarkSession> benchmarkSessions = new CopyOnWriteArrayList<>();
+  private static final int DEFAULT_CAPACITY = 100;
+  private static final double NANOS_IN_SECOND = 1_000_000_000.0;
+  private final BenchmarkSession[] benchmarkSessions;
+  private long sessionCount;
+  private final Map<String, LatencyHistogram> stageLatencies = new ConcurrentHashMap<>();
+  private final Map<String, CacheStatistics> cacheStatistics = new ConcurrentHashMap<>();
+
+  public BenchmarkServiceImpl() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public BenchmarkServiceImpl(int capacity) {
+    benchmarkSessions = new BenchmarkSession[capacity];
+  }
 
   @Override
   public BenchmarkSession startSession() {
     BenchmarkSession session = new BenchmarkSession();
-    benchmarkSessions.add(session);
+    synchronized (benchmarkSessions) {
+      benchmarkSessions[(int) (sessionCount++ % benchmarkSessions.length)] = session;
+    }
     return session;
   }
 
   @Override
   public List<Measurement> getMeasurements() {
-    return benchmarkSessions.stream()
+    return getSessions().stream()
             .flatMap(s -> s.getMeasurements().stream())
             .collect(Collectors.toList());
   }
@@ -50,7 +71,7 @@ public class BenchmarkServiceImpl implements BenchmarkService {
   @Override
   public List<JsonElement> toJsons() {
     Gson gson = new Gson();
-    return benchmarkSessions.stream()
+    return getSessions().stream()
             .flatMap(s -> s.getMeasurements().stream())
             .map(gson::toJsonTree)
             .collect(Collectors.toList());
@@ -58,13 +79,73 @@ public class BenchmarkServiceImpl implements BenchmarkService {
 
   @Override
   public void logTiming() {
-    benchmarkSessions.forEach(this::logTiming);
+    getSessions().forEach(this::logTiming);
+  }
+
+  @Override
+  public Map<String, LatencyHistogram> getStageLatencies() {
+    return Collections.unmodifiableMap(new TreeMap<>(stageLatencies));
+  }
+
+  @Override
+  public JsonObject stageLatenciesToJson() {
+    JsonObject result = new JsonObject();
+    getStageLatencies().forEach((id, histogram) -> {
+      JsonObject stage = new JsonObject();
+      stage.addProperty("count", histogram.getCount());
+      stage.addProperty("p50", histogram.getValueAtPercentile(50) / NANOS_IN_SECOND);
+      stage.addProperty("p95", histogram.getValueAtPercentile(95) / NANOS_IN_SECOND);
+      stage.addProperty("p99", histogram.getValueAtPercentile(99) / NANOS_IN_SECOND);
+      stage.addProperty("max", histogram.getMax() / NANOS_IN_SECOND);
+      result.add(id, stage);
+    });
+    return result;
+  }
+
+  @Override
+  public void logCacheLookup(String cacheId, boolean hit, long savedTime) {
+    cacheStatistics.computeIfAbsent(cacheId, id -> new CacheStatistics()).record(hit, savedTime);
+  }
+
+  @Override
+  public Map<String, CacheStatistics> getCacheStatistics() {
+    return Collections.unmodifiableMap(new TreeMap<>(cacheStatistics));
+  }
+
+  @Override
+  public JsonObject cacheStatisticsToJson() {
+    JsonObject result = new JsonObject();
+    getCacheStatistics().forEach((id, statistics) -> {
+      JsonObject cache = new JsonObject();
+      cache.addProperty("hits", statistics.getHits());
+      cache.addProperty("misses", statistics.getMisses());
+      cache.addProperty("hitRate", statistics.getHitRate());
+      cache.addProperty("saved", statistics.getSavedTime() / NANOS_IN_SECOND);
+      result.add(id, cache);
+    });
+    return result;
   }
 
+  private List<BenchmarkSession> getSessions() {
+    synchronized (benchmarkSessions) {
+      int capacity = benchmarkSessions.length;
+      List<BenchmarkSession> result = new ArrayList<>(capacity);
+      for (long i = Math.max(0, sessionCount - capacity); i < sessionCount; i++) {
+        result.add(benchmarkSessions[(int) (i % capacity)]);
+      }
+      return result;
+    }
+  }
+
+  @Override
   public void logTiming(BenchmarkSession benchmarkSession) {
+    if (!benchmarkSession.markLogged()) {
+      return;
+    }
     LOG.debug("---- Benchmark for uri : {}", benchmarkSession.attr("uri"));
     Collection<Measurement> measurements = benchmarkSession
             .getMeasurements();
+    measurements.forEach(m -> stageLatencies.computeIfAbsent(m.getId(), id -> new LatencyHistogram()).record(m.getTime()));
 
     measurements
             .forEach(m -> LOG.debug("Timing for {}: {} ns", m.getId(), new DecimalFormat("#,###")
@@ -18,12 +18,14 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
 @Slf4j
 public class BenchmarkSession {
   private final Map<String, Measurement> measurementMap = new ConcurrentHashMap<>();
   private final Map<String, String> attributes = new ConcurrentHashMap<>();
+  private final AtomicBoolean logged = new AtomicBoolean();
 
   /**
    * Measure run time of supplier
@@ -66,4 +68,13 @@ public class BenchmarkSession {
   public String attr(String key) {
     return attributes.get(key);
   }
+
+  /**
+   * Mark the session as logged
+   *
+   * @return true if the session was not logged before
+   */
+  boolean markLogged() {
+    return logged.compareAndSet(false, true);
+  }
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.common.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Publishes the stage latencies and cache statistics of the benchmark service as a platform MXBean. */
+@Slf4j
+public class BenchmarkStatistics implements BenchmarkStatisticsMXBean {
+  private static final String OBJECT_NAME = "org.eclipse.lsp.cobol:type=BenchmarkStatistics";
+  private final BenchmarkService benchmarkService;
+
+  public BenchmarkStatistics(BenchmarkService benchmarkService) {
+    this.benchmarkService = benchmarkService;
+  }
+
+  @Override
+  public Map<String, String> getStageLatencies() {
+    Map<String, String> result = new LinkedHashMap<>();
+    benchmarkService.getStageLatencies().forEach((id, histogram) -> result.put(id, histogram.toString()));
+    return result;
+  }
+
+  @Override
+  public Map<String, String> getCacheStatistics() {
+    Map<String, String> result = new LinkedHashMap<>();
+    benchmarkService.getCacheStatistics().forEach((id, statistics) -> result.put(id, statistics.toString()));
+    return result;
+  }
+
+  /**
+   * Register the statistics of the benchmark service in the platform MBean server
+   *
+   * @param benchmarkService the benchmark service
+   */
+  public static void register(BenchmarkService benchmarkService) {
+    try {
+      ObjectName name = new ObjectName(OBJECT_NAME);
+      if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new BenchmarkStatistics(benchmarkService), name);
+      }
+    } catch (JMException e) {
+      LOG.warn("Cannot register benchmark statistics: {}", e.getMessage());
+    }
+  }
+}
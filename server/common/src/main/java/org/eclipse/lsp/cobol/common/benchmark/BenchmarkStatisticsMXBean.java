@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.common.benchmark;
+
+import java.util.Map;
+
+/** JMX view of the stage latencies collected by {@link BenchmarkService}. */
+public interface BenchmarkStatisticsMXBean {
+  /**
+   * Get the latency summary of each stage
+   *
+   * @return a map of stage id to the count, percentiles and max latency in nanoseconds
+   */
+  Map<String, String> getStageLatencies();
+
+  /**
+   * Get the hits, misses and saved time of each cache
+   *
+   * @return a map of cache id to its statistics
+   */
+  Map<String, String> getCacheStatistics();
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.common.benchmark;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/** The hits, misses and the time saved by one cache. */
+public class CacheStatistics {
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong savedTime = new AtomicLong();
+
+  /**
+   * Record a lookup in the cache
+   *
+   * @param hit true if the lookup returned a cached value
+   * @param saved the time in nanoseconds that the hit saved, ignored for misses
+   */
+  public void record(boolean hit, long saved) {
+    if (hit) {
+      hits.incrementAndGet();
+      savedTime.addAndGet(Math.max(0, saved));
+    } else {
+      misses.incrementAndGet();
+    }
+  }
+
+  /**
+   * Returns the number of lookups that returned a cached value
+   *
+   * @return the number of hits
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * Returns the number of lookups that did not find a valid value
+   *
+   * @return the number of misses
+   */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /**
+   * Returns the total time that the hits saved
+   *
+   * @return the saved time in nanoseconds
+   */
+  public long getSavedTime() {
+    return savedTime.get();
+  }
+
+  /**
+   * Returns the ratio of hits to all the lookups
+   *
+   * @return the hit rate from 0 to 1, or 0 if there were no lookups
+   */
+  public double getHitRate() {
+    long hitCount = hits.get();
+    long total = hitCount + misses.get();
+    return total == 0 ? 0 : (double) hitCount / total;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("hits=%d, misses=%d, hitRate=%.2f, saved=%d", getHits(), getMisses(), getHitRate(), getSavedTime());
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.common.benchmark;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of the latencies in nanoseconds with the fixed memory footprint. The values are
+ * counted in buckets, that are linear inside each power of two range, like in HdrHistogram, so the
+ * percentiles are reported with the relative error below 1% (at most 1/128 with 128 sub-buckets
+ * per power of two).
+ */
+public class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 8;
+  private static final int HALF_SUB_BUCKET_BITS = SUB_BUCKET_BITS - 1;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKET_COUNT = ((64 - SUB_BUCKET_BITS) << HALF_SUB_BUCKET_BITS) + SUB_BUCKET_COUNT;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+  private final AtomicLong totalCount = new AtomicLong();
+  private final AtomicLong maxValue = new AtomicLong();
+
+  /**
+   * Record the value. The negative values are recorded as zero.
+   *
+   * @param value the latency in nanoseconds
+   */
+  public void record(long value) {
+    long nonNegative = Math.max(0, value);
+    counts.incrementAndGet(indexOf(nonNegative));
+    totalCount.incrementAndGet();
+    maxValue.accumulateAndGet(nonNegative, Math::max);
+  }
+
+  /**
+   * Returns the number of the recorded values
+   *
+   * @return the number of values
+   */
+  public long getCount() {
+    return totalCount.get();
+  }
+
+  /**
+   * Returns the maximal recorded value
+   *
+   * @return the maximal value or 0 if there are no values
+   */
+  public long getMax() {
+    return maxValue.get();
+  }
+
+  /**
+   * Returns the value at the given percentile. The value is the highest value that is equivalent
+   * to the recorded ones within the precision of the histogram, but not above the maximal value.
+   *
+   * @param percentile the percentile between 0 and 100
+   * @return the value at the percentile or 0 if there are no values
+   */
+  public long getValueAtPercentile(double percentile) {
+    long count = totalCount.get();
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * count));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += counts.get(i);
+      if (seen >= rank) {
+        return Math.min(highestValueOf(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("count=%d, p50=%d, p95=%d, p99=%d, max=%d",
+        getCount(), getValueAtPercentile(50), getValueAtPercentile(95), getValueAtPercentile(99), getMax());
+  }
+
+  static int indexOf(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return (shift << HALF_SUB_BUCKET_BITS) + (int) (value >>> shift);
+  }
+
+  static long highestValueOf(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    int shift = (index >> HALF_SUB_BUCKET_BITS) - 1;
+    long lowest = (long) (index - (shift << HALF_SUB_BUCKET_BITS)) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+}
@@ -82,4 +82,13 @@ public interface CopybookService {
    */
   Set<CopybookModel> getCopybookUsage(String documentUri);
 
+  /**
+   * Register the copybooks used by a document without resolving them, e.g. when the result of its
+   * previous analysis is reused
+   *
+   * @param documentUri  current document uri.
+   * @param copybooks the copybooks used by the document
+   */
+  void registerCopybookUsage(String documentUri, Collection<CopybookModel> copybooks);
+
 }
@@ -14,11 +14,16 @@
  */
 package org.eclipse.lsp.cobol.common.file;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import java.io.*;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
@@ -26,6 +31,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.List;
 import java.util.function.BiPredicate;
@@ -43,6 +49,24 @@ import org.eclipse.lsp.cobol.common.utils.ImplicitCodeUtils;
  */
 @Slf4j
 public class WorkspaceFileService implements FileSystemService {
+  private static final byte EBCDIC_SPACE = 0x40;
+  private static final byte EBCDIC_NEW_LINE_BYTE = 0x15;
+  private static final byte EBCDIC_LINE_FEED_BYTE = 0x25;
+  private static final char EBCDIC_NEW_LINE = '\u0085';
+  private static final int EBCDIC_RECORD_LENGTH = 80;
+  private static final int PATTERN_CACHE_SIZE = 100;
+  private static final Charset EBCDIC = Charset.isSupported("IBM1047") ? Charset.forName("IBM1047") : null;
+  private static final Pattern LINE_BREAK = Pattern.compile("\r\n?");
+  private static final ThreadLocal<CharsetDecoder> UTF_8_DECODER =
+      ThreadLocal.withInitial(
+          () ->
+              StandardCharsets.UTF_8
+                  .newDecoder()
+                  .onMalformedInput(CodingErrorAction.REPLACE)
+                  .onUnmappableCharacter(CodingErrorAction.REPLACE));
+
+  private final Cache<String, Pattern> patterns = CacheBuilder.newBuilder().maximumSize(PATTERN_CACHE_SIZE).build();
+
   public WorkspaceFileService() {
   }
 
@@ -71,24 +95,103 @@ public class WorkspaceFileService implements FileSystemService {
   @Nullable
   @Override
   public String getContentByPath(@NonNull Path path) {
-    CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
-    decoder.onMalformedInput(CodingErrorAction.REPLACE);
-    try (FileInputStream input = new FileInputStream(path.toFile());
-         InputStreamReader reader = new InputStreamReader(input, decoder);
-         BufferedReader bufferedReader = new BufferedReader(reader)) {
-      StringBuilder sb = new StringBuilder();
-      String line = bufferedReader.readLine();
-      while (line != null) {
-        sb.append(line).append("\n");
-        line = bufferedReader.readLine();
-      }
-      return sb.toString();
+    try {
+      return toLines(decode(read(path)));
     } catch (IOException e) {
       LOG.error("Cannot get content of: {}", path, e);
       return null;
     }
   }
 
+  /** Read the whole file into a heap buffer, a mapped buffer would keep the file locked on Windows */
+  private static ByteBuffer read(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+      while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+        // read until the buffer is full or the end of the file
+      }
+      buffer.flip();
+      return buffer;
+    }
+  }
+
+  /**
+   * Decode the file content. Pure ASCII content is copied as is, content that looks like EBCDIC is
+   * decoded with the IBM-1047 code page, everything else is decoded as UTF-8 replacing malformed
+   * input.
+   */
+  private static String decode(ByteBuffer bytes) throws CharacterCodingException {
+    int lineBreaks = 0;
+    int asciiSpaces = 0;
+    int ebcdicSpaces = 0;
+    int ebcdicNewLines = 0;
+    int highBytes = 0;
+    for (int i = bytes.position(); i < bytes.limit(); i++) {
+      byte b = bytes.get(i);
+      if (b < 0) {
+        highBytes++;
+      } else if (b == '\n' || b == '\r') {
+        lineBreaks++;
+      } else if (b == ' ') {
+        asciiSpaces++;
+      } else if (b == EBCDIC_SPACE) {
+        ebcdicSpaces++;
+      } else if (b == EBCDIC_NEW_LINE_BYTE || b == EBCDIC_LINE_FEED_BYTE) {
+        ebcdicNewLines++;
+      }
+    }
+    if (highBytes == 0) {
+      return StandardCharsets.ISO_8859_1.decode(bytes).toString();
+    }
+    if (EBCDIC != null && lineBreaks == 0 && asciiSpaces == 0
+        && looksLikeEbcdic(bytes, ebcdicSpaces, ebcdicNewLines, highBytes)) {
+      return fromEbcdic(EBCDIC.decode(bytes).toString());
+    }
+    return UTF_8_DECODER.get().reset().decode(bytes).toString();
+  }
+
+  /**
+   * The content without ASCII line breaks and spaces looks like EBCDIC when it is at least one
+   * record long, it is split into lines by NEL or LF characters or has the length of whole 80-byte
+   * records, the spaces make at least a tenth of it, and it is not a valid UTF-8 text.
+   */
+  private static boolean looksLikeEbcdic(ByteBuffer bytes, int spaces, int newLines, int highBytes) {
+    int length = bytes.remaining();
+    if (length < EBCDIC_RECORD_LENGTH
+        || newLines == 0 && length % EBCDIC_RECORD_LENGTH != 0
+        || spaces * 10 < length
+        || highBytes * 10 < length) {
+      return false;
+    }
+    try {
+      StandardCharsets.UTF_8.newDecoder().decode(bytes.duplicate());
+      return false;
+    } catch (CharacterCodingException e) {
+      return true;
+    }
+  }
+
+  private static String fromEbcdic(String text) {
+    String lines = text.replace(EBCDIC_NEW_LINE, '\n');
+    if (lines.indexOf('\n') >= 0 || lines.length() % EBCDIC_RECORD_LENGTH != 0) {
+      return lines;
+    }
+    StringBuilder records = new StringBuilder(lines.length() + lines.length() / EBCDIC_RECORD_LENGTH);
+    for (int i = 0; i < lines.length(); i += EBCDIC_RECORD_LENGTH) {
+      records.append(lines, i, i + EBCDIC_RECORD_LENGTH).append('\n');
+    }
+    return records.toString();
+  }
+
+  /** Terminate every line with a line feed, the same way as reading the text line by line does */
+  private static String toLines(String text) {
+    if (text.isEmpty()) {
+      return text;
+    }
+    String lines = text.indexOf('\r') < 0 ? text : LINE_BREAK.matcher(text).replaceAll("\n");
+    return lines.endsWith("\n") ? lines : lines + "\n";
+  }
+
   @Override
   @Nullable
   public Path getPathFromURI(@NonNull String uri) {
@@ -130,9 +233,18 @@ public class WorkspaceFileService implements FileSystemService {
       maxDepth = pathSplittedByFirstAsterisk[1].split("/").length + 1;
     }
 
+    final Pattern pattern = isPathContainsAsterisk
+            ? getPattern(pathSplittedByFirstAsterisk[1])
+            : null;
     BiPredicate<Path, BasicFileAttributes> pathBasicFileAttributesBiPredicate = (a, c) -> {
+      if (pattern == null) {
+        return true;
+      }
+      if (c.isDirectory()) {
+        return false;
+      }
       final String uriPath = a.toUri().getPath().replace("\\\\", "/");
-      return !isPathContainsAsterisk || Pattern.compile(pathSplittedByFirstAsterisk[1]).matcher(uriPath).find();
+      return pattern.matcher(uriPath).find();
     };
     Path start = Paths.get(pathToResolve);
     if (!Files.isDirectory(start)) {
@@ -150,6 +262,15 @@ public class WorkspaceFileService implements FileSystemService {
     return ImmutableList.of();
   }
 
+  private Pattern getPattern(String regex) {
+    Pattern pattern = patterns.getIfPresent(regex);
+    if (pattern == null) {
+      pattern = Pattern.compile(regex);
+      patterns.put(regex, pattern);
+    }
+    return pattern;
+  }
+
   /**
    * Reads implicit content
    *
@@ -35,6 +35,11 @@ public class ExtendedDocument {
   private final ExtendedText currentText;
   @Getter
   private boolean dirty;
+  private String snapshot;
+  @Getter
+  private int snapshotBuilds;
+  @Getter
+  private int snapshotReuses;
 
   public ExtendedDocument(String text, String uri) {
     originalText = text;
@@ -89,6 +94,7 @@ public class ExtendedDocument {
         baseText.add(line.shadowCopy());
       }
       dirty = false;
+      snapshot = null;
     }
   }
 
@@ -110,7 +116,7 @@ public class ExtendedDocument {
   public void insertCopybook(Range copyStatementRange, ExtendedText copybook) {
     copyStatementRange = updateRangeDueToChanges(copyStatementRange);
     currentText.insert(copyStatementRange, copybook);
-    dirty = true;
+    markChanged();
   }
 
   /**
@@ -121,7 +127,7 @@ public class ExtendedDocument {
   public void insertCopybookWithPadding(Range copyStatementRange, ExtendedText copybook) {
     copyStatementRange = updateRangeDueToChanges(copyStatementRange);
     currentText.insertWithPadding(copyStatementRange, copybook);
-    dirty = true;
+    markChanged();
   }
 
   /**
@@ -132,7 +138,7 @@ public class ExtendedDocument {
   public void insertCopybook(int line, ExtendedText copybook) {
     int updatedLine = updateLineDueToChanges(line);
     currentText.insert(updatedLine, copybook, new Location(currentText.getUri(), new Range(new Position(line, 0), new Position(line, 0))));
-    dirty = true;
+    markChanged();
   }
 
   /**
@@ -143,7 +149,7 @@ public class ExtendedDocument {
   public void replace(Range range, String newText) {
     Range updatedRange = updateRangeDueToChanges(range);
     currentText.replace(updatedRange, newText, mapLocation(range));
-    dirty = true;
+    markChanged();
   }
 
   /**
@@ -155,7 +161,7 @@ public class ExtendedDocument {
     Range updatedRange = updateRangeDueToChanges(range);
     currentText.clear(updatedRange);
     currentText.append(updatedRange.getStart().getLine(), textLine);
-    dirty = true;
+    markChanged();
   }
 
   /**
@@ -165,7 +171,7 @@ public class ExtendedDocument {
   public void clear(Range range) {
     range = updateRangeDueToChanges(range);
     currentText.clear(range);
-    dirty = true;
+    markChanged();
   }
 
   /**
@@ -175,12 +181,33 @@ public class ExtendedDocument {
    */
   public void fillArea(Range range, char c) {
     currentText.fillArea(updateRangeDueToChanges(range), c);
-    dirty = true;
+    markChanged();
   }
 
+  /**
+   * Returns the committed text. The text is built once after a commit of the changes and reused
+   * until the next change, so the repeated calls from the different stages and dialects return the
+   * same string. Once the document is changed, the text is built on every call, since the committed
+   * lines share the characters with the current text.
+   * @return the committed text of the document
+   */
   @Override
   public String toString() {
-    return baseText.toString();
+    if (dirty) {
+      return baseText.toString();
+    }
+    if (snapshot == null) {
+      snapshot = baseText.toString();
+      snapshotBuilds++;
+    } else {
+      snapshotReuses++;
+    }
+    return snapshot;
+  }
+
+  private void markChanged() {
+    dirty = true;
+    snapshot = null;
   }
 
   /**
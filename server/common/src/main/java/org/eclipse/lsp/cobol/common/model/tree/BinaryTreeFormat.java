@@ -0,0 +1,384 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.common.model.tree;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import lombok.experimental.UtilityClass;
+import org.eclipse.lsp.cobol.common.model.Locality;
+import org.eclipse.lsp.cobol.common.model.ProcedureName;
+import org.eclipse.lsp.cobol.common.model.tree.variable.OccursClause;
+import org.eclipse.lsp.cobol.common.model.tree.variable.ValueClause;
+import org.eclipse.lsp.cobol.common.model.tree.variable.ValueInterval;
+import org.eclipse.lsp.cobol.common.model.tree.variable.VariableNameAndLocality;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+
+/**
+ * The compact binary format of the node trees, written by {@link BinaryTreeWriter} and read by
+ * {@link BinaryTreeReader}.
+ *
+ * <p>A stream starts with a header followed by a sequence of tagged values. Every string, class and
+ * class schema is written once and then referred to by its index. Every object is written once as
+ * well, the following occurrences refer to the first one, so the shared objects and the
+ * cross-references between the nodes, e.g. the definitions of a variable usage, keep their identity.
+ * The ranges are written as the line deltas from the previous range.
+ *
+ * <p>The objects are written field by field. Like in the JSON form, the static and the transient
+ * fields are skipped, the transient fields keep the values set by the constructor. The node
+ * children are written as a part of the node, and their parents are restored when they are attached
+ * back.
+ *
+ * <p>Only the allowed classes are read back: the nodes, the value types of their fields listed in
+ * {@link #VALUE_TYPES} and the ones the reader is given explicitly, the enums of the language
+ * server and LSP4J packages, and the collections of {@code java.util} and Guava. The objects are
+ * created with their public no-argument constructor if they have one, otherwise with the
+ * constructor with the fewest parameters given the default values, and then their fields are set.
+ */
+@UtilityClass
+class BinaryTreeFormat {
+  static final int MAGIC = 0x43415354;
+  static final int VERSION = 1;
+
+  static final int NULL = 0;
+  static final int REFERENCE = 1;
+  static final int STRING = 2;
+  static final int TRUE = 3;
+  static final int FALSE = 4;
+  static final int INT = 5;
+  static final int LONG = 6;
+  static final int DOUBLE = 7;
+  static final int FLOAT = 8;
+  static final int CHAR = 9;
+  static final int BYTE = 10;
+  static final int SHORT = 11;
+  static final int ENUM = 12;
+  static final int OBJECT = 13;
+  static final int COLLECTION = 14;
+  static final int MAP = 15;
+  static final int ARRAY = 16;
+  static final int OPTIONAL = 17;
+  static final int LOCALITY = 18;
+  static final int LOCATION = 19;
+  static final int RANGE = 20;
+  static final int POSITION = 21;
+  static final int MULTIMAP = 22;
+
+  static final int SAME_URI = 1;
+  static final int HAS_COPYBOOK_ID = 2;
+  static final int HAS_TOKEN = 4;
+
+  static final char CHILDREN = 'N';
+  static final char REFERENCE_FIELD = 'L';
+
+  /** The value types of the node fields that are read back */
+  static final Set<Class<?>> VALUE_TYPES =
+      Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+          Locality.class,
+          Location.class,
+          Range.class,
+          Position.class,
+          ProcedureName.class,
+          SubroutineDefinition.class,
+          OccursClause.class,
+          ValueClause.class,
+          ValueInterval.class,
+          VariableNameAndLocality.class)));
+
+  private static final String[] ENUM_PACKAGES = {"org.eclipse.lsp.cobol.", "org.eclipse.lsp4j."};
+  private static final String[] COLLECTION_PACKAGES = {"java.util.", "com.google.common.collect."};
+
+  private static final Map<Class<?>, Character> PRIMITIVE_KINDS = new HashMap<>();
+  private static final Map<String, Class<?>> PRIMITIVE_TYPES = new HashMap<>();
+  private static final Field CHILDREN_FIELD;
+  private static final Field PARENT_FIELD;
+
+  private static final ClassValue<Optional<Constructor<?>>> CONSTRUCTORS =
+      new ClassValue<Optional<Constructor<?>>>() {
+        @Override
+        protected Optional<Constructor<?>> computeValue(Class<?> type) {
+          return Optional.ofNullable(findConstructor(type));
+        }
+      };
+
+  private static final ClassValue<Schema> SCHEMAS =
+      new ClassValue<Schema>() {
+        @Override
+        protected Schema computeValue(Class<?> type) {
+          return new Schema(type);
+        }
+      };
+
+  static {
+    PRIMITIVE_KINDS.put(boolean.class, 'Z');
+    PRIMITIVE_KINDS.put(byte.class, 'B');
+    PRIMITIVE_KINDS.put(short.class, 'S');
+    PRIMITIVE_KINDS.put(char.class, 'C');
+    PRIMITIVE_KINDS.put(int.class, 'I');
+    PRIMITIVE_KINDS.put(long.class, 'J');
+    PRIMITIVE_KINDS.put(float.class, 'F');
+    PRIMITIVE_KINDS.put(double.class, 'D');
+    PRIMITIVE_KINDS.keySet().forEach(type -> PRIMITIVE_TYPES.put(type.getName(), type));
+    try {
+      CHILDREN_FIELD = Node.class.getDeclaredField("children");
+      CHILDREN_FIELD.setAccessible(true);
+      PARENT_FIELD = Node.class.getDeclaredField("parent");
+      PARENT_FIELD.setAccessible(true);
+    } catch (NoSuchFieldException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  /**
+   * Get the schema of the class
+   *
+   * @param type the class of the written objects
+   * @return the fields to write and the way to create the instances
+   */
+  static Schema schemaOf(Class<?> type) {
+    return SCHEMAS.get(type);
+  }
+
+  /**
+   * Attach the child to the node. Unlike {@link Node#addChild(Node)}, the parent is set directly,
+   * so the restored state of the child is not changed by the overridden setters.
+   *
+   * @param node the parent node
+   * @param child the child node
+   * @throws IllegalAccessException if the parent field cannot be set
+   */
+  static void attach(Node node, Node child) throws IllegalAccessException {
+    node.getChildren().add(child);
+    PARENT_FIELD.set(child, node);
+  }
+
+  /**
+   * Create an instance of a public class with its public no-argument constructor
+   *
+   * @param type the class
+   * @return the new instance or null if the class has no such constructor
+   * @throws ReflectiveOperationException if the constructor fails
+   */
+  static Object newPublicInstance(Class<?> type) throws ReflectiveOperationException {
+    Constructor<?> constructor = CONSTRUCTORS.get(type).orElse(null);
+    return constructor == null ? null : constructor.newInstance();
+  }
+
+  /**
+   * Check if the objects of the class can be read with their fields
+   *
+   * @param type the class
+   * @param valueTypes the additional value types allowed by the reader
+   * @return true if the class is a node or an allowed value type and can be instantiated
+   */
+  static boolean isReadableObject(Class<?> type, Set<Class<?>> valueTypes) {
+    if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+      return false;
+    }
+    return Node.class.isAssignableFrom(type) || VALUE_TYPES.contains(type) || valueTypes.contains(type);
+  }
+
+  /**
+   * Check if the constants of the enum can be read
+   *
+   * @param type the class
+   * @return true if the class is an enum of the language server or LSP4J
+   */
+  static boolean isReadableEnum(Class<?> type) {
+    return type.isEnum() && hasPackage(type, ENUM_PACKAGES);
+  }
+
+  /**
+   * Check if the class is a collection, map or multimap of {@code java.util} or Guava
+   *
+   * @param type the class
+   * @param kind the expected interface
+   * @return true if the class implements the interface and belongs to one of the packages
+   */
+  static boolean isReadableCollection(Class<?> type, Class<?> kind) {
+    return kind.isAssignableFrom(type) && hasPackage(type, COLLECTION_PACKAGES);
+  }
+
+  private static boolean hasPackage(Class<?> type, String[] packages) {
+    for (String prefix : packages) {
+      if (type.getName().startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Get the primitive class by its name
+   *
+   * @param name the name of the class
+   * @return the primitive class or null
+   */
+  static Class<?> primitiveType(String name) {
+    return PRIMITIVE_TYPES.get(name);
+  }
+
+  private static Constructor<?> findConstructor(Class<?> type) {
+    if (!Modifier.isPublic(type.getModifiers()) || Modifier.isAbstract(type.getModifiers())) {
+      return null;
+    }
+    try {
+      return type.getConstructor();
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  /** The fields of a class in the order they are written, from the top superclass down. */
+  static final class Schema {
+    final Class<?> type;
+    final Field[] fields;
+    final char[] kinds;
+    private final Map<String, Integer> positions = new HashMap<>();
+    private final Constructor<?> constructor;
+
+    private Schema(Class<?> type) {
+      this.type = type;
+      constructor = CONSTRUCTORS.get(type).orElseGet(() -> findShortestConstructor(type));
+      List<Field> result = new ArrayList<>();
+      collectFields(type, result);
+      fields = result.toArray(new Field[0]);
+      kinds = new char[fields.length];
+      for (int i = 0; i < fields.length; i++) {
+        fields[i].setAccessible(true);
+        kinds[i] = kindOf(fields[i]);
+        positions.put(fields[i].getName(), i);
+      }
+    }
+
+    /**
+     * Find the field by its name and kind
+     *
+     * @param name the field name
+     * @param kind the field kind
+     * @return the field or null if the class doesn't have a matching one
+     */
+    Field find(String name, char kind) {
+      Integer position = positions.get(name);
+      return position == null || kinds[position] != kind ? null : fields[position];
+    }
+
+    /**
+     * Create an instance of the class. The public no-argument constructor is used if it exists,
+     * otherwise the constructor with the fewest parameters is called with the default values of
+     * their types. The node children are reset, since they are read from the stream.
+     *
+     * @return the new instance
+     * @throws ReflectiveOperationException if the class cannot be instantiated
+     */
+    Object newInstance() throws ReflectiveOperationException {
+      if (constructor == null) {
+        throw new InstantiationException(type.getName() + " has no constructor");
+      }
+      Class<?>[] parameterTypes = constructor.getParameterTypes();
+      Object[] arguments = new Object[parameterTypes.length];
+      for (int i = 0; i < arguments.length; i++) {
+        arguments[i] = defaultValue(parameterTypes[i]);
+      }
+      Object instance = constructor.newInstance(arguments);
+      if (instance instanceof Node) {
+        CHILDREN_FIELD.set(instance, new NodeChildren((Node) instance));
+      }
+      return instance;
+    }
+
+    private static Constructor<?> findShortestConstructor(Class<?> type) {
+      Constructor<?> result = null;
+      for (Constructor<?> candidate : type.getDeclaredConstructors()) {
+        if (result == null || candidate.getParameterCount() < result.getParameterCount()) {
+          result = candidate;
+        }
+      }
+      if (result != null) {
+        result.setAccessible(true);
+      }
+      return result;
+    }
+
+    /** The value that lets the constructors run, the fields are overwritten with the read ones */
+    private static Object defaultValue(Class<?> type) {
+      if (type == String.class) {
+        return "";
+      }
+      if (type == Optional.class) {
+        return Optional.empty();
+      }
+      if (type == List.class || type == Collection.class) {
+        return new ArrayList<>();
+      }
+      if (type == Set.class) {
+        return new HashSet<>();
+      }
+      if (type == Map.class) {
+        return new HashMap<>();
+      }
+      if (!type.isPrimitive()) {
+        return null;
+      }
+      if (type == boolean.class) {
+        return false;
+      }
+      if (type == char.class) {
+        return (char) 0;
+      }
+      if (type == long.class) {
+        return 0L;
+      }
+      if (type == float.class) {
+        return 0F;
+      }
+      if (type == double.class) {
+        return 0D;
+      }
+      if (type == byte.class) {
+        return (byte) 0;
+      }
+      if (type == short.class) {
+        return (short) 0;
+      }
+      return 0;
+    }
+
+    private static void collectFields(Class<?> type, List<Field> result) {
+      if (type == null || type == Object.class) {
+        return;
+      }
+      collectFields(type.getSuperclass(), result);
+      for (Field field : type.getDeclaredFields()) {
+        int modifiers = field.getModifiers();
+        if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+          continue;
+        }
+        result.add(field);
+      }
+    }
+
+    private static char kindOf(Field field) {
+      if (field.equals(CHILDREN_FIELD)) {
+        return CHILDREN;
+      }
+      return PRIMITIVE_KINDS.getOrDefault(field.getType(), REFERENCE_FIELD);
+    }
+
+  }
+}
@@ -0,0 +1,612 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.common.model.tree;
+
+import static org.eclipse.lsp.cobol.common.model.tree.BinaryTreeFormat.*;
+
+import com.google.common.collect.*;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import org.eclipse.lsp.cobol.common.model.Locality;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+
+/**
+ * Reads the node trees and the values written by {@link BinaryTreeWriter}. The values are read in
+ * the order they were written. The node parents are restored, and the objects that were shared in
+ * the written trees are shared in the read ones. The stream can refer only to the classes allowed
+ * by {@link BinaryTreeFormat}, any other class fails the reading.
+ */
+public final class BinaryTreeReader implements Closeable {
+  private static final int BUFFER_SIZE = 8192;
+
+  private final InputStream in;
+  private final ClassLoader classLoader;
+  private final Set<Class<?>> valueTypes;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int position;
+  private int limit;
+
+  private final List<Object> objects = new ArrayList<>();
+  private final List<String> strings = new ArrayList<>();
+  private final List<Class<?>> classes = new ArrayList<>();
+  private final List<StreamSchema> schemas = new ArrayList<>();
+  private String lastUri;
+  private int lastLine;
+
+  /**
+   * Create a reader that resolves the classes with the class loader of the tree model
+   *
+   * @param in the source stream
+   * @throws IOException if the stream header cannot be read or is not valid
+   */
+  public BinaryTreeReader(InputStream in) throws IOException {
+    this(in, BinaryTreeReader.class.getClassLoader());
+  }
+
+  /**
+   * Create a reader
+   *
+   * @param in the source stream
+   * @param classLoader the class loader to resolve the classes of the written objects, e.g. the
+   *     dialect nodes
+   * @throws IOException if the stream header cannot be read or is not valid
+   */
+  public BinaryTreeReader(InputStream in, ClassLoader classLoader) throws IOException {
+    this(in, classLoader, Collections.emptySet());
+  }
+
+  /**
+   * Create a reader that accepts more value types than the ones of the node fields
+   *
+   * @param in the source stream
+   * @param classLoader the class loader to resolve the classes of the written objects
+   * @param valueTypes the other classes whose objects may be read, e.g. the containers of the trees
+   * @throws IOException if the stream header cannot be read or is not valid
+   */
+  public BinaryTreeReader(InputStream in, ClassLoader classLoader, Set<Class<?>> valueTypes) throws IOException {
+    this.in = in;
+    this.classLoader = classLoader;
+    this.valueTypes = valueTypes;
+    if (readFixedInt() != MAGIC) {
+      throw new IOException("Not a binary tree stream");
+    }
+    int version = readByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported binary tree version " + version);
+    }
+  }
+
+  /**
+   * Read the tree from a byte array
+   *
+   * @param bytes the encoded tree
+   * @return the root of the tree
+   * @throws IOException if the bytes don't contain a valid tree
+   */
+  public static Node fromBytes(byte[] bytes) throws IOException {
+    try (BinaryTreeReader reader = new BinaryTreeReader(new ByteArrayInputStream(bytes))) {
+      return reader.read(Node.class);
+    }
+  }
+
+  /**
+   * Read the next value
+   *
+   * @return the value
+   * @throws EOFException if the stream has no more values
+   * @throws IOException if the stream cannot be read or contains an unknown class
+   */
+  public Object read() throws IOException {
+    return readValue();
+  }
+
+  /**
+   * Read the next value of the expected type
+   *
+   * @param type the expected type of the value
+   * @param <T> the type of the value
+   * @return the value or null
+   * @throws EOFException if the stream has no more values
+   * @throws IOException if the stream cannot be read or the value has a different type
+   */
+  public <T> T read(Class<T> type) throws IOException {
+    Object value = readValue();
+    if (value != null && !type.isInstance(value)) {
+      throw new IOException("Expected " + type.getName() + " but read " + value.getClass().getName());
+    }
+    return type.cast(value);
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+
+  private Object readValue() throws IOException {
+    int tag = readByte();
+    switch (tag) {
+      case NULL:
+        return null;
+      case REFERENCE:
+        return objects.get(readVarInt());
+      case STRING:
+        return readString();
+      case TRUE:
+        return Boolean.TRUE;
+      case FALSE:
+        return Boolean.FALSE;
+      case INT:
+        return readSignedVarInt();
+      case LONG:
+        return readSignedVarLong();
+      case DOUBLE:
+        return Double.longBitsToDouble(readFixedLong());
+      case FLOAT:
+        return Float.intBitsToFloat(readFixedInt());
+      case CHAR:
+        return (char) readVarInt();
+      case BYTE:
+        return (byte) readByte();
+      case SHORT:
+        return (short) readSignedVarInt();
+      case ENUM:
+        return readEnum();
+      case OBJECT:
+        return readFields();
+      case COLLECTION:
+        return readCollection();
+      case MAP:
+        return readMap();
+      case MULTIMAP:
+        return readMultimap();
+      case ARRAY:
+        return readArray();
+      case OPTIONAL:
+        return register(reserve(), Optional.ofNullable(readValue()));
+      case LOCALITY:
+        return readLocality();
+      case LOCATION:
+        return readLocation();
+      case RANGE:
+        return register(reserve(), readRange());
+      case POSITION:
+        return register(reserve(), new Position(lastLine + readSignedVarInt(), readVarInt()));
+      default:
+        throw new IOException("Unknown tag " + tag);
+    }
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Object readEnum() throws IOException {
+    Class type = readClass();
+    if (!isReadableEnum(type)) {
+      throw notAllowed(type);
+    }
+    String name = readString();
+    try {
+      return Enum.valueOf(type, name);
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Unknown constant " + type.getName() + "." + name, e);
+    }
+  }
+
+  private Object readFields() throws IOException {
+    StreamSchema schema = readSchema();
+    Object value;
+    try {
+      value = schema.local.newInstance();
+    } catch (ReflectiveOperationException e) {
+      throw new IOException("Cannot create an instance of " + schema.local.type.getName(), e);
+    }
+    objects.add(value);
+    try {
+      for (int i = 0; i < schema.kinds.length; i++) {
+        readField(value, schema.fields[i], schema.kinds[i]);
+      }
+    } catch (IllegalAccessException e) {
+      throw new IOException("Cannot read an instance of " + schema.local.type.getName(), e);
+    }
+    return value;
+  }
+
+  private void readField(Object value, Field field, char kind) throws IOException, IllegalAccessException {
+    switch (kind) {
+      case 'Z':
+        boolean booleanValue = readByte() != 0;
+        if (field != null) field.setBoolean(value, booleanValue);
+        break;
+      case 'B':
+        byte byteValue = (byte) readByte();
+        if (field != null) field.setByte(value, byteValue);
+        break;
+      case 'S':
+        short shortValue = (short) readSignedVarInt();
+        if (field != null) field.setShort(value, shortValue);
+        break;
+      case 'C':
+        char charValue = (char) readVarInt();
+        if (field != null) field.setChar(value, charValue);
+        break;
+      case 'I':
+        int intValue = readSignedVarInt();
+        if (field != null) field.setInt(value, intValue);
+        break;
+      case 'J':
+        long longValue = readSignedVarLong();
+        if (field != null) field.setLong(value, longValue);
+        break;
+      case 'F':
+        float floatValue = Float.intBitsToFloat(readFixedInt());
+        if (field != null) field.setFloat(value, floatValue);
+        break;
+      case 'D':
+        double doubleValue = Double.longBitsToDouble(readFixedLong());
+        if (field != null) field.setDouble(value, doubleValue);
+        break;
+      case CHILDREN:
+        int size = readVarInt();
+        for (int i = 0; i < size; i++) {
+          Node child = (Node) readValue();
+          if (field != null) attach((Node) value, child);
+        }
+        break;
+      case REFERENCE_FIELD:
+        Object fieldValue = readValue();
+        if (field != null && (fieldValue == null || field.getType().isInstance(fieldValue))) {
+          field.set(value, fieldValue);
+        }
+        break;
+      default:
+        throw new IOException("Unknown field kind " + kind);
+    }
+  }
+
+  private Object readCollection() throws IOException {
+    Class<?> type = readClass();
+    if (!isReadableCollection(type, Collection.class)) {
+      throw notAllowed(type);
+    }
+    int size = readVarInt();
+    if (ImmutableCollection.class.isAssignableFrom(type)) {
+      int slot = reserve();
+      List<Object> elements = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        elements.add(readValue());
+      }
+      return register(slot, toImmutableCollection(type, elements));
+    }
+    Collection<Object> collection = newCollection(type, size);
+    boolean unmodifiable = collection == null;
+    if (unmodifiable) {
+      collection = Set.class.isAssignableFrom(type) ? new LinkedHashSet<>() : new ArrayList<>(size);
+    }
+    int slot = reserve();
+    Object result = unmodifiable ? unmodifiable(collection) : collection;
+    register(slot, result);
+    for (int i = 0; i < size; i++) {
+      collection.add(readValue());
+    }
+    return result;
+  }
+
+  private static Object toImmutableCollection(Class<?> type, List<Object> elements) {
+    if (ImmutableSortedSet.class.isAssignableFrom(type)) {
+      return sortedSetOf(elements);
+    }
+    if (ImmutableSet.class.isAssignableFrom(type)) {
+      return ImmutableSet.copyOf(elements);
+    }
+    return ImmutableList.copyOf(elements);
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Object sortedSetOf(List<Object> elements) {
+    return ImmutableSortedSet.copyOf((Collection) elements);
+  }
+
+  private static Object unmodifiable(Collection<Object> collection) {
+    return collection instanceof Set
+        ? Collections.unmodifiableSet((Set<Object>) collection)
+        : Collections.unmodifiableList((List<Object>) collection);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Collection<Object> newCollection(Class<?> type, int size) throws IOException {
+    if (type == ArrayList.class) {
+      return new ArrayList<>(size);
+    }
+    return (Collection<Object>) newInstance(type);
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Object readMap() throws IOException {
+    Class<?> type = readClass();
+    if (!isReadableCollection(type, Map.class)) {
+      throw notAllowed(type);
+    }
+    int size = readVarInt();
+    if (ImmutableMap.class.isAssignableFrom(type)) {
+      int slot = reserve();
+      Map<Object, Object> entries = new LinkedHashMap<>();
+      for (int i = 0; i < size; i++) {
+        entries.put(readValue(), readValue());
+      }
+      Object map = ImmutableSortedMap.class.isAssignableFrom(type)
+          ? ImmutableSortedMap.copyOf((Map) entries)
+          : ImmutableMap.copyOf(entries);
+      return register(slot, map);
+    }
+    Map<Object, Object> map = (Map<Object, Object>) newInstance(type);
+    boolean unmodifiable = map == null;
+    if (unmodifiable) {
+      map = new LinkedHashMap<>();
+    }
+    Object result = unmodifiable ? Collections.unmodifiableMap(map) : map;
+    register(reserve(), result);
+    for (int i = 0; i < size; i++) {
+      Object key = readValue();
+      map.put(key, readValue());
+    }
+    return result;
+  }
+
+  private Object readMultimap() throws IOException {
+    Class<?> type = readClass();
+    if (!isReadableCollection(type, Multimap.class)) {
+      throw notAllowed(type);
+    }
+    int slot = reserve();
+    Multimap<Object, Object> multimap = SetMultimap.class.isAssignableFrom(type)
+        ? LinkedHashMultimap.create()
+        : ArrayListMultimap.create();
+    int keys = readVarInt();
+    for (int i = 0; i < keys; i++) {
+      Object key = readValue();
+      int size = readVarInt();
+      for (int j = 0; j < size; j++) {
+        multimap.put(key, readValue());
+      }
+    }
+    if (ImmutableMultimap.class.isAssignableFrom(type)) {
+      return register(slot, multimap instanceof SetMultimap
+          ? ImmutableSetMultimap.copyOf(multimap)
+          : ImmutableListMultimap.copyOf(multimap));
+    }
+    return register(slot, multimap);
+  }
+
+  private Object readArray() throws IOException {
+    Class<?> componentType = readClass();
+    if (!isReadableComponent(componentType)) {
+      throw notAllowed(componentType);
+    }
+    int length = readVarInt();
+    Object array = Array.newInstance(componentType, length);
+    register(reserve(), array);
+    for (int i = 0; i < length; i++) {
+      Array.set(array, i, readValue());
+    }
+    return array;
+  }
+
+  private Object readLocality() throws IOException {
+    int slot = reserve();
+    int flags = readByte();
+    if ((flags & SAME_URI) == 0) {
+      lastUri = (String) readValue();
+    }
+    Locality.LocalityBuilder builder = Locality.builder().uri(lastUri);
+    if ((flags & HAS_COPYBOOK_ID) != 0) {
+      builder.copybookId(readString());
+    }
+    if ((flags & HAS_TOKEN) != 0) {
+      builder.token(readString());
+    }
+    return register(slot, builder.range((Range) readValue()).build());
+  }
+
+  private Object readLocation() throws IOException {
+    int slot = reserve();
+    Location location = new Location();
+    location.setUri((String) readValue());
+    location.setRange((Range) readValue());
+    return register(slot, location);
+  }
+
+  private Range readRange() throws IOException {
+    int startLine = lastLine + readSignedVarInt();
+    int startCharacter = readVarInt();
+    int endLine = startLine + readSignedVarInt();
+    int endCharacter = readVarInt();
+    lastLine = startLine;
+    return new Range(new Position(startLine, startCharacter), new Position(endLine, endCharacter));
+  }
+
+  private static Object newInstance(Class<?> type) throws IOException {
+    try {
+      return newPublicInstance(type);
+    } catch (ReflectiveOperationException e) {
+      throw new IOException("Cannot create an instance of " + type.getName(), e);
+    }
+  }
+
+  private int reserve() {
+    objects.add(null);
+    return objects.size() - 1;
+  }
+
+  private Object register(int slot, Object value) {
+    objects.set(slot, value);
+    return value;
+  }
+
+  private StreamSchema readSchema() throws IOException {
+    int index = readVarInt();
+    if (index < schemas.size()) {
+      return schemas.get(index);
+    }
+    Class<?> type = loadClass(readString());
+    if (!isReadableObject(type, valueTypes)) {
+      throw notAllowed(type);
+    }
+    Schema local = schemaOf(type);
+    int size = readVarInt();
+    Field[] fields = new Field[size];
+    char[] kinds = new char[size];
+    for (int i = 0; i < size; i++) {
+      String name = readString();
+      kinds[i] = (char) readByte();
+      fields[i] = local.find(name, kinds[i]);
+    }
+    StreamSchema schema = new StreamSchema(local, fields, kinds);
+    schemas.add(schema);
+    return schema;
+  }
+
+  private Class<?> readClass() throws IOException {
+    int index = readVarInt();
+    if (index < classes.size()) {
+      return classes.get(index);
+    }
+    Class<?> type = loadClass(readString());
+    classes.add(type);
+    return type;
+  }
+
+  private boolean isReadableComponent(Class<?> type) {
+    return type.isPrimitive()
+        || type == Object.class
+        || type == String.class
+        || type == Boolean.class
+        || type == Character.class
+        || Number.class.isAssignableFrom(type) && type.getName().startsWith("java.lang.")
+        || isReadableEnum(type)
+        || isReadableObject(type, valueTypes);
+  }
+
+  private static IOException notAllowed(Class<?> type) {
+    return new IOException("The class " + type.getName() + " is not allowed in a binary tree stream");
+  }
+
+  private Class<?> loadClass(String name) throws IOException {
+    Class<?> primitive = primitiveType(name);
+    if (primitive != null) {
+      return primitive;
+    }
+    try {
+      return Class.forName(name, false, classLoader);
+    } catch (ClassNotFoundException e) {
+      throw new IOException("Unknown class " + name, e);
+    }
+  }
+
+  private String readString() throws IOException {
+    int index = readVarInt();
+    if (index < strings.size()) {
+      return strings.get(index);
+    }
+    byte[] bytes = new byte[readVarInt()];
+    readBytes(bytes);
+    String value = new String(bytes, StandardCharsets.UTF_8);
+    strings.add(value);
+    return value;
+  }
+
+  private int readSignedVarInt() throws IOException {
+    int value = readVarInt();
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private int readVarInt() throws IOException {
+    int value = 0;
+    for (int shift = 0; ; shift += 7) {
+      int b = readByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+  }
+
+  private long readSignedVarLong() throws IOException {
+    long value = 0;
+    for (int shift = 0; ; shift += 7) {
+      int b = readByte();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return (value >>> 1) ^ -(value & 1);
+      }
+    }
+  }
+
+  private int readFixedInt() throws IOException {
+    return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+  }
+
+  private long readFixedLong() throws IOException {
+    return ((long) readFixedInt() << 32) | (readFixedInt() & 0xFFFFFFFFL);
+  }
+
+  private void readBytes(byte[] bytes) throws IOException {
+    int offset = 0;
+    while (offset < bytes.length) {
+      if (position == limit) {
+        fill();
+      }
+      int count = Math.min(bytes.length - offset, limit - position);
+      System.arraycopy(buffer, position, bytes, offset, count);
+      position += count;
+      offset += count;
+    }
+  }
+
+  private int readByte() throws IOException {
+    if (position == limit) {
+      fill();
+    }
+    return buffer[position++] & 0xFF;
+  }
+
+  private void fill() throws IOException {
+    int count = in.read(buffer, 0, buffer.length);
+    if (count <= 0) {
+      throw new EOFException();
+    }
+    position = 0;
+    limit = count;
+  }
+
+  /** The schema of a class as it was written, with the matching fields of the loaded class. */
+  private static final class StreamSchema {
+    private final Schema local;
+    private final Field[] fields;
+    private final char[] kinds;
+
+    private StreamSchema(Schema local, Field[] fields, char[] kinds) {
+      this.local = local;
+      this.fields = fields;
+      this.kinds = kinds;
+    }
+  }
+}
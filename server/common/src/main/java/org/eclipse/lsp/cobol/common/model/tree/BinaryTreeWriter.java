@@ -0,0 +1,418 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.common.model.tree;
+
+import static org.eclipse.lsp.cobol.common.model.tree.BinaryTreeFormat.*;
+
+import com.google.common.collect.Multimap;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.eclipse.lsp.cobol.common.model.Locality;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+
+/**
+ * Writes the node trees and the values around them in the compact binary format described in
+ * {@link BinaryTreeFormat}. The values are written to the stream as they are visited, so the tree
+ * doesn't have to be converted to an intermediate form. The string, class and object tables are
+ * kept for the lifetime of the writer, so the values written one after another share them.
+ */
+public final class BinaryTreeWriter implements Closeable, Flushable {
+  private static final int BUFFER_SIZE = 8192;
+
+  private final OutputStream out;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int position;
+
+  private final Map<Object, Integer> objects = new IdentityHashMap<>();
+  private final Map<String, Integer> strings = new HashMap<>();
+  private final Map<Class<?>, Integer> classes = new HashMap<>();
+  private final Map<Class<?>, Integer> schemas = new HashMap<>();
+  private String lastUri;
+  private int lastLine;
+
+  /**
+   * Create a writer and write the stream header
+   *
+   * @param out the target stream
+   * @throws IOException if the header cannot be written
+   */
+  public BinaryTreeWriter(OutputStream out) throws IOException {
+    this.out = out;
+    writeFixedInt(MAGIC);
+    writeByte(VERSION);
+  }
+
+  /**
+   * Write the tree to a byte array
+   *
+   * @param node the root of the tree
+   * @return the encoded tree
+   */
+  public static byte[] toBytes(Node node) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (BinaryTreeWriter writer = new BinaryTreeWriter(out)) {
+      writer.write(node);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Write the value, usually a node with its subtree. Nodes, localities, collections, maps, enums,
+   * strings, primitives and the objects composed of them are supported.
+   *
+   * @param value the value to write
+   * @throws IOException if the value cannot be written to the stream
+   * @throws IllegalArgumentException if the value contains an object of an unsupported class
+   */
+  public void write(Object value) throws IOException {
+    writeValue(value);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    out.write(buffer, 0, position);
+    position = 0;
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    flush();
+    out.close();
+  }
+
+  private void writeValue(Object value) throws IOException {
+    if (value == null) {
+      writeByte(NULL);
+    } else if (value instanceof String) {
+      writeByte(STRING);
+      writeString((String) value);
+    } else if (value instanceof Boolean) {
+      writeByte((Boolean) value ? TRUE : FALSE);
+    } else if (value instanceof Integer) {
+      writeByte(INT);
+      writeSignedVarInt((Integer) value);
+    } else if (value instanceof Long) {
+      writeByte(LONG);
+      writeSignedVarLong((Long) value);
+    } else if (value instanceof Double) {
+      writeByte(DOUBLE);
+      writeFixedLong(Double.doubleToRawLongBits((Double) value));
+    } else if (value instanceof Float) {
+      writeByte(FLOAT);
+      writeFixedInt(Float.floatToRawIntBits((Float) value));
+    } else if (value instanceof Character) {
+      writeByte(CHAR);
+      writeVarInt((Character) value);
+    } else if (value instanceof Byte) {
+      writeByte(BYTE);
+      writeByte((Byte) value);
+    } else if (value instanceof Short) {
+      writeByte(SHORT);
+      writeSignedVarInt((Short) value);
+    } else if (value instanceof Enum) {
+      writeByte(ENUM);
+      writeClass(((Enum<?>) value).getDeclaringClass());
+      writeString(((Enum<?>) value).name());
+    } else {
+      Integer id = objects.get(value);
+      if (id != null) {
+        writeByte(REFERENCE);
+        writeVarInt(id);
+      } else {
+        objects.put(value, objects.size());
+        writeObject(value);
+      }
+    }
+  }
+
+  private void writeObject(Object value) throws IOException {
+    Class<?> type = value.getClass();
+    if (type == Locality.class) {
+      writeLocality((Locality) value);
+    } else if (type == Range.class && isComplete((Range) value)) {
+      writeByte(RANGE);
+      writeRange((Range) value);
+    } else if (type == Position.class) {
+      writeByte(POSITION);
+      writeSignedVarInt(((Position) value).getLine() - lastLine);
+      writeVarInt(((Position) value).getCharacter());
+    } else if (type == Location.class) {
+      writeByte(LOCATION);
+      writeValue(((Location) value).getUri());
+      writeValue(((Location) value).getRange());
+    } else if (value instanceof Optional) {
+      writeByte(OPTIONAL);
+      writeValue(((Optional<?>) value).orElse(null));
+    } else if (value instanceof Collection) {
+      writeCollection((Collection<?>) value);
+    } else if (value instanceof Map) {
+      writeMap((Map<?, ?>) value);
+    } else if (value instanceof Multimap) {
+      writeMultimap((Multimap<?, ?>) value);
+    } else if (type.isArray()) {
+      writeArray(value);
+    } else {
+      writeFields(value);
+    }
+  }
+
+  private void writeLocality(Locality locality) throws IOException {
+    boolean sameUri = lastUri != null && lastUri.equals(locality.getUri());
+    int flags = (sameUri ? SAME_URI : 0)
+        | (locality.getCopybookId() != null ? HAS_COPYBOOK_ID : 0)
+        | (locality.getToken() != null ? HAS_TOKEN : 0);
+    writeByte(LOCALITY);
+    writeByte(flags);
+    if (!sameUri) {
+      writeValue(locality.getUri());
+      lastUri = locality.getUri();
+    }
+    if (locality.getCopybookId() != null) {
+      writeString(locality.getCopybookId());
+    }
+    if (locality.getToken() != null) {
+      writeString(locality.getToken());
+    }
+    writeValue(locality.getRange());
+  }
+
+  private void writeRange(Range range) throws IOException {
+    Position start = range.getStart();
+    Position end = range.getEnd();
+    writeSignedVarInt(start.getLine() - lastLine);
+    writeVarInt(start.getCharacter());
+    writeSignedVarInt(end.getLine() - start.getLine());
+    writeVarInt(end.getCharacter());
+    lastLine = start.getLine();
+  }
+
+  private static boolean isComplete(Range range) {
+    return range.getStart() != null && range.getEnd() != null;
+  }
+
+  private void writeCollection(Collection<?> collection) throws IOException {
+    writeByte(COLLECTION);
+    writeClass(collection.getClass());
+    writeVarInt(collection.size());
+    for (Object element : collection) {
+      writeValue(element);
+    }
+  }
+
+  private void writeMap(Map<?, ?> map) throws IOException {
+    writeByte(MAP);
+    writeClass(map.getClass());
+    writeVarInt(map.size());
+    for (Map.Entry<?, ?> entry : map.entrySet()) {
+      writeValue(entry.getKey());
+      writeValue(entry.getValue());
+    }
+  }
+
+  private void writeMultimap(Multimap<?, ?> multimap) throws IOException {
+    writeByte(MULTIMAP);
+    writeClass(multimap.getClass());
+    writeVarInt(multimap.keySet().size());
+    for (Map.Entry<?, ? extends Collection<?>> entry : multimap.asMap().entrySet()) {
+      writeValue(entry.getKey());
+      writeVarInt(entry.getValue().size());
+      for (Object element : entry.getValue()) {
+        writeValue(element);
+      }
+    }
+  }
+
+  private void writeArray(Object array) throws IOException {
+    int length = Array.getLength(array);
+    writeByte(ARRAY);
+    writeClass(array.getClass().getComponentType());
+    writeVarInt(length);
+    for (int i = 0; i < length; i++) {
+      writeValue(Array.get(array, i));
+    }
+  }
+
+  private void writeFields(Object value) throws IOException {
+    Class<?> type = value.getClass();
+    if (isPlatformClass(type)) {
+      throw new IllegalArgumentException("Cannot write an instance of " + type.getName());
+    }
+    Schema schema = schemaOf(type);
+    writeByte(OBJECT);
+    writeSchema(schema);
+    try {
+      for (int i = 0; i < schema.fields.length; i++) {
+        writeField(value, schema.fields[i], schema.kinds[i]);
+      }
+    } catch (IllegalAccessException e) {
+      throw new IllegalArgumentException("Cannot write an instance of " + type.getName(), e);
+    }
+  }
+
+  private void writeField(Object value, Field field, char kind)
+      throws IOException, IllegalAccessException {
+    switch (kind) {
+      case 'Z':
+        writeByte(field.getBoolean(value) ? 1 : 0);
+        break;
+      case 'B':
+        writeByte(field.getByte(value));
+        break;
+      case 'S':
+        writeSignedVarInt(field.getShort(value));
+        break;
+      case 'C':
+        writeVarInt(field.getChar(value));
+        break;
+      case 'I':
+        writeSignedVarInt(field.getInt(value));
+        break;
+      case 'J':
+        writeSignedVarLong(field.getLong(value));
+        break;
+      case 'F':
+        writeFixedInt(Float.floatToRawIntBits(field.getFloat(value)));
+        break;
+      case 'D':
+        writeFixedLong(Double.doubleToRawLongBits(field.getDouble(value)));
+        break;
+      case CHILDREN:
+        List<?> children = (List<?>) field.get(value);
+        writeVarInt(children.size());
+        for (Object child : children) {
+          writeValue(child);
+        }
+        break;
+      default:
+        writeValue(field.get(value));
+    }
+  }
+
+  private static boolean isPlatformClass(Class<?> type) {
+    String name = type.getName();
+    return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.") || name.startsWith("sun.");
+  }
+
+  private void writeSchema(Schema schema) throws IOException {
+    Integer index = schemas.get(schema.type);
+    if (index != null) {
+      writeVarInt(index);
+      return;
+    }
+    writeVarInt(schemas.size());
+    schemas.put(schema.type, schemas.size());
+    writeString(schema.type.getName());
+    writeVarInt(schema.fields.length);
+    for (int i = 0; i < schema.fields.length; i++) {
+      writeString(schema.fields[i].getName());
+      writeByte(schema.kinds[i]);
+    }
+  }
+
+  private void writeClass(Class<?> type) throws IOException {
+    Integer index = classes.get(type);
+    if (index != null) {
+      writeVarInt(index);
+      return;
+    }
+    writeVarInt(classes.size());
+    classes.put(type, classes.size());
+    writeString(type.getName());
+  }
+
+  private void writeString(String value) throws IOException {
+    Integer index = strings.get(value);
+    if (index != null) {
+      writeVarInt(index);
+      return;
+    }
+    writeVarInt(strings.size());
+    strings.put(value, strings.size());
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarInt(bytes.length);
+    writeBytes(bytes);
+  }
+
+  private void writeSignedVarInt(int value) throws IOException {
+    writeVarInt((value << 1) ^ (value >> 31));
+  }
+
+  private void writeVarInt(int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    writeByte(value);
+  }
+
+  private void writeSignedVarLong(long value) throws IOException {
+    long encoded = (value << 1) ^ (value >> 63);
+    while ((encoded & ~0x7FL) != 0) {
+      writeByte((int) (encoded & 0x7F) | 0x80);
+      encoded >>>= 7;
+    }
+    writeByte((int) encoded);
+  }
+
+  private void writeFixedInt(int value) throws IOException {
+    writeByte(value >>> 24);
+    writeByte(value >>> 16);
+    writeByte(value >>> 8);
+    writeByte(value);
+  }
+
+  private void writeFixedLong(long value) throws IOException {
+    writeFixedInt((int) (value >>> 32));
+    writeFixedInt((int) value);
+  }
+
+  private void writeBytes(byte[] bytes) throws IOException {
+    if (bytes.length > buffer.length - position) {
+      out.write(buffer, 0, position);
+      position = 0;
+      if (bytes.length > buffer.length) {
+        out.write(bytes);
+        return;
+      }
+    }
+    System.arraycopy(bytes, 0, buffer, position, bytes.length);
+    position += bytes.length;
+  }
+
+  private void writeByte(int value) throws IOException {
+    if (position == buffer.length) {
+      out.write(buffer, 0, position);
+      position = 0;
+    }
+    buffer[position++] = (byte) value;
+  }
+}
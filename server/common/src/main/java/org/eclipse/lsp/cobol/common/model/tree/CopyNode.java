@@ -15,7 +15,8 @@
 package org.eclipse.lsp.cobol.common.model.tree;
 
 import com.google.common.collect.ImmutableList;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import lombok.EqualsAndHashCode;
@@ -33,14 +34,14 @@ public class CopyNode extends Node implements DefinedAndUsedStructure {
   private final String name;
   @EqualsAndHashCode.Exclude @ToString.Exclude private final Location nameLocation;
   private final String uri;
-  private final List<Location> usages = new LinkedList<>();
+  private volatile List<Location> usages;
 
   public CopyNode(Locality statementLocality, Location nameLocation, String copyBookName, String uri) {
     super(statementLocality, NodeType.COPY);
     this.name = copyBookName;
     this.nameLocation = nameLocation;
     this.uri = uri;
-    usages.add(nameLocation);
+    usages = Collections.singletonList(nameLocation);
   }
 
   public CopyNode(Locality statementLocality, Location nameLocation, String copyBookName, String dialect, String uri) {
@@ -48,7 +49,7 @@ public class CopyNode extends Node implements DefinedAndUsedStructure {
     this.name = copyBookName;
     this.nameLocation = nameLocation;
     this.uri = uri;
-    usages.add(nameLocation);
+    usages = Collections.singletonList(nameLocation);
   }
 
   @Override
@@ -60,7 +61,7 @@ public class CopyNode extends Node implements DefinedAndUsedStructure {
 
   @Override
   public List<Location> getUsages() {
-    return ImmutableList.copyOf(usages);
+    return usages;
   }
 
   @Override
@@ -73,6 +74,17 @@ public class CopyNode extends Node implements DefinedAndUsedStructure {
    * @param nameLocation is the copybook name location
    */
   public void addUsage(Location nameLocation) {
-    usages.add(nameLocation);
+    List<Location> result = new ArrayList<>(usages);
+    result.add(nameLocation);
+    usages = Collections.unmodifiableList(result);
+  }
+
+  /**
+   * Replace the copybook usages, e.g. when the node is reused in another tree
+   *
+   * @param usages the copybook name locations
+   */
+  public void setUsages(List<Location> usages) {
+    this.usages = Collections.unmodifiableList(new ArrayList<>(usages));
   }
 }
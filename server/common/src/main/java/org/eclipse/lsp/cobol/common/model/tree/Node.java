@@ -21,11 +21,17 @@ import lombok.ToString;
 import org.eclipse.lsp.cobol.common.model.Locality;
 import org.eclipse.lsp.cobol.common.model.NodeType;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /** The class represents a Node in source structure tree. */
 @ToString
@@ -37,7 +43,7 @@ public abstract class Node {
   private final NodeType nodeType;
   private final String dialect;
 
-  @EqualsAndHashCode.Exclude private final List<Node> children = new CopyOnWriteArrayList<>();
+  @EqualsAndHashCode.Exclude private final List<Node> children = new NodeChildren(this);
   @EqualsAndHashCode.Exclude @ToString.Exclude @Setter private transient Node parent;
 
   protected Node(Locality location, NodeType nodeType, String dialect) {
@@ -68,8 +74,8 @@ public abstract class Node {
    * @param node a child node.
    */
   public void addChild(Node node) {
-    node.setParent(this);
     children.add(node);
+    node.setParent(this);
   }
 
 
@@ -80,8 +86,8 @@ public abstract class Node {
    * @param node a child node.
    */
   public void addChildAt(int index, Node node) {
-    node.setParent(this);
     children.add(index, node);
+    node.setParent(this);
   }
 
   /**
@@ -94,13 +100,111 @@ public abstract class Node {
     return children.remove(node);
   }
 
+  /**
+   * Compact the children lists of this node and all its descendants. Must be called once the tree
+   * is built, it makes the following reads of the children safe from any thread. The tree stays
+   * modifiable, but each following change copies the changed children list.
+   */
+  public void freeze() {
+    freeze(false);
+  }
+
+  /**
+   * Freeze this node and all its descendants like {@link #freeze()}, and forbid all the following
+   * changes of their children. Used for the trees that are shared between analyses.
+   */
+  public void freezeReadOnly() {
+    freeze(true);
+  }
+
+  private void freeze(boolean readOnly) {
+    Deque<Node> stack = new ArrayDeque<>();
+    stack.push(this);
+    while (!stack.isEmpty()) {
+      Node node = stack.pop();
+      NodeChildren nodeChildren = (NodeChildren) node.children;
+      if (readOnly) {
+        nodeChildren.makeReadOnly();
+      } else {
+        nodeChildren.freeze();
+      }
+      nodeChildren.forEach(stack::push);
+    }
+  }
+
   /**
    * Get a stream with all nested children starting with this instance.
    *
    * @return the stream with all underline children.
    */
   public Stream<Node> getDepthFirstStream() {
-    return Stream.concat(Stream.of(this), children.stream().flatMap(Node::getDepthFirstStream));
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(depthFirstIterator(), Spliterator.ORDERED | Spliterator.NONNULL),
+        false);
+  }
+
+  /**
+   * Get a stream with all nested children of the specified type starting with this instance.
+   *
+   * @param type the desired type
+   * @return the stream with the underline children of the given type.
+   */
+  public Stream<Node> getDepthFirstStream(NodeType type) {
+    return getDepthFirstStream().filter(hasType(type));
+  }
+
+  /**
+   * Get an iterator over all nested children starting with this instance in the depth-first order.
+   * It keeps the pending nodes in an explicit stack, so it does not depend on the tree depth.
+   *
+   * @return the iterator over this node and all underline children.
+   */
+  public Iterator<Node> depthFirstIterator() {
+    return new DepthFirstIterator(this);
+  }
+
+  /**
+   * Check if the tree was frozen with {@link #freeze()}.
+   *
+   * @return true if the children of this node are frozen
+   */
+  boolean isFrozen() {
+    return ((NodeChildren) children).isFrozen();
+  }
+
+  /** Called when a children list of the frozen tree is changed */
+  void onFrozenTreeChanged() {
+    Node node = this;
+    while (node.parent != null) {
+      node = node.parent;
+    }
+    if (node instanceof RootNode) {
+      ((RootNode) node).invalidateIndex();
+    }
+  }
+
+  /** Pre-order iterator that reads the children of a node when the node is returned */
+  private static final class DepthFirstIterator implements Iterator<Node> {
+    private final Deque<Node> stack = new ArrayDeque<>();
+
+    DepthFirstIterator(Node root) {
+      stack.push(root);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !stack.isEmpty();
+    }
+
+    @Override
+    public Node next() {
+      if (stack.isEmpty()) {
+        throw new NoSuchElementException();
+      }
+      Node node = stack.pop();
+      ((NodeChildren) node.children).pushTo(stack);
+      return node;
+    }
   }
 
   /**
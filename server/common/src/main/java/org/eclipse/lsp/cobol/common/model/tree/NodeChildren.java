@@ -0,0 +1,439 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.common.model.tree;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * The list of node children. It has two states:
+ *
+ * <p>While the tree is being built, the children are kept in a growable array that is changed in
+ * place, like in an ArrayList. The iterators and streams read the array they started with, so the
+ * children may be added or removed while they are iterated. The array is copied only when it is
+ * changed while an iteration over it is not finished yet.
+ *
+ * <p>After {@link #freeze()} the children are kept in an exactly sized array that is never changed
+ * in place. Each change replaces it with a changed copy under the list lock, like in a
+ * CopyOnWriteArrayList, so the list may be read from any thread. The nodes added to a frozen list
+ * are frozen as well, and the owner is notified about the change, so the indexes built over the
+ * frozen tree may be dropped. A frozen list may also be made read-only, then every change throws
+ * {@link UnsupportedOperationException}.
+ */
+final class NodeChildren extends AbstractList<Node> implements RandomAccess {
+  private static final Node[] EMPTY = new Node[0];
+  private static final int MIN_CAPACITY = 4;
+
+  private final Node owner;
+  private Node[] buffer = EMPTY;
+  private int size;
+  private int openIterations;
+  private volatile Node[] frozen;
+  private volatile boolean readOnly;
+
+  NodeChildren(Node owner) {
+    this.owner = owner;
+  }
+
+  /**
+   * Compacts the children into an immutable array. All the following changes copy the array.
+   */
+  void freeze() {
+    if (frozen != null) {
+      return;
+    }
+    frozen = size == 0 ? EMPTY : Arrays.copyOf(buffer, size);
+    buffer = null;
+    size = 0;
+    openIterations = 0;
+  }
+
+  /**
+   * Freezes the list and forbids all the following changes
+   */
+  void makeReadOnly() {
+    freeze();
+    readOnly = true;
+  }
+
+  /**
+   * Checks if the list is frozen
+   *
+   * @return true if {@link #freeze()} was called
+   */
+  boolean isFrozen() {
+    return frozen != null;
+  }
+
+  /**
+   * Pushes the children to the stack in the reverse order, so the first child is on the top
+   *
+   * @param stack the stack of the nodes to visit
+   */
+  void pushTo(Deque<Node> stack) {
+    Node[] array = frozen;
+    int length = array != null ? array.length : size;
+    if (array == null) {
+      array = buffer;
+    }
+    for (int i = length - 1; i >= 0; i--) {
+      stack.push(array[i]);
+    }
+  }
+
+  @Override
+  public Node get(int index) {
+    Node[] array = frozen;
+    if (array != null) {
+      return array[index];
+    }
+    checkIndex(index, size);
+    return buffer[index];
+  }
+
+  @Override
+  public int size() {
+    Node[] array = frozen;
+    return array != null ? array.length : size;
+  }
+
+  @Override
+  public boolean add(Node node) {
+    add(size(), node);
+    return true;
+  }
+
+  @Override
+  public void add(int index, Node node) {
+    if (frozen != null) {
+      checkWritable();
+      synchronized (this) {
+        Node[] array = frozen;
+        checkIndex(index, array.length + 1);
+        Node[] result = new Node[array.length + 1];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = node;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        node.freeze();
+        frozen = result;
+      }
+      owner.onFrozenTreeChanged();
+      return;
+    }
+    checkIndex(index, size + 1);
+    prepareWrite(size + 1);
+    System.arraycopy(buffer, index, buffer, index + 1, size - index);
+    buffer[index] = node;
+    size++;
+  }
+
+  @Override
+  public Node set(int index, Node node) {
+    Node previous;
+    if (frozen != null) {
+      checkWritable();
+      synchronized (this) {
+        Node[] result = frozen.clone();
+        previous = result[index];
+        result[index] = node;
+        node.freeze();
+        frozen = result;
+      }
+      owner.onFrozenTreeChanged();
+      return previous;
+    }
+    checkIndex(index, size);
+    prepareWrite(size);
+    previous = buffer[index];
+    buffer[index] = node;
+    return previous;
+  }
+
+  @Override
+  public Node remove(int index) {
+    Node previous;
+    if (frozen != null) {
+      checkWritable();
+      synchronized (this) {
+        Node[] array = frozen;
+        previous = array[index];
+        Node[] result = new Node[array.length - 1];
+        System.arraycopy(array, 0, result, 0, index);
+        System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+        frozen = result;
+      }
+      owner.onFrozenTreeChanged();
+      return previous;
+    }
+    checkIndex(index, size);
+    prepareWrite(size);
+    previous = buffer[index];
+    System.arraycopy(buffer, index + 1, buffer, index, size - index - 1);
+    buffer[--size] = null;
+    return previous;
+  }
+
+  @Override
+  public boolean remove(Object node) {
+    if (frozen != null) {
+      synchronized (this) {
+        int index = indexOf(node);
+        if (index < 0) {
+          return false;
+        }
+        remove(index);
+        return true;
+      }
+    }
+    int index = indexOf(node);
+    if (index < 0) {
+      return false;
+    }
+    remove(index);
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    if (frozen != null) {
+      checkWritable();
+      synchronized (this) {
+        frozen = EMPTY;
+      }
+      owner.onFrozenTreeChanged();
+      return;
+    }
+    buffer = EMPTY;
+    size = 0;
+    openIterations = 0;
+  }
+
+  @Override
+  public boolean removeIf(Predicate<? super Node> filter) {
+    if (frozen != null) {
+      synchronized (this) {
+        return filter(frozen, frozen.length, filter);
+      }
+    }
+    return filter(buffer, size, filter);
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> nodes) {
+    return removeIf(nodes::contains);
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> nodes) {
+    return removeIf(node -> !nodes.contains(node));
+  }
+
+  @Override
+  public void replaceAll(UnaryOperator<Node> operator) {
+    if (frozen != null) {
+      synchronized (this) {
+        replaceWith(map(frozen, frozen.length, operator));
+      }
+      return;
+    }
+    replaceWith(map(buffer, size, operator));
+  }
+
+  @Override
+  public void sort(Comparator<? super Node> comparator) {
+    if (frozen != null) {
+      synchronized (this) {
+        Node[] result = frozen.clone();
+        Arrays.sort(result, comparator);
+        replaceWith(result);
+      }
+      return;
+    }
+    Node[] result = Arrays.copyOf(buffer, size);
+    Arrays.sort(result, comparator);
+    replaceWith(result);
+  }
+
+  @Override
+  public int indexOf(Object node) {
+    Node[] array = frozen;
+    int length = array != null ? array.length : size;
+    if (array == null) {
+      array = buffer;
+    }
+    for (int i = 0; i < length; i++) {
+      if (node == null ? array[i] == null : node.equals(array[i])) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public boolean contains(Object node) {
+    return indexOf(node) >= 0;
+  }
+
+  @Override
+  public Object[] toArray() {
+    Node[] array = frozen;
+    return array != null ? array.clone() : Arrays.copyOf(buffer, size);
+  }
+
+  @Override
+  public Iterator<Node> iterator() {
+    Node[] array = frozen;
+    if (array != null) {
+      return new ArrayIterator(array, array.length, false);
+    }
+    openIterations++;
+    return new ArrayIterator(buffer, size, true);
+  }
+
+  @Override
+  public ListIterator<Node> listIterator(int index) {
+    return Collections.unmodifiableList(Arrays.asList((Node[]) toArray())).listIterator(index);
+  }
+
+  @Override
+  public Spliterator<Node> spliterator() {
+    Node[] array = frozen;
+    if (array != null) {
+      return Spliterators.spliterator(array, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+    // A stream may be abandoned before the end, so the buffer stays protected until the next copy
+    openIterations++;
+    return Spliterators.spliterator(buffer, 0, size, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+  }
+
+  @Override
+  public void forEach(Consumer<? super Node> action) {
+    Iterator<Node> iterator = iterator();
+    while (iterator.hasNext()) {
+      action.accept(iterator.next());
+    }
+  }
+
+  private boolean filter(Node[] array, int length, Predicate<? super Node> filter) {
+    Node[] result = new Node[length];
+    int count = 0;
+    for (int i = 0; i < length; i++) {
+      if (!filter.test(array[i])) {
+        result[count++] = array[i];
+      }
+    }
+    if (count == length) {
+      return false;
+    }
+    replaceWith(Arrays.copyOf(result, count));
+    return true;
+  }
+
+  private static Node[] map(Node[] array, int length, UnaryOperator<Node> operator) {
+    Node[] result = new Node[length];
+    for (int i = 0; i < length; i++) {
+      result[i] = operator.apply(array[i]);
+    }
+    return result;
+  }
+
+  private void replaceWith(Node[] elements) {
+    if (frozen != null) {
+      checkWritable();
+      for (Node node : elements) {
+        node.freeze();
+      }
+      frozen = elements;
+      owner.onFrozenTreeChanged();
+      return;
+    }
+    buffer = elements;
+    size = elements.length;
+    openIterations = 0;
+  }
+
+  private void prepareWrite(int minCapacity) {
+    if (openIterations > 0 || buffer.length < minCapacity) {
+      int capacity = Math.max(minCapacity, Math.max(MIN_CAPACITY, buffer.length + (buffer.length >> 1)));
+      buffer = Arrays.copyOf(buffer, capacity);
+      openIterations = 0;
+    }
+  }
+
+  private void checkWritable() {
+    if (readOnly) {
+      throw new UnsupportedOperationException("The children of " + owner.getClass().getSimpleName() + " are read-only");
+    }
+  }
+
+  private static void checkIndex(int index, int length) {
+    if (index < 0 || index >= length) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + length);
+    }
+  }
+
+  /**
+   * Iterator over the array the iteration started with. An iteration over the building buffer that
+   * reaches the end releases the buffer, so the following changes do not copy it.
+   */
+  private final class ArrayIterator implements Iterator<Node> {
+    private final Node[] array;
+    private final int length;
+    private boolean open;
+    private int cursor;
+
+    ArrayIterator(Node[] array, int length, boolean open) {
+      this.array = array;
+      this.length = length;
+      this.open = open;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (cursor < length) {
+        return true;
+      }
+      if (open) {
+        open = false;
+        if (array == buffer && openIterations > 0) {
+          openIterations--;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public Node next() {
+      if (cursor >= length) {
+        throw new NoSuchElementException();
+      }
+      return array[cursor++];
+    }
+  }
+}
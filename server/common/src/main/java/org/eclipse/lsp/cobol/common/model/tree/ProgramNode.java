@@ -14,16 +14,24 @@
  */
 package org.eclipse.lsp.cobol.common.model.tree;
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import org.eclipse.lsp.cobol.common.model.Locality;
+import org.eclipse.lsp.cobol.common.model.tree.variable.VariableNode;
+import org.eclipse.lsp4j.Location;
 
 import static org.eclipse.lsp.cobol.common.model.NodeType.PROGRAM;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /** This class represents program or function in COBOL. */
 @ToString(callSuper = true)
@@ -36,9 +44,67 @@ public class ProgramNode extends Node {
 
   private final Map<String, Boolean> repository = new HashMap<>();
 
+  @Getter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final transient Map<VariableNode, List<Location>> sharedVariableUsages = new IdentityHashMap<>();
+
   public ProgramNode(Locality locality, ProgramSubtype subtype, int ordinal) {
     super(locality, PROGRAM);
     this.subtype = subtype;
     this.ordinal = ordinal;
   }
+
+  /**
+   * Register a shared variable definition in this program. Shared definitions are reused by many
+   * programs, so their usages are kept here instead of in the definition itself.
+   *
+   * @param variable the shared variable definition
+   */
+  public void registerSharedVariable(VariableNode variable) {
+    sharedVariableUsages.computeIfAbsent(variable, v -> new ArrayList<>());
+  }
+
+  /**
+   * Get the shared variable definitions registered in this program.
+   *
+   * @return the set of the shared variable definitions
+   */
+  public Set<VariableNode> getSharedVariables() {
+    return Collections.unmodifiableSet(sharedVariableUsages.keySet());
+  }
+
+  /**
+   * Check if the given shared variable definition is registered in this program.
+   *
+   * @param variable the shared variable definition
+   * @return true if the variable was registered in this program
+   */
+  public boolean hasSharedVariable(VariableNode variable) {
+    return sharedVariableUsages.containsKey(variable);
+  }
+
+  /**
+   * Add a usage of the shared variable definition registered in this program.
+   *
+   * @param variable the shared variable definition
+   * @param location the location of the usage
+   * @return true if the usage was not known before
+   */
+  public boolean addSharedVariableUsage(VariableNode variable, Location location) {
+    List<Location> usages = sharedVariableUsages.computeIfAbsent(variable, v -> new ArrayList<>());
+    if (usages.contains(location)) return false;
+    usages.add(location);
+    return true;
+  }
+
+  /**
+   * Get the usages of the shared variable definition within this program.
+   *
+   * @param variable the shared variable definition
+   * @return the list of usage locations
+   */
+  public List<Location> getSharedVariableUsages(VariableNode variable) {
+    return Collections.unmodifiableList(sharedVariableUsages.getOrDefault(variable, Collections.emptyList()));
+  }
 }
@@ -14,23 +14,35 @@
  */
 package org.eclipse.lsp.cobol.common.model.tree;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.ToString;
 import org.eclipse.lsp.cobol.common.model.Locality;
+import org.eclipse.lsp.cobol.common.model.NodeType;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.eclipse.lsp.cobol.common.model.NodeType.PROGRAM;
 import static org.eclipse.lsp.cobol.common.model.NodeType.ROOT;
 
 /**
  * The class represents the root. All trees must start with one root node. This class also creates
- * definition nodes for copyNodes and adds its usages.
+ * definition nodes for copyNodes and adds its usages. Once the tree is frozen, the root keeps an
+ * index of the nodes by their type, that is dropped on any following change of the tree.
  */
 @ToString(callSuper = true)
 @Getter
 public class RootNode extends Node {
+  @Getter(AccessLevel.NONE) @ToString.Exclude
+  private transient volatile Map<NodeType, List<Node>> nodesByType;
+
   public RootNode() {
     this(Locality.builder().build());
   }
@@ -39,6 +51,49 @@ public class RootNode extends Node {
     super(locality, ROOT);
   }
 
+  /**
+   * Get all the nodes of the given type in the depth-first order. The lookup in a frozen tree uses
+   * the index built on the first request.
+   *
+   * @param type the desired type
+   * @return the unmodifiable list of the nodes, can be empty.
+   */
+  public List<Node> getNodesByType(NodeType type) {
+    if (!isFrozen()) {
+      return Collections.unmodifiableList(super.getDepthFirstStream(type).collect(Collectors.toList()));
+    }
+    Map<NodeType, List<Node>> index = nodesByType;
+    if (index == null) {
+      index = buildIndex();
+    }
+    return index.getOrDefault(type, Collections.emptyList());
+  }
+
+  @Override
+  public Stream<Node> getDepthFirstStream(NodeType type) {
+    return getNodesByType(type).stream();
+  }
+
+  /** Drop the node type index, it is built again on the next request. */
+  synchronized void invalidateIndex() {
+    nodesByType = null;
+  }
+
+  private synchronized Map<NodeType, List<Node>> buildIndex() {
+    Map<NodeType, List<Node>> index = nodesByType;
+    if (index != null) {
+      return index;
+    }
+    Map<NodeType, List<Node>> result = new EnumMap<>(NodeType.class);
+    for (Iterator<Node> it = depthFirstIterator(); it.hasNext();) {
+      Node node = it.next();
+      result.computeIfAbsent(node.getNodeType(), t -> new ArrayList<>()).add(node);
+    }
+    result.replaceAll((t, nodes) -> Collections.unmodifiableList(nodes));
+    nodesByType = result;
+    return result;
+  }
+
   /**
    * Search for the first program in CU.
    * @return the first program node or null if there is no programs defined
@@ -68,7 +68,7 @@ public class VariableDefinitionNameNode extends Node implements DefinedAndUsedSt
   public List<Location> getUsages() {
     return getNearestParentByType(NodeType.VARIABLE)
         .map(VariableNode.class::cast)
-        .map(VariableNode::getUsages)
+        .map(variable -> variable.getUsages(this))
         .orElseGet(ImmutableList::of);
   }
 
@@ -14,6 +14,7 @@
  */
 package org.eclipse.lsp.cobol.common.model.tree.variable;
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -25,13 +26,16 @@ import org.eclipse.lsp.cobol.common.message.MessageTemplate;
 import org.eclipse.lsp.cobol.common.model.DefinedAndUsedStructure;
 import org.eclipse.lsp.cobol.common.model.Locality;
 import org.eclipse.lsp.cobol.common.model.tree.Node;
+import org.eclipse.lsp.cobol.common.model.tree.ProgramNode;
 import org.eclipse.lsp.cobol.common.utils.RangeUtils;
 import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static java.util.stream.Collectors.toList;
 import static org.eclipse.lsp.cobol.common.error.ErrorSeverity.ERROR;
@@ -40,7 +44,7 @@ import static org.eclipse.lsp.cobol.common.model.NodeType.VARIABLE_DEFINITION_NA
 
 /** The abstract class for all variable definitions. */
 @Getter
-@ToString(callSuper = true)
+@ToString(callSuper = true, doNotUseGetters = true)
 @EqualsAndHashCode(callSuper = true)
 public abstract class VariableNode extends Node implements DefinedAndUsedStructure {
 
@@ -48,7 +52,10 @@ public abstract class VariableNode extends Node implements DefinedAndUsedStructu
   private final VariableType variableType;
   private final String name;
   @Setter private boolean global;
-  @EqualsAndHashCode.Exclude private final List<Location> usages = new ArrayList<>();
+  @Getter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  private final List<Location> usages = new ArrayList<>();
+  @EqualsAndHashCode.Exclude @ToString.Exclude private boolean shared;
 
   protected VariableNode(
       Locality location, String name, VariableType variableType, boolean global) {
@@ -100,12 +107,68 @@ public abstract class VariableNode extends Node implements DefinedAndUsedStructu
    * @param usageNode a variable usage node
    */
   public void addUsage(VariableUsageNode usageNode) {
-    if (!usages.contains(usageNode.getLocality().toLocation())) {
-      usages.add(usageNode.getLocality().toLocation());
+    Location location = usageNode.getLocality().toLocation();
+    if (shared) {
+      if (findOwningProgram(usageNode).map(p -> p.addSharedVariableUsage(this, location)).orElse(true)) {
+        usageNode.addDefinition(this);
+      }
+    } else if (!usages.contains(location)) {
+      usages.add(location);
       usageNode.addDefinition(this);
     }
   }
 
+  /**
+   * Get the usages of this variable. The usages of a shared definition depend on the program and
+   * are available through {@link #getUsages(Node)}, so the definition itself has none.
+   *
+   * @return the list of usage locations, empty if this variable is shared
+   */
+  @Override
+  public List<Location> getUsages() {
+    return shared ? Collections.emptyList() : usages;
+  }
+
+  /**
+   * Get the usages of this variable as seen from the given node. Shared definitions keep their
+   * usages in the program that registered them, so they are resolved through the program that
+   * contains the node.
+   *
+   * @param context a node of the program that refers to this variable
+   * @return the list of usage locations
+   */
+  public List<Location> getUsages(Node context) {
+    if (!shared) return usages;
+    return findOwningProgram(context)
+        .map(p -> p.getSharedVariableUsages(this))
+        .orElseGet(ArrayList::new);
+  }
+
+  /**
+   * Mark this variable and all its nested variables as shared. A shared definition is built once
+   * and registered in many programs, e.g. special registers, so its tree is frozen read-only.
+   *
+   * @return this variable
+   */
+  public VariableNode markShared() {
+    getDepthFirstStream()
+        .filter(hasType(VARIABLE))
+        .map(VariableNode.class::cast)
+        .forEach(variable -> variable.shared = true);
+    freezeReadOnly();
+    return this;
+  }
+
+  private Optional<ProgramNode> findOwningProgram(Node context) {
+    Optional<ProgramNode> program =
+        context instanceof ProgramNode ? Optional.of((ProgramNode) context) : context.getProgram();
+    Optional<ProgramNode> nearest = program;
+    while (program.isPresent() && !program.get().hasSharedVariable(this)) {
+      program = program.get().getProgram();
+    }
+    return program.isPresent() ? program : nearest;
+  }
+
   public List<Location> getDefinitions() {
     return getChildren().stream()
         .filter(hasType(VARIABLE_DEFINITION_NAME))
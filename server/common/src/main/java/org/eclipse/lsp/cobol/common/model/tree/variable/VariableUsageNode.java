@@ -79,7 +79,7 @@ public class VariableUsageNode extends Node implements DefinedAndUsedStructure,
   @Override
   public List<Location> getUsages() {
     return getDefinition()
-        .map(VariableNode::getUsages)
+        .map(definition -> definition.getUsages(this))
         .orElseGet(ImmutableList::of);
   }
 
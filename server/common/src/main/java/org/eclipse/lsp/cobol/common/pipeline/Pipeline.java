@@ -15,6 +15,7 @@
 package org.eclipse.lsp.cobol.common.pipeline;
 
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.lsp.cobol.common.benchmark.AnalysisEvent;
 import org.eclipse.lsp.cobol.common.benchmark.BenchmarkSessionProvider;
 
 import java.util.*;
@@ -45,7 +46,15 @@ public class Pipeline<C extends BenchmarkSessionProvider> {
 
     for (Stage stage : stages) {
       StageResult<?> prevResult = result;
-      result = context.getBenchmarkSession().measure(stage.getName(), () -> stage.run(context, prevResult));
+      AnalysisEvent event = AnalysisEvent.begin(AnalysisEvent.Type.PIPELINE_STAGE, stage.getName(),
+          context.getBenchmarkSession().attr("uri"));
+      String outcome = "failed";
+      try {
+        result = context.getBenchmarkSession().measure(stage.getName(), () -> stage.run(context, prevResult));
+        outcome = result.stopProcessing() ? "stopped" : "done";
+      } finally {
+        event.end(outcome);
+      }
       if (result.stopProcessing()) {
         return new PipelineResult(result);
       }
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.common.benchmark;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.eclipse.lsp.cobol.common.pipeline.Pipeline;
+import org.eclipse.lsp.cobol.common.pipeline.Stage;
+import org.eclipse.lsp.cobol.common.pipeline.StageResult;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** This test checks that the analysis events are written to the flight recording. */
+class AnalysisEventTest {
+  private static final String URI = "file:///test.cbl";
+
+  @Test
+  void testPipelineStagesAreRecorded() throws IOException {
+    BenchmarkSession session = new BenchmarkSession();
+    session.attr("uri", URI);
+    Pipeline<BenchmarkSessionProvider> pipeline = new Pipeline<>();
+    pipeline.add(stage("first"));
+    pipeline.add(stage("second"));
+
+    Path file = Files.createTempFile("analysis", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("org.eclipse.lsp.cobol.PipelineStage");
+      recording.enable("org.eclipse.lsp.cobol.CopybookResolve");
+      recording.start();
+      pipeline.run(() -> session);
+      AnalysisEvent.begin(AnalysisEvent.Type.COPYBOOK_RESOLVE, "CPY", URI).size(42).end("hit");
+      recording.stop();
+      recording.dump(file);
+
+      List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+      List<RecordedEvent> stages = events.stream()
+          .filter(e -> e.getEventType().getName().equals("org.eclipse.lsp.cobol.PipelineStage"))
+          .collect(Collectors.toList());
+      assertEquals(2, stages.size());
+      assertEquals("first", stages.get(0).getString("name"));
+      assertEquals(URI, stages.get(0).getString("uri"));
+      assertEquals("done", stages.get(1).getString("outcome"));
+
+      RecordedEvent copybook = events.stream()
+          .filter(e -> e.getEventType().getName().equals("org.eclipse.lsp.cobol.CopybookResolve"))
+          .findFirst().orElseThrow(AssertionError::new);
+      assertEquals(42, copybook.getLong("size"));
+      assertEquals("hit", copybook.getString("outcome"));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  void testEventIsDisabledWithoutRecording() {
+    assertFalse(AnalysisEvent.begin(AnalysisEvent.Type.DIALECT, "dialect", URI).isRecorded());
+  }
+
+  @Test
+  void testEventIsEnabledWithRecording() {
+    try (Recording recording = new Recording()) {
+      recording.enable("org.eclipse.lsp.cobol.Dialect");
+      recording.start();
+      assertTrue(AnalysisEvent.begin(AnalysisEvent.Type.DIALECT, "dialect", URI).isRecorded());
+    }
+  }
+
+  private static Stage<BenchmarkSessionProvider, Void, Object> stage(String name) {
+    return new Stage<BenchmarkSessionProvider, Void, Object>() {
+      @Override
+      public StageResult<Void> run(BenchmarkSessionProvider context, StageResult<Object> prevStageResult) {
+        return new StageResult<>(null);
+      }
+
+      @Override
+      public String getName() {
+        return name;
+      }
+    };
+  }
+}
@@ -30,4 +30,64 @@ class BenchmarkServiceTests {
     assertEquals("100500", benchmarkSession.attr("size"));
     assertEquals("http://hello.com", benchmarkSession.attr("uri"));
   }
+
+  @Test
+  void sessionsAreBounded() {
+    BenchmarkService benchmarkService = new BenchmarkServiceImpl(3);
+    for (int i = 0; i < 10; i++) {
+      BenchmarkSession session = benchmarkService.startSession();
+      session.measure(ID + i, () -> null);
+      benchmarkService.logTiming(session);
+    }
+    List<Measurement> measurements = benchmarkService.getMeasurements();
+    assertEquals(3, measurements.size());
+    assertEquals(ID + 9, measurements.get(2).getId());
+    assertEquals(10, benchmarkService.getStageLatencies().size());
+  }
+
+  @Test
+  void sessionIsLoggedOnce() {
+    BenchmarkService benchmarkService = new BenchmarkServiceImpl();
+    BenchmarkSession session = benchmarkService.startSession();
+    session.measure(ID, () -> null);
+    benchmarkService.logTiming(session);
+    benchmarkService.logTiming();
+
+    assertEquals(1, benchmarkService.getStageLatencies().get(ID).getCount());
+    JsonObject json = benchmarkService.stageLatenciesToJson();
+    assertEquals(1, json.getAsJsonObject(ID).get("count").getAsLong());
+    assertTrue(json.getAsJsonObject(ID).has("p99"));
+  }
+
+  @Test
+  void histogramPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 1; i <= 10_000; i++) {
+      histogram.record(i * 1_000);
+    }
+    assertEquals(10_000, histogram.getCount());
+    assertEquals(10_000_000, histogram.getMax());
+    assertEquals(5_000_000, histogram.getValueAtPercentile(50), 5_000_000 * 0.01);
+    assertEquals(9_900_000, histogram.getValueAtPercentile(99), 9_900_000 * 0.01);
+    assertEquals(10_000_000, histogram.getValueAtPercentile(100));
+    assertEquals(0, new LatencyHistogram().getValueAtPercentile(50));
+  }
+
+  @Test
+  void cacheStatistics() {
+    BenchmarkService benchmarkService = new BenchmarkServiceImpl();
+    benchmarkService.logCacheLookup(ID, false, 0);
+    benchmarkService.logCacheLookup(ID, true, 2_000_000_000L);
+    benchmarkService.logCacheLookup(ID, true, -1);
+    benchmarkService.logCacheLookup(ID, true, 1_000_000_000L);
+
+    CacheStatistics statistics = benchmarkService.getCacheStatistics().get(ID);
+    assertEquals(3, statistics.getHits());
+    assertEquals(1, statistics.getMisses());
+    assertEquals(0.75, statistics.getHitRate());
+    assertEquals(3_000_000_000L, statistics.getSavedTime());
+    JsonObject json = benchmarkService.cacheStatisticsToJson();
+    assertEquals(3.0, json.getAsJsonObject(ID).get("saved").getAsDouble());
+    assertEquals(0, new CacheStatistics().getHitRate());
+  }
 }
@@ -163,4 +163,21 @@ class ExtendedDocumentTest {
     assertEquals("", text);
   }
 
+  @Test
+  void testTextSnapshotIsReusedUntilChange() {
+    String text = document.toString();
+    assertSame(text, document.toString());
+    assertEquals(1, document.getSnapshotReuses());
+
+    document.fillArea(new Range(new Position(4, 0), new Position(4, 17)), ' ');
+    String changed = document.toString();
+    assertNotSame(text, changed);
+    assertEquals("", changed.split("\n")[4].trim());
+    assertNotSame(changed, document.toString());
+    document.commitTransformations();
+    assertEquals(changed, document.toString());
+    assertSame(document.toString(), document.toString());
+    assertEquals(2, document.getSnapshotBuilds());
+    assertEquals(3, document.getSnapshotReuses());
+  }
 }
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.common.model.tree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multimap;
+import com.google.gson.Gson;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.eclipse.lsp.cobol.common.model.Locality;
+import org.eclipse.lsp.cobol.common.model.NodeType;
+import org.eclipse.lsp.cobol.common.model.SectionType;
+import org.eclipse.lsp.cobol.common.model.tree.variable.ElementaryItemNode;
+import org.eclipse.lsp.cobol.common.model.tree.variable.GroupItemNode;
+import org.eclipse.lsp.cobol.common.model.tree.variable.UsageFormat;
+import org.eclipse.lsp.cobol.common.model.tree.variable.VariableNode;
+import org.eclipse.lsp.cobol.common.model.tree.variable.VariableUsageNode;
+import org.eclipse.lsp.cobol.common.model.tree.variables.RenameItemNode;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.jupiter.api.Test;
+
+/** This test checks that {@link BinaryTreeWriter} and {@link BinaryTreeReader} restore the trees. */
+class BinaryTreeFormatTest {
+  private static final String URI = "file:///PROGRAM.cbl";
+  private static final String COPYBOOK_URI = "file:///STRUCT.cpy";
+  private static final Gson GSON = new Gson();
+
+  @Test
+  void testRoundTrip() throws IOException {
+    RootNode root = tree();
+
+    RootNode restored = (RootNode) BinaryTreeReader.fromBytes(BinaryTreeWriter.toBytes(root));
+
+    assertEquals(GSON.toJson(root), GSON.toJson(restored));
+    restored.getDepthFirstStream().forEach(node -> node.getChildren().forEach(child -> assertSame(node, child.getParent())));
+    assertNull(restored.getParent());
+  }
+
+  @Test
+  void testCrossReferencesKeepIdentity() throws IOException {
+    RootNode restored = (RootNode) BinaryTreeReader.fromBytes(BinaryTreeWriter.toBytes(tree()));
+
+    ProgramNode program = (ProgramNode) restored.getNodesByType(NodeType.PROGRAM).get(0);
+    GroupItemNode group = (GroupItemNode) restored.getNodesByType(NodeType.VARIABLE).get(0);
+    Node field = group.getChildren().get(0);
+    VariableUsageNode usage = (VariableUsageNode) restored.getNodesByType(NodeType.VARIABLE_USAGE).get(0);
+    RenameItemNode rename = (RenameItemNode) restored.getNodesByType(NodeType.VARIABLE).get(3);
+
+    assertSame(field, usage.getDefinition().orElse(null));
+    assertSame(group, rename.getVarGroupParent());
+    assertSame(usage.getLocality(), restored.getNodesByType(NodeType.SECTION).get(1).getLocality());
+  }
+
+  @Test
+  void testTransientFieldsAreSkipped() throws IOException {
+    RootNode restored = (RootNode) BinaryTreeReader.fromBytes(BinaryTreeWriter.toBytes(tree()));
+
+    ProgramNode program = (ProgramNode) restored.getNodesByType(NodeType.PROGRAM).get(0);
+    assertTrue(program.getSharedVariables().isEmpty());
+  }
+
+  @Test
+  void testSeveralValuesInOneStream() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    RootNode root = tree();
+    Multimap<String, Node> variables = ArrayListMultimap.create();
+    root.getNodesByType(NodeType.VARIABLE).forEach(node -> variables.put(((VariableNode) node).getName(), node));
+    try (BinaryTreeWriter writer = new BinaryTreeWriter(out)) {
+      writer.write(root);
+      writer.write(variables);
+      writer.write(Arrays.asList("FLD-A", 42L, 1.5));
+      writer.write(root.getChildren().get(0));
+    }
+
+    try (BinaryTreeReader reader = new BinaryTreeReader(new ByteArrayInputStream(out.toByteArray()))) {
+      RootNode restored = reader.read(RootNode.class);
+      Multimap<String, Node> restoredVariables = reader.read(Multimap.class);
+      assertEquals(variables.keySet(), restoredVariables.keySet());
+      assertSame(restored.getNodesByType(NodeType.VARIABLE).get(1), restoredVariables.get("FLD-A").iterator().next());
+      assertEquals(Arrays.asList("FLD-A", 42L, 1.5), reader.read(List.class));
+      assertSame(restored.getChildren().get(0), reader.read(ProgramNode.class));
+      assertThrows(EOFException.class, reader::read);
+    }
+  }
+
+  @Test
+  void testBinaryFormIsSmallerThanJson() {
+    RootNode root = new RootNode(locality(URI, 0, 0, 200, 0));
+    ProgramNode program = new ProgramNode(locality(URI, 0, 0, 200, 0), ProgramSubtype.Program, 0);
+    root.addChild(program);
+    for (int i = 0; i < 200; i++) {
+      program.addChild(new ElementaryItemNode(locality(URI, i, 7, i, 30), 1, "FIELD-" + i, false, "X(10)",
+          null, UsageFormat.UNDEFINED, false, false, false));
+    }
+
+    int binarySize = BinaryTreeWriter.toBytes(root).length;
+    int jsonSize = GSON.toJson(root).getBytes(StandardCharsets.UTF_8).length;
+
+    assertTrue(binarySize * 5 < jsonSize, binarySize + " vs " + jsonSize);
+  }
+
+  @Test
+  void testInvalidInput() throws IOException {
+    assertThrows(IOException.class, () -> BinaryTreeReader.fromBytes("{}".getBytes(StandardCharsets.UTF_8)));
+    assertThrows(IllegalArgumentException.class,
+        () -> new BinaryTreeWriter(new ByteArrayOutputStream()).write(new Thread()));
+  }
+
+  @Test
+  void testOnlyAllowedClassesAreRead() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (BinaryTreeWriter writer = new BinaryTreeWriter(out)) {
+      writer.write(new Payload("VALUE"));
+    }
+
+    assertThrows(IOException.class, () -> new BinaryTreeReader(new ByteArrayInputStream(out.toByteArray())).read());
+    try (BinaryTreeReader reader = new BinaryTreeReader(new ByteArrayInputStream(out.toByteArray()),
+        getClass().getClassLoader(), Collections.singleton(Payload.class))) {
+      assertEquals("VALUE", reader.read(Payload.class).value);
+    }
+  }
+
+  private static RootNode tree() {
+    Locality procedureLocality = locality(URI, 12, 11, 12, 16);
+    RootNode root = new RootNode(locality(URI, 0, 0, 14, 0));
+    ProgramNode program = new ProgramNode(locality(URI, 0, 7, 14, 0), ProgramSubtype.Program, 0);
+    program.setProgramName("PROGRAM");
+    root.addChild(program);
+
+    SectionNode storage = new SectionNode(locality(URI, 2, 7, 8, 0), SectionType.WORKING_STORAGE);
+    program.addChild(storage);
+    GroupItemNode group = new GroupItemNode(locality(COPYBOOK_URI, 0, 7, 3, 20), 1, "GRP", false, false, UsageFormat.UNDEFINED);
+    ElementaryItemNode field = new ElementaryItemNode(locality(COPYBOOK_URI, 1, 11, 1, 30), 5, "FLD-A", false, "X(10)",
+        null, UsageFormat.UNDEFINED, false, false, false);
+    group.addChild(field);
+    group.addChild(new ElementaryItemNode(locality(COPYBOOK_URI, 2, 11, 2, 30), 5, "FLD-B", false, "9(5)",
+        "ZERO", UsageFormat.COMP, false, false, false));
+    storage.addChild(group);
+    RenameItemNode rename = new RenameItemNode(locality(URI, 4, 7, 4, 40), "REN", false, false);
+    rename.setVarGroupParent(group);
+    storage.addChild(rename);
+
+    SectionNode procedure = new SectionNode(procedureLocality, SectionType.PROCEDURE);
+    program.addChild(procedure);
+    VariableUsageNode usage = new VariableUsageNode("FLD-A", procedureLocality);
+    usage.addDefinition(field);
+    field.addUsage(usage);
+    procedure.addChild(usage);
+
+    program.registerSharedVariable(group);
+    program.addSharedVariableUsage(group, new Location(URI, new Range(new Position(13, 11), new Position(13, 14))));
+    group.setText(ImmutableList.of("GRP", "FLD-A", "FLD-B").toString());
+    return root;
+  }
+
+  private static Locality locality(String uri, int startLine, int startCharacter, int endLine, int endCharacter) {
+    return Locality.builder()
+        .uri(uri)
+        .copybookId(uri.equals(COPYBOOK_URI) ? "STRUCT" : null)
+        .range(new Range(new Position(startLine, startCharacter), new Position(endLine, endCharacter)))
+        .build();
+  }
+
+  /** A value type without a no-argument constructor that is not allowed by default */
+  private static final class Payload {
+    private final String value;
+
+    private Payload(String value) {
+      this.value = value;
+    }
+  }
+}
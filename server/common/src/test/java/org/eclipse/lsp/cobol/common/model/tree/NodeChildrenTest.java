@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.common.model.tree;
+
+import org.eclipse.lsp.cobol.common.model.Locality;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** This test checks the children list of the {@link Node} before and after freezing the tree. */
+class NodeChildrenTest {
+
+  @Test
+  void testModificationDuringIteration() {
+    Node parent = node("parent");
+    Node first = node("first");
+    Node second = node("second");
+    parent.addChild(first);
+    parent.addChild(second);
+
+    for (Node child : parent.getChildren()) {
+      parent.removeChild(child);
+      parent.addChild(node(child.getText() + "-copy"));
+    }
+
+    assertEquals(Arrays.asList("first-copy", "second-copy"), texts(parent.getChildren()));
+  }
+
+  @Test
+  void testStreamIsNotAffectedByModification() {
+    Node parent = node("parent");
+    parent.addChild(node("first"));
+    parent.addChild(node("second"));
+
+    List<String> visited = parent.getChildren().stream()
+        .peek(child -> parent.addChildAt(0, node("added")))
+        .map(Node::getText)
+        .collect(Collectors.toList());
+
+    assertEquals(Arrays.asList("first", "second"), visited);
+    assertEquals(Arrays.asList("added", "added", "first", "second"), texts(parent.getChildren()));
+  }
+
+  @Test
+  void testUnfinishedIteratorIsNotAffectedByModification() {
+    Node parent = node("parent");
+    parent.addChild(node("first"));
+    parent.addChild(node("second"));
+
+    List<String> visited = new ArrayList<>();
+    for (Node child : parent.getChildren()) {
+      visited.add(child.getText());
+    }
+    assertEquals(Arrays.asList("first", "second"), visited);
+    Iterator<Node> iterator = parent.getChildren().iterator();
+    iterator.next();
+    parent.addChildAt(1, node("added"));
+    parent.removeChild(parent.getChildren().get(2));
+
+    assertEquals("second", iterator.next().getText());
+    assertFalse(iterator.hasNext());
+    assertEquals(Arrays.asList("first", "added"), texts(parent.getChildren()));
+  }
+
+  @Test
+  void testFrozenListMutators() {
+    Node root = node("root");
+    root.addChild(node("b"));
+    root.addChild(node("c"));
+    root.addChild(node("a"));
+    root.freeze();
+    List<Node> children = root.getChildren();
+
+    children.sort(Comparator.comparing(Node::getText));
+    assertEquals(Arrays.asList("a", "b", "c"), texts(children));
+    children.replaceAll(child -> node(child.getText() + "1"));
+    assertEquals(Arrays.asList("a1", "b1", "c1"), texts(children));
+    assertTrue(children.get(0).isFrozen());
+    assertTrue(children.removeIf(child -> child.getText().startsWith("b")));
+    assertEquals(Arrays.asList("a1", "c1"), texts(children));
+    children.clear();
+    assertTrue(children.isEmpty());
+    assertTrue(root.isFrozen());
+  }
+
+  @Test
+  void testFrozenTreeIsStillModifiable() {
+    Node root = node("root");
+    Node child = node("child");
+    root.addChild(child);
+    child.addChild(node("grandchild"));
+
+    root.freeze();
+    List<Node> snapshot = root.getChildren().stream().collect(Collectors.toList());
+    root.addChildAt(0, node("first"));
+    child.removeChild(child.getChildren().get(0));
+
+    assertEquals(Arrays.asList("child"), texts(snapshot));
+    assertEquals(Arrays.asList("first", "child"), texts(root.getChildren()));
+    assertTrue(child.getChildren().isEmpty());
+    assertSame(root, child.getParent());
+  }
+
+  @Test
+  void testFreezeDeepTree() {
+    Node root = node("root");
+    Node current = root;
+    for (int i = 0; i < 100_000; i++) {
+      Node next = node("node" + i);
+      current.addChild(next);
+      current = next;
+    }
+
+    root.freeze();
+
+    int depth = 0;
+    for (Node node = root; !node.getChildren().isEmpty(); node = node.getChildren().get(0)) {
+      depth++;
+    }
+    assertEquals(100_000, depth);
+  }
+
+  @Test
+  void testReadOnlyTree() {
+    Node root = node("root");
+    Node child = node("child");
+    root.addChild(child);
+    child.addChild(node("grandchild"));
+
+    root.freezeReadOnly();
+
+    assertThrows(UnsupportedOperationException.class, () -> root.addChild(node("added")));
+    assertThrows(UnsupportedOperationException.class, () -> child.removeChild(child.getChildren().get(0)));
+    assertThrows(UnsupportedOperationException.class, () -> child.getChildren().clear());
+    assertThrows(UnsupportedOperationException.class, () -> root.getChildren().sort(Comparator.comparing(Node::getText)));
+    assertEquals(Arrays.asList("child"), texts(root.getChildren()));
+    assertEquals(Arrays.asList("grandchild"), texts(child.getChildren()));
+  }
+
+  private static Node node(String text) {
+    Node node = new RootNode(Locality.builder().build());
+    node.setText(text);
+    return node;
+  }
+
+  private static List<String> texts(List<Node> nodes) {
+    return nodes.stream().map(Node::getText).collect(Collectors.toList());
+  }
+}
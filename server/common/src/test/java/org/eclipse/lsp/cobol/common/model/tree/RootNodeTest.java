@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.common.model.tree;
+
+import org.eclipse.lsp.cobol.common.model.Locality;
+import org.eclipse.lsp.cobol.common.model.NodeType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** This test checks the depth-first traversal of the tree and the node type index of {@link RootNode}. */
+class RootNodeTest {
+
+  @Test
+  void testDepthFirstOrder() {
+    RootNode root = tree();
+
+    assertEquals(
+        Arrays.asList("root", "program1", "section", "program2"),
+        texts(root.getDepthFirstStream().collect(Collectors.toList())));
+    assertEquals(
+        Arrays.asList("program1", "program2"),
+        texts(root.getDepthFirstStream(NodeType.PROGRAM).collect(Collectors.toList())));
+  }
+
+  @Test
+  void testIndexIsUpdatedAfterChange() {
+    RootNode root = tree();
+    root.freeze();
+
+    List<Node> programs = root.getNodesByType(NodeType.PROGRAM);
+    assertSame(programs, root.getNodesByType(NodeType.PROGRAM));
+    assertTrue(root.getNodesByType(NodeType.COPY).isEmpty());
+
+    Node program1 = programs.get(0);
+    program1.addChild(node("program3", NodeType.PROGRAM));
+
+    assertEquals(
+        Arrays.asList("program1", "program3", "program2"),
+        texts(root.getNodesByType(NodeType.PROGRAM)));
+  }
+
+  @Test
+  void testDeepTreeStream() {
+    RootNode root = new RootNode();
+    Node current = root;
+    for (int i = 0; i < 100_000; i++) {
+      Node next = node("section" + i, NodeType.SECTION);
+      current.addChild(next);
+      current = next;
+    }
+    root.freeze();
+
+    assertEquals(100_001, root.getDepthFirstStream().count());
+    assertEquals(100_000, root.getNodesByType(NodeType.SECTION).size());
+  }
+
+  private static RootNode tree() {
+    RootNode root = new RootNode();
+    root.setText("root");
+    Node program1 = node("program1", NodeType.PROGRAM);
+    program1.addChild(node("section", NodeType.SECTION));
+    root.addChild(program1);
+    root.addChild(node("program2", NodeType.PROGRAM));
+    return root;
+  }
+
+  private static Node node(String text, NodeType type) {
+    Node node = new Node(Locality.builder().build(), type) { };
+    node.setText(text);
+    return node;
+  }
+
+  private static List<String> texts(List<Node> nodes) {
+    return nodes.stream().map(Node::getText).collect(Collectors.toList());
+  }
+}
@@ -45,6 +45,7 @@ import java.util.regex.Pattern;
 public final class DaCoDialect implements CobolDialect {
   public static final String NAME = "DaCo";
   private final Pattern dcdbPattern = Pattern.compile("^[\\s\\d]{7}D-[BC]", Pattern.MULTILINE);
+  private static final String DC_DB_MARKER = "D-";
   private static final String DACO_CPY_LOCAL_PATHS = "cpy-manager.daco.paths-local";
   public static final String DACO_PREDEFINED_SECTIONS = "daco.predefined-sections";
   private static final String IDMS_DIALECT_NAME = "IDMS";
@@ -115,10 +116,14 @@ public final class DaCoDialect implements CobolDialect {
 
   private void removeDcDb(ExtendedDocument extendedDocument) {
     String input = extendedDocument.toString();
+    if (!input.contains(DC_DB_MARKER)) {
+      return;
+    }
     Matcher matcher = dcdbPattern.matcher(input);
+    DialectUtils.PositionFinder positions = new DialectUtils.PositionFinder(input);
     while (matcher.find()) {
-      Position start = DialectUtils.findPosition(input, matcher.start());
-      Position end = DialectUtils.findPosition(input, matcher.end() - 1);
+      Position start = positions.find(matcher.start());
+      Position end = positions.find(matcher.end() - 1);
       String replace = new String(new char[matcher.end() - matcher.start() - 1]).replace('\0', ' ');
       extendedDocument.replace(new Range(start, end), replace);
     }
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.dialects.daco;
+
+/**
+ * Single pass scanner of a source line. It finds the keywords of the statements handled by {@link
+ * DaCoMaidProcessor}, so the regular expressions are applied only to the lines that may match them.
+ * The result of the scan never rejects a line that the corresponding regular expression accepts.
+ */
+final class DaCoLineScanner {
+  /** The line contains DIVISION keyword */
+  static final int DIVISION = 1;
+  /** The line contains MAID keyword */
+  static final int COPY_MAID = 1 << 1;
+  /** The line contains COPY-FROM keyword */
+  static final int COPY_FROM = 1 << 2;
+  /** The line may start with a level number */
+  static final int DATA_ENTRY = 1 << 3;
+
+  private static final String DIVISION_KEYWORD = "DIVISION";
+  private static final String MAID_KEYWORD = "MAID";
+  private static final String COPY_FROM_KEYWORD = "COPY-FROM";
+
+  private DaCoLineScanner() {
+  }
+
+  /**
+   * Scan the line for the statement keywords
+   *
+   * @param line the source line without the line separator
+   * @return a combination of the flags of the statements that may be found in the line
+   */
+  static int scan(String line) {
+    int result = 0;
+    boolean leadingSpace = true;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (leadingSpace && !isSpace(c)) {
+        leadingSpace = false;
+        if (c >= '0' && c <= '9') {
+          result |= DATA_ENTRY;
+        }
+      }
+      switch (c) {
+        case 'd':
+        case 'D':
+          result |= matches(line, i, DIVISION_KEYWORD) ? DIVISION : 0;
+          break;
+        case 'm':
+        case 'M':
+          result |= matches(line, i, MAID_KEYWORD) ? COPY_MAID : 0;
+          break;
+        case 'c':
+        case 'C':
+          result |= matches(line, i, COPY_FROM_KEYWORD) ? COPY_FROM : 0;
+          break;
+        case '\r':
+        case '\u0085':
+        case '\u2028':
+        case '\u2029':
+          // a multiline pattern may also start a match after these line terminators
+          result |= DATA_ENTRY;
+          break;
+        default:
+          break;
+      }
+    }
+    return result;
+  }
+
+  private static boolean matches(String line, int offset, String keyword) {
+    return line.regionMatches(true, offset, keyword, 0, keyword.length());
+  }
+
+  private static boolean isSpace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+}
@@ -16,7 +16,12 @@ package org.eclipse.lsp.cobol.dialects.daco;
 
 import static org.eclipse.lsp.cobol.common.error.ErrorSeverity.ERROR;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -53,27 +58,30 @@ import org.eclipse.lsp4j.Range;
 @RequiredArgsConstructor
 public class DaCoMaidProcessor {
   private static final String MAID_WRK_QUALIFIER = "WRK";
-  private final Pattern procedureDivisionPattern =
+  private static final int MAX_CACHED_LAYOUTS = 500;
+  static final Pattern PROCEDURE_DIVISION_PATTERN =
       Pattern.compile(
           "\\s*procedure\\s+division[\\w\\s]*", Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
-  private final Pattern dataDivisionPattern =
+  static final Pattern DATA_DIVISION_PATTERN =
       Pattern.compile("\\s*data\\s+division\\s*\\.", Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
-  private final Pattern dataDescriptionEntryPattern =
+  static final Pattern DATA_DESCRIPTION_ENTRY_PATTERN =
       Pattern.compile(
           "^\\s*(?<lvl>\\d+)\\s+(?!copy maid)(?<entryName>\\w+(-\\w+)?)?.*\\..*$",
           Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
 
-  private final Pattern dataDescriptionEntryWithCopyFromPattern =
+  static final Pattern DATA_DESCRIPTION_ENTRY_WITH_COPY_FROM_PATTERN =
       Pattern.compile(
           "^(?<indent>\\s*)(?<lvl>\\d+)\\s+(?!copy maid)(?<entryName>\\w+(-\\w+)?)?.*(?<copyfrom>COPY-FROM)\\s+(?<protoSuffix>\\w+)\\..*$",
           Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
-  private final Pattern copyMaidPattern =
+  static final Pattern COPY_MAID_PATTERN =
       Pattern.compile(
           "^(?<indent>\\s*)(?<level>\\d{1,2})?\\s*COPY\\s+MAID\\s+(?<layoutId>[a-zA-Z\\d]*-?[a-zA-Z\\d]{0,3})\\s*(?<layoutUsage>[a-zA-Z]{3,6})?\\s*\\.?\\s*(?<floatingComment>\\s+\\*\\>\\s?.*)?$",
           Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
   private final CopybookService copybookService;
   private final ParseTreeListener treeListener;
   private final MessageService messageService;
+  private final Cache<HashCode, ParserRuleContext> layoutCache =
+      CacheBuilder.newBuilder().maximumSize(MAX_CACHED_LAYOUTS).build();
 
   /**
    * Process MAID copybooks in the source code
@@ -90,34 +98,45 @@ public class DaCoMaidProcessor {
     String lastSuffix = null;
     for (int lineNumber = 0; lineNumber < lines.length; lineNumber++) {
       String line = lines[lineNumber];
-      if (procedureDivisionPattern.matcher(line).find()) {
+      int keywords = DaCoLineScanner.scan(line);
+      if (has(keywords, DaCoLineScanner.DIVISION) && PROCEDURE_DIVISION_PATTERN.matcher(line).find()) {
         state = DaCoMaidProcessingState.PROCEDURE_DIVISION;
       }
       if (state == DaCoMaidProcessingState.DATA_DIVISION) {
-        Matcher dataEntry = dataDescriptionEntryPattern.matcher(line);
-        if (dataEntry.find()) {
-          String name = dataEntry.group("entryName");
-          int lvl = Integer.parseInt(dataEntry.group("lvl"));
-          if (name != null
-              && VariableConstants.LEVEL_66 != lvl
-              && VariableConstants.LEVEL_77 != lvl
-              && VariableConstants.LEVEL_88 != lvl) {
-            lastSuffix = DaCoHelper.extractSuffix(name).orElse(lastSuffix);
+        if (has(keywords, DaCoLineScanner.DATA_ENTRY)) {
+          Matcher dataEntry = DATA_DESCRIPTION_ENTRY_PATTERN.matcher(line);
+          if (dataEntry.find()) {
+            String name = dataEntry.group("entryName");
+            int lvl = Integer.parseInt(dataEntry.group("lvl"));
+            if (name != null
+                && VariableConstants.LEVEL_66 != lvl
+                && VariableConstants.LEVEL_77 != lvl
+                && VariableConstants.LEVEL_88 != lvl) {
+              lastSuffix = DaCoHelper.extractSuffix(name).orElse(lastSuffix);
+            }
           }
         }
-        Matcher copyFrom = dataDescriptionEntryWithCopyFromPattern.matcher(line);
-        if (copyFrom.find()) {
-          dacoNodes.add(createCopyFromNode(copyFrom, lineNumber, context));
+        if (has(keywords, DaCoLineScanner.COPY_FROM)) {
+          Matcher copyFrom = DATA_DESCRIPTION_ENTRY_WITH_COPY_FROM_PATTERN.matcher(line);
+          if (copyFrom.find()) {
+            dacoNodes.add(createCopyFromNode(copyFrom, lineNumber, context));
+          }
         }
-      } else if (dataDivisionPattern.matcher(line).find()) {
+      } else if (has(keywords, DaCoLineScanner.DIVISION) && DATA_DIVISION_PATTERN.matcher(line).find()) {
         state = DaCoMaidProcessingState.DATA_DIVISION;
       }
-      collectCopyMaid(line, lineNumber, dacoNodes, lastSuffix, context, errors);
+      if (has(keywords, DaCoLineScanner.COPY_MAID)) {
+        collectCopyMaid(line, lineNumber, dacoNodes, lastSuffix, context, errors);
+      }
     }
 
     return new DialectOutcome(dacoNodes, context);
   }
 
+  private static boolean has(int keywords, int keyword) {
+    return (keywords & keyword) != 0;
+  }
+
   private Node createCopyFromNode(
       Matcher copyFrom, int lineNumber, DialectProcessingContext context) {
     String entryName = copyFrom.group("entryName");
@@ -150,7 +169,7 @@ public class DaCoMaidProcessor {
       String lastSuffix,
       DialectProcessingContext context,
       List<SyntaxError> errors) {
-    Matcher matcher = copyMaidPattern.matcher(input);
+    Matcher matcher = COPY_MAID_PATTERN.matcher(input);
     if (matcher.find()) {
       String indent = matcher.group("indent");
       int startChar = indent == null ? 0 : matcher.end("indent") - 1;
@@ -278,7 +297,23 @@ public class DaCoMaidProcessor {
     if (copybookModel.getContent() == null) {
       return ImmutableList.of();
     }
-    String text = DaCoPreprocessor.run(copybookModel.getContent());
+    DaCoCopybookVisitor visitor =
+        new DaCoCopybookVisitor(copybookModel.getUri(), startingLevel, suffix, copybookModel.getCopybookId().toString());
+    return visitor.visit(parseLayout(copybookModel.getContent()));
+  }
+
+  /**
+   * Parse the MAID layout. The parse tree does not depend on the copybook usage, so it is cached by
+   * the layout content and visited again for every COPY MAID statement with its own starting level,
+   * suffix and URI.
+   */
+  private ParserRuleContext parseLayout(String content) {
+    HashCode key = Hashing.sha256().hashString(content, StandardCharsets.UTF_8);
+    ParserRuleContext cached = layoutCache.getIfPresent(key);
+    if (cached != null) {
+      return cached;
+    }
+    String text = DaCoPreprocessor.run(content);
 
     VariableLexer lexer = new VariableLexer(CharStreams.fromString(text));
     lexer.removeErrorListeners();
@@ -291,10 +326,9 @@ public class DaCoMaidProcessor {
     parser.setErrorHandler(new DaCoErrorStrategy(messageService));
     parser.addParseListener(treeListener);
 
-    DaCoCopybookVisitor visitor =
-        new DaCoCopybookVisitor(copybookModel.getUri(), startingLevel, suffix, copybookModel.getCopybookId().toString());
     ParserRuleContext ctx = parser.dataDescriptionEntries();
-    return visitor.visit(ctx);
+    layoutCache.put(key, ctx);
+    return ctx;
   }
 
   private static String makeCopybookFileName(
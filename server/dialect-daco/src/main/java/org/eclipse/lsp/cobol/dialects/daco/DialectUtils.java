@@ -69,18 +69,44 @@ public class DialectUtils {
    * @return position
    */
   public static Position findPosition(String text, int pos) {
-    int c = 1;
-    int line = 0;
-    int col = 1;
-    while (c <= pos) {
-      if (text.charAt(c) == '\n') {
-        ++line;
+    return new PositionFinder(text).find(pos);
+  }
+
+  /**
+   * Finds line column positions in a text. The text is scanned once for the increasing indexes,
+   * the scan continues from the previously found position.
+   */
+  public static final class PositionFinder {
+    private final String text;
+    private int c = 1;
+    private int line = 0;
+    private int col = 1;
+
+    public PositionFinder(String text) {
+      this.text = text;
+    }
+
+    /**
+     * Find line column position by string index
+     * @param pos position in text
+     * @return position
+     */
+    public Position find(int pos) {
+      if (pos < c - 1) {
+        c = 1;
+        line = 0;
         col = 1;
-      } else {
-        ++col;
       }
-      c++;
+      while (c <= pos) {
+        if (text.charAt(c) == '\n') {
+          ++line;
+          col = 1;
+        } else {
+          ++col;
+        }
+        c++;
+      }
+      return new Position(line, col);
     }
-    return new Position(line, col);
   }
 }
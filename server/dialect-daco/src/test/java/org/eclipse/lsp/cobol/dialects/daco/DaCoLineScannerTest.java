@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.dialects.daco;
+
+import org.junit.jupiter.api.Test;
+
+import static org.eclipse.lsp.cobol.dialects.daco.DaCoLineScanner.COPY_FROM;
+import static org.eclipse.lsp.cobol.dialects.daco.DaCoLineScanner.COPY_MAID;
+import static org.eclipse.lsp.cobol.dialects.daco.DaCoLineScanner.DATA_ENTRY;
+import static org.eclipse.lsp.cobol.dialects.daco.DaCoLineScanner.DIVISION;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test for DaCoLineScanner
+ */
+class DaCoLineScannerTest {
+  @Test
+  void testDivisions() {
+    assertEquals(DIVISION, DaCoLineScanner.scan("       PROCEDURE DIVISION."));
+    assertEquals(DIVISION, DaCoLineScanner.scan("       data Division."));
+  }
+
+  @Test
+  void testCopyMaid() {
+    assertEquals(COPY_MAID, DaCoLineScanner.scan("       COPY MAID ABC-DEF WRK."));
+    assertEquals(DATA_ENTRY | COPY_MAID, DaCoLineScanner.scan("       01 copy maid ABC-DEF."));
+  }
+
+  @Test
+  void testCopyFrom() {
+    assertEquals(DATA_ENTRY | COPY_FROM, DaCoLineScanner.scan("       05 NAME-AB Copy-From CD."));
+  }
+
+  @Test
+  void testOtherLines() {
+    assertEquals(0, DaCoLineScanner.scan("           MOVE A TO B."));
+    assertEquals(0, DaCoLineScanner.scan(""));
+    assertEquals(DATA_ENTRY, DaCoLineScanner.scan("       77 COUNTER PIC 9."));
+    assertEquals(DATA_ENTRY, DaCoLineScanner.scan("           MOVE A\r01 TO B."));
+  }
+}
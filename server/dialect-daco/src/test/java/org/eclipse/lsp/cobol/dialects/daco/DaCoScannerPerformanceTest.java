@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.dialects.daco;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This test compares the line classification of {@link DaCoMaidProcessor} with all the regular
+ * expressions applied to every line against the {@link DaCoLineScanner} that applies them only to
+ * the lines with the keywords, and the DC/DB positions found by {@link DialectUtils#findPosition}
+ * against {@link DialectUtils.PositionFinder}, on a generated program of {@value #GROUPS} groups. The
+ * result outputs to the console in the form "LINES 120 40" and "POSITIONS 900 2" where the numbers
+ * are the best time in ms of the previous and the current approach, of {@value #RUNS} runs for the
+ * lines and {@value #POSITION_RUNS} runs for the positions.
+ * Disabled by default, to enable provide <code>-Dtests.perf=true</code> as a system property for
+ * the run configuration.
+ */
+class DaCoScannerPerformanceTest {
+  private static final String MODE_PROPERTY_NAME = "tests.perf";
+  private static final String TEST_MODE = System.getProperty(MODE_PROPERTY_NAME);
+  private static final int RUNS = 10;
+  private static final int POSITION_RUNS = 3;
+  private static final int GROUPS = 5_000;
+  private static final Pattern DC_DB_PATTERN = Pattern.compile("^[\\s\\d]{7}D-[BC]", Pattern.MULTILINE);
+
+  @Test
+  void scannerPerformanceTest() {
+    if (!Boolean.TRUE.toString().equals(TEST_MODE)) return;
+    String text = generateProgram();
+    String[] lines = text.split("\n", -1);
+
+    assertEquals(classify(lines, false), classify(lines, true));
+    long regex = Long.MAX_VALUE;
+    long scanner = Long.MAX_VALUE;
+    for (int i = 0; i < RUNS; i++) {
+      long start = System.nanoTime();
+      classify(lines, false);
+      regex = Math.min(regex, System.nanoTime() - start);
+      start = System.nanoTime();
+      classify(lines, true);
+      scanner = Math.min(scanner, System.nanoTime() - start);
+    }
+    System.out.printf("LINES %d %d\n", regex / 1_000_000, scanner / 1_000_000);
+
+    assertEquals(findPositions(text, false), findPositions(text, true));
+    long findPosition = Long.MAX_VALUE;
+    long finder = Long.MAX_VALUE;
+    for (int i = 0; i < POSITION_RUNS; i++) {
+      long start = System.nanoTime();
+      findPositions(text, false);
+      findPosition = Math.min(findPosition, System.nanoTime() - start);
+      start = System.nanoTime();
+      findPositions(text, true);
+      finder = Math.min(finder, System.nanoTime() - start);
+    }
+    System.out.printf("POSITIONS %d %d\n", findPosition / 1_000_000, finder / 1_000_000);
+  }
+
+  /** The matching part of DaCoMaidProcessor.process, returns the number of the matched statements */
+  private static int classify(String[] lines, boolean scan) {
+    int matches = 0;
+    boolean dataDivision = false;
+    for (String line : lines) {
+      int keywords = scan ? DaCoLineScanner.scan(line) : -1;
+      if (has(keywords, DaCoLineScanner.DIVISION)
+          && DaCoMaidProcessor.PROCEDURE_DIVISION_PATTERN.matcher(line).find()) {
+        dataDivision = false;
+        matches++;
+      }
+      if (dataDivision) {
+        if (has(keywords, DaCoLineScanner.DATA_ENTRY)
+            && DaCoMaidProcessor.DATA_DESCRIPTION_ENTRY_PATTERN.matcher(line).find()) {
+          matches++;
+        }
+        if (has(keywords, DaCoLineScanner.COPY_FROM)
+            && DaCoMaidProcessor.DATA_DESCRIPTION_ENTRY_WITH_COPY_FROM_PATTERN.matcher(line).find()) {
+          matches++;
+        }
+      } else if (has(keywords, DaCoLineScanner.DIVISION)
+          && DaCoMaidProcessor.DATA_DIVISION_PATTERN.matcher(line).find()) {
+        dataDivision = true;
+        matches++;
+      }
+      if (has(keywords, DaCoLineScanner.COPY_MAID)
+          && DaCoMaidProcessor.COPY_MAID_PATTERN.matcher(line).find()) {
+        matches++;
+      }
+    }
+    return matches;
+  }
+
+  /** The position lookup of DaCoDialect.removeDcDb, returns the sum of the found lines */
+  private static long findPositions(String text, boolean continueScan) {
+    long result = 0;
+    Matcher matcher = DC_DB_PATTERN.matcher(text);
+    DialectUtils.PositionFinder finder = new DialectUtils.PositionFinder(text);
+    while (matcher.find()) {
+      result += continueScan
+          ? finder.find(matcher.start()).getLine() + finder.find(matcher.end() - 1).getLine()
+          : DialectUtils.findPosition(text, matcher.start()).getLine()
+              + DialectUtils.findPosition(text, matcher.end() - 1).getLine();
+    }
+    return result;
+  }
+
+  private static boolean has(int keywords, int keyword) {
+    return (keywords & keyword) != 0;
+  }
+
+  private static String generateProgram() {
+    StringBuilder data = new StringBuilder();
+    StringBuilder procedure = new StringBuilder();
+    for (int i = 0; i < GROUPS; i++) {
+      String suffix = String.format("%03d", i % 1000).substring(1);
+      data.append("       01  GROUP").append(i).append("-G").append(suffix).append(".\n")
+          .append("           05  FIELD").append(i).append("-G").append(suffix).append(" PIC X(10).\n")
+          .append("           05  COPY").append(i).append("-G").append(suffix).append(" COPY-FROM XY.\n")
+          .append("       01  COPY MAID LAYOUT-").append(suffix).append(".\n")
+          .append("      * A COMMENT LINE ").append(i).append("\n");
+      procedure.append("           MOVE FIELD").append(i).append("-G").append(suffix)
+          .append(" TO COPY").append(i).append("-G").append(suffix).append(".\n")
+          .append("           PERFORM PARA").append(i).append(".\n")
+          .append(String.format("%06d", i)).append(" D-B  CALL DB").append(i).append(".\n");
+    }
+    return "       IDENTIFICATION DIVISION.\n"
+        + "       PROGRAM-ID. TEST1.\n"
+        + "       DATA DIVISION.\n"
+        + "       WORKING-STORAGE SECTION.\n"
+        + data
+        + "       PROCEDURE DIVISION.\n"
+        + procedure;
+  }
+}
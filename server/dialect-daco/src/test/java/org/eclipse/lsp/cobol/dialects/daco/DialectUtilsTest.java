@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.dialects.daco;
+
+import org.eclipse.lsp4j.Position;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test for DialectUtils
+ */
+class DialectUtilsTest {
+  private static final String TEXT = "\n000100 D-B  LINE\n       PROCEDURE DIVISION.\n\n000200 D-C";
+
+  @Test
+  void testFindPosition() {
+    assertEquals(new Position(0, 1), DialectUtils.findPosition(TEXT, 0));
+    assertEquals(new Position(0, 9), DialectUtils.findPosition(TEXT, 8));
+    assertEquals(new Position(1, 1), DialectUtils.findPosition(TEXT, 17));
+    assertEquals(new Position(1, 14), DialectUtils.findPosition(TEXT, 30));
+    assertEquals(new Position(3, 11), DialectUtils.findPosition(TEXT, TEXT.length() - 1));
+  }
+
+  @Test
+  void testPositionFinderContinuesScan() {
+    DialectUtils.PositionFinder finder = new DialectUtils.PositionFinder(TEXT);
+    for (int pos = 0; pos < TEXT.length(); pos++) {
+      assertEquals(DialectUtils.findPosition(TEXT, pos), finder.find(pos));
+    }
+  }
+
+  @Test
+  void testPositionFinderWithDecreasingPositions() {
+    DialectUtils.PositionFinder finder = new DialectUtils.PositionFinder(TEXT);
+    assertEquals(new Position(1, 14), finder.find(30));
+    assertEquals(new Position(0, 6), finder.find(5));
+    assertEquals(new Position(0, 1), finder.find(0));
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.dialects.daco.usecases;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.eclipse.lsp.cobol.dialects.daco.DaCoDialect;
+import org.eclipse.lsp.cobol.dialects.daco.utils.DialectConfigs;
+import org.eclipse.lsp.cobol.test.CobolText;
+import org.eclipse.lsp.cobol.test.engine.UseCaseEngine;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Two MAID layouts with the same content are parsed once, but each usage gets the variables with
+ * its own suffix and copybook location
+ */
+class TestCopyMaidSameLayoutWithDifferentSuffixes {
+
+  private static final String TEXT = "000300 IDENTIFICATION DIVISION.\n"
+      + "000400 PROGRAM-ID.    BMROVF1M.\n"
+      + "001600 ENVIRONMENT  DIVISION.\n"
+      + "001700 IDMS-CONTROL SECTION.\n"
+      + "001800 PROTOCOL.    MODE IS BATCH DEBUG\n"
+      + "001900              IDMS-RECORDS MANUAL.\n"
+      + "002300 DATA   DIVISION.\n"
+      + "002400 WORKING-STORAGE SECTION.\n"
+      + "008100 01  {$*TRAREC-XL1}.\n"
+      + "008200     03 {$*F00-XL1}.\n"
+      + "008300       05 COPY MAID {~LAYOUTA!DaCo} INP.\n"
+      + "008400 01  {$*TRAREC-XL2}.\n"
+      + "008500     03 {$*F00-XL2}.\n"
+      + "008600       05 COPY MAID {~LAYOUTB!DaCo} INP.\n"
+      + "008700 PROCEDURE DIVISION.\n"
+      + "008800     DISPLAY {$TRAKOD-XL1}.\n"
+      + "008900     DISPLAY {$TRAKOD-XL2}.";
+
+  private static final String LAYOUTA = "     1 01  {$*LAYOUT-X^LAYOUT-XL1}.\n"
+      + "     2     03 {$*TRAKOD-X^TRAKOD-XL1}                 PIC X(4)    VALUE SPACE.";
+
+  private static final String LAYOUTB = "     1 01  {$*LAYOUT-X^LAYOUT-XL2}.\n"
+      + "     2     03 {$*TRAKOD-X^TRAKOD-XL2}                 PIC X(4)    VALUE SPACE.";
+
+  @Test
+  void test() {
+    UseCaseEngine.runTest(TEXT, ImmutableList.of(
+            new CobolText("LAYOUTA", DaCoDialect.NAME, LAYOUTA),
+            new CobolText("LAYOUTB", DaCoDialect.NAME, LAYOUTB)
+        ), ImmutableMap.of(), ImmutableList.of(), DialectConfigs.getDaCoAnalysisConfig());
+  }
+}
@@ -18,7 +18,6 @@ import com.google.common.collect.ImmutableList;
 import lombok.Getter;
 import org.antlr.v4.runtime.tree.TerminalNode;
 import org.apache.commons.lang3.tuple.Pair;
-import org.eclipse.lsp.cobol.common.mapping.ExtendedDocument;
 import org.eclipse.lsp.cobol.common.model.Locality;
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
@@ -34,19 +33,19 @@ import static org.eclipse.lsp.cobol.common.VariableConstants.*;
  * Visitor to collect all IDMS copybooks
  */
 class IdmsCopyVisitor extends IdmsCopyParserBaseVisitor<List<IdmsCopybookDescriptor>> {
-  private final ExtendedDocument extendedDocument;
+  private final String documentUri;
   @Getter
   private final List<Pair<Range, Integer>> variableLevels = new LinkedList<>();
 
-  IdmsCopyVisitor(ExtendedDocument extendedDocument) {
-    this.extendedDocument = extendedDocument;
+  IdmsCopyVisitor(String documentUri) {
+    this.documentUri = documentUri;
   }
 
   @Override
   public List<IdmsCopybookDescriptor> visitCopyIdmsStatement(
           IdmsCopyParser.CopyIdmsStatementContext ctx) {
     return ImmutableList.of(
-            IdmsCopybookDescriptor.from(ctx, extendedDocument.getUri()));
+            IdmsCopybookDescriptor.from(ctx, documentUri));
   }
 
   @Override
@@ -89,6 +89,29 @@ class IdmsCopybookDescriptor {
     return result;
   }
 
+  /**
+   * Creates a deep copy of this descriptor bound to the given document URI
+   * @param documentUri uri of file
+   * @return copybook descriptor
+   */
+  public IdmsCopybookDescriptor copy(String documentUri) {
+    IdmsCopybookDescriptor result = new IdmsCopybookDescriptor();
+    result.name = name;
+    result.levelRange = IdmsCopybookParseCache.Entry.copyRange(levelRange);
+    result.level = level;
+    result.insert = insert;
+    result.usage = copyLocality(usage, documentUri);
+    result.statement = copyLocality(statement, documentUri);
+    return result;
+  }
+
+  private static Locality copyLocality(Locality locality, String documentUri) {
+    return locality.toBuilder()
+        .uri(documentUri)
+        .range(IdmsCopybookParseCache.Entry.copyRange(locality.getRange()))
+        .build();
+  }
+
   private static int extractLevel(Token token) {
     return Integer.parseInt(token.getText());
   }
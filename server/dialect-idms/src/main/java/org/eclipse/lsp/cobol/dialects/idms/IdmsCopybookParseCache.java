@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.dialects.idms;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.tuple.Pair;
+import org.eclipse.lsp.cobol.common.error.SyntaxError;
+import org.eclipse.lsp.cobol.common.mapping.OriginalLocation;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+
+/**
+ * Bounded cache of the IDMS copybook parse results. The key is a hash of the copybook text, so the
+ * same layout used by several programs, or several times in one program, is parsed only once. Every
+ * access returns fresh copies of the cached objects, because the callers modify them.
+ */
+final class IdmsCopybookParseCache {
+  private static final int MAX_SIZE = 500;
+
+  private final Cache<HashCode, Entry> cache = CacheBuilder.newBuilder().maximumSize(MAX_SIZE).build();
+
+  /**
+   * Returns a parsed copybook for the given text, parsing it with the given function on cache miss
+   *
+   * @param text the copybook text
+   * @param parser the function to parse the text if it is not cached yet
+   * @return the cached parse result
+   */
+  Entry get(String text, Function<String, Entry> parser) {
+    try {
+      return cache.get(Hashing.sha256().hashString(text, StandardCharsets.UTF_8), () -> parser.apply(text));
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /** The URI independent result of the copybook parsing */
+  static final class Entry {
+    private final List<IdmsCopybookDescriptor> descriptors;
+    private final List<Pair<Range, Integer>> variableLevels;
+    private final List<SyntaxError> errors;
+    private final Supplier<IdmsDialect.ParsedIdms> dialectTree;
+
+    Entry(List<IdmsCopybookDescriptor> descriptors,
+          List<Pair<Range, Integer>> variableLevels,
+          List<SyntaxError> errors,
+          Supplier<IdmsDialect.ParsedIdms> dialectTree) {
+      this.descriptors = descriptors;
+      this.variableLevels = variableLevels;
+      this.errors = errors;
+      this.dialectTree = Suppliers.memoize(dialectTree);
+    }
+
+    /**
+     * Returns the copybook text parsed with the IDMS dialect grammar. It is only needed when the
+     * dialect nodes are collected together with the copybooks, so it is parsed on the first request.
+     *
+     * @return the parse tree and the parser errors
+     */
+    IdmsDialect.ParsedIdms getDialectTree() {
+      return dialectTree.get();
+    }
+
+    /**
+     * Creates copies of the copybook descriptors bound to the given copybook URI
+     *
+     * @param copybookUri the URI of the copybook
+     * @return new descriptor instances
+     */
+    List<IdmsCopybookDescriptor> copyDescriptors(String copybookUri) {
+      return descriptors.stream().map(d -> d.copy(copybookUri)).collect(Collectors.toList());
+    }
+
+    /**
+     * Creates copies of the variable level ranges
+     *
+     * @return new list of the level ranges and values
+     */
+    List<Pair<Range, Integer>> copyVariableLevels() {
+      return variableLevels.stream()
+          .map(p -> Pair.of(copyRange(p.getLeft()), p.getRight()))
+          .collect(Collectors.toList());
+    }
+
+    /**
+     * Creates copies of the parser errors bound to the given URI
+     *
+     * @param uri the URI of the errors
+     * @return new error instances
+     */
+    List<SyntaxError> copyErrors(String uri) {
+      return copyErrors(errors, uri);
+    }
+
+    /**
+     * Creates copies of the errors bound to the given URI
+     *
+     * @param errors the errors to copy
+     * @param uri the URI of the errors
+     * @return new error instances
+     */
+    static List<SyntaxError> copyErrors(List<SyntaxError> errors, String uri) {
+      List<SyntaxError> result = new ArrayList<>(errors.size());
+      for (SyntaxError error : errors) {
+        OriginalLocation location = error.getLocation();
+        result.add(error.toBuilder()
+            .location(new OriginalLocation(
+                new Location(uri, copyRange(location.getLocation().getRange())),
+                location.getCopybookId()))
+            .build());
+      }
+      return result;
+    }
+
+    /**
+     * Creates a deep copy of a range
+     *
+     * @param range the range to copy
+     * @return a new range instance
+     */
+    static Range copyRange(Range range) {
+      if (range == null) {
+        return null;
+      }
+      return new Range(
+          new Position(range.getStart().getLine(), range.getStart().getCharacter()),
+          new Position(range.getEnd().getLine(), range.getEnd().getCharacter()));
+    }
+  }
+}
@@ -14,11 +14,15 @@
  */
 package org.eclipse.lsp.cobol.dialects.idms;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import java.util.*;
+import lombok.Value;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.apache.commons.lang3.tuple.Pair;
+import org.eclipse.lsp.cobol.common.AnalysisConfig;
 import org.eclipse.lsp.cobol.common.ResultWithErrors;
 import org.eclipse.lsp.cobol.common.copybook.CopybookModel;
 import org.eclipse.lsp.cobol.common.copybook.CopybookName;
@@ -33,6 +37,7 @@ import org.eclipse.lsp.cobol.common.model.Locality;
 import org.eclipse.lsp.cobol.common.model.tree.CopyNode;
 import org.eclipse.lsp.cobol.common.model.tree.Node;
 import org.eclipse.lsp.cobol.common.utils.KeywordsUtils;
+import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
 
@@ -42,6 +47,8 @@ public final class IdmsDialect implements CobolDialect {
   private static final String IDMS_CPY_LOCAL_PATHS = "cpy-manager.idms.paths-local";
   private final CopybookService copybookService;
   private final MessageService messageService;
+  private final IdmsCopybookParseCache copybookParseCache = new IdmsCopybookParseCache();
+  private final Cache<ExtendedDocument, CollectedOutcome> collectedOutcomes = CacheBuilder.newBuilder().weakKeys().build();
 
   public IdmsDialect(CopybookService copybookService, MessageService messageService) {
     this.copybookService = copybookService;
@@ -63,19 +70,43 @@ public final class IdmsDialect implements CobolDialect {
     List<SyntaxError> errors = new LinkedList<>();
 
     IdmsDialectVisitor inlineVisitor = new IdmsDialectVisitor(context);
-    IdmsParser.StartRuleContext ruleContext = parseIdms(context.getExtendedDocument().toString(), context.getProgramDocumentUri(), errors);
+    ParsedIdms parsedIdms = parseIdms(context.getExtendedDocument().toString(), context.getProgramDocumentUri());
+    errors.addAll(parsedIdms.getErrors());
 
-    List<IdmsCopybookDescriptor> cbs = inlineVisitor.visitStartRule(ruleContext);
-    cbs.forEach(cb -> {
+    List<IdmsCopybookDescriptor> cbs = inlineVisitor.visitStartRule(parsedIdms.getTree());
+    CollectedOutcome outcome = null;
+    IdmsVisitor visitor = null;
+    if (canCollectNodesOnExtend(context)) {
+      outcome = new CollectedOutcome();
+      visitor = collectNodes(context, context.getExtendedDocument(), parsedIdms, outcome);
+    }
+    for (IdmsCopybookDescriptor cb : cbs) {
       String currentUri = context.getExtendedDocument().getUri();
-      insertIdmsCopybook(context, context.getExtendedDocument(), errors, cb, context.getProgramDocumentUri(), currentUri, new LinkedList<>());
-    });
+      insertIdmsCopybook(context, context.getExtendedDocument(), errors, cb, context.getProgramDocumentUri(), currentUri,
+          new LinkedList<>(), outcome);
+    }
+    if (outcome != null) {
+      visitor.applyReplacements();
+      collectedOutcomes.put(context.getExtendedDocument(), outcome);
+    }
     return errors;
   }
 
+  /**
+   * The dialect nodes may be collected from the same parse tree that provides the copybooks only when no
+   * other explicit dialect changes the text of the program between extend and processText. The implicit
+   * dialects, CICS and SQL, run in a later stage, after the IDMS text is processed.
+   */
+  private static boolean canCollectNodesOnExtend(DialectProcessingContext context) {
+    return Optional.ofNullable(context.getConfig())
+        .map(AnalysisConfig::getDialects)
+        .map(dialects -> dialects.stream().allMatch(NAME::equals))
+        .orElse(false);
+  }
+
   private void insertIdmsCopybook(DialectProcessingContext ctx, ExtendedDocument extendedDocument, List<SyntaxError> errors,
                                   IdmsCopybookDescriptor cb, String programDocumentUri, String currentUri,
-                                  Deque<String> copybookStack) {
+                                  Deque<String> copybookStack, CollectedOutcome outcome) {
     CopybookName copybookName = new CopybookName(cb.getName(), IdmsDialect.NAME);
     ResultWithErrors<CopybookModel> resolvedCopybook = copybookService.resolve(
         copybookName.toCopybookId(programDocumentUri),
@@ -110,7 +141,7 @@ public final class IdmsDialect implements CobolDialect {
 
     ExtendedDocument copybookDocument = new ExtendedDocument(copybookModel.getContent(), copybookModel.getUri());
     processTextTransformation(ctx, copybookDocument,
-            errors, programDocumentUri, cb.getLevel(), copybookStack, copyNode);
+            errors, programDocumentUri, cb.getLevel(), copybookStack, copyNode, outcome);
     copybookDocument.commitTransformations();
     if (cb.isInsert()) {
       extendedDocument.insertCopybook(cb.getStatement().getRange().getStart().getLine() + 1, copybookDocument.getCurrentText());
@@ -146,16 +177,16 @@ public final class IdmsDialect implements CobolDialect {
           String programDocumentUri,
           int copybookLevel,
           Deque<String> copybookStack,
-          CopyNode copyNode) {
-    IdmsCopyVisitor copyVisitor = new IdmsCopyVisitor(currentDocument);
-    IdmsCopyParser.StartRuleContext context =
-        parseCopyIdms(currentDocument.toString(), programDocumentUri, errors);
+          CopyNode copyNode,
+          CollectedOutcome outcome) {
+    IdmsCopybookParseCache.Entry parsedCopybook = copybookParseCache.get(currentDocument.toString(), this::parseCopybook);
+    errors.addAll(parsedCopybook.copyErrors(programDocumentUri));
 
-    List<IdmsCopybookDescriptor> cbs = copyVisitor.visitStartRule(context);
+    List<IdmsCopybookDescriptor> cbs = parsedCopybook.copyDescriptors(currentDocument.getUri());
+    List<Pair<Range, Integer>> variableLevels = parsedCopybook.copyVariableLevels();
     int firstLevel =
-        copyVisitor.getVariableLevels().stream().findFirst().map(Pair::getRight).orElse(0);
-    copyVisitor
-        .getVariableLevels()
+        variableLevels.stream().findFirst().map(Pair::getRight).orElse(0);
+    variableLevels
         .forEach(
             p -> {
               if (copybookLevel > 0 && p.getRight() != null) {
@@ -166,14 +197,54 @@ public final class IdmsDialect implements CobolDialect {
                 copyIdmsAdjustmentProcessor.processError(errors);
               }
             });
+    IdmsVisitor visitor = outcome == null
+        ? null
+        : collectNodes(ctx, currentDocument, parsedCopybook.getDialectTree(), outcome);
     cbs.forEach(
         cb -> {
           if (copybookLevel > 0) {
             cb.setLevel(copybookLevel);
           }
 
-          insertIdmsCopybook(ctx, currentDocument, errors, cb, programDocumentUri, currentDocument.getUri(), copybookStack);
+          insertIdmsCopybook(ctx, currentDocument, errors, cb, programDocumentUri, currentDocument.getUri(), copybookStack,
+              outcome);
         });
+    if (visitor != null) {
+      visitor.applyReplacements();
+    }
+  }
+
+  /**
+   * Visits the dialect statements of a document that is not expanded yet. The caller applies the
+   * replacements of the returned visitor after the copybooks of the document are inserted. The errors
+   * are kept with the location in the document they belong to, the program or the copybook.
+   */
+  private IdmsVisitor collectNodes(DialectProcessingContext ctx, ExtendedDocument document,
+                                   ParsedIdms parsedIdms, CollectedOutcome outcome) {
+    IdmsVisitor visitor = new IdmsVisitor(ctx.toBuilder().extendedDocument(document).build());
+    outcome.getNodes().addAll(visitor.visitStartRule(parsedIdms.getTree()));
+
+    List<SyntaxError> documentErrors = new ArrayList<>();
+    if (document != ctx.getExtendedDocument()) {
+      // The parser errors of the program are reported by extend
+      documentErrors.addAll(IdmsCopybookParseCache.Entry.copyErrors(parsedIdms.getErrors(), document.getUri()));
+    }
+    documentErrors.addAll(visitor.getErrors());
+    for (SyntaxError error : documentErrors) {
+      Location location = document.mapLocation(error.getLocation().getLocation().getRange());
+      error.getLocation().getLocation().setUri(location.getUri());
+      error.getLocation().getLocation().setRange(location.getRange());
+    }
+    outcome.getErrors().addAll(documentErrors);
+    return visitor;
+  }
+
+  private IdmsCopybookParseCache.Entry parseCopybook(String text) {
+    List<SyntaxError> errors = new ArrayList<>();
+    IdmsCopyVisitor copyVisitor = new IdmsCopyVisitor("");
+    List<IdmsCopybookDescriptor> cbs = copyVisitor.visitStartRule(parseCopyIdms(text, "", errors));
+    return new IdmsCopybookParseCache.Entry(ImmutableList.copyOf(cbs), ImmutableList.copyOf(copyVisitor.getVariableLevels()),
+        ImmutableList.copyOf(errors), () -> parseIdms(text, ""));
   }
 
   /**
@@ -184,12 +255,26 @@ public final class IdmsDialect implements CobolDialect {
    */
   @Override
   public ResultWithErrors<DialectOutcome> processText(DialectProcessingContext context) {
-    IdmsVisitor visitor = new IdmsVisitor(context);
     List<SyntaxError> errors = new ArrayList<>();
-    IdmsParser.StartRuleContext startRuleContext = parseIdms(context.getExtendedDocument().toString(),
-            context.getExtendedDocument().getUri(), errors);
     List<Node> nodes = new ArrayList<>();
-    nodes.addAll(visitor.visitStartRule(startRuleContext));
+    CollectedOutcome collectedOutcome = collectedOutcomes.getIfPresent(context.getExtendedDocument());
+    if (collectedOutcome != null) {
+      collectedOutcomes.invalidate(context.getExtendedDocument());
+      nodes.addAll(collectedOutcome.getNodes());
+    } else {
+      IdmsVisitor visitor = new IdmsVisitor(context);
+      ParsedIdms parsedIdms = parseIdms(context.getExtendedDocument().toString(), context.getExtendedDocument().getUri());
+      errors.addAll(parsedIdms.getErrors());
+      nodes.addAll(visitor.visitStartRule(parsedIdms.getTree()));
+      visitor.applyReplacements();
+      errors.addAll(visitor.getErrors());
+      errors.forEach(e -> e.getLocation().getLocation()
+                  .setRange(
+                      context
+                          .getExtendedDocument()
+                          .mapLocation(e.getLocation().getLocation().getRange())
+                          .getRange()));
+    }
     nodes.addAll(context.getDialectNodes());
 
     new ArrayList<>(nodes).stream().filter(CopyNode.class::isInstance).forEach(n ->
@@ -203,14 +288,9 @@ public final class IdmsDialect implements CobolDialect {
           cn.addChild(n);
         }));
 
-    errors.addAll(visitor.getErrors());
-    errors.forEach(e -> e.getLocation().getLocation()
-                .setRange(
-                    context
-                        .getExtendedDocument()
-                        .mapLocation(e.getLocation().getLocation().getRange())
-                        .getRange()));
-
+    if (collectedOutcome != null) {
+      errors.addAll(collectedOutcome.getErrors());
+    }
     return new ResultWithErrors<>(new DialectOutcome(nodes, context), errors);
   }
 
@@ -240,8 +320,7 @@ public final class IdmsDialect implements CobolDialect {
     return result;
   }
 
-  private IdmsParser.StartRuleContext parseIdms(
-      String text, String programDocumentUri, List<SyntaxError> errors) {
+  private ParsedIdms parseIdms(String text, String programDocumentUri) {
     IdmsLexer lexer = new IdmsLexer(CharStreams.fromString(text));
     CommonTokenStream tokens = new CommonTokenStream(lexer);
     IdmsParser parser = new IdmsParser(tokens);
@@ -253,7 +332,20 @@ public final class IdmsDialect implements CobolDialect {
     parser.setErrorHandler(new CobolErrorStrategy(messageService));
 
     IdmsParser.StartRuleContext result = parser.startRule();
-    errors.addAll(listener.getErrors());
-    return result;
+    return new ParsedIdms(result, listener.getErrors());
+  }
+
+  /** The text parsed with the IDMS dialect grammar */
+  @Value
+  static class ParsedIdms {
+    IdmsParser.StartRuleContext tree;
+    List<SyntaxError> errors;
+  }
+
+  /** Dialect nodes and copybook errors collected while extending the document */
+  @Value
+  private static class CollectedOutcome {
+    List<Node> nodes = new ArrayList<>();
+    List<SyntaxError> errors = new ArrayList<>();
   }
 }
@@ -18,6 +18,7 @@ import com.google.common.collect.ImmutableList;
 import lombok.Getter;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.RuleContext;
+import org.apache.commons.lang3.tuple.Pair;
 import org.eclipse.lsp.cobol.common.dialects.CobolDialect;
 import org.eclipse.lsp.cobol.common.dialects.DialectProcessingContext;
 import org.eclipse.lsp.cobol.common.error.SyntaxError;
@@ -31,6 +32,7 @@ import org.eclipse.lsp.cobol.common.model.tree.variable.VariableNameAndLocality;
 import org.eclipse.lsp.cobol.common.model.tree.variable.VariableUsageNode;
 import org.eclipse.lsp.cobol.common.model.SectionType;
 import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Range;
 
 import java.util.ArrayList;
 import java.util.LinkedList;
@@ -50,6 +52,8 @@ class IdmsVisitor extends IdmsParserBaseVisitor<List<Node>> {
   private final DialectProcessingContext context;
 
   @Getter private final List<SyntaxError> errors = new LinkedList<>();
+  private final List<Pair<Range, String>> replacements = new ArrayList<>();
+  private String text;
 
   IdmsVisitor(DialectProcessingContext context) {
     this.context = context;
@@ -186,9 +190,7 @@ class IdmsVisitor extends IdmsParserBaseVisitor<List<Node>> {
   private void addReplacementContext(ParserRuleContext ctx, String prefix) {
     String newText =
         prefix
-            + context
-                .getExtendedDocument()
-                .toString()
+            + getText()
                 .substring(ctx.start.getStartIndex(), ctx.stop.getStopIndex() + 1)
                 .replaceAll("[^ \n]", CobolDialect.FILLER);
     // TODO: probably it should be resolved in grammar, but we need to preserve dot
@@ -196,6 +198,24 @@ class IdmsVisitor extends IdmsParserBaseVisitor<List<Node>> {
     if (ctx.getStop().getType() == DOT_FS) {
       newText = newText.substring(0, newText.length() - 1) + ".";
     }
-    context.getExtendedDocument().replace(DialectUtils.constructRange(ctx), newText);
+    replacements.add(Pair.of(DialectUtils.constructRange(ctx), newText));
+  }
+
+  /**
+   * Applies the replacements of the visited IDMS statements to the document. The dialect calls it
+   * after the copybooks of the document are inserted, so the statements are replaced in the expanded
+   * text as they were when the whole expanded document was visited.
+   */
+  void applyReplacements() {
+    replacements.forEach(r -> context.getExtendedDocument().replace(r.getLeft(), r.getRight()));
+    replacements.clear();
+  }
+
+  // The replacements are applied after visiting, so the parsed text stays the same
+  private String getText() {
+    if (text == null) {
+      text = context.getExtendedDocument().toString();
+    }
+    return text;
   }
 }
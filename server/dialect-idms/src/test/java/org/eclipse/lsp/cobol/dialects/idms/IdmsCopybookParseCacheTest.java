@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.dialects.idms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.lang3.tuple.Pair;
+import org.eclipse.lsp.cobol.common.model.Locality;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link IdmsCopybookParseCache}
+ */
+class IdmsCopybookParseCacheTest {
+  private static final String TEXT = "       01  COPY IDMS NESTED.\n";
+
+  @Test
+  void testSameTextParsedOnce() {
+    IdmsCopybookParseCache cache = new IdmsCopybookParseCache();
+    AtomicInteger parsed = new AtomicInteger();
+
+    IdmsCopybookParseCache.Entry first = cache.get(TEXT, text -> {
+      parsed.incrementAndGet();
+      return entry();
+    });
+    IdmsCopybookParseCache.Entry second = cache.get(TEXT, text -> {
+      parsed.incrementAndGet();
+      return entry();
+    });
+    cache.get(TEXT + " ", text -> {
+      parsed.incrementAndGet();
+      return entry();
+    });
+
+    assertSame(first, second);
+    assertEquals(2, parsed.get());
+  }
+
+  @Test
+  void testCopiesAreBoundToUri() {
+    IdmsCopybookParseCache.Entry entry = entry();
+
+    List<IdmsCopybookDescriptor> first = entry.copyDescriptors("first");
+    List<IdmsCopybookDescriptor> second = entry.copyDescriptors("second");
+    first.get(0).setLevel(5);
+    first.get(0).getStatement().getRange().getStart().setLine(10);
+
+    assertEquals("first", first.get(0).getUsage().getUri());
+    assertEquals("second", second.get(0).getUsage().getUri());
+    assertEquals(0, second.get(0).getLevel());
+    assertEquals(0, second.get(0).getStatement().getRange().getStart().getLine());
+    assertNotSame(entry.copyVariableLevels().get(0).getLeft(), entry.copyVariableLevels().get(0).getLeft());
+  }
+
+  private static IdmsCopybookParseCache.Entry entry() {
+    Range range = new Range(new Position(0, 7), new Position(0, 27));
+    IdmsCopybookDescriptor descriptor = new IdmsCopybookDescriptor();
+    descriptor.setName("NESTED");
+    descriptor.setUsage(Locality.builder().range(range).build());
+    descriptor.setStatement(Locality.builder().range(range).build());
+    return new IdmsCopybookParseCache.Entry(ImmutableList.of(descriptor),
+        ImmutableList.of(Pair.of(new Range(new Position(0, 7), new Position(0, 9)), 1)),
+        ImmutableList.of(), () -> null);
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.dialects.idms.usecases;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.eclipse.lsp.cobol.common.AnalysisConfig;
+import org.eclipse.lsp.cobol.dialects.idms.IdmsDialect;
+import org.eclipse.lsp.cobol.dialects.idms.utils.DialectConfigs;
+import org.eclipse.lsp.cobol.test.CobolText;
+import org.eclipse.lsp.cobol.test.engine.UseCaseEngine;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test that IDMS copybooks with the same content are adjusted independently, and that IDMS statements
+ * inside the copybooks are processed
+ */
+class TestCopyIdmsSameContentReused {
+
+  private static final String TEXT = "       IDENTIFICATION DIVISION.\n"
+      + "       PROGRAM-ID.    TEST1.\n"
+      + "        ENVIRONMENT DIVISION.\n"
+      + "        IDMS-CONTROL SECTION.\n"
+      + "            PROTOCOL. MODE ABC.\n"
+      + "            IDMS-RECORDS MANUAL\n"
+      + "       DATA   DIVISION.\n"
+      + "       WORKING-STORAGE SECTION.\n"
+      + "       01  {$*GRP1}.\n"
+      + "           03 COPY IDMS {~COPY1!IDMS}.\n"
+      + "       01  {$*GRP2}.\n"
+      + "           05 COPY IDMS {~COPY2!IDMS}.\n"
+      + "       PROCEDURE DIVISION.\n"
+      + "           COPY IDMS {~PROC1!IDMS}.\n"
+      + "           COPY IDMS {~PROC2!IDMS}.\n"
+      + "%s";
+
+  private static final String IMPLICIT_DIALECT_STATEMENTS = "           EXEC SQL WHENEVER SQLERROR CONTINUE END-EXEC.\n"
+      + "           EXEC CICS RETURN END-EXEC.\n";
+
+  private static final String COPY1 = "       01  {$*VAR1}.\n"
+      + "           03 {$*VAR2}             PIC X(8)    VALUE SPACE.\n";
+
+  private static final String PROC1 = "           OBTAIN NEXT {$GRP1} WITHIN {$GRP2}.\n";
+
+  private static final String PROC2 = "           OBTAIN NEXT {$GRP2} WITHIN {$GRP1}.\n";
+
+  @Test
+  void test() {
+    runTest(DialectConfigs.getIDMSAnalysisConfig(), "");
+  }
+
+  @Test
+  void testWithoutImplicitDialects() {
+    runTest(DialectConfigs.getIDMSWithoutImplicitDialectsConfig(), "");
+  }
+
+  @Test
+  void testWithImplicitDialectStatements() {
+    runTest(DialectConfigs.getIDMSWithDb2Config(), IMPLICIT_DIALECT_STATEMENTS);
+  }
+
+  private static void runTest(AnalysisConfig config, String statements) {
+    UseCaseEngine.runTest(
+        String.format(TEXT, statements),
+        ImmutableList.of(
+            new CobolText("COPY1", IdmsDialect.NAME, COPY1),
+            new CobolText("COPY2", IdmsDialect.NAME, COPY1),
+            new CobolText("PROC1", IdmsDialect.NAME, PROC1),
+            new CobolText("PROC2", IdmsDialect.NAME, PROC2)),
+        ImmutableMap.of(),
+        ImmutableList.of(),
+        config);
+  }
+}
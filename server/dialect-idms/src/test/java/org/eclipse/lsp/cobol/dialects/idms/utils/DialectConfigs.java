@@ -16,9 +16,11 @@ package org.eclipse.lsp.cobol.dialects.idms.utils;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.gson.JsonPrimitive;
 import lombok.experimental.UtilityClass;
 import org.eclipse.lsp.cobol.common.AnalysisConfig;
 import org.eclipse.lsp.cobol.common.copybook.CopybookProcessingMode;
+import org.eclipse.lsp.cobol.common.copybook.SQLBackend;
 import org.eclipse.lsp.cobol.dialects.idms.IdmsDialect;
 
 /** IDMS related config getter */
@@ -31,4 +33,20 @@ public class DialectConfigs {
         ImmutableList.of(),
         ImmutableMap.of());
   }
+
+  public AnalysisConfig getIDMSWithoutImplicitDialectsConfig() {
+    return new AnalysisConfig(
+            CopybookProcessingMode.DISABLED,
+        ImmutableList.of(IdmsDialect.NAME), false, false,
+        ImmutableList.of(),
+        ImmutableMap.of("target-sql-backend", new JsonPrimitive(SQLBackend.NONE.toString())));
+  }
+
+  public AnalysisConfig getIDMSWithDb2Config() {
+    return new AnalysisConfig(
+            CopybookProcessingMode.DISABLED,
+        ImmutableList.of(IdmsDialect.NAME), true, false,
+        ImmutableList.of(),
+        ImmutableMap.of("target-sql-backend", new JsonPrimitive(SQLBackend.DB2_SERVER.toString())));
+  }
 }
@@ -29,6 +29,8 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import lombok.NonNull;
 import org.eclipse.lsp.cobol.cli.command.Cli;
+import org.eclipse.lsp.cobol.common.benchmark.BenchmarkService;
+import org.eclipse.lsp.cobol.common.benchmark.BenchmarkStatistics;
 import org.eclipse.lsp.cobol.domain.modules.DatabusModule;
 import org.eclipse.lsp.cobol.domain.modules.EngineModule;
 import org.eclipse.lsp.cobol.domain.modules.ServiceModule;
@@ -72,6 +74,7 @@ public class LangServerBootstrap {
     Injector injector = LangServerBootstrap.initCtx();
     LanguageServer server = injector.getInstance(LanguageServer.class);
     ClientProvider provider = injector.getInstance(ClientProvider.class);
+    BenchmarkStatistics.register(injector.getInstance(BenchmarkService.class));
 
     langServerBootstrap.start(args, server, provider);
   }
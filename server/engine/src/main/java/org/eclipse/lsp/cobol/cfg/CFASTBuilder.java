@@ -14,9 +14,13 @@
  */
 package org.eclipse.lsp.cobol.cfg;
 
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import org.eclipse.lsp.cobol.common.model.tree.ProgramNode;
 import org.eclipse.lsp.cobol.core.model.extendedapi.ExtendedApiResult;
 
+import java.io.IOException;
+
 /**
  * CF AST builder interface.
  */
@@ -27,4 +31,15 @@ public interface CFASTBuilder {
      * @return CF ASTs wrapped in ExtendedApiResult
      */
     ExtendedApiResult build(ProgramNode programNode);
+
+    /**
+     * Build Abstract Syntax Tree with Control Flow related nodes and write it as JSON. The output is
+     * the same as the serialized control flow AST of {@link #build(ProgramNode)}, but the top level
+     * nodes are written as soon as they are built, so the whole tree is never kept in memory.
+     * @param programNode a program node
+     * @param gson the serializer of CF AST nodes
+     * @param writer the JSON writer to write CF ASTs to
+     * @throws IOException if the writer fails
+     */
+    void build(ProgramNode programNode, Gson gson, JsonWriter writer) throws IOException;
 }
@@ -15,7 +15,9 @@
 package org.eclipse.lsp.cobol.cfg;
 
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import com.google.inject.Inject;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.lsp.cobol.common.model.tree.*;
 import org.eclipse.lsp.cobol.common.model.tree.statements.StatementNode;
@@ -33,8 +35,8 @@ import org.eclipse.lsp.cobol.service.DocumentModelService;
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.util.*;
 
 import static org.eclipse.lsp.cobol.common.model.NodeType.*;
 
@@ -56,59 +58,121 @@ public class CFASTBuilderImpl implements CFASTBuilder {
     if (programNode == null) {
       return result;
     }
-    traverse(programNode, result.getControlFlowAST());
-    LOG.debug(new Gson().toJson(result));
+    findProcedureDivision(programNode)
+        .ifPresent(
+            division -> {
+              Program program = new Program(programNode.getProgramName(), convertLocation(division));
+              BuildContext ctx = new BuildContext(division);
+              division.getChildren().forEach(child -> traverse(ctx, program, child));
+              traverse(ctx, program, division);
+              result.getControlFlowAST().add(program);
+            });
+    if (LOG.isDebugEnabled()) {
+      LOG.debug(new Gson().toJson(result));
+    }
     return result;
   }
 
-  private void traverse(CFASTNode parent, Node node) {
+  @Override
+  public void build(ProgramNode programNode, Gson gson, JsonWriter writer) throws IOException {
+    writer.beginArray();
+    Optional<DivisionNode> division =
+        Optional.ofNullable(programNode).flatMap(CFASTBuilderImpl::findProcedureDivision);
+    if (division.isPresent()) {
+      Program program = new Program(programNode.getProgramName(), convertLocation(division.get()));
+      writer.beginObject();
+      writer.name("name");
+      gson.toJson(program.getName(), String.class, writer);
+      writer.name("type").value(program.getType());
+      writer.name("location");
+      gson.toJson(program.getLocation(), Location.class, writer);
+      BuildContext ctx = new BuildContext(division.get());
+      boolean childrenStarted = false;
+      for (Node child : division.get().getChildren()) {
+        traverse(ctx, program, child);
+        childrenStarted = writeChildren(program, gson, writer, childrenStarted);
+      }
+      traverse(ctx, program, division.get());
+      if (writeChildren(program, gson, writer, childrenStarted)) {
+        writer.endArray();
+      }
+      writer.endObject();
+    }
+    writer.endArray();
+    writer.flush();
+  }
+
+  private static Optional<DivisionNode> findProcedureDivision(ProgramNode node) {
+    return node.getChildren().stream()
+        .filter(it -> it instanceof DivisionNode)
+        .map(DivisionNode.class::cast)
+        .filter(it -> it.getDivisionType() == DivisionType.PROCEDURE_DIVISION)
+        .findFirst();
+  }
+
+  private static boolean writeChildren(Program program, Gson gson, JsonWriter writer, boolean started)
+      throws IOException {
+    if (program.getChildren() == null || program.getChildren().isEmpty()) {
+      return started;
+    }
+    if (!started) {
+      writer.name("children").beginArray();
+    }
+    for (CFASTNode child : program.getChildren()) {
+      gson.toJson(child, child.getClass(), writer);
+    }
+    program.getChildren().clear();
+    return true;
+  }
+
+  private void traverse(BuildContext ctx, CFASTNode parent, Node node) {
     if (node instanceof ParagraphNode) {
       Paragraph paragraph =
           new Paragraph(
               ((ParagraphNode) node).getName(),
-              cutSnippet(node),
+              cutSnippet(ctx, node),
               convertLocation(node));
       addChild(parent, paragraph);
-      node.getChildren().forEach(child -> traverse(paragraph, child));
+      node.getChildren().forEach(child -> traverse(ctx, paragraph, child));
     } else if (node instanceof ProcedureSectionNode) {
       Section section =
           new Section(
               ((ProcedureSectionNode) node).getName(),
-              cutSnippet(node),
+              cutSnippet(ctx, node),
               convertLocation(node));
       addChild(parent, section);
-      node.getChildren().forEach(child -> traverse(section, child));
+      node.getChildren().forEach(child -> traverse(ctx, section, child));
     } else if (node instanceof Db2DataAndProcedureDivisionNode) {
-      node.getChildren().forEach(child -> traverse(parent, child));
+      node.getChildren().forEach(child -> traverse(ctx, parent, child));
     } else if (node instanceof GoToNode) {
       addChild(parent, new GoTo(((GoToNode) node).getTargets(), convertLocation(node)));
     } else if (node instanceof EvaluateNode) {
       addChild(parent, new CFASTNode(CFASTNodeType.EVALUATE.getValue(), convertLocation(node)));
-      node.getChildren().forEach(child -> traverse(parent, child));
+      node.getChildren().forEach(child -> traverse(ctx, parent, child));
       addChild(parent, new CFASTNode(CFASTNodeType.END_EVALUATE.getValue(), convertLocation(node)));
     } else if (node instanceof EvaluateWhenNode) {
       addChild(parent, new CFASTNode(CFASTNodeType.WHEN.getValue(), convertLocation(node)));
     } else if (node instanceof EvaluateWhenOtherNode) {
       addChild(parent, new CFASTNode(CFASTNodeType.WHEN_OTHER.getValue(), convertLocation(node)));
-      node.getChildren().forEach(child -> traverse(parent, child));
+      node.getChildren().forEach(child -> traverse(ctx, parent, child));
     } else if (node instanceof IfNode) {
       addChild(parent, new CFASTNode(CFASTNodeType.IF.getValue(), convertLocation(node)));
-      node.getChildren().forEach(child -> traverse(parent, child));
+      node.getChildren().forEach(child -> traverse(ctx, parent, child));
       addChild(parent, new CFASTNode(CFASTNodeType.ENDIF.getValue(), convertLocation(node)));
     } else if (node instanceof SentenceNode) {
-      node.getChildren().forEach(child -> traverse(parent, child));
+      node.getChildren().forEach(child -> traverse(ctx, parent, child));
     } else if (node instanceof XMLParseNode) {
       XMLParseNode xmlParseNode = (XMLParseNode) node;
       addChild(parent, new XmlParse(xmlParseNode.getProcessingProcedureName(), xmlParseNode.getThruProcedureName(), convertLocation(node)));
-      node.getChildren().forEach(child -> traverse(parent, child));
+      node.getChildren().forEach(child -> traverse(ctx, parent, child));
       addChild(parent, new CFASTNode(CFASTNodeType.END_XML.getValue(), convertLocation(node)));
     } else if (node instanceof IfElseNode) {
       addChild(parent, new CFASTNode(CFASTNodeType.ELSE.getValue(), convertLocation(node)));
-      node.getChildren().forEach(child -> traverse(parent, child));
+      node.getChildren().forEach(child -> traverse(ctx, parent, child));
     } else if (node instanceof PerformNode) {
       if (((PerformNode) node).isInline()) {
         addChild(parent, new CFASTNode(CFASTNodeType.INLINE_PERFORM.getValue(), convertLocation(node)));
-        node.getChildren().forEach(child -> traverse(parent, child));
+        node.getChildren().forEach(child -> traverse(ctx, parent, child));
         addChild(parent, new CFASTNode(CFASTNodeType.END_INLINE_PERFORM.getValue(), convertLocation(node)));
       } else {
         PerformNode performNode = ((PerformNode) node);
@@ -132,7 +196,7 @@ public class CFASTBuilderImpl implements CFASTBuilder {
       addChild(parent, new CFASTNode(CFASTNodeType.GOBACK.getValue(), convertLocation(node)));
     } else if (node instanceof ExecCicsNode) {
       addChild(parent, new CFASTNode(CFASTNodeType.EXEC_CICS.getValue(), convertLocation(node)));
-      node.getChildren().forEach(child -> traverse(parent, child));
+      node.getChildren().forEach(child -> traverse(ctx, parent, child));
       addChild(parent, new CFASTNode(CFASTNodeType.END_EXEC.getValue(), convertLocation(node)));
     } else if (node instanceof ExecCicsReturnNode) {
       addChild(parent, new CFASTNode(CFASTNodeType.GOBACK.getValue(), convertLocation(node)));
@@ -142,22 +206,15 @@ public class CFASTBuilderImpl implements CFASTBuilder {
       addChild(parent, new CFASTNode(CFASTNodeType.USE_FOR_DEBUGGING.getValue(), convertLocation(node)));
     } else if (node instanceof ExecCicsHandleNode) {
       ExecCicsHandleNode.HandleAbendType type = ((ExecCicsHandleNode) node).getType();
+      Summary summary = ctx.summaries.get(node);
       String value;
 
       switch (type) {
         case PROGRAM:
-          value = node.getDepthFirstStream().filter(n -> n.getNodeType() == VARIABLE_USAGE)
-              .findFirst()
-              .map(VariableUsageNode.class::cast)
-              .map(VariableUsageNode::getName)
-              .orElse(null);
+          value = summary.getFirstVariableUsage();
           break;
         case LABEL:
-          value = node.getDepthFirstStream().filter(n -> n.getNodeType() == CODE_BLOCK_USAGE)
-              .findFirst()
-              .map(CodeBlockUsageNode.class::cast)
-              .map(CodeBlockUsageNode::getName)
-              .orElse(null);
+          value = summary.getFirstCodeBlockUsage();
           break;
         default:
           value = null;
@@ -165,16 +222,15 @@ public class CFASTBuilderImpl implements CFASTBuilder {
       }
 
       addChild(parent, new HandleAbend(convertLocation(node), type.toString(), value));
-      node.getChildren().forEach(child -> traverse(parent, child));
+      node.getChildren().forEach(child -> traverse(ctx, parent, child));
       addChild(parent, new CFASTNode(CFASTNodeType.END_EXEC.getValue(), convertLocation(node)));
     } else if (node instanceof ExecSqlNode) {
-      boolean isWhenever = node.getChildren().stream().anyMatch(n ->
-              n.getDepthFirstStream().anyMatch(nd -> nd instanceof ExecSqlWheneverNode));
+      boolean isWhenever = ctx.summaries.get(node).isSqlWhenever();
       // CCF expects to have "execwhenever" instead of "execsql" in case of whenever SQL statement.
       if (!isWhenever) {
         addChild(parent, new CFASTNode(CFASTNodeType.EXEC_SQL.getValue(), convertLocation(node)));
       }
-      node.getChildren().forEach(child -> traverse(parent, child));
+      node.getChildren().forEach(child -> traverse(ctx, parent, child));
       addChild(parent, new CFASTNode(CFASTNodeType.END_EXEC.getValue(), convertLocation(node)));
     } else if (node instanceof ExecSqlWheneverNode) {
       ExecSqlWheneverNode wheneverNode = (ExecSqlWheneverNode) node;
@@ -184,22 +240,22 @@ public class CFASTBuilderImpl implements CFASTBuilder {
           wheneverNode.getValue());
 
       addChild(parent, cfastNode);
-      node.getChildren().forEach(child -> traverse(parent, child));
+      node.getChildren().forEach(child -> traverse(ctx, parent, child));
     } else if (node instanceof StopNode) {
       addChild(parent, new CFASTNode(CFASTNodeType.STOP.getValue(), convertLocation(node)));
     } else if (node instanceof ParagraphsNode || node instanceof ProcedureDivisionBodyNode) {
-      node.getChildren().forEach(child -> traverse(parent, child));
+      node.getChildren().forEach(child -> traverse(ctx, parent, child));
     } else if (node instanceof AtEndNode) {
       addChild(parent, new CFASTNode(CFASTNodeType.AT_END.getValue(), convertLocation(node)));
-      node.getChildren().forEach(child -> traverse(parent, child));
+      node.getChildren().forEach(child -> traverse(ctx, parent, child));
       addChild(parent, new CFASTNode(CFASTNodeType.AT_END_EXIT.getValue(), convertLocation(node)));
     } else if (node instanceof MergeNode) {
       addChild(parent, new CFASTNode(CFASTNodeType.MERGE.getValue(), convertLocation(node)));
-      node.getChildren().forEach(child -> traverse(parent, child));
+      node.getChildren().forEach(child -> traverse(ctx, parent, child));
       addChild(parent, new CFASTNode(CFASTNodeType.END_MERGE.getValue(), convertLocation(node)));
     } else if (node instanceof SortNode) {
       addChild(parent, new CFASTNode(CFASTNodeType.SORT.getValue(), convertLocation(node)));
-      node.getChildren().forEach(child -> traverse(parent, child));
+      node.getChildren().forEach(child -> traverse(ctx, parent, child));
       addChild(parent, new CFASTNode(CFASTNodeType.END_SORT.getValue(), convertLocation(node)));
     } else if (node instanceof InputNode) {
       InputNode inputNode = (InputNode) node;
@@ -212,33 +268,18 @@ public class CFASTBuilderImpl implements CFASTBuilder {
       addChild(parent, new Alter(alterNode.getFrom(), alterNode.getTo(), convertLocation(node)));
     } else if (node instanceof OnExceptionNode) {
       addChild(parent, new CFASTNode(CFASTNodeType.ON_EXCEPTION.getValue(), convertLocation(node)));
-      node.getChildren().forEach(child -> traverse(parent, child));
+      node.getChildren().forEach(child -> traverse(ctx, parent, child));
       addChild(parent, new CFASTNode(CFASTNodeType.END_ON.getValue(), convertLocation(node)));
     } else if (node instanceof OnNotExceptionNode) {
       addChild(parent, new CFASTNode(CFASTNodeType.ON_NOT_EXCEPTION.getValue(), convertLocation(node)));
-      node.getChildren().forEach(child -> traverse(parent, child));
+      node.getChildren().forEach(child -> traverse(ctx, parent, child));
       addChild(parent, new CFASTNode(CFASTNodeType.END_ON.getValue(), convertLocation(node)));
     } else if (node instanceof StatementNode) {
       addChild(parent, new CFASTNode(CFASTNodeType.STATEMENT.getValue(), convertLocation(node)));
-      node.getChildren().forEach(child -> traverse(parent, child));
+      node.getChildren().forEach(child -> traverse(ctx, parent, child));
     }
   }
 
-  private void traverse(ProgramNode node, List<Program> programs) {
-    node.getChildren().stream()
-        .filter(it -> it instanceof DivisionNode)
-        .map(DivisionNode.class::cast)
-        .filter(it -> it.getDivisionType() == DivisionType.PROCEDURE_DIVISION)
-        .findFirst()
-        .ifPresent(
-            n -> {
-              Program program = new Program(node.getProgramName(), convertLocation(n));
-              n.getChildren().forEach(child -> traverse(program, child));
-              traverse(program, n);
-              programs.add(program);
-            });
-  }
-
   private void addChild(CFASTNode target, CFASTNode child) {
     if (target.getChildren() == null) {
       target.setChildren(new ArrayList<>());
@@ -260,13 +301,16 @@ public class CFASTBuilderImpl implements CFASTBuilder {
     return new Location(location.getUri(), startPosition, endPosition);
   }
 
-  private String cutSnippet(Node node) {
-    CobolDocumentModel doc = documentModelService.get(node.getLocality().getUri());
-    if (doc == null) {
+  private String cutSnippet(BuildContext ctx, Node node) {
+    Optional<List<CobolDocumentModel.Line>> documentLines =
+        ctx.lines.computeIfAbsent(
+            node.getLocality().getUri(),
+            uri -> Optional.ofNullable(documentModelService.get(uri)).map(CobolDocumentModel::getLines));
+    if (!documentLines.isPresent()) {
       LOG.error("cutSnippet failed: " + node.getLocality().getUri() + " not found.");
       return "<snippet creation error>";
     }
-    List<CobolDocumentModel.Line> lines = doc.getLines();
+    List<CobolDocumentModel.Line> lines = documentLines.get();
     StringBuilder sb = new StringBuilder();
     int startLine = node.getLocality().getRange().getStart().getLine();
     int stopLine = Math.min(startLine + SNIPPET_LENGTH, node.getLocality().getRange().getEnd().getLine() + 1);
@@ -278,4 +322,81 @@ public class CFASTBuilderImpl implements CFASTBuilder {
     });
     return sb.toString();
   }
+
+  /**
+   * Collect the summaries of the statements that depend on their nested nodes in one post-order
+   * pass, so the traversal does not need to scan the subtrees again.
+   *
+   * @param root the root of the procedure division
+   * @return summaries of EXEC CICS HANDLE and EXEC SQL nodes
+   */
+  private static Map<Node, Summary> summarize(Node root) {
+    Map<Node, Summary> summaries = new IdentityHashMap<>();
+    Deque<SummaryFrame> stack = new ArrayDeque<>();
+    stack.push(new SummaryFrame(root));
+    while (!stack.isEmpty()) {
+      SummaryFrame frame = stack.peek();
+      if (frame.nextChild < frame.node.getChildren().size()) {
+        stack.push(new SummaryFrame(frame.node.getChildren().get(frame.nextChild++)));
+        continue;
+      }
+      stack.pop();
+      Summary summary = frame.toSummary();
+      if (frame.node instanceof ExecCicsHandleNode || frame.node instanceof ExecSqlNode) {
+        summaries.put(frame.node, summary);
+      }
+      if (!stack.isEmpty()) {
+        stack.peek().merge(summary);
+      }
+    }
+    return summaries;
+  }
+
+  /** The state of building CF AST of one program */
+  private static final class BuildContext {
+    private final Map<Node, Summary> summaries;
+    private final Map<String, Optional<List<CobolDocumentModel.Line>>> lines = new HashMap<>();
+
+    BuildContext(Node root) {
+      summaries = summarize(root);
+    }
+  }
+
+  /** The nested nodes of a statement that affect its CF AST representation */
+  @Value
+  private static class Summary {
+    String firstVariableUsage;
+    String firstCodeBlockUsage;
+    boolean sqlWhenever;
+  }
+
+  /** A node which nested nodes are being summarized */
+  private static final class SummaryFrame {
+    private final Node node;
+    private int nextChild;
+    private String firstVariableUsage;
+    private String firstCodeBlockUsage;
+    private boolean sqlWhenever;
+
+    SummaryFrame(Node node) {
+      this.node = node;
+    }
+
+    void merge(Summary child) {
+      if (firstVariableUsage == null) {
+        firstVariableUsage = child.getFirstVariableUsage();
+      }
+      if (firstCodeBlockUsage == null) {
+        firstCodeBlockUsage = child.getFirstCodeBlockUsage();
+      }
+      sqlWhenever |= child.isSqlWhenever();
+    }
+
+    Summary toSummary() {
+      return new Summary(
+          node instanceof VariableUsageNode ? ((VariableUsageNode) node).getName() : firstVariableUsage,
+          node instanceof CodeBlockUsageNode ? ((CodeBlockUsageNode) node).getName() : firstCodeBlockUsage,
+          sqlWhenever || node instanceof ExecSqlWheneverNode);
+    }
+  }
 }
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.cli.command;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.Gson;
+import com.google.gson.JsonNull;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import org.eclipse.lsp.cobol.common.model.NodeType;
+import org.eclipse.lsp.cobol.common.model.tree.Node;
+
+/**
+ * Writes a node tree as JSON directly to a {@link JsonWriter}, without building a JSON tree in
+ * memory. The output is the same as the one of {@link Gson#toJsonTree(Object)} for the tree: the
+ * fields are written in the Gson order, and the values of the fields other than the node children
+ * are streamed by Gson one at a time. The children are written with an explicit stack, so the
+ * depth of the tree is not limited by the thread stack size.
+ *
+ * <p>The output can be reduced with a depth limit, the nodes deeper than the limit are written
+ * without children, and with a set of node types. If the types are set, only the root and the
+ * nodes of these types are written, the written nodes become the children of their closest written
+ * ancestor.
+ */
+public class AstJsonWriter {
+  private static final String CHILDREN = "children";
+  private static final ClassValue<List<Field>> FIELDS =
+      new ClassValue<List<Field>>() {
+        @Override
+        protected List<Field> computeValue(Class<?> type) {
+          return collectFields(type);
+        }
+      };
+
+  private final Gson gson;
+  private final int maxDepth;
+  private final Set<NodeType> types;
+
+  /**
+   * Create a writer of the whole trees
+   *
+   * @param gson the Gson instance to write the field values
+   */
+  public AstJsonWriter(Gson gson) {
+    this(gson, -1, Collections.emptySet());
+  }
+
+  /**
+   * Create a writer
+   *
+   * @param gson the Gson instance to write the field values
+   * @param maxDepth the depth of the deepest nodes to write the children of, the root has depth 0,
+   *     a negative value means no limit
+   * @param types the types of the nodes to write, empty to write all the nodes
+   */
+  public AstJsonWriter(Gson gson, int maxDepth, Set<NodeType> types) {
+    this.gson = gson;
+    this.maxDepth = maxDepth;
+    this.types = types.isEmpty() ? Collections.emptySet() : EnumSet.copyOf(types);
+  }
+
+  /**
+   * Write the tree
+   *
+   * @param root the root of the tree
+   * @param out the target writer, created by {@link Gson#newJsonWriter} to have the same settings
+   * @throws IOException if the writer fails
+   */
+  public void write(Node root, JsonWriter out) throws IOException {
+    Deque<Frame> stack = new ArrayDeque<>();
+    stack.push(open(root, 0, out));
+    while (!stack.isEmpty()) {
+      Frame frame = stack.peek();
+      if (frame.children != null) {
+        if (frame.childIndex < frame.children.size()) {
+          stack.push(open(frame.children.get(frame.childIndex++), frame.depth + 1, out));
+          continue;
+        }
+        out.endArray();
+        frame.children = null;
+      }
+      if (frame.fieldIndex == frame.fields.size()) {
+        out.endObject();
+        stack.pop();
+        continue;
+      }
+      Field field = frame.fields.get(frame.fieldIndex++);
+      if (isChildren(field)) {
+        if (maxDepth < 0 || frame.depth < maxDepth) {
+          out.name(CHILDREN).beginArray();
+          frame.children = visibleChildren(frame.node);
+        }
+      } else {
+        writeField(frame.node, field, out);
+      }
+    }
+  }
+
+  private Frame open(Node node, int depth, JsonWriter out) throws IOException {
+    out.beginObject();
+    return new Frame(node, depth, FIELDS.get(node.getClass()));
+  }
+
+  private void writeField(Node node, Field field, JsonWriter out) throws IOException {
+    Object value;
+    try {
+      value = field.get(node);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException(e);
+    }
+    if (value == node) {
+      return;
+    }
+    out.name(serializedName(field));
+    if (value == null) {
+      gson.toJson(JsonNull.INSTANCE, out);
+    } else {
+      gson.toJson(value, value.getClass(), out);
+    }
+  }
+
+  private List<Node> visibleChildren(Node node) {
+    if (types.isEmpty()) {
+      return node.getChildren();
+    }
+    ImmutableList.Builder<Node> visible = ImmutableList.builder();
+    Deque<Node> stack = new ArrayDeque<>();
+    pushChildren(node, stack);
+    while (!stack.isEmpty()) {
+      Node child = stack.pop();
+      if (types.contains(child.getNodeType())) {
+        visible.add(child);
+      } else {
+        pushChildren(child, stack);
+      }
+    }
+    return visible.build();
+  }
+
+  private static void pushChildren(Node node, Deque<Node> stack) {
+    List<Node> children = node.getChildren();
+    for (int i = children.size() - 1; i >= 0; i--) {
+      stack.push(children.get(i));
+    }
+  }
+
+  private static boolean isChildren(Field field) {
+    return field.getDeclaringClass() == Node.class && field.getName().equals(CHILDREN);
+  }
+
+  private static String serializedName(Field field) {
+    SerializedName name = field.getAnnotation(SerializedName.class);
+    return name == null ? field.getName() : name.value();
+  }
+
+  /**
+   * Collect the fields that Gson serializes by default, in the Gson order: the fields of the class
+   * first, then the fields of its superclasses.
+   */
+  private static List<Field> collectFields(Class<?> type) {
+    List<Field> fields = new ArrayList<>();
+    for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+      for (Field field : current.getDeclaredFields()) {
+        int modifiers = field.getModifiers();
+        if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()
+            || field.getType().isAnonymousClass() || field.getType().isLocalClass()) {
+          continue;
+        }
+        field.setAccessible(true);
+        fields.add(field);
+      }
+    }
+    return fields;
+  }
+
+  /** A node being written */
+  private static final class Frame {
+    private final Node node;
+    private final int depth;
+    private final List<Field> fields;
+    private int fieldIndex;
+    private List<Node> children;
+    private int childIndex;
+
+    private Frame(Node node, int depth, List<Field> fields) {
+      this.node = node;
+      this.depth = depth;
+      this.fields = fields;
+    }
+  }
+}
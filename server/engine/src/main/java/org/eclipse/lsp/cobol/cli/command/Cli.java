@@ -15,6 +15,7 @@
 package org.eclipse.lsp.cobol.cli.command;
 
 import com.google.gson.*;
+import com.google.inject.Guice;
 import com.google.inject.Injector;
 
 import java.io.File;
@@ -26,6 +27,7 @@ import java.nio.file.Paths;
 import java.util.concurrent.Callable;
 
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.lsp.cobol.cli.di.CliModule;
 import org.eclipse.lsp.cobol.cli.processorgroups.ProcessorGroupsResolver;
 import org.eclipse.lsp.cobol.common.AnalysisConfig;
 import org.eclipse.lsp.cobol.common.CleanerPreprocessor;
@@ -54,7 +56,9 @@ import static org.eclipse.lsp.cobol.cli.command.CliUtils.setupPipeline;
         ListSources.class,
         ListCopybooks.class,
         CliAnalysis.class,
-        CliCFAST.class
+        CliCFAST.class,
+        CliDaemon.class,
+        CliDaemonClient.class
     })
 @Slf4j
 public class Cli implements Callable<Integer> {
@@ -62,6 +66,23 @@ public class Cli implements Callable<Integer> {
   static final int FAILURE = 1;
 
   ProcessorGroupsResolver processorGroupsResolver;
+  private final Injector injector;
+
+  /**
+   * Create a CLI that creates a new DI context for each command
+   */
+  public Cli() {
+    this(null);
+  }
+
+  /**
+   * Create a CLI that runs the commands in the given DI context, so they share its warm caches
+   *
+   * @param injector the DI context created with {@link CliModule}
+   */
+  public Cli(Injector injector) {
+    this.injector = injector;
+  }
 
   /**
    * Prints the file name to the console and returns result code.
@@ -74,6 +95,10 @@ public class Cli implements Callable<Integer> {
     return SUCCESS;
   }
 
+  Injector getInjector() {
+    return injector == null ? Guice.createInjector(new CliModule()) : injector;
+  }
+
   Result runAnalysis(File src, CobolLanguageId dialect, Injector diCtx, boolean isAnalysisRequired, boolean collectAstChanges) throws IOException {
     String documentUri = src.toURI().toString();
     Pipeline<AnalysisContext> pipeline = setupPipeline(diCtx, isAnalysisRequired, dialect);
@@ -90,6 +115,7 @@ public class Cli implements Callable<Integer> {
     AnalysisContext ctx = new AnalysisContext(extendedDocument, config, benchmarkSession, documentUri, text, dialect);
     ctx.getAccumulatedErrors().addAll(resultWithErrors.getErrors());
     PipelineResult pipelineResult = pipeline.run(ctx);
+    benchmarkService.logTiming(benchmarkSession);
     return new Result(ctx, pipelineResult);
   }
 
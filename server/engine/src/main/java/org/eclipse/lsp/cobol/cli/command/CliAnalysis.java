@@ -14,15 +14,19 @@
  */
 package org.eclipse.lsp.cobol.cli.command;
 
+import com.google.common.io.CharStreams;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.inject.Guice;
+import com.google.gson.stream.JsonWriter;
 import com.google.inject.Injector;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Writer;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryPoolMXBean;
@@ -31,18 +35,21 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
-import org.eclipse.lsp.cobol.cli.di.CliModule;
 import org.eclipse.lsp.cobol.cli.modules.CliClientProvider;
+import org.eclipse.lsp.cobol.common.benchmark.BenchmarkService;
 import org.eclipse.lsp.cobol.common.dialects.CobolLanguageId;
-import org.eclipse.lsp.cobol.common.model.tree.RootNode;
+import org.eclipse.lsp.cobol.common.model.NodeType;
+import org.eclipse.lsp.cobol.common.model.tree.BinaryTreeReader;
 import org.eclipse.lsp.cobol.common.processor.ProcessingPhase;
-import org.eclipse.lsp.cobol.dialects.ibm.ProcessingResult;
 import picocli.CommandLine;
 
 /**
@@ -78,6 +85,18 @@ public class CliAnalysis implements Callable<Integer> {
     )
     private boolean printTree = false;
 
+    @CommandLine.Option(
+            description = "Print the children of the AST nodes up to this depth, the root has depth 0",
+            names = {"--ast-depth"},
+            defaultValue = "-1")
+    private int astDepth = -1;
+
+    @CommandLine.Option(
+            description = "Print only the AST nodes of these types, e.g. SECTION,PARAGRAPH",
+            names = {"--ast-type"},
+            split = ",")
+    private NodeType[] astTypes = {};
+
     @CommandLine.ArgGroup(exclusive = false)
     private ExtendedSourceConfig extendedSourceConfig = new ExtendedSourceConfig();
 
@@ -102,37 +121,33 @@ public class CliAnalysis implements Callable<Integer> {
             createTemporaryFileFromInput();
         }
 
-        Injector diCtx = Guice.createInjector(new CliModule());
+        Injector diCtx = parent.getInjector();
         CliClientProvider cliClientProvider = diCtx.getInstance(CliClientProvider.class);
 
         cliClientProvider.setCpyPaths(createCopybooksPaths());
         cliClientProvider.setCpyExt(createCopybooksExtensions());
+        BenchmarkService benchmarkService = diCtx.getInstance(BenchmarkService.class);
         try {
             for (int i = 0; i < repeat; ++i) {
                 JsonObject result = createResultJson();
 
                 Cli.Result analysisResult = parent.runAnalysis(inputConfig.src, dialect, diCtx, true, printTree);
                 parent.addTiming(result, analysisResult.ctx.getBenchmarkSession());
-                if (printTree) {
-                    RootNode root = ((ProcessingResult) analysisResult.pipelineResult.getLastStageResult()
-                            .getData()).getRootNode();
-                    JsonObject asts = new JsonObject();
-                    asts.add("START", analysisResult.ctx.getAstChanges().get(null));
-                    for (ProcessingPhase phase: ProcessingPhase.values()) {
-                        asts.add(phase.name(), analysisResult.ctx.getAstChanges().get(phase));
-                    }
-
-                    result.add("asts", asts);
-                }
 
+                JsonObject tail = new JsonObject();
                 if (!hideDiagnostics) {
-                    generateDiagnostics(analysisResult, result);
+                    generateDiagnostics(analysisResult, tail);
                 }
-                collectGcAndMemoryStats(result);
-                System.out.println(CliUtils.GSON.toJson(result));
+                collectGcAndMemoryStats(tail);
+                printResult(result, printTree ? analysisResult.ctx.getAstChanges() : null, tail);
 
                 handleExtendedSource(analysisResult);
             }
+            if (repeat > 1) {
+                JsonObject report = new JsonObject();
+                report.add("stageLatencies", benchmarkService.stageLatenciesToJson());
+                System.err.println(CliUtils.GSON.toJson(report));
+            }
             return Cli.SUCCESS;
         } catch (Exception e) {
             JsonObject result = createResultJson();
@@ -142,6 +157,47 @@ public class CliAnalysis implements Callable<Integer> {
         }
     }
 
+    /**
+     * Print the result. The ASTs are streamed one by one, so only one of them is in memory as a
+     * node tree and none of them as a JSON tree.
+     */
+    private void printResult(JsonObject head, Map<ProcessingPhase, byte[]> asts, JsonObject tail) throws IOException {
+        Writer writer = new BufferedWriter(CharStreams.asWriter(System.out));
+        JsonWriter out = CliUtils.GSON.newJsonWriter(writer);
+        out.beginObject();
+        writeMembers(head, out);
+        if (asts != null) {
+            AstJsonWriter astWriter = new AstJsonWriter(CliUtils.GSON, astDepth,
+                    astTypes.length == 0 ? Collections.emptySet() : EnumSet.copyOf(Arrays.asList(astTypes)));
+            out.name("asts").beginObject();
+            writeAst("START", asts.get(null), astWriter, out);
+            for (ProcessingPhase phase : ProcessingPhase.values()) {
+                writeAst(phase.name(), asts.get(phase), astWriter, out);
+            }
+            out.endObject();
+        }
+        writeMembers(tail, out);
+        out.endObject();
+        out.flush();
+        System.out.println();
+    }
+
+    private static void writeAst(String name, byte[] ast, AstJsonWriter astWriter, JsonWriter out) throws IOException {
+        out.name(name);
+        if (ast == null) {
+            out.nullValue();
+        } else {
+            astWriter.write(BinaryTreeReader.fromBytes(ast), out);
+        }
+    }
+
+    private static void writeMembers(JsonObject object, JsonWriter out) throws IOException {
+        for (Map.Entry<String, JsonElement> member : object.entrySet()) {
+            out.name(member.getKey());
+            CliUtils.GSON.toJson(member.getValue(), out);
+        }
+    }
+
     private JsonObject createResultJson() {
         JsonObject result = new JsonObject();
 
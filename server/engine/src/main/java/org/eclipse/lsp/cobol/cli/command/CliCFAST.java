@@ -17,19 +17,19 @@ package org.eclipse.lsp.cobol.cli.command;
 import com.google.common.io.Files;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.inject.Guice;
 import com.google.inject.Injector;
 import org.eclipse.lsp.cobol.cfg.CFASTBuilder;
-import org.eclipse.lsp.cobol.cli.di.CliModule;
 import org.eclipse.lsp.cobol.common.dialects.CobolLanguageId;
 import org.eclipse.lsp.cobol.common.model.tree.ProgramNode;
 import org.eclipse.lsp.cobol.common.pipeline.StageResult;
 import org.eclipse.lsp.cobol.dialects.ibm.ProcessingResult;
 import picocli.CommandLine;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Objects;
@@ -49,11 +49,16 @@ public class CliCFAST  implements Callable<Integer> {
       names = {"-sf", "--source_folder"})
   private Path workspace;
 
+  @CommandLine.Option(
+      description = "Write CFAST while it is built, to keep memory low on very large programs.",
+      names = {"--stream"})
+  private boolean stream;
+
   @Override
   public Integer call() throws Exception {
     try {
       if (Objects.nonNull(workspace)) {
-        Injector diCtx = Guice.createInjector(new CliModule());
+        Injector diCtx = parent.getInjector();
         CFASTBuilder builder = diCtx.getInstance(CFASTBuilder.class);
 
         File[] paths = workspace.toFile().listFiles();
@@ -80,10 +85,12 @@ public class CliCFAST  implements Callable<Integer> {
       Cli.Result analysisResult = parent.runAnalysis(file.getCanonicalFile(), CobolLanguageId.COBOL, diCtx, true, false);
       StageResult<ProcessingResult> result = (StageResult<ProcessingResult>) analysisResult.pipelineResult.getLastStageResult();
       ProgramNode programNode = result.getData().getRootNode().findFirstProgramNode();
-      String json = gson.toJson(builder.build(programNode).getControlFlowAST());
-
-      try (FileWriter writer = new FileWriter(getCFASTFileName(file.toPath()))) {
-        writer.write(json);
+      try (Writer writer = new BufferedWriter(new FileWriter(getCFASTFileName(file.toPath())))) {
+        if (stream) {
+          builder.build(programNode, gson, gson.newJsonWriter(writer));
+        } else {
+          writer.write(gson.toJson(builder.build(programNode).getControlFlowAST()));
+        }
         writer.flush();
       }
 
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.cli.command;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.lsp.cobol.cli.di.CliModule;
+import org.eclipse.lsp.cobol.cli.modules.CliClientProvider;
+import org.eclipse.lsp.cobol.common.copybook.CopybookService;
+import picocli.CommandLine;
+
+/**
+ * Keeps a warm engine on a loopback port and runs the commands sent by {@link CliDaemonClient}.
+ * All the commands share one DI context, so the parsers, keyword tables and copybook caches are
+ * initialized only once. The commands print to {@link System#out}, so the daemon runs them one at
+ * a time and redirects the console to the client for the duration of a command.
+ *
+ * <p>The daemon accepts only the requests with the token it writes to the token file on start. A
+ * client that does not send its request in time or sends an invalid one is disconnected. The cached
+ * copybooks are kept between the commands, a client that changed the copybook files asks to drop
+ * them and their usages. The cached analysis results are checked against the copybook cache, so
+ * they are dropped with it.
+ */
+@CommandLine.Command(name = "daemon", description = "run a warm engine for the client command")
+@Slf4j
+public class CliDaemon implements Callable<Integer> {
+  static final Set<String> COMMANDS = ImmutableSet.of("analysis", "list_copybooks", "cfast");
+  private static final int REQUEST_TIMEOUT_MILLIS = 10_000;
+
+  @CommandLine.Option(
+      description = "Loopback port to listen on.",
+      names = {"-p", "--port"},
+      defaultValue = DaemonProtocol.DEFAULT_PORT)
+  private int port;
+
+  @CommandLine.Option(
+      description = "The file to write the client token to, only the current user may read it. Defaults to"
+          + " ~/.cobol-ls/daemon-<port>.token.",
+      names = {"--token-file"})
+  private Path tokenFile;
+
+  @Override
+  public Integer call() throws Exception {
+    Injector diCtx = Guice.createInjector(new CliModule());
+    // The folders may change between the requests
+    diCtx.getInstance(CliClientProvider.class).setRefreshCopybookIndexOnChange(true);
+    Path file = tokenFile == null ? DaemonProtocol.defaultTokenFile(port) : tokenFile;
+    try (ServerSocket serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+      String token = DaemonProtocol.createToken(file);
+      try {
+        LOG.info("CLI daemon is listening on port {}", serverSocket.getLocalPort());
+        boolean running = true;
+        while (running) {
+          try (Socket socket = serverSocket.accept()) {
+            socket.setSoTimeout(REQUEST_TIMEOUT_MILLIS);
+            running = serve(socket, diCtx, token);
+          } catch (EOFException e) {
+            LOG.debug("CLI daemon connection closed without a request");
+          } catch (SocketTimeoutException e) {
+            LOG.warn("CLI daemon connection timed out");
+          } catch (IOException | RuntimeException e) {
+            LOG.error("CLI daemon request failed", e);
+          }
+        }
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    }
+    LOG.info("CLI daemon stopped");
+    return Cli.SUCCESS;
+  }
+
+  private boolean serve(Socket socket, Injector diCtx, String token) throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    DaemonProtocol.Request request = DaemonProtocol.readRequest(in);
+    if (!DaemonProtocol.isAuthorized(request, token)) {
+      LOG.warn("CLI daemon rejected a request without a valid token");
+      PrintStream output = new PrintStream(DaemonProtocol.outputStream(out, false), false, "UTF-8");
+      output.println("The daemon token is not valid");
+      output.flush();
+      DaemonProtocol.writeExitCode(out, Cli.FAILURE);
+      return true;
+    }
+    if (request.isStop()) {
+      DaemonProtocol.writeExitCode(out, Cli.SUCCESS);
+      return false;
+    }
+    if (request.isRefresh()) {
+      diCtx.getInstance(CopybookService.class).invalidateCache(true);
+    }
+    PrintStream output = new PrintStream(DaemonProtocol.outputStream(out, false), false, "UTF-8");
+    PrintStream error = new PrintStream(DaemonProtocol.outputStream(out, true), false, "UTF-8");
+    int exitCode = run(request, diCtx, output, error);
+    output.flush();
+    error.flush();
+    DaemonProtocol.writeExitCode(out, exitCode);
+    return true;
+  }
+
+  private static int run(DaemonProtocol.Request request, Injector diCtx, PrintStream output, PrintStream error) {
+    List<String> args = request.getArgs();
+    PrintWriter writer = new PrintWriter(output);
+    PrintWriter errorWriter = new PrintWriter(error);
+    if (args.isEmpty() || !COMMANDS.contains(args.get(0))) {
+      writer.println("The daemon runs only these commands: " + String.join(", ", COMMANDS));
+      writer.flush();
+      return CommandLine.ExitCode.USAGE;
+    }
+    // Resolve the relative paths against the folder of the client, not the one of the daemon
+    Path workingDirectory = Paths.get(request.getWorkingDirectory());
+    CommandLine commandLine = new CommandLine(new Cli(diCtx))
+        .registerConverter(File.class, value -> workingDirectory.resolve(value).toFile())
+        .registerConverter(Path.class, workingDirectory::resolve)
+        .setOut(writer)
+        .setErr(errorWriter);
+
+    PrintStream stdout = System.out;
+    PrintStream stderr = System.err;
+    InputStream stdin = System.in;
+    System.setOut(output);
+    System.setErr(error);
+    System.setIn(new ByteArrayInputStream(new byte[0]));
+    try {
+      return commandLine.execute(args.toArray(new String[0]));
+    } finally {
+      writer.flush();
+      errorWriter.flush();
+      System.setOut(stdout);
+      System.setErr(stderr);
+      System.setIn(stdin);
+    }
+  }
+}
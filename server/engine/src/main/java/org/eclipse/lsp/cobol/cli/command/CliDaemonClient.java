@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.cli.command;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import picocli.CommandLine;
+
+/**
+ * Sends a command to the {@link CliDaemon} and prints its output, e.g. {@code client -- analysis -s
+ * PGM.cbl -cf copybooks}. The client does not start the engine, so it only pays the JVM startup.
+ */
+@CommandLine.Command(name = "client", description = "run a command in the daemon")
+public class CliDaemonClient implements Callable<Integer> {
+
+  @CommandLine.Option(
+      description = "Loopback port of the daemon.",
+      names = {"-p", "--port"},
+      defaultValue = DaemonProtocol.DEFAULT_PORT)
+  private int port;
+
+  @CommandLine.Option(
+      description = "The token file written by the daemon. Defaults to ~/.cobol-ls/daemon-<port>.token.",
+      names = {"--token-file"})
+  private Path tokenFile;
+
+  @CommandLine.Option(
+      description = "Read the copybooks again instead of reusing the ones cached by the previous commands.",
+      names = {"--refresh"})
+  private boolean refresh;
+
+  @CommandLine.Option(
+      description = "Stop the daemon.",
+      names = {"--stop"})
+  private boolean stop;
+
+  @CommandLine.Parameters(
+      paramLabel = "COMMAND",
+      description = "The command to run with its options after --, one of: analysis, list_copybooks, cfast.")
+  private List<String> command = new ArrayList<>();
+
+  @Override
+  public Integer call() throws Exception {
+    if (!stop && command.isEmpty()) {
+      System.out.println("Missing the command to run in the daemon");
+      return Cli.FAILURE;
+    }
+    // The daemon redirects the console while it runs a command in the same JVM, e.g. in tests
+    PrintStream stdout = System.out;
+    PrintStream stderr = System.err;
+    DaemonProtocol.Request request = new DaemonProtocol.Request();
+    try {
+      request.setToken(DaemonProtocol.readToken(tokenFile == null ? DaemonProtocol.defaultTokenFile(port) : tokenFile));
+    } catch (NoSuchFileException e) {
+      stdout.println("CLI daemon is not running on port " + port);
+      return Cli.FAILURE;
+    }
+    request.setWorkingDirectory(Paths.get("").toAbsolutePath().toString());
+    request.setArgs(command);
+    request.setRefresh(refresh);
+    request.setStop(stop);
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+      DaemonProtocol.writeRequest(new DataOutputStream(new BufferedOutputStream(socket.getOutputStream())), request);
+      return DaemonProtocol.copyOutput(new DataInputStream(new BufferedInputStream(socket.getInputStream())), stdout, stderr);
+    } catch (ConnectException e) {
+      stdout.println("CLI daemon is not running on port " + port);
+      return Cli.FAILURE;
+    }
+  }
+}
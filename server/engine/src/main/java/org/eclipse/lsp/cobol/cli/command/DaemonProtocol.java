@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.cli.command;
+
+import com.google.common.io.BaseEncoding;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * The protocol between the {@link CliDaemonClient} and the {@link CliDaemon}. The client sends one
+ * request as a length-prefixed JSON object. The daemon answers with the console output of the
+ * command as length-prefixed chunks, the chunks of the error output are preceded by the {@link
+ * #ERROR} marker, followed by the {@link #EXIT} marker and the exit code.
+ *
+ * <p>Every request carries the token that the daemon writes on start to a file readable only by the
+ * user who runs it, so other local users cannot run commands through the loopback port.
+ */
+final class DaemonProtocol {
+  static final String DEFAULT_PORT = "1045";
+  private static final int EXIT = -1;
+  private static final int ERROR = -2;
+  private static final int MAX_REQUEST_LENGTH = 1 << 20;
+  private static final int TOKEN_BYTES = 32;
+  private static final String TOKEN_FOLDER = ".cobol-ls";
+  private static final Gson GSON = new Gson();
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  private DaemonProtocol() {
+  }
+
+  /**
+   * Get the default token file of the daemon on the port, in the home folder of the user
+   *
+   * @param port the daemon port
+   * @return the token file path
+   */
+  static Path defaultTokenFile(int port) {
+    return Paths.get(System.getProperty("user.home"), TOKEN_FOLDER, "daemon-" + port + ".token");
+  }
+
+  /**
+   * Create a random token and write it to a new file that only the current user can read
+   *
+   * @param file the token file, an existing one is replaced
+   * @return the token
+   * @throws IOException if the file cannot be written
+   */
+  static String createToken(Path file) throws IOException {
+    byte[] bytes = new byte[TOKEN_BYTES];
+    RANDOM.nextBytes(bytes);
+    String token = BaseEncoding.base16().lowerCase().encode(bytes);
+    boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    Path folder = file.toAbsolutePath().getParent();
+    if (!Files.isDirectory(folder)) {
+      if (posix) {
+        Files.createDirectories(folder, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+      } else {
+        Files.createDirectories(folder);
+      }
+    }
+    Files.deleteIfExists(file);
+    if (posix) {
+      Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+    } else {
+      Files.createFile(file);
+      File tokenFile = file.toFile();
+      if (!(tokenFile.setReadable(false, false) && tokenFile.setReadable(true, true)
+          && tokenFile.setWritable(false, false) && tokenFile.setWritable(true, true))) {
+        throw new IOException("Cannot restrict the access to " + file);
+      }
+    }
+    Files.write(file, token.getBytes(StandardCharsets.UTF_8));
+    return token;
+  }
+
+  /**
+   * Read the token written by the daemon
+   *
+   * @param file the token file
+   * @return the token
+   * @throws IOException if the file cannot be read
+   */
+  static String readToken(Path file) throws IOException {
+    return new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim();
+  }
+
+  /**
+   * Check the token of the request in a constant time
+   *
+   * @param request the request
+   * @param token the token of the daemon
+   * @return true if the request has the same token
+   */
+  static boolean isAuthorized(Request request, String token) {
+    return request.getToken() != null
+        && MessageDigest.isEqual(
+            request.getToken().getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+  }
+
+  static void writeRequest(DataOutputStream out, Request request) throws IOException {
+    byte[] bytes = GSON.toJson(request).getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+    out.flush();
+  }
+
+  static Request readRequest(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0 || length > MAX_REQUEST_LENGTH) {
+      throw new IOException("Invalid daemon request length: " + length);
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    Request request;
+    try {
+      request = GSON.fromJson(new String(bytes, StandardCharsets.UTF_8), Request.class);
+    } catch (JsonParseException e) {
+      throw new IOException("Invalid daemon request", e);
+    }
+    if (request == null) {
+      throw new IOException("Empty daemon request");
+    }
+    return request;
+  }
+
+  /**
+   * Create a stream that sends everything written to it as output chunks
+   *
+   * @param out the connection to the client
+   * @param error true to send the chunks of the error output
+   * @return the output stream
+   */
+  static OutputStream outputStream(DataOutputStream out, boolean error) {
+    return new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        if (len > 0) {
+          if (error) {
+            out.writeInt(ERROR);
+          }
+          out.writeInt(len);
+          out.write(b, off, len);
+        }
+      }
+
+      @Override
+      public void flush() throws IOException {
+        out.flush();
+      }
+    };
+  }
+
+  static void writeExitCode(DataOutputStream out, int exitCode) throws IOException {
+    out.writeInt(EXIT);
+    out.writeInt(exitCode);
+    out.flush();
+  }
+
+  /**
+   * Copy the output chunks of the daemon to the targets until the exit code arrives
+   *
+   * @param in the connection to the daemon
+   * @param target the stream to copy the output to
+   * @param errorTarget the stream to copy the error output to
+   * @return the exit code of the command
+   * @throws IOException if the connection fails
+   */
+  static int copyOutput(DataInputStream in, OutputStream target, OutputStream errorTarget) throws IOException {
+    byte[] buffer = new byte[8192];
+    while (true) {
+      int length = in.readInt();
+      if (length == EXIT) {
+        target.flush();
+        errorTarget.flush();
+        return in.readInt();
+      }
+      OutputStream output = target;
+      if (length == ERROR) {
+        output = errorTarget;
+        length = in.readInt();
+      }
+      if (length < 0) {
+        throw new IOException("Invalid daemon output length: " + length);
+      }
+      if (length > buffer.length) {
+        buffer = new byte[length];
+      }
+      in.readFully(buffer, 0, length);
+      output.write(buffer, 0, length);
+    }
+  }
+
+  /** A request to the daemon */
+  @Data
+  static final class Request {
+    private String token;
+    private String workingDirectory;
+    private List<String> args = new ArrayList<>();
+    private boolean refresh;
+    private boolean stop;
+  }
+}
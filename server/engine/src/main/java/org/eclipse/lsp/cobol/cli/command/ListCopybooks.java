@@ -19,7 +19,6 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
-import com.google.inject.Guice;
 import com.google.inject.Injector;
 import java.io.File;
 import java.nio.file.Path;
@@ -29,7 +28,6 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
-import org.eclipse.lsp.cobol.cli.di.CliModule;
 import org.eclipse.lsp.cobol.cli.modules.CliClientProvider;
 import org.eclipse.lsp.cobol.common.dialects.CobolLanguageId;
 import org.eclipse.lsp.cobol.common.pipeline.StageResult;
@@ -99,7 +97,7 @@ public class ListCopybooks implements Callable<Integer> {
         return Cli.FAILURE;
       }
     }
-    Injector diCtx = Guice.createInjector(new CliModule());
+    Injector diCtx = parent.getInjector();
     CliClientProvider cliClientProvider = diCtx.getInstance(CliClientProvider.class);
 
     cliClientProvider.setCpyPaths(createCopybooksPaths());
@@ -19,6 +19,7 @@ import static com.google.inject.multibindings.Multibinder.newSetBinder;
 import static com.google.inject.name.Names.named;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Singleton;
 import com.google.inject.assistedinject.FactoryModuleBuilder;
 import com.google.inject.multibindings.Multibinder;
 import com.google.inject.name.Names;
@@ -100,7 +101,7 @@ public class CliModule extends AbstractModule {
     bind(CobolLanguageClient.class).toProvider(CliClientProvider.class);
     bind(SettingsService.class).to(SettingsServiceImpl.class);
     bind(WatcherService.class).to(WatcherServiceImpl.class);
-    bind(BenchmarkService.class).to(BenchmarkServiceImpl.class);
+    bind(BenchmarkService.class).to(BenchmarkServiceImpl.class).in(Singleton.class);
     bind(LanguageEngineFacade.class).to(CobolLanguageEngineFacade.class);
     bind(FileSystemService.class).toInstance(new WorkspaceFileService());
     bind(SubroutineService.class).to(SubroutineServiceImpl.class);
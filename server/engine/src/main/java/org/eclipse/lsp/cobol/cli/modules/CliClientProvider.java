@@ -23,16 +23,16 @@ import org.eclipse.lsp4j.*;
 
 import java.io.File;
 import java.net.URI;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 @Singleton
 public class CliClientProvider implements Provider<CobolLanguageClient> {
   private final CliClient client = new CliClient();
-  @Setter
+  private final CopybookDirectoryIndex copybookIndex = new CopybookDirectoryIndex();
   private List<File> cpyPaths;
   @Setter
   private List<String> cpyExt;
@@ -42,6 +42,32 @@ public class CliClientProvider implements Provider<CobolLanguageClient> {
    */
   public CliClientProvider() { }
 
+  /**
+   * Set the copybook folders. The absolute folders are indexed at once, the relative ones are
+   * indexed on the first lookup from a program folder.
+   *
+   * @param cpyPaths copybook folders in the order of precedence
+   */
+  public void setCpyPaths(List<File> cpyPaths) {
+    this.cpyPaths = cpyPaths;
+    cpyPaths.stream().filter(File::isAbsolute).map(File::toPath).forEach(copybookIndex::index);
+  }
+
+  /**
+   * Make copybook lookups list a folder again when its modification time has changed. It is off by
+   * default because the folders do not change during a batch run.
+   *
+   * @param refreshOnChange true to check the folders on each lookup
+   */
+  public void setRefreshCopybookIndexOnChange(boolean refreshOnChange) {
+    copybookIndex.setRefreshOnChange(refreshOnChange);
+  }
+
+  /** Drop the copybook folder index, so the folders will be listed again on the next lookup */
+  public void refreshCopybookIndex() {
+    copybookIndex.refresh();
+  }
+
   @Override
   public CobolLanguageClient get() {
     return client;
@@ -84,12 +110,13 @@ public class CliClientProvider implements Provider<CobolLanguageClient> {
       for (File sp : cpyPaths) {
         for (String ext : cpyExt) {
           String copybookFileName = copybookName + (ext.isEmpty() || ext.startsWith(".") ? ext : "." + ext);
-          Path cpy = sp.isAbsolute()
-                  ? Paths.get(sp.toString(), copybookFileName)
-                  : makeRelativePath(cobolFileUri, sp.toString(), copybookFileName);
+          Path folder = sp.isAbsolute()
+                  ? Paths.get(sp.toString())
+                  : makeRelativePath(cobolFileUri, sp.toString());
 
-          if (Files.exists(cpy)) {
-            String value = cpy.toUri().toString();
+          Optional<Path> cpy = copybookIndex.find(folder, copybookFileName);
+          if (cpy.isPresent()) {
+            String value = cpy.get().toUri().toString();
             return CompletableFuture.completedFuture(value);
           }
         }
@@ -97,9 +124,9 @@ public class CliClientProvider implements Provider<CobolLanguageClient> {
       return CompletableFuture.completedFuture(null);
     }
 
-    private Path makeRelativePath(String cobolFileUri, String cbPath, String copybookFileName) {
+    private Path makeRelativePath(String cobolFileUri, String cbPath) {
       String folder = Paths.get(URI.create((cobolFileUri))).getParent().toString();
-      return Paths.get(folder, cbPath, copybookFileName);
+      return Paths.get(folder, cbPath);
     }
   }
 }
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.cli.modules;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Index of the file names in the copybook folders. Every folder is listed once, so resolving a
+ * copybook costs a map lookup per folder and extension instead of a file system probe. Names are
+ * compared the same way the file system of the folder does: exactly on case-sensitive file systems
+ * and ignoring the case otherwise. The file system of each folder is checked when it is listed, as
+ * the folders may be on different volumes, e.g. a case-sensitive APFS volume on macOS.
+ */
+@Slf4j
+class CopybookDirectoryIndex {
+  private final Map<Path, Listing> listings = new ConcurrentHashMap<>();
+  /** When set, a folder is listed again if its modification time has changed since it was indexed */
+  @Setter private volatile boolean refreshOnChange;
+
+  /**
+   * Index the given folder if it is not indexed yet
+   *
+   * @param directory - copybook folder
+   */
+  void index(Path directory) {
+    listing(directory);
+  }
+
+  /**
+   * Find a file in the given folder
+   *
+   * @param directory - copybook folder
+   * @param fileName - name of the file with an extension
+   * @return the path of the file if the folder contains it
+   */
+  Optional<Path> find(Path directory, String fileName) {
+    return listing(directory).contains(fileName) ? Optional.of(directory.resolve(fileName)) : Optional.empty();
+  }
+
+  /** Drop all the folder listings, so they will be read again on the next lookup */
+  void refresh() {
+    listings.clear();
+  }
+
+  /**
+   * Drop the listing of the given folder, so it will be read again on the next lookup
+   *
+   * @param directory - copybook folder
+   */
+  void refresh(Path directory) {
+    listings.remove(normalize(directory));
+  }
+
+  /**
+   * Returns the number of indexed folders
+   *
+   * @return the number of folders
+   */
+  int size() {
+    return listings.size();
+  }
+
+  private Listing listing(Path directory) {
+    return listings.compute(
+        normalize(directory),
+        (dir, current) ->
+            current == null || (refreshOnChange && current.isOutdated(dir)) ? Listing.read(dir) : current);
+  }
+
+  private static Path normalize(Path directory) {
+    return directory.toAbsolutePath().normalize();
+  }
+
+  /**
+   * Check if the file system of the folder ignores the case of the names: a listed name with the
+   * case of its letters flipped resolves to a file, and it is not another listed file.
+   */
+  private static boolean isCaseInsensitive(Path directory, Set<String> names) {
+    for (String name : names) {
+      String flipped = flipCase(name);
+      if (!flipped.equals(name)) {
+        return !names.contains(flipped) && Files.exists(directory.resolve(flipped));
+      }
+    }
+    return false;
+  }
+
+  private static String flipCase(String name) {
+    StringBuilder result = new StringBuilder(name.length());
+    for (char c : name.toCharArray()) {
+      result.append(Character.isUpperCase(c) ? Character.toLowerCase(c) : Character.toUpperCase(c));
+    }
+    return result.toString();
+  }
+
+  /** File names of one folder and the folder modification time at the moment of listing */
+  private static final class Listing {
+    private final Set<String> names;
+    private final FileTime modified;
+    private final boolean caseInsensitive;
+
+    private Listing(Set<String> names, FileTime modified, boolean caseInsensitive) {
+      this.names = names;
+      this.modified = modified;
+      this.caseInsensitive = caseInsensitive;
+    }
+
+    private static Listing read(Path directory) {
+      FileTime modified = modificationTime(directory);
+      if (modified == null) {
+        return new Listing(Collections.emptySet(), null, false);
+      }
+      Set<String> names = new HashSet<>();
+      try (Stream<Path> files = Files.list(directory)) {
+        files.map(Path::getFileName).map(Path::toString).forEach(names::add);
+      } catch (IOException e) {
+        LOG.warn("Cannot list copybook folder {}: {}", directory, e.getMessage());
+      }
+      if (!isCaseInsensitive(directory, names)) {
+        return new Listing(names, modified, false);
+      }
+      Set<String> keys = new HashSet<>();
+      names.forEach(name -> keys.add(name.toLowerCase(Locale.ROOT)));
+      return new Listing(keys, modified, true);
+    }
+
+    private static FileTime modificationTime(Path directory) {
+      try {
+        return Files.isDirectory(directory) ? Files.getLastModifiedTime(directory) : null;
+      } catch (IOException e) {
+        return null;
+      }
+    }
+
+    private boolean contains(String fileName) {
+      return names.contains(caseInsensitive ? fileName.toLowerCase(Locale.ROOT) : fileName);
+    }
+
+    private boolean isOutdated(Path directory) {
+      return !Objects.equals(modified, modificationTime(directory));
+    }
+  }
+}
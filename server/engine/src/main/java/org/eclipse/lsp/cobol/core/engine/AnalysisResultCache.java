@@ -0,0 +1,490 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.core.engine;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.lsp.cobol.common.AnalysisConfig;
+import org.eclipse.lsp.cobol.common.AnalysisResult;
+import org.eclipse.lsp.cobol.common.SubroutineService;
+import org.eclipse.lsp.cobol.common.benchmark.BenchmarkService;
+import org.eclipse.lsp.cobol.common.copybook.CopybookId;
+import org.eclipse.lsp.cobol.common.copybook.CopybookModel;
+import org.eclipse.lsp.cobol.common.copybook.CopybookName;
+import org.eclipse.lsp.cobol.common.copybook.CopybookService;
+import org.eclipse.lsp.cobol.common.dialects.CobolLanguageId;
+import org.eclipse.lsp.cobol.common.file.FileSystemService;
+import org.eclipse.lsp.cobol.common.model.NodeType;
+import org.eclipse.lsp.cobol.common.model.tree.BinaryTreeReader;
+import org.eclipse.lsp.cobol.common.model.tree.BinaryTreeWriter;
+import org.eclipse.lsp.cobol.common.model.tree.ProgramNode;
+import org.eclipse.lsp.cobol.common.model.tree.SubroutineNameNode;
+import org.eclipse.lsp.cobol.common.model.tree.variable.VariableNode;
+import org.eclipse.lsp.cobol.common.symbols.CodeBlockReference;
+import org.eclipse.lsp.cobol.common.symbols.SymbolTable;
+import org.eclipse.lsp.cobol.service.copybooks.CopybookCache;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DiagnosticRelatedInformation;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+
+/**
+ * Keeps the latest analysis results, so the documents that are analysed again with the same text,
+ * configuration and dependencies skip the pipeline. A result is keyed by the document, its text
+ * hash and the analysis configuration. It is returned only while the copybooks and subroutines it
+ * was built from are unchanged: the copybooks are compared by their cached content, the
+ * subroutines by their resolved location. When a result is reused, its copybooks are registered as
+ * used by the document again, the same way the analysis does.
+ *
+ * <p>The cache size is set by the {@code analysis.cache.size} system property, 0 disables it.
+ *
+ * <p>If the {@code analysis.cache.dir} system property is set, the results are also stored in this
+ * directory in the binary tree format, one file per document, so they survive a restart. The files
+ * are written by a background thread. A stored result is checked against the current text and, if
+ * the copybooks are not in the copybook cache yet, against the content of the copybook files: the
+ * cached copybooks are cleaned by the dialect preprocessor, so the stored results keep the hash of
+ * the file content next to the hash of the cleaned content. The transient state of the trees, the
+ * shared variable usages of the programs and the usages of the subroutine definitions, is restored
+ * after the result is read.
+ */
+@Slf4j
+@Singleton
+public class AnalysisResultCache {
+  public static final String CACHE_ID = "AnalysisResultCache";
+  private static final String SIZE_PROPERTY = "analysis.cache.size";
+  private static final String DIRECTORY_PROPERTY = "analysis.cache.dir";
+  private static final int DEFAULT_SIZE = 32;
+  private static final HashFunction HASH = Hashing.murmur3_128();
+  private static final long STORE_THREAD_KEEP_ALIVE_SECONDS = 1;
+  /** The classes of the stored entries besides the trees, the only other ones the reader accepts */
+  private static final Set<Class<?>> STORED_TYPES = ImmutableSet.<Class<?>>of(
+      Entry.class,
+      Fingerprint.class,
+      SharedVariable.class,
+      AnalysisResult.class,
+      SymbolTable.class,
+      CodeBlockReference.class,
+      CopybookId.fromString("").getClass(),
+      CopybookModel.class,
+      CopybookName.class,
+      Diagnostic.class,
+      DiagnosticRelatedInformation.class,
+      Either.class);
+
+  private final CopybookService copybookService;
+  private final CopybookCache copybookCache;
+  private final SubroutineService subroutineService;
+  private final BenchmarkService benchmarkService;
+  private final FileSystemService files;
+  private final Cache<Key, Entry> cache;
+  private final boolean enabled;
+  private final Path directory;
+  private final Executor storeExecutor;
+  private final Map<Key, Entry> pendingStores = new ConcurrentHashMap<>();
+
+  @Inject
+  public AnalysisResultCache(
+      CopybookService copybookService,
+      CopybookCache copybookCache,
+      SubroutineService subroutineService,
+      BenchmarkService benchmarkService,
+      FileSystemService files) {
+    this(copybookService, copybookCache, subroutineService, benchmarkService, files,
+        Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE),
+        Optional.ofNullable(System.getProperty(DIRECTORY_PROPERTY)).map(Paths::get).orElse(null),
+        createStoreExecutor());
+  }
+
+  AnalysisResultCache(
+      CopybookService copybookService,
+      CopybookCache copybookCache,
+      SubroutineService subroutineService,
+      BenchmarkService benchmarkService,
+      FileSystemService files,
+      int size,
+      Path directory,
+      Executor storeExecutor) {
+    this.copybookService = copybookService;
+    this.copybookCache = copybookCache;
+    this.subroutineService = subroutineService;
+    this.benchmarkService = benchmarkService;
+    this.files = files;
+    this.enabled = size > 0;
+    this.directory = enabled ? directory : null;
+    this.storeExecutor = storeExecutor;
+    cache = CacheBuilder.newBuilder().maximumSize(Math.max(0, size)).build();
+  }
+
+  /**
+   * Create the key of the analysis of the document
+   *
+   * @param documentUri the document URI
+   * @param text the document text
+   * @param analysisConfig the analysis configuration, including the dialects and their settings
+   * @param languageId the language of the document
+   * @return the cache key
+   */
+  public Key createKey(
+      String documentUri, String text, AnalysisConfig analysisConfig, CobolLanguageId languageId) {
+    return new Key(documentUri, languageId, analysisConfig, HASH.hashString(text, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Get the result of the previous analysis with the same key if its dependencies didn't change.
+   * Every lookup is reported to the benchmark service.
+   *
+   * @param key the analysis key
+   * @return the cached result or empty
+   */
+  public Optional<AnalysisResult> get(Key key) {
+    if (!enabled) {
+      return Optional.empty();
+    }
+    long start = System.nanoTime();
+    Entry entry = cache.getIfPresent(key);
+    if (entry != null && !isValid(entry, false)) {
+      cache.invalidate(key);
+      entry = null;
+    }
+    if (entry == null) {
+      entry = load(key).filter(stored -> isValid(stored, true)).orElse(null);
+      if (entry != null) {
+        cache.put(key, entry);
+      }
+    }
+    if (entry == null) {
+      benchmarkService.logCacheLookup(CACHE_ID, false, 0);
+      return Optional.empty();
+    }
+    benchmarkService.logCacheLookup(CACHE_ID, true, entry.getAnalysisTime() - (System.nanoTime() - start));
+    LOG.debug("Analysis result of {} is taken from the cache", key.getDocumentUri());
+    return Optional.of(toResult(key, entry));
+  }
+
+  /**
+   * Check if the analysis results are reused at all
+   *
+   * @return false if the cache is disabled
+   */
+  boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Create an entry with the result and the fingerprints of its dependencies without adding it to
+   * the cache, for the callers that keep the results themselves.
+   *
+   * @param key the analysis key
+   * @param result the analysis result
+   * @param analysisTime the time in nanoseconds the analysis took
+   * @return the entry or empty if some of the copybooks are already evicted from the copybook cache
+   */
+  Optional<Entry> createEntry(Key key, AnalysisResult result, long analysisTime) {
+    return collectCopybooks(key.getDocumentUri())
+        .map(copybooks -> new Entry(key.getTextHash().toString(), result, analysisTime, copybooks,
+            collectSubroutines(result), collectSharedVariables(result)));
+  }
+
+  /**
+   * Get the result of the entry created by {@link #createEntry} if its dependencies didn't change
+   *
+   * @param key the analysis key of the entry
+   * @param entry the entry
+   * @return the result or empty
+   */
+  Optional<AnalysisResult> reuse(Key key, Entry entry) {
+    return enabled && isValid(entry, false) ? Optional.of(toResult(key, entry)) : Optional.empty();
+  }
+
+  private AnalysisResult toResult(Key key, Entry entry) {
+    registerCopybooks(key, entry);
+    AnalysisResult result = entry.getResult();
+    return result.toBuilder().diagnostics(new HashMap<>(result.getDiagnostics())).build();
+  }
+
+  /**
+   * Store the result of the analysis together with the fingerprints of its dependencies. The result
+   * is not stored if some of its copybooks are already evicted from the copybook cache.
+   *
+   * @param key the analysis key
+   * @param result the analysis result
+   * @param analysisTime the time in nanoseconds the analysis took
+   */
+  public void put(Key key, AnalysisResult result, long analysisTime) {
+    if (!enabled) {
+      return;
+    }
+    createEntry(key, result, analysisTime)
+        .ifPresent(entry -> {
+          cache.put(key, entry);
+          scheduleStore(key, entry);
+        });
+  }
+
+  private Optional<Map<CopybookId, Fingerprint>> collectCopybooks(String documentUri) {
+    Map<CopybookId, Fingerprint> copybooks = new HashMap<>();
+    for (CopybookModel model : copybookService.getCopybookUsage(documentUri)) {
+      Optional<CopybookModel> cached = copybookCache.getIfPresent(model.getCopybookId());
+      if (!cached.isPresent()) {
+        return Optional.empty();
+      }
+      String file = directory == null ? null : readCopybook(cached.get().getUri()).orElse(null);
+      copybooks.put(model.getCopybookId(), new Fingerprint(copy(cached.get()), hash(cached.get()), file));
+    }
+    return Optional.of(copybooks);
+  }
+
+  private Map<String, Optional<String>> collectSubroutines(AnalysisResult result) {
+    Map<String, Optional<String>> subroutines = new HashMap<>();
+    result.getRootNode()
+        .getDepthFirstStream(NodeType.SUBROUTINE_NAME_NODE)
+        .map(SubroutineNameNode.class::cast)
+        .map(SubroutineNameNode::getName)
+        .forEach(name -> subroutines.computeIfAbsent(name, subroutineService::getUri));
+    return subroutines;
+  }
+
+  private static List<SharedVariable> collectSharedVariables(AnalysisResult result) {
+    return result.getRootNode()
+        .getDepthFirstStream(NodeType.PROGRAM)
+        .map(ProgramNode.class::cast)
+        .flatMap(program -> program.getSharedVariables().stream()
+            .map(variable -> new SharedVariable(program, variable, new ArrayList<>(program.getSharedVariableUsages(variable)))))
+        .collect(Collectors.toList());
+  }
+
+  private boolean isValid(Entry entry, boolean stored) {
+    for (Map.Entry<CopybookId, Fingerprint> copybook : entry.getCopybooks().entrySet()) {
+      Fingerprint fingerprint = copybook.getValue();
+      Optional<CopybookModel> cached = copybookCache.getIfPresent(copybook.getKey());
+      boolean valid = cached.isPresent()
+          ? hash(cached.get()).equals(fingerprint.getContent())
+          : stored && fingerprint.getFile() != null
+              && readCopybook(fingerprint.getCopybook().getUri()).filter(fingerprint.getFile()::equals).isPresent();
+      if (!valid) {
+        return false;
+      }
+    }
+    for (Map.Entry<String, Optional<String>> subroutine : entry.getSubroutines().entrySet()) {
+      if (!subroutineService.getUri(subroutine.getKey()).equals(subroutine.getValue())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Register the copybooks of the reused result as used by the document. The copybooks of a stored
+   * result that are not in the copybook cache any more are put back there.
+   */
+  private void registerCopybooks(Key key, Entry entry) {
+    List<CopybookModel> copybooks = new ArrayList<>();
+    for (Fingerprint fingerprint : entry.getCopybooks().values()) {
+      CopybookModel stored = fingerprint.getCopybook();
+      CopybookModel copybook = copybookCache.getIfPresent(stored.getCopybookId()).orElse(null);
+      if (copybook == null) {
+        copybook = copy(stored);
+        copybookCache.store(copybook);
+      }
+      copybooks.add(copybook);
+    }
+    copybookService.registerCopybookUsage(key.getDocumentUri(), copybooks);
+  }
+
+  /** A copy of the model, the cached models are updated in place when the copybook changes */
+  private static CopybookModel copy(CopybookModel model) {
+    return new CopybookModel(model.getCopybookId(), model.getCopybookName(), model.getUri(), model.getContent());
+  }
+
+  private Optional<String> readCopybook(String uri) {
+    return Optional.ofNullable(uri)
+        .filter(it -> it.startsWith("file:"))
+        .map(files::getPathFromURI)
+        .filter(Files::isRegularFile)
+        .map(files::getContentByPath)
+        .map(content -> hash(uri, content));
+  }
+
+  private Optional<Entry> load(Key key) {
+    if (directory == null) {
+      return Optional.empty();
+    }
+    Entry pending = pendingStores.get(key);
+    if (pending != null) {
+      return Optional.of(pending);
+    }
+    Path file = directory.resolve(fileName(key));
+    if (!Files.isRegularFile(file)) {
+      return Optional.empty();
+    }
+    try (BinaryTreeReader reader = new BinaryTreeReader(new BufferedInputStream(Files.newInputStream(file)), getClass().getClassLoader(), STORED_TYPES)) {
+      if (!identity(key).equals(reader.read(String.class))) {
+        return Optional.empty();
+      }
+      Entry entry = reader.read(Entry.class);
+      return Optional.of(entry).filter(it -> key.getTextHash().toString().equals(it.getTextHash())).map(AnalysisResultCache::restore);
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("Cannot read the stored analysis result of {}", key.getDocumentUri(), e);
+      return Optional.empty();
+    }
+  }
+
+  /** Restore the transient state of a stored result that its tree does not keep */
+  private static Entry restore(Entry entry) {
+    for (SharedVariable shared : entry.getSharedVariables()) {
+      shared.getProgram().registerSharedVariable(shared.getVariable());
+      shared.getUsages().forEach(location -> shared.getProgram().addSharedVariableUsage(shared.getVariable(), location));
+    }
+    entry.getResult().getRootNode()
+        .getDepthFirstStream(NodeType.SUBROUTINE_NAME_NODE)
+        .map(SubroutineNameNode.class::cast)
+        .filter(node -> node.getDefinition() != null)
+        .forEach(node -> node.getDefinition().addUsages(node));
+    return entry;
+  }
+
+  /**
+   * Write the entry to the directory off the analysis thread. An entry that is replaced before it
+   * is written is skipped, only the latest one of the key is written.
+   */
+  private void scheduleStore(Key key, Entry entry) {
+    if (directory == null) {
+      return;
+    }
+    if (pendingStores.put(key, entry) == null) {
+      storeExecutor.execute(() -> store(key));
+    }
+  }
+
+  private void store(Key key) {
+    Entry entry = pendingStores.get(key);
+    if (entry == null) {
+      return;
+    }
+    Path file = directory.resolve(fileName(key));
+    Path temp = null;
+    try {
+      Files.createDirectories(directory);
+      temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+      try (BinaryTreeWriter writer = new BinaryTreeWriter(Files.newOutputStream(temp))) {
+        writer.write(identity(key));
+        writer.write(entry);
+      }
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("Cannot store the analysis result of {}", key.getDocumentUri(), e);
+      deleteQuietly(temp);
+    } finally {
+      if (!pendingStores.remove(key, entry)) {
+        storeExecutor.execute(() -> store(key));
+      }
+    }
+  }
+
+  /** A single writer thread that stops when idle, so it doesn't keep the JVM alive */
+  private static Executor createStoreExecutor() {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, STORE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), r -> new Thread(r, "Analysis result store"));
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  private static void deleteQuietly(Path file) {
+    if (file == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      LOG.debug("Cannot delete {}", file, e);
+    }
+  }
+
+  private static String identity(Key key) {
+    return key.getDocumentUri() + '\n' + key.getLanguageId() + '\n' + key.getAnalysisConfig();
+  }
+
+  private static String fileName(Key key) {
+    return HASH.hashString(identity(key), StandardCharsets.UTF_8) + ".ast";
+  }
+
+  private static String hash(CopybookModel model) {
+    return hash(model.getUri(), model.getContent());
+  }
+
+  private static String hash(String uri, String content) {
+    return HASH.hashString(Objects.toString(uri) + '\n' + Objects.toString(content), StandardCharsets.UTF_8).toString();
+  }
+
+  /** The identity of an analysis */
+  @Value
+  public static class Key {
+    String documentUri;
+    CobolLanguageId languageId;
+    AnalysisConfig analysisConfig;
+    HashCode textHash;
+  }
+
+  /** The cached result and the fingerprints of the dependencies it was built from */
+  @Value
+  static class Entry {
+    String textHash;
+    AnalysisResult result;
+    long analysisTime;
+    Map<CopybookId, Fingerprint> copybooks;
+    Map<String, Optional<String>> subroutines;
+    List<SharedVariable> sharedVariables;
+  }
+
+  /** A shared variable registered in a program and its usages there, the program keeps them transient */
+  @Value
+  private static class SharedVariable {
+    ProgramNode program;
+    VariableNode variable;
+    List<Location> usages;
+  }
+
+  /**
+   * A copybook the result was built from, the hash of its cleaned content and, if the results are
+   * stored, the hash of its file
+   */
+  @Value
+  private static class Fingerprint {
+    CopybookModel copybook;
+    String content;
+    String file;
+  }
+}
@@ -18,8 +18,9 @@ import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
 import static org.eclipse.lsp.cobol.common.error.ErrorSource.WORKSPACE_SETTINGS;
 import static org.eclipse.lsp.cobol.common.model.NodeType.COPY;
-import static org.eclipse.lsp.cobol.common.model.tree.Node.hasType;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -41,6 +42,7 @@ import org.eclipse.lsp.cobol.common.utils.ImplicitCodeUtils;
 import org.eclipse.lsp.cobol.common.utils.ThreadInterruptionUtil;
 import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisContext;
 import org.eclipse.lsp.cobol.core.engine.errors.ErrorFinalizerService;
+import org.eclipse.lsp.cobol.core.engine.symbols.SymbolsRepository;
 import org.eclipse.lsp.cobol.common.pipeline.Pipeline;
 import org.eclipse.lsp.cobol.common.pipeline.PipelineResult;
 import org.eclipse.lsp.cobol.common.pipeline.StageResult;
@@ -62,22 +64,32 @@ import org.eclipse.lsp4j.Range;
 @SuppressWarnings("WeakerAccess")
 public class CobolLanguageEngine {
   private static final int FIRST_LINE_SEQ_AND_EXTRA_OP = 8;
+  private static final String PROGRAM_UNITS_CACHE_ID = "ProgramUnitCache";
+  private static final int PROGRAM_UNITS_SIZE = 16;
 
   private final MessageService messageService;
   private final ErrorFinalizerService errorFinalizerService;
   private final BenchmarkService benchmarkService;
   private final TrueDialectService trueDialectService;
+  private final AnalysisResultCache resultCache;
+  private final SymbolsRepository symbolsRepository;
+  private final Cache<String, ProgramUnits> programUnits =
+      CacheBuilder.newBuilder().maximumSize(PROGRAM_UNITS_SIZE).build();
 
   @Inject
   public CobolLanguageEngine(
       TrueDialectService trueDialectService,
       MessageService messageService,
       ErrorFinalizerService errorFinalizerService,
-      BenchmarkService benchmarkService) {
+      BenchmarkService benchmarkService,
+      AnalysisResultCache resultCache,
+      SymbolsRepository symbolsRepository) {
     this.messageService = messageService;
     this.errorFinalizerService = errorFinalizerService;
     this.benchmarkService = benchmarkService;
     this.trueDialectService = trueDialectService;
+    this.resultCache = resultCache;
+    this.symbolsRepository = symbolsRepository;
   }
 
   private static AnalysisResult toAnalysisResult(
@@ -86,8 +98,7 @@ public class CobolLanguageEngine {
 
     List<String> copyUriList =
         rootNode
-            .getDepthFirstStream()
-            .filter(hasType(COPY))
+            .getDepthFirstStream(COPY)
             .map(CopyNode.class::cast)
             .map(CopyNode::getDefinitions)
             .flatMap(Collection::stream)
@@ -124,7 +135,11 @@ public class CobolLanguageEngine {
   }
 
   /**
-   * Perform syntax and semantic analysis for the given text document
+   * Perform syntax and semantic analysis for the given text document. The result of the previous
+   * analysis of the same text with the same configuration and dependencies is reused, its symbols
+   * replace the ones of a later analysis of the document in the symbols repository. The programs
+   * of a document with several independent programs are analysed separately once the document is
+   * changed, so only the changed program is analysed again, see {@link ProgramUnits}.
    *
    * @param documentUri    unique resource identifier of the processed document
    * @param text           the content of the document that should be processed
@@ -148,46 +163,156 @@ public class CobolLanguageEngine {
           getErrorForIncompatibleServerTypeAndDialects(documentUri), documentUri);
     }
 
+    AnalysisResultCache.Key cacheKey = resultCache.createKey(documentUri, text, analysisConfig, languageId);
+    Optional<AnalysisResult> cachedResult = resultCache.get(cacheKey);
+    if (cachedResult.isPresent()) {
+      symbolsRepository.updateSymbols(cachedResult.get().getSymbolTableMap());
+      return cachedResult.get();
+    }
+
+    List<String> lines = ProgramUnits.splitLines(text);
+    Optional<AnalysisResult> unitsResult = analyzeProgramUnits(documentUri, lines, analysisConfig, languageId);
+    if (unitsResult.isPresent()) {
+      symbolsRepository.updateSymbols(unitsResult.get().getSymbolTableMap());
+      return unitsResult.get();
+    }
+
+    long start = System.nanoTime();
+    AnalysisContext ctx = createContext(documentUri, text, analysisConfig, languageId);
+    StageResult<?> result = runPipeline(ctx);
+    if (isStopped(result)) {
+      programUnits.invalidate(documentUri);
+      return toStoppedResult(ctx, documentUri);
+    }
+    AnalysisResult analysisResult = toCompleteResult(ctx, result, documentUri);
+    resultCache.put(cacheKey, analysisResult, System.nanoTime() - start);
+    updateProgramUnits(documentUri, lines, analysisResult, ImmutableMap.of());
+    return analysisResult;
+  }
+
+  /**
+   * Analyse the program units of the document separately if the previous analysis found them and
+   * the change is confined to one of them. The results of the units with unchanged text are reused
+   * while their dependencies are unchanged, the results of the units are spliced together.
+   *
+   * @return the result of the document or empty if it has to be analysed as a whole
+   */
+  private Optional<AnalysisResult> analyzeProgramUnits(
+      String documentUri, List<String> lines, AnalysisConfig analysisConfig, CobolLanguageId languageId) {
+    ProgramUnits units = programUnits.getIfPresent(documentUri);
+    if (units == null || !resultCache.isEnabled()) {
+      return Optional.empty();
+    }
+    Optional<int[]> starts = units.findStarts(lines);
+    if (!starts.isPresent()) {
+      return Optional.empty();
+    }
+    Map<AnalysisResultCache.Key, AnalysisResultCache.Entry> entries = new HashMap<>();
+    List<AnalysisResult> results = new ArrayList<>();
+    for (int unit = 0; unit < starts.get().length; unit++) {
+      String unitText = ProgramUnits.getText(lines, starts.get(), unit);
+      AnalysisResultCache.Key key = resultCache.createKey(documentUri, unitText, analysisConfig, languageId);
+      Optional<AnalysisResultCache.Entry> entry = units.getEntry(key);
+      Optional<AnalysisResult> reused = entry.flatMap(it -> resultCache.reuse(key, it));
+      benchmarkService.logCacheLookup(PROGRAM_UNITS_CACHE_ID, reused.isPresent(),
+          entry.map(AnalysisResultCache.Entry::getAnalysisTime).orElse(0L));
+      if (reused.isPresent()) {
+        entries.put(key, entry.get());
+        results.add(reused.get());
+        continue;
+      }
+      long start = System.nanoTime();
+      AnalysisContext ctx = createContext(documentUri, unitText, analysisConfig, languageId);
+      StageResult<?> result = runPipeline(ctx);
+      if (isStopped(result)) {
+        return Optional.empty();
+      }
+      AnalysisResult unitResult = toCompleteResult(ctx, result, documentUri);
+      resultCache.createEntry(key, unitResult, System.nanoTime() - start)
+          .ifPresent(created -> entries.put(key, created));
+      results.add(unitResult);
+    }
+    AnalysisResult analysisResult = ProgramUnits.merge(results);
+    if (!updateProgramUnits(documentUri, lines, analysisResult, entries)) {
+      return Optional.empty();
+    }
+    LOG.debug("Program units of {} are analysed separately", documentUri);
+    return Optional.of(analysisResult);
+  }
+
+  /** Remember the program units of the analysed document, if it can be split */
+  private boolean updateProgramUnits(
+      String documentUri,
+      List<String> lines,
+      AnalysisResult analysisResult,
+      Map<AnalysisResultCache.Key, AnalysisResultCache.Entry> entries) {
+    Optional<ProgramUnits> units = resultCache.isEnabled()
+        ? ProgramUnits.create(documentUri, lines, analysisResult.getRootNode(), entries)
+        : Optional.empty();
+    if (units.isPresent()) {
+      programUnits.put(documentUri, units.get());
+    } else {
+      programUnits.invalidate(documentUri);
+    }
+    return units.isPresent();
+  }
+
+  private AnalysisContext createContext(
+      String documentUri, String text, AnalysisConfig analysisConfig, CobolLanguageId languageId) {
     BenchmarkSession session = benchmarkService.startSession();
-    AnalysisContext ctx = new AnalysisContext(analysisConfig, session, documentUri, text, languageId);
+    session.attr("uri", documentUri);
+    return new AnalysisContext(analysisConfig, session, documentUri, text, languageId);
+  }
 
-    Pipeline pipeline = trueDialectService.getPipeline(languageId);
+  private StageResult<?> runPipeline(AnalysisContext ctx) {
+    Pipeline pipeline = trueDialectService.getPipeline(ctx.getLanguageId());
 
     PipelineResult pipelineResult = pipeline.run(ctx);
     StageResult<?> result = pipelineResult.getLastStageResult();
 
+    BenchmarkSession session = ctx.getBenchmarkSession();
     session.attr("uri", ctx.getExtendedDocument().getUri());
     session.attr("language", ctx.getLanguageId().getId());
-    session.attr("lines", String.valueOf(ctx.getExtendedDocument().toString().split("\n").length));
-    session.attr("size", String.valueOf(ctx.getExtendedDocument().toString().length()));
+    session.attr("textSnapshotsReused", String.valueOf(ctx.getExtendedDocument().getSnapshotReuses()));
+    String extendedText = ctx.getExtendedDocument().toString();
+    session.attr("lines", String.valueOf(extendedText.split("\n").length));
+    session.attr("size", String.valueOf(extendedText.length()));
     session.attr("result", result.stopProcessing() ? "stopped" : "done");
-    benchmarkService.logTiming();
-    if (result.stopProcessing() || !(result.getData() instanceof ProcessingResult)) {
-      return toAnalysisResult(
-          new ResultWithErrors<>(
-              AnalysisResult.builder()
-                  .rootNode(new RootNode())
-                  .symbolTableMap(ImmutableMap.of())
-                  .build(),
-              ctx.getAccumulatedErrors().stream()
-                  .map(errorFinalizerService::localizeErrorMessage)
-                  .collect(toList())),
-          documentUri);
-    } else {
-      ProcessingResult processingResult = (ProcessingResult) result.getData();
-      errorFinalizerService.processLateErrors(ctx, ctx.getCopybooksRepository());
+    benchmarkService.logTiming(session);
+    return result;
+  }
 
-      return toAnalysisResult(
-          new ResultWithErrors<>(
-              AnalysisResult.builder()
-                  .rootNode(processingResult.getRootNode())
-                  .symbolTableMap(processingResult.getSymbolTableMap())
-                  .build(),
-              ctx.getAccumulatedErrors().stream()
-                  .map(errorFinalizerService::localizeErrorMessage)
-                  .collect(toList())),
-          documentUri);
-    }
+  private static boolean isStopped(StageResult<?> result) {
+    return result.stopProcessing() || !(result.getData() instanceof ProcessingResult);
+  }
+
+  private AnalysisResult toStoppedResult(AnalysisContext ctx, String documentUri) {
+    return toAnalysisResult(
+        new ResultWithErrors<>(
+            AnalysisResult.builder()
+                .rootNode(new RootNode())
+                .symbolTableMap(ImmutableMap.of())
+                .build(),
+            ctx.getAccumulatedErrors().stream()
+                .map(errorFinalizerService::localizeErrorMessage)
+                .collect(toList())),
+        documentUri);
+  }
+
+  private AnalysisResult toCompleteResult(AnalysisContext ctx, StageResult<?> result, String documentUri) {
+    ProcessingResult processingResult = (ProcessingResult) result.getData();
+    errorFinalizerService.processLateErrors(ctx, ctx.getCopybooksRepository());
+
+    return toAnalysisResult(
+        new ResultWithErrors<>(
+            AnalysisResult.builder()
+                .rootNode(processingResult.getRootNode())
+                .symbolTableMap(processingResult.getSymbolTableMap())
+                .build(),
+            ctx.getAccumulatedErrors().stream()
+                .map(errorFinalizerService::localizeErrorMessage)
+                .collect(toList())),
+        documentUri);
   }
 
   private static boolean shouldNotAnalyse(String text, CobolLanguageId languageId) {
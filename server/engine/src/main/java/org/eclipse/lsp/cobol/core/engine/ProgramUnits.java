@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.core.engine;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.*;
+import org.eclipse.lsp.cobol.common.AnalysisResult;
+import org.eclipse.lsp.cobol.common.model.NodeType;
+import org.eclipse.lsp.cobol.common.model.tree.*;
+import org.eclipse.lsp.cobol.common.symbols.SymbolTable;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Range;
+
+/**
+ * The top-level program units of a document, e.g. the programs of a batch compilation, and the
+ * results of their last analysis. A unit is analysed as the document text with the lines of the
+ * other units blanked out, so its positions are the ones of the document, and its result is
+ * spliced into the result of the document. The lines before the first program are kept in every
+ * unit.
+ *
+ * <p>A document is split only when its programs do not depend on each other: all of them are
+ * programs, not user-defined functions, every program but the last one ends with END PROGRAM, and
+ * there are only comments before and between them. The copy statements and the calls of the same
+ * subroutine in different units refer to each other, so they are linked again on every splice.
+ */
+final class ProgramUnits {
+  private static final int SEQUENCE_AREA = 6;
+  private static final int CODE_AREA_END = 72;
+
+  private final List<String> lines;
+  private final int[] starts;
+  private final Map<AnalysisResultCache.Key, AnalysisResultCache.Entry> entries;
+
+  private ProgramUnits(
+      List<String> lines, int[] starts, Map<AnalysisResultCache.Key, AnalysisResultCache.Entry> entries) {
+    this.lines = lines;
+    this.starts = starts;
+    this.entries = entries;
+  }
+
+  /**
+   * Find the program units of the analysed document
+   *
+   * @param documentUri the document URI
+   * @param lines the document text split by {@link #splitLines}
+   * @param rootNode the root of the analysis result of the document
+   * @param entries the results of the analysis of the units, if they were analysed separately
+   * @return the units or empty if the document has less than two units or cannot be split
+   */
+  static Optional<ProgramUnits> create(
+      String documentUri,
+      List<String> lines,
+      RootNode rootNode,
+      Map<AnalysisResultCache.Key, AnalysisResultCache.Entry> entries) {
+    List<Node> children = rootNode.getChildren();
+    if (children.size() < 2 || !children.stream().allMatch(ProgramNode.class::isInstance)) {
+      return Optional.empty();
+    }
+    int[] starts = new int[children.size()];
+    int previousEnd = -1;
+    for (int i = 0; i < children.size(); i++) {
+      ProgramNode program = (ProgramNode) children.get(i);
+      Range range = program.getLocality().getRange();
+      boolean ended = i == children.size() - 1
+          || program.getChildren().stream().anyMatch(Node.hasType(NodeType.PROGRAM_END));
+      if (!documentUri.equals(program.getLocality().getUri())
+          || program.getSubtype() != ProgramSubtype.Program
+          || !ended
+          || range.getStart().getLine() <= previousEnd
+          || !isComments(lines, previousEnd + 1, range.getStart().getLine())) {
+        return Optional.empty();
+      }
+      starts[i] = range.getStart().getLine();
+      previousEnd = range.getEnd().getLine();
+    }
+    return Optional.of(new ProgramUnits(lines, starts, entries));
+  }
+
+  /**
+   * Split the text into lines, keeping the line terminators
+   *
+   * @param text the document text
+   * @return the lines
+   */
+  static List<String> splitLines(String text) {
+    List<String> result = new ArrayList<>();
+    int start = 0;
+    for (int end = text.indexOf('\n'); end >= 0; end = text.indexOf('\n', start)) {
+      result.add(text.substring(start, end + 1));
+      start = end + 1;
+    }
+    if (start < text.length()) {
+      result.add(text.substring(start));
+    }
+    return result;
+  }
+
+  /**
+   * Find the first lines of the units in the changed text. The change must be confined to one unit,
+   * the units after it are moved by the number of the added or removed lines.
+   *
+   * @param text the lines of the changed text
+   * @return the first lines of the units or empty if the change touches the lines before the first
+   *     program or more than one unit
+   */
+  Optional<int[]> findStarts(List<String> text) {
+    int common = Math.min(lines.size(), text.size());
+    int prefix = 0;
+    while (prefix < common && lines.get(prefix).equals(text.get(prefix))) {
+      prefix++;
+    }
+    int suffix = 0;
+    while (suffix < common - prefix
+        && lines.get(lines.size() - 1 - suffix).equals(text.get(text.size() - 1 - suffix))) {
+      suffix++;
+    }
+    if (prefix < starts[0]) {
+      return Optional.empty();
+    }
+    int unit = starts.length - 1;
+    while (starts[unit] > prefix) {
+      unit--;
+    }
+    if (unit + 1 < starts.length && lines.size() - suffix > starts[unit + 1]) {
+      return Optional.empty();
+    }
+    int[] result = starts.clone();
+    for (int i = unit + 1; i < result.length; i++) {
+      result[i] += text.size() - lines.size();
+    }
+    return Optional.of(result);
+  }
+
+  /**
+   * Get the text of the unit: the lines before the first program, blank lines in place of the
+   * previous units and the lines of the unit up to the next one
+   *
+   * @param text the document lines
+   * @param starts the first lines of the units
+   * @param unit the unit index
+   * @return the unit text
+   */
+  static String getText(List<String> text, int[] starts, int unit) {
+    StringBuilder result = new StringBuilder();
+    for (int i = 0; i < starts[0]; i++) {
+      result.append(text.get(i));
+    }
+    for (int i = starts[0]; i < starts[unit]; i++) {
+      result.append('\n');
+    }
+    int end = unit + 1 < starts.length ? starts[unit + 1] : text.size();
+    for (int i = starts[unit]; i < end; i++) {
+      result.append(text.get(i));
+    }
+    return result.toString();
+  }
+
+  /**
+   * Get the result of the previous analysis of a unit
+   *
+   * @param key the analysis key of the unit text
+   * @return the entry or empty if no unit had this text
+   */
+  Optional<AnalysisResultCache.Entry> getEntry(AnalysisResultCache.Key key) {
+    return Optional.ofNullable(entries.get(key));
+  }
+
+  /**
+   * Splice the results of the units into the result of the document
+   *
+   * @param results the results of the units in the document order
+   * @return the result of the document
+   */
+  static AnalysisResult merge(List<AnalysisResult> results) {
+    List<RootNode> roots = results.stream().map(AnalysisResult::getRootNode).collect(toList());
+    Range range = new Range(
+        roots.get(0).getLocality().getRange().getStart(),
+        roots.get(roots.size() - 1).getLocality().getRange().getEnd());
+    RootNode rootNode = new RootNode(roots.get(0).getLocality().toBuilder().range(range).build());
+    Map<String, List<Diagnostic>> diagnostics = new HashMap<>();
+    Map<String, SymbolTable> symbols = new HashMap<>();
+    for (AnalysisResult result : results) {
+      result.getDiagnostics().forEach((uri, list) -> diagnostics.computeIfAbsent(uri, k -> new ArrayList<>()).addAll(list));
+      symbols.putAll(result.getSymbolTableMap());
+    }
+    diagnostics.values().forEach(list -> list.sort(Comparator.comparingInt(d -> d.getRange().getStart().getLine())));
+    synchronized (ProgramUnits.class) {
+      roots.forEach(root -> root.getChildren().forEach(rootNode::addChild));
+      linkCopyNodes(rootNode);
+      linkSubroutines(rootNode);
+    }
+    rootNode.freeze();
+    return AnalysisResult.builder().rootNode(rootNode).diagnostics(diagnostics).symbolTableMap(symbols).build();
+  }
+
+  /** Every copy statement of a copybook is a usage of all the copy statements of the same copybook */
+  private static void linkCopyNodes(RootNode rootNode) {
+    Map<String, List<CopyNode>> copyNodes = new LinkedHashMap<>();
+    rootNode.getDepthFirstStream(NodeType.COPY)
+        .map(CopyNode.class::cast)
+        .filter(node -> node.getUri() != null)
+        .forEach(node -> copyNodes.computeIfAbsent(node.getUri(), k -> new ArrayList<>()).add(node));
+    for (List<CopyNode> nodes : copyNodes.values()) {
+      for (CopyNode node : nodes) {
+        List<Location> usages = new ArrayList<>();
+        usages.add(node.getNameLocation());
+        nodes.stream()
+            .map(CopyNode::getNameLocation)
+            .filter(location -> !location.equals(node.getNameLocation()))
+            .forEach(usages::add);
+        node.setUsages(usages);
+      }
+    }
+  }
+
+  /** The calls of a subroutine in the document share one definition */
+  private static void linkSubroutines(RootNode rootNode) {
+    Map<String, List<SubroutineNameNode>> calls = new LinkedHashMap<>();
+    rootNode.getDepthFirstStream(NodeType.SUBROUTINE_NAME_NODE)
+        .map(SubroutineNameNode.class::cast)
+        .forEach(node -> calls.computeIfAbsent(node.getName(), k -> new ArrayList<>()).add(node));
+    calls.forEach((name, nodes) -> {
+      SubroutineDefinition definition = new SubroutineDefinition(nodes.get(0).getDefinition().getLocation(), name);
+      nodes.forEach(definition::addUsages);
+    });
+  }
+
+  private static boolean isComments(List<String> text, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (!isComment(text.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Check if the line is blank or a comment in the fixed reference format */
+  private static boolean isComment(String line) {
+    String content = line.replaceAll("[\r\n]+$", "");
+    String code = content.length() > SEQUENCE_AREA
+        ? content.substring(SEQUENCE_AREA, Math.min(content.length(), CODE_AREA_END))
+        : "";
+    return code.trim().isEmpty()
+        || code.charAt(0) == '*'
+        || code.charAt(0) == '/'
+        || code.trim().startsWith("*>");
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.core.engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.PropertyResourceBundle;
+import java.util.ResourceBundle;
+import org.eclipse.lsp.cobol.common.utils.KeywordsUtils;
+
+/**
+ * The keyword tables and the English message bundle of the engine, loaded once per JVM. The native
+ * image profile initializes this class at build time, so the tables are stored in the image heap
+ * and the executable does not read the resources on startup.
+ *
+ * <p>The static initialization must not touch the logging or any other class that is initialized
+ * at run time, so the tables are read here and not with {@link KeywordsUtils}.
+ */
+public final class ResourceTables {
+  public static final String COBOL_KEYWORDS = "LanguageKeywords.txt";
+  public static final String SQL_KEYWORDS = "LanguageKeywords_sql.txt";
+  public static final String MESSAGES = "resourceBundles/messages";
+
+  private static final Map<String, Map<String, String>> KEYWORDS = new HashMap<>();
+  private static final ResourceBundle ENGLISH_MESSAGES;
+
+  static {
+    ClassLoader classLoader = ResourceTables.class.getClassLoader();
+    for (String fileName : new String[] {COBOL_KEYWORDS, SQL_KEYWORDS}) {
+      Map<String, String> keywords = loadKeywords(classLoader, fileName);
+      if (keywords != null) {
+        KEYWORDS.put(fileName, keywords);
+      }
+    }
+    ENGLISH_MESSAGES = loadMessages(classLoader, MESSAGES + "_" + Locale.ENGLISH.getLanguage() + ".properties");
+  }
+
+  private ResourceTables() {
+  }
+
+  /**
+   * Get the keywords with descriptions of a keyword file of the engine
+   *
+   * @param fileName the name of the keyword resource
+   * @return key/value keywords with descriptions map
+   */
+  public static Map<String, String> getKeywords(String fileName) {
+    Map<String, String> keywords = KEYWORDS.get(fileName);
+    return keywords == null ? KeywordsUtils.getKeywords(ResourceTables.class.getClassLoader(), fileName) : keywords;
+  }
+
+  /**
+   * Get the message bundle. The English bundle of the engine is loaded once, the other ones are
+   * loaded by {@link ResourceBundle#getBundle(String, Locale)}.
+   *
+   * @param baseName the base name of the bundle
+   * @param locale the locale of the bundle
+   * @return the resource bundle
+   */
+  public static ResourceBundle getMessages(String baseName, Locale locale) {
+    if (ENGLISH_MESSAGES != null && MESSAGES.equals(baseName)
+        && Locale.ENGLISH.getLanguage().equals(locale.getLanguage())) {
+      return ENGLISH_MESSAGES;
+    }
+    return ResourceBundle.getBundle(baseName, locale);
+  }
+
+  private static Map<String, String> loadKeywords(ClassLoader classLoader, String fileName) {
+    try (InputStream stream = classLoader.getResourceAsStream(fileName)) {
+      if (stream == null) {
+        return null;
+      }
+      Properties props = new Properties();
+      props.load(stream);
+      Map<String, String> keywords = new HashMap<>();
+      // The same description format as in KeywordsUtils
+      props.forEach((key, value) -> keywords.put(key.toString(), value.toString().replace("<br>", "\r\n\r\n")));
+      return Collections.unmodifiableMap(keywords);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private static ResourceBundle loadMessages(ClassLoader classLoader, String resourceName) {
+    try (InputStream stream = classLoader.getResourceAsStream(resourceName)) {
+      return stream == null ? null : new PropertyResourceBundle(stream);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+}
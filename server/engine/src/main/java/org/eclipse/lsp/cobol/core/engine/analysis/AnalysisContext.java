@@ -16,7 +16,6 @@ package org.eclipse.lsp.cobol.core.engine.analysis;
 
 import java.util.*;
 
-import com.google.gson.JsonElement;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
@@ -27,6 +26,7 @@ import org.eclipse.lsp.cobol.common.benchmark.BenchmarkSessionProvider;
 import org.eclipse.lsp.cobol.common.dialects.CobolLanguageId;
 import org.eclipse.lsp.cobol.common.error.SyntaxError;
 import org.eclipse.lsp.cobol.common.mapping.ExtendedDocument;
+import org.eclipse.lsp.cobol.common.model.tree.BinaryTreeWriter;
 import org.eclipse.lsp.cobol.common.model.tree.Node;
 import org.eclipse.lsp.cobol.common.processor.ProcessingPhase;
 import org.eclipse.lsp.cobol.core.semantics.CopybooksRepository;
@@ -45,7 +45,7 @@ public class AnalysisContext implements BenchmarkSessionProvider {
   private final String documentUri;
   private final String text;
   private final CobolLanguageId languageId;
-  private final Map<ProcessingPhase, JsonElement> astChanges = new HashMap<>();
+  private final Map<ProcessingPhase, byte[]> astChanges = new HashMap<>();
 
   private @Setter List<Node> dialectNodes = new ArrayList<>();
   private @Setter CopybooksRepository copybooksRepository;
@@ -65,12 +65,13 @@ public class AnalysisContext implements BenchmarkSessionProvider {
   }
 
   /**
-   * Logs the Abstract Syntax Tree (AST) changes for a specific processing phase.
+   * Logs the Abstract Syntax Tree (AST) changes for a specific processing phase. The tree is kept
+   * in the binary tree format, that is much more compact than its JSON form.
    *
    * @param phase The processing phase for which the AST changes are being logged.
-   * @param jsonTree The JSON representation of the AST changes.
+   * @param rootNode The root of the AST after the phase.
    */
-  public void logAst(ProcessingPhase phase, JsonElement jsonTree) {
-    astChanges.put(phase, jsonTree);
+  public void logAst(ProcessingPhase phase, Node rootNode) {
+    astChanges.put(phase, BinaryTreeWriter.toBytes(rootNode));
   }
 }
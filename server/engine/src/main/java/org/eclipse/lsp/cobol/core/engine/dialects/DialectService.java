@@ -26,6 +26,7 @@ import org.eclipse.lsp.cobol.common.AnalysisConfig;
 import org.eclipse.lsp.cobol.common.CleanerPreprocessor;
 import org.eclipse.lsp.cobol.common.DialectRegistryItem;
 import org.eclipse.lsp.cobol.common.ResultWithErrors;
+import org.eclipse.lsp.cobol.common.benchmark.AnalysisEvent;
 import org.eclipse.lsp.cobol.common.copybook.CopybookModel;
 import org.eclipse.lsp.cobol.common.copybook.CopybookService;
 import org.eclipse.lsp.cobol.common.copybook.SQLBackend;
@@ -276,7 +277,18 @@ public class DialectService {
 
     List<SyntaxError> errors = new ArrayList<>(previousResult.getErrors());
 
-    DialectOutcome result = dialect.processText(context).unwrap(errors::addAll);
+    AnalysisEvent event = AnalysisEvent.begin(AnalysisEvent.Type.DIALECT, dialect.getName(), context.getProgramDocumentUri());
+    if (event.isRecorded()) {
+      event.size(context.getExtendedDocument().toString().length());
+    }
+    String outcome = "failed";
+    DialectOutcome result;
+    try {
+      result = dialect.processText(context).unwrap(errors::addAll);
+      outcome = "done";
+    } finally {
+      event.end(outcome);
+    }
     nodes.addAll(result.getDialectNodes());
     return new ResultWithErrors<>(new DialectOutcome(nodes, context), errors);
   }
@@ -15,8 +15,8 @@
 package org.eclipse.lsp.cobol.core.engine.processor;
 
 import lombok.extern.slf4j.Slf4j;
-import org.eclipse.lsp.cobol.cli.command.CliUtils;
 import org.eclipse.lsp.cobol.common.AnalysisConfig;
+import org.eclipse.lsp.cobol.common.benchmark.AnalysisEvent;
 import org.eclipse.lsp.cobol.common.error.SyntaxError;
 import org.eclipse.lsp.cobol.common.model.tree.Node;
 import org.eclipse.lsp.cobol.common.processor.ProcessingContext;
@@ -25,6 +25,8 @@ import org.eclipse.lsp.cobol.common.processor.Processor;
 import org.eclipse.lsp.cobol.common.utils.ThreadInterruptionUtil;
 import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisContext;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 
@@ -46,13 +48,20 @@ public class AstProcessor {
    */
   public List<SyntaxError> processSyntaxTree(AnalysisConfig analysisConfig, ProcessingContext ctx, AnalysisContext analysisContext, Node rootNode) {
     if (analysisConfig.isCollectAstChanges()) {
-      analysisContext.logAst(null, CliUtils.GSON.toJsonTree(rootNode));
+      analysisContext.logAst(null, rootNode);
     }
     for (ProcessingPhase phase : ProcessingPhase.values()) {
       ThreadInterruptionUtil.checkThreadInterrupted();
-      process(phase, rootNode, ctx);
+      AnalysisEvent event = AnalysisEvent.begin(AnalysisEvent.Type.PROCESSOR_PHASE, phase.name(), analysisContext.getDocumentUri());
+      String outcome = "failed";
+      try {
+        process(phase, rootNode, ctx);
+        outcome = "done";
+      } finally {
+        event.end(outcome);
+      }
       if (analysisConfig.isCollectAstChanges()) {
-        analysisContext.logAst(phase, CliUtils.GSON.toJsonTree(rootNode));
+        analysisContext.logAst(phase, rootNode);
       }
     }
     return ctx.getErrors();
@@ -67,27 +76,34 @@ public class AstProcessor {
    */
   public void process(ProcessingPhase phase, Node node, ProcessingContext ctx) {
     Map<Class<? extends Node>, List<Processor<? extends Node>>> processors = ctx.getProcessors().get(phase);
-    if (processors != null)
-      process(processors, node, ctx);
+    if (processors == null)
+      return;
+    ProcessorDispatchTable dispatchTable = new ProcessorDispatchTable(processors);
+    if (!dispatchTable.isEmpty())
+      process(dispatchTable, node, ctx);
   }
 
   /**
-   * Process tree node and its children after tree construction.
+   * Process tree node and its children after tree construction. The tree is traversed in the
+   * depth-first pre-order with an explicit stack, so the depth of the tree is not limited by the
+   * thread stack size. The children of a node are taken after the node is processed, like it is
+   * done for a recursive traversal.
    *
-   * @param processor list of available processors
-   * @param node a node to process
+   * @param dispatchTable the processors of the phase
+   * @param root a node to process
    * @param ctx processing context
    */
-  private void process(Map<Class<? extends Node>, List<Processor<? extends Node>>> processors,
-      Node node, ProcessingContext ctx) {
-    ThreadInterruptionUtil.checkThreadInterrupted();
-    final Class<? extends Node> nodeClass = node.getClass();
-    processors.forEach((key, value) -> {
-      if (!key.isAssignableFrom(nodeClass))
-        return;
-      for (Processor<? extends Node> p : value)
-        ((Processor<Node>) p).accept(node, ctx);
-    });
-    node.getChildren().forEach(n -> process(processors, n, ctx));
+  private void process(ProcessorDispatchTable dispatchTable, Node root, ProcessingContext ctx) {
+    Deque<Node> stack = new ArrayDeque<>();
+    stack.push(root);
+    while (!stack.isEmpty()) {
+      ThreadInterruptionUtil.checkThreadInterrupted();
+      Node node = stack.pop();
+      for (Processor<Node> p : dispatchTable.get(node.getClass()))
+        p.accept(node, ctx);
+      List<Node> children = node.getChildren();
+      for (int i = children.size() - 1; i >= 0; i--)
+        stack.push(children.get(i));
+    }
   }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.core.engine.processor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.lsp.cobol.common.model.tree.Node;
+import org.eclipse.lsp.cobol.common.processor.Processor;
+
+/**
+ * Processors of one processing phase, resolved per concrete node class. The registered node classes
+ * are checked against a node class only once, the first time a node of this class is met, and the
+ * result is reused for all the other nodes of the same class.
+ */
+final class ProcessorDispatchTable {
+  private final Map<Class<? extends Node>, List<Processor<? extends Node>>> processors;
+  private final Map<Class<? extends Node>, List<Processor<Node>>> resolved = new HashMap<>();
+
+  ProcessorDispatchTable(Map<Class<? extends Node>, List<Processor<? extends Node>>> processors) {
+    this.processors = processors;
+  }
+
+  /**
+   * Checks if there are any processors in the table
+   *
+   * @return true if no processors registered for the phase
+   */
+  boolean isEmpty() {
+    return processors.isEmpty();
+  }
+
+  /**
+   * Returns the processors applicable to the given node class in the registration order
+   *
+   * @param nodeClass the concrete class of a node
+   * @return the list of processors, empty if nothing applies
+   */
+  List<Processor<Node>> get(Class<? extends Node> nodeClass) {
+    List<Processor<Node>> result = resolved.get(nodeClass);
+    if (result == null) {
+      result = resolve(nodeClass);
+      resolved.put(nodeClass, result);
+    }
+    return result;
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Processor<Node>> resolve(Class<? extends Node> nodeClass) {
+    List<Processor<Node>> result = new ArrayList<>();
+    processors.forEach((key, value) -> {
+      if (!key.isAssignableFrom(nodeClass))
+        return;
+      for (Processor<? extends Node> p : value)
+        result.add((Processor<Node>) p);
+    });
+    return result.isEmpty() ? Collections.emptyList() : result;
+  }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.core.engine.processors;
+
+import static org.eclipse.lsp.cobol.common.model.tree.Node.hasType;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import org.eclipse.lsp.cobol.common.model.NodeType;
+import org.eclipse.lsp.cobol.common.model.tree.CopyNode;
+import org.eclipse.lsp.cobol.common.model.tree.Node;
+import org.eclipse.lsp.cobol.common.model.tree.variable.*;
+import org.eclipse.lsp.cobol.common.model.tree.variables.RenameItemNode;
+import org.eclipse.lsp.cobol.common.utils.RangeUtils;
+import org.eclipse.lsp4j.Position;
+
+/**
+ * The ordered index of the data items of one section. It follows the items attached to every parent
+ * and the definitions spliced into every copybook, so the REDEFINES and RENAMES targets and the
+ * copybook duplicates are resolved in one pass instead of rescanning the siblings for every item.
+ */
+class DataLayoutIndex {
+  private final Map<Node, SiblingLayout> siblings = new IdentityHashMap<>();
+  private final Map<GroupItemNode, GroupLayout> groups = new IdentityHashMap<>();
+  private final Map<CopyNode, CopybookLayout> copybooks = new IdentityHashMap<>();
+
+  /**
+   * Find the item that a REDEFINES clause of a new child of the parent refers to. Only the last
+   * preceding item that does not redefine anything and the items redefining it are eligible.
+   *
+   * @param parent the parent the new child will be attached to
+   * @param name the name from the REDEFINES clause
+   * @return the latest eligible item with the given name or empty
+   */
+  Optional<VariableWithLevelNode> findRedefinesTarget(Node parent, String name) {
+    return Optional.ofNullable(getSiblingLayout(parent).redefinesChain.get(name));
+  }
+
+  /**
+   * Find the structure that a RENAMES item attached to the parent refers to, i.e. the last
+   * preceding sibling that is not a RENAMES item.
+   *
+   * @param parent the parent the RENAMES item will be attached to
+   * @return the group item or null if the preceding sibling is not a group
+   */
+  GroupItemNode findRenamesStructure(Node parent) {
+    Node preceding = getSiblingLayout(parent).lastNonRenameItem;
+    return preceding instanceof GroupItemNode ? (GroupItemNode) preceding : null;
+  }
+
+  /**
+   * Find the position of the first item with the given name among all the items of the group in
+   * the depth-first order.
+   *
+   * @param group the renamed group
+   * @param name the name of the item
+   * @return the position of the item or -1 if the group does not contain it
+   */
+  int indexOfRenamedItem(GroupItemNode group, String name) {
+    return getGroupLayout(group).positions.getOrDefault(name, -1);
+  }
+
+  /**
+   * Get the item of the group at the position returned by {@link #indexOfRenamedItem}
+   *
+   * @param group the renamed group
+   * @param index the position of the item
+   * @return the item
+   */
+  VariableNode getRenamedItem(GroupItemNode group, int index) {
+    return getGroupLayout(group).items.get(index);
+  }
+
+  /**
+   * Check if the copybook already contains a definition with the same name and locality
+   *
+   * @param copyNode the copybook node
+   * @param definition the variable definition
+   * @return true if the definition is already spliced into the copybook
+   */
+  boolean isSplicedInto(CopyNode copyNode, VariableDefinitionNode definition) {
+    return getCopybookLayout(copyNode).definitions.contains(definitionKey(definition));
+  }
+
+  /**
+   * Check if the position does not precede any child of the copybook, so a definition starting
+   * there is appended after all of them
+   *
+   * @param copyNode the copybook node
+   * @param start the start of the definition
+   * @return true if no child of the copybook starts after the position
+   */
+  boolean followsAllChildren(CopyNode copyNode, Position start) {
+    Position latestStart = getCopybookLayout(copyNode).latestStart;
+    return latestStart == null || !RangeUtils.isBefore(start, latestStart);
+  }
+
+  /**
+   * Get the copybooks nested directly in the copybook
+   *
+   * @param copyNode the copybook node
+   * @return the nested copybook nodes in the order of appearance
+   */
+  List<CopyNode> getNestedCopybooks(CopyNode copyNode) {
+    return getCopybookLayout(copyNode).nested;
+  }
+
+  /**
+   * Splice the definition into the copybook at the given position
+   *
+   * @param copyNode the copybook node
+   * @param index the position among the copybook children
+   * @param definition the variable definition
+   */
+  void splice(CopyNode copyNode, int index, VariableDefinitionNode definition) {
+    getCopybookLayout(copyNode).add(definition);
+    copyNode.addChildAt(index, definition);
+  }
+
+  private SiblingLayout getSiblingLayout(Node parent) {
+    return siblings.computeIfAbsent(parent, p -> new SiblingLayout(p.getChildren())).update();
+  }
+
+  private GroupLayout getGroupLayout(GroupItemNode group) {
+    return groups.computeIfAbsent(group, GroupLayout::new);
+  }
+
+  private CopybookLayout getCopybookLayout(CopyNode copyNode) {
+    return copybooks.computeIfAbsent(copyNode, CopybookLayout::new);
+  }
+
+  private static List<Object> definitionKey(VariableDefinitionNode definition) {
+    return Arrays.asList(definition.getLocality(), definition.getVariableName());
+  }
+
+  /** The items attached to one parent. Children are only appended while a section is processed. */
+  private static final class SiblingLayout {
+    private final List<Node> children;
+    private final Map<String, VariableWithLevelNode> redefinesChain = new HashMap<>();
+    private int scanned;
+    private Node lastNonRenameItem;
+
+    private SiblingLayout(List<Node> children) {
+      this.children = children;
+    }
+
+    private SiblingLayout update() {
+      for (; scanned < children.size(); scanned++) {
+        Node child = children.get(scanned);
+        if (!(child instanceof RenameItemNode)) lastNonRenameItem = child;
+        if (!isEligibleForRedefine(child)) continue;
+        VariableWithLevelNode item = (VariableWithLevelNode) child;
+        if (!item.isRedefines()) redefinesChain.clear();
+        redefinesChain.put(item.getName(), item);
+      }
+      return this;
+    }
+
+    private static boolean isEligibleForRedefine(Node node) {
+      if (!(node instanceof VariableWithLevelNode)) return false;
+      VariableType type = ((VariableWithLevelNode) node).getVariableType();
+      return type != VariableType.CONDITION_DATA_NAME && type != VariableType.RENAME_ITEM;
+    }
+  }
+
+  /** The children of a copybook. Only definitions are spliced into it while a section is processed. */
+  private static final class CopybookLayout {
+    private final Set<List<Object>> definitions = new HashSet<>();
+    private final List<CopyNode> nested = new ArrayList<>();
+    private Position latestStart;
+
+    private CopybookLayout(CopyNode copyNode) {
+      for (Node child : copyNode.getChildren()) {
+        if (child instanceof VariableDefinitionNode) definitions.add(definitionKey((VariableDefinitionNode) child));
+        if (child instanceof CopyNode) nested.add((CopyNode) child);
+        updateLatestStart(child);
+      }
+    }
+
+    private void add(VariableDefinitionNode definition) {
+      definitions.add(definitionKey(definition));
+      updateLatestStart(definition);
+    }
+
+    private void updateLatestStart(Node child) {
+      Position start = child.getLocality().getRange().getStart();
+      if (latestStart == null || RangeUtils.isBefore(latestStart, start)) latestStart = start;
+    }
+  }
+
+  /** The flattened items of a complete group that RENAMES clauses refer to. */
+  private static final class GroupLayout {
+    private final List<VariableNode> items;
+    private final Map<String, Integer> positions = new HashMap<>();
+
+    private GroupLayout(GroupItemNode group) {
+      items =
+          group.getChildren().stream()
+              .flatMap(Node::getDepthFirstStream)
+              .filter(hasType(NodeType.VARIABLE))
+              .map(VariableNode.class::cast)
+              .collect(Collectors.toList());
+      for (int i = 0; i < items.size(); i++) positions.putIfAbsent(items.get(i).getName(), i);
+    }
+  }
+}
@@ -15,7 +15,6 @@
 package org.eclipse.lsp.cobol.core.engine.processors;
 
 import org.eclipse.lsp.cobol.common.VariableConstants;
-import org.eclipse.lsp.cobol.common.model.tree.Node;
 import org.eclipse.lsp.cobol.common.model.NodeType;
 import org.eclipse.lsp.cobol.common.model.tree.ProgramNode;
 import org.eclipse.lsp.cobol.common.processor.ProcessingContext;
@@ -35,8 +34,7 @@ public class FileEntryProcess implements Processor<FileEntryNode> {
     }
     ProgramNode program = programOpt.get();
     program
-        .getDepthFirstStream()
-        .filter(Node.hasType(NodeType.VARIABLE_DEFINITION))
+        .getDepthFirstStream(NodeType.VARIABLE_DEFINITION)
         .map(VariableDefinitionNode.class::cast)
         .filter(n -> n.getLevel() == VariableConstants.LEVEL_FD_SD)
         .filter(n -> n.getVariableName().getName().equals(node.getFileName()))
@@ -127,8 +127,7 @@ public class FileOperationProcess implements Processor<FileOperationStatementNod
             pnode -> {
               boolean isFileOpened =
                   pnode
-                      .getDepthFirstStream()
-                      .filter(Node.hasType(OPEN_STATEMENT))
+                      .getDepthFirstStream(OPEN_STATEMENT)
                       .map(OpenStatementNode.class::cast)
                       .anyMatch(
                           n ->
@@ -43,8 +43,7 @@ public class LinkageArgumentsOriginCheck implements Processor<Node> {
   }
 
   private void processVariableUsages(Node node, ProcessingContext processingContext) {
-    node.getDepthFirstStream()
-        .filter(child -> child.getNodeType() == NodeType.VARIABLE_USAGE)
+    node.getDepthFirstStream(NodeType.VARIABLE_USAGE)
         .map(VariableUsageNode.class::cast)
         .filter(this::isNotDefinedUnderLinkageSection)
         .forEach(
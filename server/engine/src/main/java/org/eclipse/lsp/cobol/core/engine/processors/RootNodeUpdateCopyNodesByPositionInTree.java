@@ -48,8 +48,7 @@ public class RootNodeUpdateCopyNodesByPositionInTree implements Processor<RootNo
             parentNode.addChildAt(getNodeInsertionIndex(parentNode.getChildren(), it), it);
         });
 
-    List<CopyNode> copyNodes = node.getDepthFirstStream()
-        .filter(Node.hasType(NodeType.COPY))
+    List<CopyNode> copyNodes = node.getDepthFirstStream(NodeType.COPY)
         .map(CopyNode.class::cast)
         .collect(toList());
 
@@ -23,9 +23,8 @@ import static org.eclipse.lsp.cobol.common.model.tree.variable.VariableType.SD;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Iterables;
 import java.util.*;
-import java.util.function.Function;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
@@ -49,25 +48,26 @@ import org.eclipse.lsp4j.Range;
 @Slf4j
 public class SectionNodeProcessorHelper {
 
-  private final List<Function<VariableDefinitionNode, ResultWithErrors<VariableNode>>> matchers =
-      ImmutableList.of(
-          SectionNodeProcessorHelper::fdMatcher,
-          SectionNodeProcessorHelper::renameItemMatcher,
-          SectionNodeProcessorHelper::conditionalDataNameMatcher,
-          SectionNodeProcessorHelper::mnemonicNameMatcher,
-          SectionNodeProcessorHelper::independentDataItemMatcher,
-          SectionNodeProcessorHelper::multiTableDataNameMatcher,
-          SectionNodeProcessorHelper::groupItemMatcher,
-          SectionNodeProcessorHelper::tableDataNameMatcher,
-          SectionNodeProcessorHelper::elementItemMatcher,
-          SectionNodeProcessorHelper::mapNameMatcher
-          // TODO: add check that the following items do not have VALUE:
-          // TODO: 1. JUSTIFIED
-          // TODO: 2. SYNCHRONIZED
-          // TODO: 3. USAGE (not USAGE IN DISPLAY)
-
-          // TODO: add check that value does not exceed PIC length
-          );
+  private final List<BiFunction<VariableDefinitionNode, DataLayoutIndex, ResultWithErrors<VariableNode>>>
+      matchers =
+          ImmutableList.of(
+              (definitionNode, layout) -> fdMatcher(definitionNode),
+              SectionNodeProcessorHelper::renameItemMatcher,
+              (definitionNode, layout) -> conditionalDataNameMatcher(definitionNode),
+              (definitionNode, layout) -> mnemonicNameMatcher(definitionNode),
+              (definitionNode, layout) -> independentDataItemMatcher(definitionNode),
+              (definitionNode, layout) -> multiTableDataNameMatcher(definitionNode),
+              (definitionNode, layout) -> groupItemMatcher(definitionNode),
+              (definitionNode, layout) -> tableDataNameMatcher(definitionNode),
+              (definitionNode, layout) -> elementItemMatcher(definitionNode),
+              (definitionNode, layout) -> mapNameMatcher(definitionNode)
+              // TODO: add check that the following items do not have VALUE:
+              // TODO: 1. JUSTIFIED
+              // TODO: 2. SYNCHRONIZED
+              // TODO: 3. USAGE (not USAGE IN DISPLAY)
+
+              // TODO: add check that value does not exceed PIC length
+              );
   private static final Set<Integer> ALLOWED_TOP_LEVELS =
       ImmutableSet.of(LEVEL_01, LEVEL_66, LEVEL_77, LEVEL_88);
 
@@ -89,23 +89,36 @@ public class SectionNodeProcessorHelper {
    * @return the list of errors
    */
   public List<SyntaxError> processNodeWithVariableDefinitions(Node node) {
-    Deque<VariableDefinitionNode> variableDefinitionNodes = new LinkedList<>(unwrapVariables(node));
-    variableDefinitionNodes.forEach(n -> n.getParent().removeChild(n));
+    DataLayoutIndex layout = new DataLayoutIndex();
+    Deque<VariableDefinitionNode> variableDefinitionNodes =
+        new ArrayDeque<>(unwrapVariables(node, layout));
+    removeDefinitionNodes(variableDefinitionNodes);
     List<SyntaxError> errors = new ArrayList<>();
-    errors.addAll(processDefinition(node, 1, variableDefinitionNodes));
+    errors.addAll(processDefinition(node, 1, variableDefinitionNodes, layout));
     errors.addAll(checkGlobalUniqueNames(node));
     errors.addAll(checkTopNumbers(node));
     reshapeVariablesLocality(node);
     return errors;
   }
 
+  private static void removeDefinitionNodes(Collection<VariableDefinitionNode> definitionNodes) {
+    Map<Node, Set<Node>> byParent = new IdentityHashMap<>();
+    definitionNodes.forEach(
+        n ->
+            byParent
+                .computeIfAbsent(n.getParent(), p -> Collections.newSetFromMap(new IdentityHashMap<>()))
+                .add(n));
+    byParent.forEach((parent, children) -> parent.getChildren().removeIf(children::contains));
+  }
+
   /**
    * Collects node children variables including copybook nested variables
    *
    * @param node - node for processing
+   * @param layout - the data layout of the section
    * @return a list of unwrapped variables
    */
-  private List<VariableDefinitionNode> unwrapVariables(Node node) {
+  private List<VariableDefinitionNode> unwrapVariables(Node node, DataLayoutIndex layout) {
     List<Node> variables = new ArrayList<>();
     List<CopyNode> copybooks = new LinkedList<>();
 
@@ -124,7 +137,7 @@ public class SectionNodeProcessorHelper {
 
     int index = 0;
     for (CopyNode copyNode : copybooks) {
-      index = insertCopybook(variables, index, copyNode);
+      index = insertCopybook(variables, index, copyNode, layout);
     }
 
     return variables.stream()
@@ -140,7 +153,8 @@ public class SectionNodeProcessorHelper {
         .collect(Collectors.toList());
   }
 
-  private static int insertCopybook(List<Node> variables, int index, CopyNode copyNode) {
+  private static int insertCopybook(
+      List<Node> variables, int index, CopyNode copyNode, DataLayoutIndex layout) {
     if (index > variables.size() - 1) {
       variables.add(copyNode);
       return index;
@@ -156,17 +170,18 @@ public class SectionNodeProcessorHelper {
     // append at last
     if (index >= variables.size()) {
       variables.add(copyNode);
-      return variables.indexOf(copyNode);
+      return variables.size() - 1;
     }
 
     variables.add(index, copyNode);
-    if (adjustCopyNodeChild(copyNode, variables, index + 1)) {
-      return variables.indexOf(copyNode) + 1;
+    if (adjustCopyNodeChild(copyNode, variables, index + 1, layout)) {
+      return index + 1;
     }
     return index;
   }
 
-  private static boolean adjustCopyNodeChild(CopyNode copyNode, List<Node> variables, int index) {
+  private static boolean adjustCopyNodeChild(
+      CopyNode copyNode, List<Node> variables, int index, DataLayoutIndex layout) {
     boolean areNodesAdjusted = false;
     ArrayList<Node> nodes = new ArrayList<>(variables);
     for (int i = index; i < nodes.size(); i++) {
@@ -174,7 +189,7 @@ public class SectionNodeProcessorHelper {
       String variableNodeUri = variable.getLocality().getUri();
       String copybookNodeUri = copyNode.getUri();
       if (variableNodeUri.equals(copybookNodeUri)) {
-        adjustVariableNodeInsideCopyNode(copyNode, variables, i, variable);
+        adjustVariableNodeInsideCopyNode(copyNode, variables, i, variable, layout);
         areNodesAdjusted = true;
       } else {
         break;
@@ -183,34 +198,41 @@ public class SectionNodeProcessorHelper {
     return areNodesAdjusted;
   }
 
-  private static void adjustVariableNodeInsideCopyNode(CopyNode copyNode, List<Node> variables, int i, Node variable) {
+  private static void adjustVariableNodeInsideCopyNode(
+      CopyNode copyNode, List<Node> variables, int i, Node variable, DataLayoutIndex layout) {
       if (variable instanceof VariableDefinitionNode) {
           int insertIndex;
-          for (insertIndex = 0; insertIndex < copyNode.getChildren().size(); insertIndex++) {
-              Node node = copyNode.getChildren().get(insertIndex);
-              if (node instanceof CopyNode) {
-                  adjustCopyNodeChild((CopyNode) node, variables, i);
-              }
-              Locality copybNodeChildLocality = node.getLocality();
-              Locality variableLocality = variable.getLocality();
-              if (RangeUtils.isBefore(variableLocality.getRange().getStart(), copybNodeChildLocality.getRange().getStart())) {
-                  break;
+          if (layout.followsAllChildren(copyNode, variable.getLocality().getRange().getStart())) {
+              layout.getNestedCopybooks(copyNode).forEach(nested -> adjustCopyNodeChild(nested, variables, i, layout));
+              insertIndex = copyNode.getChildren().size();
+          } else {
+              for (insertIndex = 0; insertIndex < copyNode.getChildren().size(); insertIndex++) {
+                  Node node = copyNode.getChildren().get(insertIndex);
+                  if (node instanceof CopyNode) {
+                      adjustCopyNodeChild((CopyNode) node, variables, i, layout);
+                  }
+                  Locality copybNodeChildLocality = node.getLocality();
+                  Locality variableLocality = variable.getLocality();
+                  if (RangeUtils.isBefore(variableLocality.getRange().getStart(), copybNodeChildLocality.getRange().getStart())) {
+                      break;
+                  }
               }
           }
-          if (!isVariableNodeAlreadyPresentIn(copyNode, (VariableDefinitionNode) variable)) {
-              copyNode.addChildAt(insertIndex, variable);
-              variables.remove(variable);
+          if (!layout.isSplicedInto(copyNode, (VariableDefinitionNode) variable)) {
+              layout.splice(copyNode, insertIndex, (VariableDefinitionNode) variable);
+              removeByIdentity(variables, variable);
           }
       }
   }
 
-    private static boolean isVariableNodeAlreadyPresentIn(CopyNode copyNode, VariableDefinitionNode variable) {
-        return copyNode.getChildren().stream()
-                .filter(VariableDefinitionNode.class::isInstance)
-                .map(VariableDefinitionNode.class::cast)
-                .anyMatch(n -> n.getLocality().equals(variable.getLocality())
-                        && n.getVariableName().equals(variable.getVariableName()));
+  private static void removeByIdentity(List<Node> nodes, Node node) {
+    for (int i = 0; i < nodes.size(); i++) {
+      if (nodes.get(i) == node) {
+        nodes.remove(i);
+        return;
+      }
     }
+  }
 
     private static boolean canInsertCopyNodeAtIndex(
       CopyNode copyNode, int index, List<Node> variables) {
@@ -255,7 +277,7 @@ public class SectionNodeProcessorHelper {
   }
 
   private List<SyntaxError> processDefinition(
-      Node rootNode, int level, Deque<VariableDefinitionNode> definitionNodes) {
+      Node rootNode, int level, Deque<VariableDefinitionNode> definitionNodes, DataLayoutIndex layout) {
     VariableNode lastVariableOnTheLevel = null;
     List<SyntaxError> errors = new ArrayList<>();
     while (!definitionNodes.isEmpty()) {
@@ -269,7 +291,7 @@ public class SectionNodeProcessorHelper {
         if (definitionNode.getUsageClauses().isEmpty() && rootNode instanceof UsageClause)
           definitionNode.setUsageClauses(
               ImmutableList.of(((UsageClause) rootNode).getUsageFormat()));
-        Optional<ResultWithErrors<VariableNode>> convertResult = convert(definitionNode);
+        Optional<ResultWithErrors<VariableNode>> convertResult = convert(definitionNode, layout);
         if (convertResult.isPresent()) {
           VariableNode variable = convertResult.get().unwrap(errors::addAll);
           lastVariableOnTheLevel = variable;
@@ -293,7 +315,8 @@ public class SectionNodeProcessorHelper {
             processDefinition(
                 getParentForNextLevel(rootNode, lastVariableOnTheLevel, definitionNode),
                 definitionNode.getLevel(),
-                definitionNodes));
+                definitionNodes,
+                layout));
       }
     }
     return errors;
@@ -323,12 +346,13 @@ public class SectionNodeProcessorHelper {
     return rootNode;
   }
 
-  private Optional<ResultWithErrors<VariableNode>> convert(VariableDefinitionNode definitionNode) {
+  private Optional<ResultWithErrors<VariableNode>> convert(
+      VariableDefinitionNode definitionNode, DataLayoutIndex layout) {
     return matchers.stream()
-        .map(matcher -> matcher.apply(definitionNode))
+        .map(matcher -> matcher.apply(definitionNode, layout))
         .filter(Objects::nonNull)
         .map(result -> handleGeneralErrors(result, definitionNode))
-        .map(result -> handleRedefines(result, definitionNode))
+        .map(result -> handleRedefines(result, definitionNode, layout))
         .findFirst();
   }
 
@@ -340,9 +364,10 @@ public class SectionNodeProcessorHelper {
     return new ResultWithErrors<>(variableNode, errors);
   }
 
-  private ResultWithErrors<VariableNode> renameItemMatcher(VariableDefinitionNode definitionNode) {
+  private ResultWithErrors<VariableNode> renameItemMatcher(
+      VariableDefinitionNode definitionNode, DataLayoutIndex layout) {
     if (definitionNode.getLevel() != LEVEL_66) return null;
-    GroupItemNode group = getPrecedingStructureForRename(definitionNode);
+    GroupItemNode group = layout.findRenamesStructure(definitionNode.getParent());
     boolean global = group != null && group.isGlobal();
     RenameItemNode variable =
         new RenameItemNode(
@@ -351,7 +376,7 @@ public class SectionNodeProcessorHelper {
             definitionNode.hasRedefines(),
             global);
     createVariableNameNode(variable, definitionNode.getVariableName());
-    List<SyntaxError> errors = processRenamesBoundaries(variable, group, definitionNode);
+    List<SyntaxError> errors = processRenamesBoundaries(variable, group, definitionNode, layout);
     if (errors.isEmpty()) variable.setVarGroupParent(group);
     return new ResultWithErrors<>(variable, errors);
   }
@@ -585,27 +610,20 @@ public class SectionNodeProcessorHelper {
         .collect(Collectors.toList());
   }
 
-  private GroupItemNode getPrecedingStructureForRename(VariableDefinitionNode definitionNode) {
-    Deque<Node> siblings = new LinkedList<>(definitionNode.getParent().getChildren());
-    while (!siblings.isEmpty()) {
-      Node precedingNode = siblings.pollLast();
-      if (precedingNode instanceof RenameItemNode) continue;
-      if (precedingNode instanceof GroupItemNode) return (GroupItemNode) precedingNode;
-      return null;
-    }
-    return null;
-  }
-
   private List<SyntaxError> processRenamesBoundaries(
-      RenameItemNode variable, GroupItemNode group, VariableDefinitionNode definitionNode) {
+      RenameItemNode variable,
+      GroupItemNode group,
+      VariableDefinitionNode definitionNode,
+      DataLayoutIndex layout) {
     if (group == null)
       return ImmutableList.of(variable.getError(MessageTemplate.of(NO_STRUCTURE_BEFORE_RENAME)));
     List<SyntaxError> errors = new ArrayList<>();
     Integer renamesIndex =
-        processRenamesClauseAndGetIndex(variable, definitionNode.getRenamesClause(), group)
+        processRenamesClauseAndGetIndex(variable, definitionNode.getRenamesClause(), group, layout)
             .unwrap(errors::addAll);
     Integer renamesThruIndex =
-        processRenamesClauseAndGetIndex(variable, definitionNode.getRenamesThruClause(), group)
+        processRenamesClauseAndGetIndex(
+                variable, definitionNode.getRenamesThruClause(), group, layout)
             .unwrap(errors::addAll);
     if (renamesIndex != -1 && renamesThruIndex != -1 && renamesIndex >= renamesThruIndex)
       errors.add(variable.getError(MessageTemplate.of(INCORRECT_CHILDREN_ORDER)));
@@ -613,22 +631,19 @@ public class SectionNodeProcessorHelper {
   }
 
   private ResultWithErrors<Integer> processRenamesClauseAndGetIndex(
-      RenameItemNode variable, List<VariableNameAndLocality> renames, GroupItemNode group) {
+      RenameItemNode variable,
+      List<VariableNameAndLocality> renames,
+      GroupItemNode group,
+      DataLayoutIndex layout) {
     List<SyntaxError> errors = new ArrayList<>();
-    List<VariableNode> nodesForRenaming =
-        group.getChildren().stream()
-            .flatMap(Node::getDepthFirstStream)
-            .filter(hasType(NodeType.VARIABLE))
-            .map(VariableNode.class::cast)
-            .collect(Collectors.toList());
     if (renames == null) return new ResultWithErrors<>(-1, errors);
     String renamesName = renames.get(0).getName();
-    int renamesIndex = Iterables.indexOf(nodesForRenaming, it -> renamesName.equals(it.getName()));
+    int renamesIndex = layout.indexOfRenamedItem(group, renamesName);
     if (renamesIndex != -1) {
       VariableUsageNode variableUsageNode =
           new VariableUsageNode(renamesName, renames.get(0).getLocality());
       variable.addChild(variableUsageNode);
-      VariableNode variableDefNode = nodesForRenaming.get(renamesIndex);
+      VariableNode variableDefNode = layout.getRenamedItem(group, renamesIndex);
       variableDefNode.addUsage(variableUsageNode);
       if (renames.size() > 1) {
         VariableNode allowedQualifier = getAllowedQualifier(group, variableDefNode, renames.get(1));
@@ -677,7 +692,9 @@ public class SectionNodeProcessorHelper {
 
   // TODO: 66 and 88 cannot be redefined
   private ResultWithErrors<VariableNode> handleRedefines(
-      ResultWithErrors<VariableNode> result, VariableDefinitionNode definitionNode) {
+      ResultWithErrors<VariableNode> result,
+      VariableDefinitionNode definitionNode,
+      DataLayoutIndex layout) {
     if (definitionNode.doesntHaveRedefines()) return result;
     VariableNode variableNode = result.getResult();
     List<SyntaxError> errors = new ArrayList<>(result.getErrors());
@@ -686,13 +703,9 @@ public class SectionNodeProcessorHelper {
     Locality redefinesLocality = redefinesNameAndLocality.getLocality();
     VariableUsageNode redefineUsage = new VariableUsageNode(redefinesName, redefinesLocality);
     variableNode.addChild(redefineUsage);
-    List<VariableWithLevelNode> eligibleNodesForRedefine =
-        getEligibleNodesForRedefine(definitionNode);
     Optional<VariableWithLevelNode> allowedRedefinedNode =
-        eligibleNodesForRedefine.stream()
-            .filter(node -> node.getName().equals(redefinesName))
-            .findFirst();
-    if (eligibleNodesForRedefine.isEmpty() || !allowedRedefinedNode.isPresent()) {
+        layout.findRedefinesTarget(definitionNode.getParent(), redefinesName);
+    if (!allowedRedefinedNode.isPresent()) {
       errors.add(
           SyntaxError.syntaxError()
               .errorSource(ErrorSource.PARSING)
@@ -732,26 +745,4 @@ public class SectionNodeProcessorHelper {
     return allowedRedefinedNode.getLevel() != definitionNode.getLevel()
         && (allowedRedefinedNode.getLevel() == LEVEL_77 || definitionNode.getLevel() == LEVEL_77);
   }
-
-  private static List<VariableWithLevelNode> getEligibleNodesForRedefine(
-      VariableDefinitionNode definitionNode) {
-    Deque<Node> siblings = new LinkedList<>(definitionNode.getParent().getChildren());
-    List<VariableWithLevelNode> eligibleNodesForRedefine = new ArrayList<>();
-    LinkedList<VariableWithLevelNode> availableNodes =
-        siblings.stream()
-            .filter(node -> node instanceof VariableWithLevelNode)
-            .map(VariableWithLevelNode.class::cast)
-            .filter(
-                node ->
-                    !node.getVariableType().equals(VariableType.CONDITION_DATA_NAME)
-                        && !node.getVariableType().equals(VariableType.RENAME_ITEM))
-            .collect(Collectors.toCollection(LinkedList::new));
-    if (availableNodes.isEmpty()) return eligibleNodesForRedefine;
-    VariableWithLevelNode variable;
-    do {
-      variable = availableNodes.pollLast();
-      eligibleNodesForRedefine.add(variable);
-    } while (Objects.requireNonNull(variable).isRedefines());
-    return eligibleNodesForRedefine;
-  }
 }
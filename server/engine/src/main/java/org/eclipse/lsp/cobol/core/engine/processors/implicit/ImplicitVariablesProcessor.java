@@ -36,7 +36,7 @@ public class ImplicitVariablesProcessor implements Processor<SectionNode> {
       VariableAccumulator variableAccumulator = processingContext.getVariableAccumulator();
       ProgramNode programNode = sectionNode.getProgram()
               .orElseThrow(() -> new RuntimeException("Program for section " + sectionNode.getSectionType() + " not found"));
-      registerVariables(variableAccumulator, programNode, SRImplicitVariablesGenerator.generate());
+      registerVariables(variableAccumulator, programNode, SRImplicitVariablesGenerator.getSharedNodes());
     }
   }
 
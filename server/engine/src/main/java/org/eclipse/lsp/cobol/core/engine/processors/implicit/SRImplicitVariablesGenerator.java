@@ -14,6 +14,7 @@
  */
 package org.eclipse.lsp.cobol.core.engine.processors.implicit;
 
+import com.google.common.collect.ImmutableList;
 import lombok.experimental.UtilityClass;
 import org.eclipse.lsp.cobol.common.model.Locality;
 import org.eclipse.lsp.cobol.common.model.tree.variable.ElementaryItemNode;
@@ -30,6 +31,18 @@ import java.util.List;
  */
 @UtilityClass
 public class SRImplicitVariablesGenerator {
+  private static final List<VariableNode> SHARED_NODES = generate().stream()
+      .map(VariableNode::markShared)
+      .collect(ImmutableList.toImmutableList());
+
+  /**
+   * Provides SPECIAL REGISTERS data structure built once and shared by all the programs. The nodes
+   * must not be modified, their usages are kept in the programs that register them.
+   * @return shared SPECIAL REGISTERS data structure
+   */
+  public List<VariableNode> getSharedNodes() {
+    return SHARED_NODES;
+  }
 
   /**
    * Generates SPECIAL REGISTERS data structure
@@ -35,6 +35,7 @@ import org.eclipse.lsp.cobol.common.model.tree.variable.VariableUsageNode;
 import org.eclipse.lsp.cobol.common.symbols.CodeBlockReference;
 import org.eclipse.lsp.cobol.common.symbols.SymbolTable;
 import org.eclipse.lsp.cobol.common.symbols.VariableAccumulator;
+import org.eclipse.lsp.cobol.core.model.VariableNameIndex;
 import org.eclipse.lsp.cobol.core.model.VariableUsageUtils;
 import org.eclipse.lsp.cobol.common.model.tree.CodeBlockUsageNode;
 import org.eclipse.lsp.cobol.common.model.tree.FunctionReference;
@@ -52,6 +53,8 @@ import static org.eclipse.lsp.cobol.common.model.tree.Node.hasType;
 /** Service to handle symbol information and dependencies */
 public class SymbolAccumulatorService implements VariableAccumulator {
   private final Map<String, SymbolTable> programSymbols;
+  private final Map<String, VariableNameIndex> variableIndexes = Collections.synchronizedMap(new HashMap<>());
+  private final Map<String, VariableNameIndex> globalVariableIndexes = Collections.synchronizedMap(new HashMap<>());
 
   /** Information related to function definition and references */
   public static class FunctionInfo {
@@ -109,7 +112,15 @@ public class SymbolAccumulatorService implements VariableAccumulator {
    * @param node the variable definition node
    */
   public void addVariableDefinition(ProgramNode programNode, VariableNode node) {
-    createOrGetSymbolTable(programNode).getVariables().put(node.getName().toUpperCase(Locale.ROOT), node);
+    String key = SymbolTable.generateKey(programNode);
+    programSymbols.computeIfAbsent(key, p -> new SymbolTable())
+        .getVariables().put(node.getName().toUpperCase(Locale.ROOT), node);
+    if (node.isShared()) {
+      programNode.registerSharedVariable(node);
+    }
+    variableIndexes.remove(key);
+    // nested programs see the global variables of all their parents
+    globalVariableIndexes.clear();
   }
 
   /**
@@ -476,17 +487,25 @@ public class SymbolAccumulatorService implements VariableAccumulator {
   public List<VariableNode> getVariableDefinition(
       ProgramNode programNode, List<VariableUsageNode> usageNodes) {
     Multimap<String, VariableNode> variables = createOrGetSymbolTable(programNode).getVariables();
+    VariableNameIndex index =
+        variableIndexes.computeIfAbsent(SymbolTable.generateKey(programNode), k -> new VariableNameIndex(variables));
     List<VariableNode> foundDefinitions =
-        VariableUsageUtils.findVariablesForUsage(variables, usageNodes);
+        VariableUsageUtils.findVariablesForUsage(index, usageNodes);
     if (!foundDefinitions.isEmpty()) {
       return foundDefinitions;
     }
 
+    VariableNameIndex globalIndex =
+        globalVariableIndexes.computeIfAbsent(SymbolTable.generateKey(programNode), k -> createGlobalVariableIndex(programNode));
+    return VariableUsageUtils.findVariablesForUsage(globalIndex, usageNodes);
+  }
+
+  private VariableNameIndex createGlobalVariableIndex(ProgramNode programNode) {
     Multimap<String, VariableNode> globals = ArrayListMultimap.create();
     getMapOfGlobalVariables(programNode)
         .values()
         .forEach(variableNode -> globals.put(variableNode.getName(), variableNode));
-    return VariableUsageUtils.findVariablesForUsage(globals, usageNodes);
+    return new VariableNameIndex(globals);
   }
 
   private Map<String, VariableNode> getMapOfGlobalVariables(ProgramNode programNode) {
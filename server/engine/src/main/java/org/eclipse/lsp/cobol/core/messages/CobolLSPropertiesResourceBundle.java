@@ -19,6 +19,7 @@ import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.IOUtils;
 import org.eclipse.lsp.cobol.common.DialectRegistryItem;
+import org.eclipse.lsp.cobol.core.engine.ResourceTables;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -45,7 +46,7 @@ public class CobolLSPropertiesResourceBundle extends ResourceBundle {
     this.baseName = basename;
     this.properties = new Properties();
     this.locale = locale;
-    setParent(ResourceBundle.getBundle(basename, locale));
+    setParent(ResourceTables.getMessages(basename, locale));
   }
 
   /**
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.core.model;
+
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Multimap;
+import java.util.*;
+import org.eclipse.lsp.cobol.common.model.NodeType;
+import org.eclipse.lsp.cobol.common.model.tree.variable.VariableNode;
+
+/**
+ * Index of the data items of a program by their upper-cased names. Every entry keeps the chain of
+ * its parent data items, so qualified references are matched without walking the tree, and a name
+ * that is not defined costs one hash lookup instead of a scan of all the definitions. The
+ * definitions sharing a name are further grouped by the names of their parents when the name is
+ * first used with a qualifier, so a qualified reference only checks the items under that qualifier.
+ */
+public class VariableNameIndex {
+  private final Multimap<String, VariableNode> definedVariables;
+  private final Map<String, List<Entry>> entries = new HashMap<>();
+  private final Map<VariableNode, Entry> entriesByNode = new IdentityHashMap<>();
+  private final Map<String, Multimap<String, VariableNode>> definitionsByQualifier = new HashMap<>();
+
+  /**
+   * Index the given definitions together with all the data items nested in them
+   *
+   * @param definedVariables the map with all defined variables by upper-cased names
+   */
+  public VariableNameIndex(Multimap<String, VariableNode> definedVariables) {
+    this.definedVariables = definedVariables;
+    for (VariableNode variable : definedVariables.values()) {
+      if (!entriesByNode.containsKey(variable)) {
+        variable
+            .getDepthFirstStream()
+            .filter(VariableNode.class::isInstance)
+            .map(VariableNode.class::cast)
+            .filter(node -> !entriesByNode.containsKey(node))
+            .forEach(this::add);
+      }
+    }
+  }
+
+  /**
+   * Find the definitions with the given name. If there is no registered definition with exactly
+   * this name, the first nested data item with it is registered and returned.
+   *
+   * @param name the data name as it is used
+   * @return the definitions
+   */
+  Collection<VariableNode> find(String name) {
+    Collection<VariableNode> registered = definedVariables.get(name);
+    if (!registered.isEmpty()) {
+      return registered;
+    }
+    for (Entry entry : entries.getOrDefault(name.toUpperCase(Locale.ROOT), Collections.emptyList())) {
+      if (entry.variable.getName().equals(name)) {
+        registered.add(entry.variable);
+        break;
+      }
+    }
+    return registered;
+  }
+
+  /**
+   * Find the definitions with the given name that have a parent with the qualifier name
+   *
+   * @param name the data name as it is used
+   * @param qualifier the name of the first qualifier of the data name
+   * @return the definitions
+   */
+  Collection<VariableNode> find(String name, String qualifier) {
+    Collection<VariableNode> definitions = find(name);
+    if (definitions.size() < 2) {
+      return definitions;
+    }
+    return definitionsByQualifier.computeIfAbsent(name, k -> groupByParentNames(definitions)).get(qualifier);
+  }
+
+  /**
+   * Returns the parent data items of the given one, the nearest first
+   *
+   * @param variable the indexed data item
+   * @return the parent chain
+   */
+  List<VariableNode> getParents(VariableNode variable) {
+    Entry entry = entriesByNode.get(variable);
+    return entry == null ? collectParents(variable) : entry.getParents();
+  }
+
+  /**
+   * Returns the number of indexed data items
+   *
+   * @return the number of data items
+   */
+  public int size() {
+    return entriesByNode.size();
+  }
+
+  private void add(VariableNode variable) {
+    Entry entry = new Entry(variable);
+    entriesByNode.put(variable, entry);
+    entries.computeIfAbsent(variable.getName().toUpperCase(Locale.ROOT), k -> new ArrayList<>()).add(entry);
+  }
+
+  private Multimap<String, VariableNode> groupByParentNames(Collection<VariableNode> definitions) {
+    Multimap<String, VariableNode> result = LinkedHashMultimap.create();
+    for (VariableNode definition : definitions) {
+      for (VariableNode parent : getParents(definition)) {
+        result.put(parent.getName(), definition);
+      }
+    }
+    return result;
+  }
+
+  private static List<VariableNode> collectParents(VariableNode variable) {
+    List<VariableNode> parents = new ArrayList<>();
+    Optional<VariableNode> parent = nearestParent(variable);
+    while (parent.isPresent()) {
+      parents.add(parent.get());
+      parent = nearestParent(parent.get());
+    }
+    return parents;
+  }
+
+  private static Optional<VariableNode> nearestParent(VariableNode variable) {
+    return variable.getNearestParentByType(NodeType.VARIABLE).map(VariableNode.class::cast);
+  }
+
+  /** Indexed data item with the lazily collected chain of its parents */
+  private static final class Entry {
+    private final VariableNode variable;
+    private List<VariableNode> parents;
+
+    private Entry(VariableNode variable) {
+      this.variable = variable;
+    }
+
+    private List<VariableNode> getParents() {
+      if (parents == null) {
+        parents = collectParents(variable);
+      }
+      return parents;
+    }
+  }
+}
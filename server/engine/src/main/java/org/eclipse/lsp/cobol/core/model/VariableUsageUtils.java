@@ -18,7 +18,6 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import lombok.experimental.UtilityClass;
-import org.eclipse.lsp.cobol.common.model.NodeType;
 import org.eclipse.lsp.cobol.common.model.tree.Node;
 import org.eclipse.lsp.cobol.common.model.tree.variable.VariableNameAndLocality;
 import org.eclipse.lsp.cobol.common.model.tree.variable.VariableNode;
@@ -44,12 +43,27 @@ public class VariableUsageUtils {
    */
   public static List<VariableNode> findVariablesForUsage(
       Multimap<String, VariableNode> definedVariables, List<VariableUsageNode> usageNodes) {
+    return findVariablesForUsage(new VariableNameIndex(definedVariables), usageNodes);
+  }
+
+  /**
+   * Return the list of variables matches the list of qualifiers
+   *
+   * @param index the name index of all defined variables
+   * @param usageNodes usage nodes consists of variable name and parents
+   * @return the list of all matched variables
+   */
+  public static List<VariableNode> findVariablesForUsage(
+      VariableNameIndex index, List<VariableUsageNode> usageNodes) {
+    String name = usageNodes.get(0).getName();
+    Collection<VariableNode> candidates =
+        usageNodes.size() == 1 ? index.find(name) : index.find(name, usageNodes.get(1).getName());
     Map<VariableNode, Integer> variableToStepCountsToMatchParentsMap =
-        findDefinedVariable(usageNodes.get(0).getName(), definedVariables).stream()
+        candidates.stream()
             .map(
                 it ->
                     mapVariableToStepCountsToMatchParents(
-                        it, usageNodes.subList(1, usageNodes.size())))
+                        index, it, usageNodes.subList(1, usageNodes.size())))
             .reduce(
                 (firstMap, secondMap) -> {
                   firstMap.putAll(secondMap);
@@ -68,45 +82,20 @@ public class VariableUsageUtils {
         : exactHierarchyMatchedVariables;
   }
 
-  private Collection<VariableNode> findDefinedVariable(String name, Multimap<String, VariableNode> definedVariables) {
-    Collection<VariableNode> foundVariable =  definedVariables.get(name);
-    if (foundVariable.size() > 0) {
-      return foundVariable;
-    }
-    Optional<VariableNode> node = definedVariables.values()
-            .stream().flatMap(Node::getDepthFirstStream)
-            .filter(VariableNode.class::isInstance)
-            .map(VariableNode.class::cast)
-            .filter(var -> var.getName().equals(name))
-            .findFirst();
-    if (node.isPresent()) {
-      foundVariable.add(node.get());
-    }
-    return foundVariable;
-  }
-
   private static Map<VariableNode, Integer> mapVariableToStepCountsToMatchParents(
-      VariableNode variable, List<VariableUsageNode> parents) {
-    VariableNode referredVariable = variable;
+      VariableNameIndex index, VariableNode variable, List<VariableUsageNode> parents) {
+    List<VariableNode> parentVariables = parents.isEmpty() ? Collections.emptyList() : index.getParents(variable);
     int count = 0;
     for (VariableUsageNode parent : parents) {
       String parentName = parent.getName();
       do {
-
-        variable = getNearestParentVariable(variable);
-        if (variable == null) {
+        if (count == parentVariables.size()) {
           return new HashMap<>();
         }
         count++;
-      } while (!variable.getName().equals(parentName));
+      } while (!parentVariables.get(count - 1).getName().equals(parentName));
     }
-    return Maps.newHashMap(Collections.singletonMap(referredVariable, count));
-  }
-
-  private static VariableNode getNearestParentVariable(VariableNode variable) {
-    return variable.getNearestParentByType(NodeType.VARIABLE)
-            .map(VariableNode.class::cast)
-            .orElse(null);
+    return Maps.newHashMap(Collections.singletonMap(variable, count));
   }
 
   /**
@@ -78,6 +78,8 @@ public class TransformTreeStage implements Stage<AnalysisContext, ProcessingResu
     processSyntaxTree(context.getConfig(), symbolAccumulatorService, context, rootNode);
 
     symbolsRepository.updateSymbols(symbolAccumulatorService.getProgramSymbols());
+    // The tree is complete, from now on it is read by the LSP handlers
+    rootNode.freeze();
 
     return new StageResult<>(new ProcessingResult(symbolAccumulatorService.getProgramSymbols(), rootNode));
   }
@@ -140,8 +142,9 @@ public class TransformTreeStage implements Stage<AnalysisContext, ProcessingResu
 
   private void shapeSectionsAndParagraphs(Node parent) {
     LinkedList<Node> stack = new LinkedList<>();
-    for (Node node : parent.getChildren()) {
-      parent.removeChild(node);
+    List<Node> children = new ArrayList<>(parent.getChildren());
+    parent.getChildren().clear();
+    for (Node node : children) {
       if (!node.getChildren().isEmpty()) {
           shapeSectionsAndParagraphs(node);
       }
@@ -28,6 +28,16 @@ import org.eclipse.lsp.cobol.common.utils.ImplicitCodeUtils;
  */
 @UtilityClass
 public class CICSBulkImplicitVariablesGenerator {
+    private static final VariableNode SHARED_NODE = generate().markShared();
+
+    /**
+     * Provides DFHEIBLK data structure built once and shared by all the programs. The nodes must not
+     * be modified, their usages are kept in the programs that register them.
+     * @return shared DFHEIBLK data structure
+     */
+    public VariableNode getSharedNode() {
+        return SHARED_NODE;
+    }
 
     /**
      * Generates DFHEIBLK data structure
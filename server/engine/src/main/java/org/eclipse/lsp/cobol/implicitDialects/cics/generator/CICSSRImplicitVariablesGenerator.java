@@ -14,6 +14,7 @@
  */
 package org.eclipse.lsp.cobol.implicitDialects.cics.generator;
 
+import com.google.common.collect.ImmutableList;
 import lombok.experimental.UtilityClass;
 import org.eclipse.lsp.cobol.common.model.Locality;
 import org.eclipse.lsp.cobol.common.model.tree.variable.ElementaryItemNode;
@@ -29,6 +30,10 @@ import java.util.List;
  */
 @UtilityClass
 public class CICSSRImplicitVariablesGenerator {
+    private static final List<VariableNode> SHARED_NODES = generate().stream()
+            .map(VariableNode::markShared)
+            .collect(ImmutableList.toImmutableList());
+
     /*  CICS Translate introduced variables
       01   dfhb0040  comp-5 pic s9(8) is global.
       01   dfhb0041  comp-5 pic s9(8) is global.
@@ -259,4 +264,13 @@ public class CICSSRImplicitVariablesGenerator {
         addCicsImplicitVariable(result, locality);
         return result;
     }
+
+    /**
+     * Provides CICS special registers built once and shared by all the programs. The nodes must not
+     * be modified, their usages are kept in the programs that register them.
+     * @return shared CICS special registers data structure
+     */
+    public static List<VariableNode> getSharedNodes() {
+        return SHARED_NODES;
+    }
 }
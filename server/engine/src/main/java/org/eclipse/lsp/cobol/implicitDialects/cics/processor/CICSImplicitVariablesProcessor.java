@@ -41,7 +41,7 @@ public class CICSImplicitVariablesProcessor implements Processor<SectionNode> {
                       new RuntimeException(
                           "Program for section " + sectionNode.getSectionType() + " not found"));
         registerVariable(
-            variableAccumulator, programNode, CICSBulkImplicitVariablesGenerator.generate());
+            variableAccumulator, programNode, CICSBulkImplicitVariablesGenerator.getSharedNode());
     }
 
     if (sectionNode.getSectionType() == SectionType.WORKING_STORAGE) {
@@ -54,7 +54,7 @@ public class CICSImplicitVariablesProcessor implements Processor<SectionNode> {
                       new RuntimeException(
                           "Program for section " + sectionNode.getSectionType() + " not found"));
         registerVariables(
-            variableAccumulator, programNode, CICSSRImplicitVariablesGenerator.generate());
+            variableAccumulator, programNode, CICSSRImplicitVariablesGenerator.getSharedNodes());
     }
   }
 
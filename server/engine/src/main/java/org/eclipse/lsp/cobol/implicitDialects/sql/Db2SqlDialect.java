@@ -36,8 +36,8 @@ import org.eclipse.lsp.cobol.common.model.tree.SectionNode;
 import org.eclipse.lsp.cobol.common.processor.ProcessingPhase;
 import org.eclipse.lsp.cobol.common.processor.ProcessorDescription;
 import org.eclipse.lsp.cobol.common.utils.ImplicitCodeUtils;
-import org.eclipse.lsp.cobol.common.utils.KeywordsUtils;
 import org.eclipse.lsp.cobol.common.utils.PredefinedCopybooks;
+import org.eclipse.lsp.cobol.core.engine.ResourceTables;
 import org.eclipse.lsp.cobol.implicitDialects.sql.node.Db2DataAndProcedureDivisionNode;
 import org.eclipse.lsp.cobol.implicitDialects.sql.node.Db2DeclareVariableNode;
 import org.eclipse.lsp.cobol.implicitDialects.sql.node.Db2ProcedureDivisionNode;
@@ -65,7 +65,7 @@ public class Db2SqlDialect implements CobolDialect {
 
   @Override
   public Map<String, String> getKeywords() {
-    return KeywordsUtils.getKeywords(Db2SqlDialect.class.getClassLoader(), "LanguageKeywords_sql.txt");
+    return ResourceTables.getKeywords(ResourceTables.SQL_KEYWORDS);
   }
 
   @Override
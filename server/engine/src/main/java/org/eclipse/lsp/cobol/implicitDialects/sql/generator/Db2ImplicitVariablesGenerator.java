@@ -14,6 +14,8 @@
  */
 package org.eclipse.lsp.cobol.implicitDialects.sql.generator;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import lombok.experimental.UtilityClass;
 import org.eclipse.lsp.cobol.common.model.Locality;
 import org.eclipse.lsp.cobol.common.model.tree.variable.*;
@@ -32,6 +34,40 @@ public class Db2ImplicitVariablesGenerator {
   static final Locality LOCALITY = Locality.builder()
           .uri(ImplicitCodeUtils.createFullUrl("implicit-code-SQLCA_DB2"))
           .build();
+  private static final List<VariableNode> SHARED_DB2_NODES = share(generateDb2Nodes(ImmutableMap.of()));
+  private static final List<VariableNode> SHARED_DB2_STDSQL_NODES =
+      share(generateDb2Nodes(ImmutableMap.of(CompilerDirectiveName.STDSQL, ImmutableList.of("YES"))));
+  private static final List<VariableNode> SHARED_DATACOM_NODES = share(generateDatacomNodes());
+
+  /**
+   * Provides SQLCA data structure for DB2 built once and shared by all the programs. The nodes must
+   * not be modified, their usages are kept in the programs that register them.
+   *
+   * @param compilerDirectiveMap map of compiler directives
+   * @return shared SQLCA data structure
+   */
+  public List<VariableNode> getSharedDb2Nodes(Map<CompilerDirectiveName, List<String>> compilerDirectiveMap) {
+    return isStdSql(compilerDirectiveMap) ? SHARED_DB2_STDSQL_NODES : SHARED_DB2_NODES;
+  }
+
+  /**
+   * Provides SQLCA data structure for DATACOM built once and shared by all the programs. The nodes
+   * must not be modified, their usages are kept in the programs that register them.
+   *
+   * @return shared SQLCA data structure
+   */
+  public List<VariableNode> getSharedDatacomNodes() {
+    return SHARED_DATACOM_NODES;
+  }
+
+  private static List<VariableNode> share(List<VariableNode> nodes) {
+    return nodes.stream().map(VariableNode::markShared).collect(ImmutableList.toImmutableList());
+  }
+
+  private static boolean isStdSql(Map<CompilerDirectiveName, List<String>> compilerDirectiveMap) {
+    return compilerDirectiveMap.get(CompilerDirectiveName.STDSQL) != null
+        && compilerDirectiveMap.get(CompilerDirectiveName.STDSQL).get(0).equalsIgnoreCase("YES");
+  }
 
   /**
    * Generates SQLCA data structure for DB2
@@ -69,8 +105,7 @@ public class Db2ImplicitVariablesGenerator {
     VariableNode variable = new GroupItemNode(LOCALITY, 1, "SQLCA", false, false, UsageFormat.UNDEFINED);
     addElement(variable, 5, "SQLCAID", "X(8)");
     addElement(variable, 5, "SQLCABC", "S9(9)", UsageFormat.COMP_5);
-    if (compilerDirectiveMap.get(CompilerDirectiveName.STDSQL) != null
-            && compilerDirectiveMap.get(CompilerDirectiveName.STDSQL).get(0).equalsIgnoreCase("YES")) {
+    if (isStdSql(compilerDirectiveMap)) {
       addElement(variable, 5, "SQLCADE", "S9(9)", UsageFormat.COMP_5);
     } else {
       addElement(variable, 5, "SQLCODE", "S9(9)", UsageFormat.COMP_5);
@@ -98,8 +133,7 @@ public class Db2ImplicitVariablesGenerator {
     addElement(sqlext, 10, "SQLWARN8", "X");
     addElement(sqlext, 10, "SQLWARN9", "X");
     addElement(sqlext, 10, "SQLWARNA", "X");
-    if (compilerDirectiveMap.get(CompilerDirectiveName.STDSQL) != null
-            && compilerDirectiveMap.get(CompilerDirectiveName.STDSQL).get(0).equalsIgnoreCase("YES")) {
+    if (isStdSql(compilerDirectiveMap)) {
       addElement(sqlext, 10, "SQLSTAT", "X(5)");
     } else {
       addElement(sqlext, 10, "SQLSTATE", "X(5)");
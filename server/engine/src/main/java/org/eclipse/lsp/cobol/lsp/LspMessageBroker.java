@@ -16,7 +16,9 @@ package org.eclipse.lsp.cobol.lsp;
 
 import com.google.inject.Singleton;
 import java.util.concurrent.*;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.lsp.cobol.common.benchmark.AnalysisEvent;
 
 /**
  * Queue LSP messages.
@@ -25,7 +27,7 @@ import lombok.extern.slf4j.Slf4j;
 @Singleton
 public class LspMessageBroker {
   public static final LspNotification POISON_PILL = () -> {};
-  private final BlockingDeque<LspEvent> eventQueue = new LinkedBlockingDeque<>();
+  private final BlockingDeque<QueuedEvent> eventQueue = new LinkedBlockingDeque<>();
 
 
   /**
@@ -42,7 +44,7 @@ public class LspMessageBroker {
    * @return queue size
    */
   public int queueSizeForType(Class<?> clazz) {
-      return (int) eventQueue.stream().filter(next -> next.getClass().equals(clazz)).count();
+      return (int) eventQueue.stream().filter(next -> next.getEvent().getClass().equals(clazz)).count();
   }
 
   /**
@@ -53,7 +55,7 @@ public class LspMessageBroker {
    */
   public <Q> void putBack(LspQuery<Q> nextEven) throws InterruptedException {
     LOG.debug("putBack: " + nextEven);
-    if (!eventQueue.offer(nextEven)) {
+    if (!offer(nextEven)) {
       LOG.warn("Event " + nextEven + " dropped");
     }
     // save the CPU
@@ -67,7 +69,9 @@ public class LspMessageBroker {
    * @throws InterruptedException
    */
   public LspEvent take() throws InterruptedException {
-    return eventQueue.take();
+    QueuedEvent queued = eventQueue.take();
+    queued.getQueueing().end("taken");
+    return queued.getEvent();
   }
 
 
@@ -79,7 +83,7 @@ public class LspMessageBroker {
    * @return future object for the event
    */
   public <R> CompletableFuture<R> query(LspQuery<R> event) {
-      if (!eventQueue.offer(event)) {
+      if (!offer(event)) {
         LOG.warn("Event " + event + " skipped");
       }
     return event.getResult();
@@ -91,7 +95,7 @@ public class LspMessageBroker {
    * @param event the event
    */
   public void notify(LspNotification event) {
-      if (!eventQueue.offer(event)) {
+      if (!offer(event)) {
         LOG.warn("Event " + event + " skipped");
       }
   }
@@ -102,6 +106,18 @@ public class LspMessageBroker {
    * @throws InterruptedException can be interrupted
    */
   public void stop() throws InterruptedException {
-    eventQueue.put(POISON_PILL);
+    eventQueue.put(new QueuedEvent(POISON_PILL, AnalysisEvent.begin(AnalysisEvent.Type.MESSAGE_QUEUE, "stop", null)));
+  }
+
+  private boolean offer(LspEvent event) {
+    AnalysisEvent queueing = AnalysisEvent.begin(AnalysisEvent.Type.MESSAGE_QUEUE, event.getClass().getSimpleName(), null);
+    return eventQueue.offer(new QueuedEvent(event, queueing));
+  }
+
+  /** The message in the queue together with the event that measures its time in the queue */
+  @Value
+  private static class QueuedEvent {
+    LspEvent event;
+    AnalysisEvent queueing;
   }
 }
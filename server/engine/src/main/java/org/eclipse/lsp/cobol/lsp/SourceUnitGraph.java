@@ -33,6 +33,7 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.lsp.cobol.common.file.WorkspaceFileService;
+import org.eclipse.lsp.cobol.common.model.NodeType;
 import org.eclipse.lsp.cobol.common.model.tree.CopyNode;
 import org.eclipse.lsp.cobol.common.utils.ImplicitCodeUtils;
 import org.eclipse.lsp.cobol.common.utils.RangeUtils;
@@ -109,8 +110,7 @@ public class SourceUnitGraph implements AnalysisStateListener {
         model
             .getAnalysisResult()
             .getRootNode()
-            .getDepthFirstStream()
-            .filter(CopyNode.class::isInstance)
+            .getDepthFirstStream(NodeType.COPY)
             .map(CopyNode.class::cast)
             .collect(Collectors.toList());
     List<NodeV> references = new ArrayList<>();
@@ -267,6 +267,17 @@ public class AsyncAnalysisService implements AnalysisStateNotifier {
     }
   }
 
+  /**
+   * Stop code analysis of all the documents reported under the given progress token.
+   *
+   * @param token progress token
+   */
+  public void cancelProgress(String token) throws InterruptedException {
+    for (String uri : communications.getUrisInProgress(token)) {
+      cancelAnalysis(uri);
+    }
+  }
+
   /**
    * Stop code analysis.
    *
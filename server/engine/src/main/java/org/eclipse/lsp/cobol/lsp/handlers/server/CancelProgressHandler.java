@@ -27,11 +27,11 @@ public class CancelProgressHandler {
   }
 
   /**
-   * Cancel analysis for the passed uri
-   * @param uri
+   * Cancel analysis for the passed progress token
+   * @param uri progress token, the uri of the document that started the progress
    * @throws InterruptedException
    */
   public void cancel(String uri) throws InterruptedException {
-    asyncAnalysisService.cancelAnalysis(uri);
+    asyncAnalysisService.cancelProgress(uri);
   }
 }
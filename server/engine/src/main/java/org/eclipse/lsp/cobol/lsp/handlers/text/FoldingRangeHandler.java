@@ -19,8 +19,8 @@ import com.google.inject.Inject;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
-import org.eclipse.lsp.cobol.common.model.tree.Node;
 import org.eclipse.lsp.cobol.lsp.LspEventCancelCondition;
 import org.eclipse.lsp.cobol.lsp.LspEventDependency;
 import org.eclipse.lsp.cobol.lsp.LspQuery;
@@ -28,7 +28,6 @@ import org.eclipse.lsp.cobol.lsp.analysis.AsyncAnalysisService;
 import org.eclipse.lsp.cobol.lsp.events.queries.FoldingQuery;
 import org.eclipse.lsp.cobol.service.AnalysisService;
 import org.eclipse.lsp.cobol.service.DocumentModelService;
-import org.eclipse.lsp.cobol.service.DocumentServiceHelper;
 import org.eclipse.lsp4j.FoldingRange;
 import org.eclipse.lsp4j.FoldingRangeRequestParams;
 
@@ -57,12 +56,11 @@ public class FoldingRangeHandler {
    */
   public List<FoldingRange> foldingRange(FoldingRangeRequestParams params) {
     String uri = params.getTextDocument().getUri();
-    Node rootNode =
+    Set<FoldingRange> foldingRanges =
             documentService.isDocumentSynced(uri)
-                    ? documentService.get(uri).getAnalysisResult().getRootNode()
+                    ? documentService.get(uri).getFoldingRanges()
                     : null;
-    return rootNode == null ? Collections.emptyList()
-            : new ArrayList<>(DocumentServiceHelper.getFoldingRange(rootNode, uri));
+    return foldingRanges == null ? Collections.emptyList() : new ArrayList<>(foldingRanges);
   }
 
   /**
@@ -14,16 +14,17 @@
  */
 package org.eclipse.lsp.cobol.service;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.lsp.cobol.common.AnalysisResult;
 import org.eclipse.lsp4j.DocumentSymbol;
+import org.eclipse.lsp4j.FoldingRange;
 import org.eclipse.lsp4j.Position;
 
 /**
@@ -36,14 +37,21 @@ import org.eclipse.lsp4j.Position;
 @ToString
 public class CobolDocumentModel {
   private static final String DELIMITER = "[ .\\[\\]()<>,*\"']+";
-  private final List<Line> lines = new CopyOnWriteArrayList<>();
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  private volatile LineTable lineTable = LineTable.EMPTY;
   private String text;
   private final String uri;
   @Setter private volatile boolean opened = true;
   @Setter private String languageId;
   private volatile AnalysisResult analysisResult;
   private volatile AnalysisResult lastAnalysisResult;
-  @Setter private volatile List<DocumentSymbol> outlineResult;
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  private volatile Supplier<List<DocumentSymbol>> outlineResult;
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  private volatile Supplier<Set<FoldingRange>> foldingRanges;
 
   public CobolDocumentModel(String uri, String text, AnalysisResult analysisResult) {
     this.uri = uri;
@@ -63,8 +71,100 @@ public class CobolDocumentModel {
     return (analysisResult != null && outlineResult != null);
   }
 
+  /**
+   * Returns the outline of the document. It is computed on the first call after the analysis.
+   *
+   * @return the outline or null if the document is not analyzed yet
+   */
+  public List<DocumentSymbol> getOutlineResult() {
+    Supplier<List<DocumentSymbol>> outline = outlineResult;
+    return outline == null ? null : outline.get();
+  }
+
+  /**
+   * Set the outline of the document.
+   *
+   * @param outlineResult the outline or null to mark the outline as outdated
+   */
+  public void setOutlineResult(List<DocumentSymbol> outlineResult) {
+    this.outlineResult = outlineResult == null ? null : () -> outlineResult;
+  }
+
+  /**
+   * Set the computation of the outline. The supplier is expected to memoize the result.
+   *
+   * @param outlineResult the outline supplier
+   */
+  public void setOutlineSupplier(Supplier<List<DocumentSymbol>> outlineResult) {
+    this.outlineResult = outlineResult;
+  }
+
+  /**
+   * Returns the folding ranges of the document. They are computed on the first call after the
+   * analysis.
+   *
+   * @return the folding ranges or null if they are not available
+   */
+  public Set<FoldingRange> getFoldingRanges() {
+    Supplier<Set<FoldingRange>> ranges = foldingRanges;
+    return ranges == null ? null : ranges.get();
+  }
+
+  /**
+   * Set the computation of the folding ranges. The supplier is expected to memoize the result.
+   *
+   * @param foldingRanges the folding ranges supplier
+   */
+  public void setFoldingRangesSupplier(Supplier<Set<FoldingRange>> foldingRanges) {
+    this.foldingRanges = foldingRanges;
+  }
+
+  /**
+   * Returns the lines of the document text. The list is immutable, it is replaced on each update.
+   *
+   * @return the list of document lines
+   */
+  public List<Line> getLines() {
+    return lineTable.lineList;
+  }
+
   Line getLine(int number) {
-    return lines.stream().filter(line -> line.getNumber() == number).findFirst().orElse(null);
+    Line[] lines = lineTable.lines;
+    return number >= 0 && number < lines.length ? lines[number] : null;
+  }
+
+  /**
+   * Convert a position to the offset in the document text. The character is not checked against
+   * the length of the line.
+   *
+   * @param position - the position object containing line and char number.
+   * @return the offset in the text or -1 if there is no such line
+   */
+  public int getOffset(Position position) {
+    LineTable table = lineTable;
+    if (position.getLine() < 0 || position.getLine() >= table.lines.length) {
+      return -1;
+    }
+    return table.lineStarts[position.getLine()] + position.getCharacter();
+  }
+
+  /**
+   * Convert an offset in the document text to a position.
+   *
+   * @param offset - the offset in the text
+   * @return the position of the offset or null if the offset is out of the text
+   */
+  public Position getPosition(int offset) {
+    LineTable table = lineTable;
+    if (offset < 0 || table.lines.length == 0
+        || offset > table.lineStarts[table.lines.length - 1] + table.lines[table.lines.length - 1].getText().length()) {
+      return null;
+    }
+    int line = Arrays.binarySearch(table.lineStarts, 0, table.lines.length, offset);
+    if (line < 0) {
+      line = -line - 2;
+    }
+    return new Position(line, offset - table.lineStarts[line]);
   }
 
   /**
@@ -113,19 +213,35 @@ public class CobolDocumentModel {
     return retrieveToken(position, route);
   }
 
+  /**
+   * Split the text into lines. The line terminators are the same as in {@link
+   * java.io.BufferedReader#readLine()}: "\n", "\r" or "\r\n", and there is no empty line after the
+   * last terminator.
+   */
   private void parse(String text) {
-    lines.clear();
-    try (BufferedReader reader = new BufferedReader(new StringReader(text))) {
-      String lineText;
-      int lineNumber = 0;
-
-      while ((lineText = reader.readLine()) != null) {
-        lines.add(new Line(lineNumber, lineText));
-        lineNumber++;
+    Line[] lines = new Line[16];
+    int[] lineStarts = new int[16];
+    int count = 0;
+    int start = 0;
+    int length = text.length();
+    while (start < length) {
+      int end = start;
+      while (end < length && text.charAt(end) != '\n' && text.charAt(end) != '\r') {
+        end++;
+      }
+      if (count == lines.length) {
+        lines = Arrays.copyOf(lines, count * 2);
+        lineStarts = Arrays.copyOf(lineStarts, count * 2);
       }
-    } catch (IOException e) {
-      LOG.error(e.getMessage());
+      lines[count] = new Line(count, text.substring(start, end));
+      lineStarts[count] = start;
+      count++;
+      if (end + 1 < length && text.charAt(end) == '\r' && text.charAt(end + 1) == '\n') {
+        end++;
+      }
+      start = end + 1;
     }
+    lineTable = new LineTable(Arrays.copyOf(lines, count), Arrays.copyOf(lineStarts, count));
   }
 
   private String retrieveToken(Position position, Line route) {
@@ -166,6 +282,21 @@ public class CobolDocumentModel {
         && DELIMITER.contains(String.valueOf(route.getText().charAt(position.getCharacter() - 1)));
   }
 
+  /** The document lines with the offsets of their first characters in the text */
+  private static final class LineTable {
+    private static final LineTable EMPTY = new LineTable(new Line[0], new int[0]);
+
+    private final Line[] lines;
+    private final int[] lineStarts;
+    private final List<Line> lineList;
+
+    private LineTable(Line[] lines, int[] lineStarts) {
+      this.lines = lines;
+      this.lineStarts = lineStarts;
+      this.lineList = Collections.unmodifiableList(Arrays.asList(lines));
+    }
+  }
+
   /** A value object to store program lines */
   @Value
   public static class Line {
@@ -19,6 +19,7 @@ import com.google.inject.Singleton;
 import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import lombok.Getter;
 import lombok.Synchronized;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.lsp.cobol.common.AnalysisResult;
@@ -33,6 +34,10 @@ import org.eclipse.lsp4j.Diagnostic;
 public class DocumentModelService {
   private final Map<String, CobolDocumentModel> docs = new HashMap<>();
   private final Map<String, List<Diagnostic>> diagnosticRepo = Collections.synchronizedMap(new HashMap<>());
+  @Getter
+  private final LazyResultStatistics outlineStatistics = new LazyResultStatistics("Outline");
+  @Getter
+  private final LazyResultStatistics foldingRangeStatistics = new LazyResultStatistics("Folding ranges");
 
   /**
    * Mark the document as opened and stores document text
@@ -77,8 +82,16 @@ public class DocumentModelService {
     updateDiagnosticRepo(uri, analysisResult.getDiagnostics());
     CobolDocumentModel updatedModel = new CobolDocumentModel(uri, text, analysisResult);
     updatedModel.setLanguageId(document.getLanguageId());
-    updatedModel.setOutlineResult(BuildOutlineTreeFromSyntaxTree.convert(analysisResult.getRootNode(), uri));
+    // The outline and the folding ranges are needed for the opened documents only, so they are
+    // computed on the first request and dropped together with the analysis result
+    updatedModel.setOutlineSupplier(outlineStatistics.memoize(
+        () -> BuildOutlineTreeFromSyntaxTree.convert(analysisResult.getRootNode(), uri)));
+    updatedModel.setFoldingRangesSupplier(foldingRangeStatistics.memoize(
+        () -> analysisResult.getRootNode() == null
+            ? Collections.emptySet()
+            : DocumentServiceHelper.getFoldingRange(analysisResult.getRootNode(), uri)));
     docs.put(uri, updatedModel);
+    LOG.debug("{}; {}", outlineStatistics, foldingRangeStatistics);
   }
 
   /**
@@ -16,7 +16,6 @@ package org.eclipse.lsp.cobol.service;
 
 import static java.util.stream.Collectors.toList;
 import static org.eclipse.lsp.cobol.common.model.NodeType.*;
-import static org.eclipse.lsp.cobol.common.model.tree.Node.hasType;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
@@ -154,8 +153,7 @@ public class DocumentServiceHelper {
   public List<String> extractCopybookUris(AnalysisResult result) {
     return result
         .getRootNode()
-        .getDepthFirstStream()
-        .filter(hasType(COPY))
+        .getDepthFirstStream(COPY)
         .map(CopyNode.class::cast)
         .map(CopyNode::getUri)
         .filter(def -> !StringUtils.isEmpty(def))
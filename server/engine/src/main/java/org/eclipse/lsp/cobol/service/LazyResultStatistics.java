@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Lazily computed results of the document analysis, like the outline or the folding ranges. Counts
+ * how many times the results were computed and how many times they were served from the cache.
+ */
+public class LazyResultStatistics {
+  private final String name;
+  private final AtomicLong computed = new AtomicLong();
+  private final AtomicLong cached = new AtomicLong();
+
+  public LazyResultStatistics(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Wraps the computation into a supplier that computes the value on the first call and returns
+   * the same value on the following calls
+   *
+   * @param computation the computation of the value
+   * @param <T> the type of the value
+   * @return the memoizing supplier
+   */
+  public <T> Supplier<T> memoize(Supplier<T> computation) {
+    return new Supplier<T>() {
+      private volatile boolean done;
+      private T value;
+
+      @Override
+      public T get() {
+        if (!done) {
+          synchronized (this) {
+            if (!done) {
+              value = computation.get();
+              done = true;
+              computed.incrementAndGet();
+              return value;
+            }
+          }
+        }
+        cached.incrementAndGet();
+        return value;
+      }
+    };
+  }
+
+  /**
+   * Returns how many times the results were computed
+   *
+   * @return the number of computations
+   */
+  public long getComputed() {
+    return computed.get();
+  }
+
+  /**
+   * Returns how many times the results were served from the cache
+   *
+   * @return the number of cache hits
+   */
+  public long getCached() {
+    return cached.get();
+  }
+
+  @Override
+  public String toString() {
+    return name + ": computed " + computed.get() + ", cached " + cached.get();
+  }
+}
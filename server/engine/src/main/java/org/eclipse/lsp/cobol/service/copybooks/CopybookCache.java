@@ -22,6 +22,7 @@ import com.google.inject.name.Named;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -83,6 +84,15 @@ public class CopybookCache {
     return cache.get(copybookId, callable);
   }
 
+  /**
+   * Gets copybook model from cache without loading it
+   * @param copybookId copybook id
+   * @return the cached copybook model or empty if the copybook is not cached
+   */
+  public Optional<CopybookModel> getIfPresent(CopybookId copybookId) {
+    return Optional.ofNullable(cache.getIfPresent(copybookId));
+  }
+
   /**
    * Store copybook model to cache
    * @param copybookModel to store
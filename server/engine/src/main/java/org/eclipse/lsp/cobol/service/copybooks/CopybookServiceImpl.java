@@ -18,6 +18,8 @@ import static java.util.stream.Collectors.toList;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.CharMatcher;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.ExecutionError;
@@ -30,10 +32,12 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.lsp.cobol.common.CleanerPreprocessor;
 import org.eclipse.lsp.cobol.common.ResultWithErrors;
+import org.eclipse.lsp.cobol.common.benchmark.AnalysisEvent;
 import org.eclipse.lsp.cobol.common.copybook.*;
 import org.eclipse.lsp.cobol.common.error.SyntaxError;
 import org.eclipse.lsp.cobol.common.file.FileSystemService;
@@ -54,7 +58,10 @@ import org.eclipse.lsp.cobol.lsp.jrpc.CobolLanguageClient;
 public class CopybookServiceImpl implements CopybookService {
 
   private final Map<String, List<SyntaxError>> preprocessCopybookErrors = new ConcurrentHashMap<>();
-  private final Map<String, Set<CopybookModel>> copybookUsage = new ConcurrentHashMap<>();
+  // The usages of the least recently analysed documents are dropped, they are collected again on the next analysis
+  private static final int MAX_DOCUMENTS_WITH_USAGE = 1000;
+  private final Cache<String, Set<CopybookModel>> copybookUsage =
+      CacheBuilder.newBuilder().maximumSize(MAX_DOCUMENTS_WITH_USAGE).build();
   private final Provider<CobolLanguageClient> clientProvider;
   private final FileSystemService files;
   private static final String COBOL = "COBOL";
@@ -78,7 +85,7 @@ public class CopybookServiceImpl implements CopybookService {
     LOG.debug("Copybooks for downloading: {}", copybooksForDownloading);
     LOG.debug("Copybook cache: {}", copybookCache);
     LOG.debug("Cache invalidated");
-    copybookUsage.clear();
+    copybookUsage.invalidateAll();
     copybooksForDownloading.clear();
     if (onlyNonImplicit) {
       copybookCache.invalidateAllNonImplicit();
@@ -118,26 +125,37 @@ public class CopybookServiceImpl implements CopybookService {
           @NonNull String programDocumentUri,
           @NonNull String documentUri,
           CleanerPreprocessor preprocessor) {
+    AnalysisEvent event = AnalysisEvent.begin(AnalysisEvent.Type.COPYBOOK_RESOLVE, copybookName.getQualifiedName(), documentUri);
+    AtomicBoolean loaded = new AtomicBoolean();
+    String outcome = "failed";
     try {
       ThreadInterruptionUtil.checkThreadInterrupted();
 
-      CopybookModel copybookModel = getFromCache(programDocumentUri, copybookId, copybookName, preprocessor);
-      copybookUsage.computeIfAbsent(programDocumentUri, k -> new HashSet<>()).add(copybookModel);
+      CopybookModel copybookModel = getFromCache(programDocumentUri, copybookId, copybookName, preprocessor, loaded);
+      copybookUsage.asMap().computeIfAbsent(programDocumentUri, k -> ConcurrentHashMap.newKeySet()).add(copybookModel);
 
       List<SyntaxError> errors = Optional.ofNullable(copybookModel.getUri())
           .map(d -> preprocessCopybookErrors.getOrDefault(d, Collections.emptyList()))
           .orElse(Collections.emptyList());
 
+      outcome = loaded.get() ? "miss" : "hit";
+      if (copybookModel.getContent() != null) {
+        event.size(copybookModel.getContent().length());
+      }
       return new ResultWithErrors<>(copybookModel, errors);
     } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
       LOG.error("Can't resolve copybook '{}'.", copybookName, e);
       return new ResultWithErrors<>(new CopybookModel(copybookId, copybookName, null, null), Collections.emptyList());
+    } finally {
+      event.end(outcome);
     }
   }
 
   private CopybookModel getFromCache(String programDocumentUri, CopybookId copybookId,
-                                     CopybookName copybookName, CleanerPreprocessor preprocessor) throws ExecutionException {
+                                     CopybookName copybookName, CleanerPreprocessor preprocessor,
+                                     AtomicBoolean loaded) throws ExecutionException {
     return copybookCache.get(copybookId, () -> {
+      loaded.set(true);
       ThreadInterruptionUtil.checkThreadInterrupted();
       CopybookModel copybookModel = resolveSync(copybookName, programDocumentUri);
       if (preprocessor != null && copybookModel.getUri() != null) {
@@ -300,7 +318,12 @@ public class CopybookServiceImpl implements CopybookService {
    * @return Set of all the {@link CopybookModel} used by the passed document
    */
   public Set<CopybookModel> getCopybookUsage(String documentUri) {
-    return Collections.unmodifiableSet(copybookUsage.getOrDefault(documentUri, ImmutableSet.of()));
+    return Collections.unmodifiableSet(Optional.ofNullable(copybookUsage.getIfPresent(documentUri)).orElse(ImmutableSet.of()));
+  }
+
+  @Override
+  public void registerCopybookUsage(String documentUri, Collection<CopybookModel> copybooks) {
+    copybookUsage.asMap().computeIfAbsent(documentUri, k -> ConcurrentHashMap.newKeySet()).addAll(copybooks);
   }
 
   @VisibleForTesting
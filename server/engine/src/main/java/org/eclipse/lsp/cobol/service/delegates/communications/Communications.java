@@ -19,6 +19,7 @@ import org.eclipse.lsp4j.MessageType;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public interface Communications {
 
@@ -34,6 +35,8 @@ public interface Communications {
 
   void notifyProgressEnd(String uri);
 
+  Set<String> getUrisInProgress(String token);
+
   void registerExecuteCommandCapability(List<String> capabilities, String id);
 
   void unregisterExecuteCommandCapability(String id);
@@ -20,15 +20,22 @@ import static java.util.stream.Collectors.toList;
 import static org.eclipse.lsp4j.MessageType.Info;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import lombok.AccessLevel;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.lsp.cobol.common.file.FileSystemService;
 import org.eclipse.lsp.cobol.common.message.MessageService;
@@ -53,11 +60,38 @@ import org.eclipse.lsp4j.jsonrpc.messages.Either;
  * This class serves the communications between server and client. It also allows sending delayable
  * messages. Notice, that all the messages that are going to be sent from server to client should be
  * cleaned by removing line breaks to prevent incorrect parsing.
+ *
+ * <p>Analyses running at the same time share one progress token: the first document opens the
+ * progress, the following ones only update its percentage no more often than the {@link
+ * #PROGRESS_REPORT_INTERVAL_PROPERTY} interval, and the last one closes it. A report that falls
+ * into the interval is kept and sent when the interval passes, or before the progress ends if
+ * it is earlier, and the reported percentage never decreases.
  */
 @Slf4j
 public class ServerCommunications implements Communications {
 
-  private final Set<String> uriInProgress = Collections.synchronizedSet(new HashSet<>());
+  /** The system property to override the minimal interval between progress reports in milliseconds */
+  public static final String PROGRESS_REPORT_INTERVAL_PROPERTY = "progressReportInterval";
+  private static final long DEFAULT_PROGRESS_REPORT_INTERVAL = 500;
+  private static final ScheduledExecutorService PROGRESS_REPORT_EXECUTOR =
+          Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "Progress Report");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  // The number of the analyses in progress for each document, guarded by itself
+  private final Map<String, Integer> uriInProgress = new HashMap<>();
+  private String progressToken;
+  private int progressTotal;
+  private int progressDone;
+  private int lastPercentage;
+  private boolean reportPending;
+  private ScheduledFuture<?> pendingReport;
+  private long lastReportNanos;
+  @Setter(AccessLevel.PACKAGE)
+  private long minReportInterval =
+          Long.getLong(PROGRESS_REPORT_INTERVAL_PROPERTY, DEFAULT_PROGRESS_REPORT_INTERVAL);
   private final MessageService messageService;
   private final Provider<CobolLanguageClient> provider;
   private final FileSystemService files;
@@ -117,21 +151,32 @@ public class ServerCommunications implements Communications {
   }
 
 
+  /**
+   * Start a progress for the given document. If other documents are already being analyzed, the
+   * document joins their progress instead of creating a new one, and the client only receives a
+   * rate-limited percentage report. Each begin has to be followed by its own end, also when the
+   * same document is analyzed more than once at a time.
+   *
+   * @param uri - uri of the document that is going to be analyzed
+   */
   @Override
   public void notifyProgressBegin(String uri) {
     synchronized (uriInProgress) {
-      handleDanglingProgressNotifications(uri);
-      createProgressWindow(uri);
-      notifyWorkProgressBegin(uri);
-      uriInProgress.add(uri);
-      notifyWorkProgress(uri);
-    }
-  }
-
-  private void handleDanglingProgressNotifications(String uri) {
-    if (uriInProgress.contains(uri)) {
-      notifyProgressEnd(uri);
-      uriInProgress.remove(uri);
+      if (uriInProgress.isEmpty()) {
+        progressToken = uri;
+        progressTotal = 1;
+        progressDone = 0;
+        lastPercentage = 0;
+        reportPending = false;
+        createProgressWindow(uri);
+        notifyWorkProgressBegin(uri);
+        notifyWorkProgress(uri);
+        lastReportNanos = System.nanoTime();
+      } else {
+        progressTotal++;
+        notifyAggregatedProgress();
+      }
+      uriInProgress.merge(uri, 1, Integer::sum);
     }
   }
 
@@ -142,6 +187,48 @@ public class ServerCommunications implements Communications {
     getClient().notifyProgress(params);
   }
 
+  private void notifyAggregatedProgress() {
+    long wait = TimeUnit.MILLISECONDS.toNanos(minReportInterval) - (System.nanoTime() - lastReportNanos);
+    if (wait > 0) {
+      reportPending = true;
+      if (pendingReport == null) {
+        pendingReport = PROGRESS_REPORT_EXECUTOR.schedule(this::sendPendingProgress, wait, TimeUnit.NANOSECONDS);
+      }
+      return;
+    }
+    sendAggregatedProgress();
+  }
+
+  private void sendPendingProgress() {
+    synchronized (uriInProgress) {
+      pendingReport = null;
+      if (reportPending && progressToken != null) {
+        notifyAggregatedProgress();
+      }
+    }
+  }
+
+  private void sendAggregatedProgress() {
+    cancelPendingReport();
+    lastReportNanos = System.nanoTime();
+    reportPending = false;
+    lastPercentage = Math.max(lastPercentage, progressDone * 100 / progressTotal);
+    WorkDoneProgressReport workDoneProgressReport = new WorkDoneProgressReport();
+    workDoneProgressReport.setCancellable(true);
+    workDoneProgressReport.setPercentage(lastPercentage);
+    workDoneProgressReport.setMessage(messageService.getMessage(
+            "Communications.syntaxAnalysisProgressReport", progressDone, progressTotal));
+    getClient().notifyProgress(
+            new ProgressParams(Either.forLeft(progressToken), Either.forLeft(workDoneProgressReport)));
+  }
+
+  private void cancelPendingReport() {
+    if (pendingReport != null) {
+      pendingReport.cancel(false);
+      pendingReport = null;
+    }
+  }
+
   private void createProgressWindow(String uri) {
     getClient().createProgress(new WorkDoneProgressCreateParams(Either.forLeft(uri)));
   }
@@ -165,15 +252,52 @@ public class ServerCommunications implements Communications {
     getClient().notifyProgress(params);
   }
 
+  /**
+   * Finish the progress of the given document. The shared progress ends when the last of the
+   * documents in it is finished, after the report that was held back by the interval, if any.
+   *
+   * @param uri - uri of the document that has been analyzed
+   */
   @Override
   public void notifyProgressEnd(String uri) {
     synchronized (uriInProgress) {
-      if (uriInProgress.contains(uri)) {
-        ProgressParams params =
-                new ProgressParams(Either.forLeft(uri), Either.forLeft(new WorkDoneProgressEnd()));
-        getClient().notifyProgress(params);
-        uriInProgress.remove(uri);
+      Integer count = uriInProgress.get(uri);
+      if (count != null) {
+        if (count > 1) {
+          uriInProgress.put(uri, count - 1);
+        } else {
+          uriInProgress.remove(uri);
+        }
+        progressDone++;
+        if (uriInProgress.isEmpty()) {
+          if (reportPending) {
+            sendAggregatedProgress();
+          }
+          String token = Optional.ofNullable(progressToken).orElse(uri);
+          ProgressParams params =
+                  new ProgressParams(Either.forLeft(token), Either.forLeft(new WorkDoneProgressEnd()));
+          getClient().notifyProgress(params);
+          progressToken = null;
+        } else {
+          notifyAggregatedProgress();
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the documents whose analysis is reported under the given progress token.
+   *
+   * @param token - progress token sent to the client
+   * @return uris of the documents in progress, or the token itself if it is not a shared progress
+   */
+  @Override
+  public Set<String> getUrisInProgress(String token) {
+    synchronized (uriInProgress) {
+      if (token.equals(progressToken)) {
+        return ImmutableSet.copyOf(uriInProgress.keySet());
       }
+      return ImmutableSet.of(token);
     }
   }
 
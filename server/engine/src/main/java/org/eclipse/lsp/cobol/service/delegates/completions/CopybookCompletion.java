@@ -26,7 +26,6 @@ import java.util.Collection;
 
 import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
-import static org.eclipse.lsp.cobol.common.model.tree.Node.hasType;
 import static org.eclipse.lsp.cobol.common.model.NodeType.COPY;
 import static org.eclipse.lsp.cobol.service.delegates.completions.CompletionOrder.COPYBOOKS;
 
@@ -41,8 +40,7 @@ public class CopybookCompletion implements Completion {
     return document
         .getLastAnalysisResult()
         .getRootNode()
-        .getDepthFirstStream()
-        .filter(hasType(COPY))
+        .getDepthFirstStream(COPY)
         .map(CopyNode.class::cast)
         .map(CopyNode::getName)
         .filter(DocumentationUtils.startsWithIgnoreCase(token))
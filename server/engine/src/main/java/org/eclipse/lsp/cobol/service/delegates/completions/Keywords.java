@@ -19,7 +19,7 @@ import com.google.inject.Singleton;
 import java.util.*;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.lsp.cobol.common.dialects.CobolDialect;
-import org.eclipse.lsp.cobol.common.utils.KeywordsUtils;
+import org.eclipse.lsp.cobol.core.engine.ResourceTables;
 import org.eclipse.lsp.cobol.core.engine.dialects.DialectService;
 import org.eclipse.lsp.cobol.service.settings.SettingsService;
 
@@ -27,8 +27,6 @@ import org.eclipse.lsp.cobol.service.settings.SettingsService;
 @Singleton
 @Slf4j
 public class Keywords extends CompletionStorage<String> {
-  private static final String KEYWORDS_FILE_PATH = "LanguageKeywords.txt";
-
   private final DialectService dialectService;
 
   @Inject
@@ -39,7 +37,7 @@ public class Keywords extends CompletionStorage<String> {
 
   @Override
   protected Map<String, String> getDataMap(List<String> dialectTypes) {
-    Map<String, String> result = new HashMap<>(KeywordsUtils.getKeywords(KEYWORDS_FILE_PATH));
+    Map<String, String> result = new HashMap<>(ResourceTables.getKeywords(ResourceTables.COBOL_KEYWORDS));
     if (dialectService == null) {
       return result;
     }
@@ -28,7 +28,6 @@ import java.util.Map;
 
 import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
-import static org.eclipse.lsp.cobol.common.model.tree.Node.hasType;
 import static org.eclipse.lsp.cobol.common.model.NodeType.PROGRAM;
 import static org.eclipse.lsp.cobol.service.delegates.completions.CompletionOrder.PARAGRAPHS;
 import static org.eclipse.lsp4j.CompletionItemKind.Method;
@@ -51,8 +50,7 @@ public class ParagraphCompletion implements Completion {
     return document
         .getLastAnalysisResult()
         .getRootNode()
-        .getDepthFirstStream()
-        .filter(hasType(PROGRAM))
+        .getDepthFirstStream(PROGRAM)
         .map(ProgramNode.class::cast)
         .map(symbolsRepository::getParagraphMap)
         .map(Map::keySet)
@@ -29,7 +29,6 @@ import java.util.Map;
 
 import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
-import static org.eclipse.lsp.cobol.common.model.tree.Node.hasType;
 import static org.eclipse.lsp.cobol.common.model.NodeType.PROGRAM;
 import static org.eclipse.lsp.cobol.service.delegates.completions.CompletionOrder.SECTIONS;
 
@@ -51,8 +50,7 @@ public class SectionCompletion implements Completion {
     return document
         .getLastAnalysisResult()
         .getRootNode()
-        .getDepthFirstStream()
-        .filter(hasType(PROGRAM))
+        .getDepthFirstStream(PROGRAM)
         .map(ProgramNode.class::cast)
         .map(symbolsRepository::getSectionMap)
         .map(Map::keySet)
@@ -31,7 +31,6 @@ import java.util.function.Predicate;
 
 import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
-import static org.eclipse.lsp.cobol.common.model.tree.Node.hasType;
 import static org.eclipse.lsp.cobol.common.model.NodeType.PROGRAM;
 import static org.eclipse.lsp.cobol.service.delegates.completions.CompletionOrder.CONSTANTS;
 import static org.eclipse.lsp.cobol.service.delegates.completions.CompletionOrder.VARIABLES;
@@ -59,8 +58,7 @@ public class VariableCompletion implements Completion {
     return document
         .getLastAnalysisResult()
         .getRootNode()
-        .getDepthFirstStream()
-        .filter(hasType(PROGRAM))
+        .getDepthFirstStream(PROGRAM)
         .map(ProgramNode.class::cast)
         .map(symbolsRepository::getVariables)
         .map(Multimap::values)
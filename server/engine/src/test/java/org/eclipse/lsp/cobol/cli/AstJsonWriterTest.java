@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.cli;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.Set;
+import org.eclipse.lsp.cobol.cli.command.AstJsonWriter;
+import org.eclipse.lsp.cobol.cli.command.CliUtils;
+import org.eclipse.lsp.cobol.common.model.NodeType;
+import org.eclipse.lsp.cobol.common.model.tree.BinaryTreeReader;
+import org.eclipse.lsp.cobol.common.model.tree.BinaryTreeWriter;
+import org.eclipse.lsp.cobol.common.model.tree.Node;
+import org.eclipse.lsp.cobol.common.model.tree.RootNode;
+import org.eclipse.lsp.cobol.test.CobolText;
+import org.eclipse.lsp.cobol.test.engine.UseCase;
+import org.eclipse.lsp.cobol.test.engine.UseCaseUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/** Test for {@link AstJsonWriter} */
+class AstJsonWriterTest {
+  private static final String TEXT =
+      "       IDENTIFICATION DIVISION.\n"
+          + "       PROGRAM-ID. TEST1.\n"
+          + "       DATA DIVISION.\n"
+          + "       WORKING-STORAGE SECTION.\n"
+          + "       COPY BOOK.\n"
+          + "       01 REC.\n"
+          + "          05 FIELD1 PIC X(10).\n"
+          + "          05 FIELD2 REDEFINES FIELD1 PIC 9(10).\n"
+          + "       66 ALIAS RENAMES FIELD1.\n"
+          + "       PROCEDURE DIVISION.\n"
+          + "       MAIN SECTION.\n"
+          + "       PARA1.\n"
+          + "           MOVE FIELD1 OF REC TO ITEM.\n"
+          + "           IF ITEM = SPACES PERFORM PARA2 END-IF.\n"
+          + "       PARA2.\n"
+          + "           DISPLAY ALIAS UNKNOWN.\n"
+          + "           STOP RUN.";
+
+  private static Node root;
+
+  @BeforeAll
+  static void analyze() {
+    root = UseCaseUtils.analyze(UseCase.builder()
+            .text(TEXT)
+            .copybooks(ImmutableList.of(new CobolText("BOOK", "       01 ITEM PIC X(5).")))
+            .build())
+        .getRootNode();
+  }
+
+  @Test
+  void testSameAsGson() throws IOException {
+    assertEquals(CliUtils.GSON.toJson(CliUtils.GSON.toJsonTree(root)), write(root, new AstJsonWriter(CliUtils.GSON)));
+  }
+
+  @Test
+  void testSameAsGsonForStoredTree() throws IOException {
+    Node restored = BinaryTreeReader.fromBytes(BinaryTreeWriter.toBytes(root));
+    assertEquals(CliUtils.GSON.toJson(CliUtils.GSON.toJsonTree(root)), write(restored, new AstJsonWriter(CliUtils.GSON)));
+  }
+
+  @Test
+  void testDepthLimit() throws IOException {
+    JsonObject json = parse(new AstJsonWriter(CliUtils.GSON, 1, Collections.emptySet()));
+    JsonArray children = json.getAsJsonArray("children");
+    assertEquals(root.getChildren().size(), children.size());
+    for (JsonElement child : children) {
+      assertFalse(child.getAsJsonObject().has("children"));
+    }
+    assertFalse(parse(new AstJsonWriter(CliUtils.GSON, 0, Collections.emptySet())).has("children"));
+  }
+
+  @Test
+  void testTypeFilter() throws IOException {
+    Set<NodeType> types = ImmutableSet.of(NodeType.PROCEDURE_SECTION, NodeType.PARAGRAPH);
+    JsonObject json = parse(new AstJsonWriter(CliUtils.GSON, -1, types));
+
+    JsonArray sections = json.getAsJsonArray("children");
+    assertEquals(1, sections.size());
+    JsonObject section = sections.get(0).getAsJsonObject();
+    assertEquals("PROCEDURE_SECTION", section.get("nodeType").getAsString());
+    JsonArray paragraphs = section.getAsJsonArray("children");
+    assertEquals(2, paragraphs.size());
+    for (JsonElement paragraph : paragraphs) {
+      assertEquals("PARAGRAPH", paragraph.getAsJsonObject().get("nodeType").getAsString());
+      assertEquals(0, paragraph.getAsJsonObject().getAsJsonArray("children").size());
+    }
+  }
+
+  @Test
+  void testDeepTree() throws IOException {
+    Node deepRoot = new RootNode();
+    Node node = deepRoot;
+    for (int i = 0; i < 100_000; i++) {
+      Node child = new RootNode();
+      node.addChild(child);
+      node = child;
+    }
+    Gson gson = new Gson();
+    StringWriter out = new StringWriter();
+    new AstJsonWriter(gson).write(deepRoot, gson.newJsonWriter(out));
+    assertTrue(out.toString().endsWith("\"children\":[]}" + Strings.repeat("]}", 100_000)));
+  }
+
+  private static JsonObject parse(AstJsonWriter writer) throws IOException {
+    return JsonParser.parseString(write(root, writer)).getAsJsonObject();
+  }
+
+  private static String write(Node node, AstJsonWriter writer) throws IOException {
+    StringWriter out = new StringWriter();
+    JsonWriter jsonWriter = CliUtils.GSON.newJsonWriter(out);
+    writer.write(node, jsonWriter);
+    jsonWriter.flush();
+    return out.toString();
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.cli;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.lsp.cobol.cli.command.Cli;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import picocli.CommandLine;
+
+/** Test for the CLI daemon and client commands */
+class CliDaemonTest {
+  private static final String TEXT =
+      "       IDENTIFICATION DIVISION.\n"
+          + "       PROGRAM-ID. TEST1.\n"
+          + "       DATA DIVISION.\n"
+          + "       WORKING-STORAGE SECTION.\n"
+          + "       COPY BOOK.\n"
+          + "       PROCEDURE DIVISION.\n"
+          + "           DISPLAY ITEM.\n"
+          + "           DISPLAY UNKNOWN.\n";
+
+  @TempDir Path folder;
+  private String port;
+  private Path tokenFile;
+  private CompletableFuture<Integer> daemon;
+
+  @BeforeEach
+  void startDaemon() throws Exception {
+    try (ServerSocket socket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+      port = String.valueOf(socket.getLocalPort());
+    }
+    tokenFile = folder.resolve("daemon.token");
+    daemon = CompletableFuture.supplyAsync(
+        () -> new CommandLine(new Cli()).execute("daemon", "--port", port, "--token-file", tokenFile.toString()));
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (!isListening() || !Files.exists(tokenFile)) {
+      assertTrue(System.currentTimeMillis() < deadline, "The daemon did not start");
+      Thread.sleep(50);
+    }
+  }
+
+  @AfterEach
+  void stopDaemon() throws Exception {
+    assertEquals(CommandLine.ExitCode.OK, client("--stop").exitCode);
+    assertEquals(CommandLine.ExitCode.OK, daemon.get(10, TimeUnit.SECONDS));
+    assertFalse(Files.exists(tokenFile));
+  }
+
+  @Test
+  void testAnalysis() throws IOException {
+    Path copybooks = Files.createDirectory(folder.resolve("copybooks"));
+    Files.write(copybooks.resolve("BOOK.cpy"), "       01 ITEM PIC X(5).".getBytes(StandardCharsets.UTF_8));
+    Path source = Files.write(folder.resolve("TEST1.cbl"), TEXT.getBytes(StandardCharsets.UTF_8));
+
+    for (int i = 0; i < 2; i++) {
+      Output output = client("--", "analysis", "-s", source.toString(), "-cf", copybooks.toString());
+      assertEquals(CommandLine.ExitCode.OK, output.exitCode);
+      JsonObject result = JsonParser.parseString(output.text).getAsJsonObject();
+      assertEquals(source.toFile().toURI().toString(), result.get("uri").getAsString());
+      assertEquals(1, result.getAsJsonArray("diagnostics").size());
+    }
+  }
+
+  @Test
+  void testChangedCopybookIsReadAgain() throws IOException {
+    Path copybooks = Files.createDirectory(folder.resolve("copybooks"));
+    Path copybook = Files.write(copybooks.resolve("BOOK.cpy"), "       01 ITEM PIC X(5).".getBytes(StandardCharsets.UTF_8));
+    Path source = Files.write(folder.resolve("TEST1.cbl"), TEXT.getBytes(StandardCharsets.UTF_8));
+
+    assertEquals(1, diagnostics(client("--", "analysis", "-s", source.toString(), "-cf", copybooks.toString())));
+    Files.write(copybook, "       01 ITEM PIC X(5).\n       01 UNKNOWN PIC X(5).".getBytes(StandardCharsets.UTF_8));
+    assertEquals(1, diagnostics(client("--", "analysis", "-s", source.toString(), "-cf", copybooks.toString())));
+    assertEquals(0, diagnostics(client("--refresh", "--", "analysis", "-s", source.toString(), "-cf", copybooks.toString())));
+  }
+
+  @Test
+  void testInvalidToken() throws IOException {
+    Path otherToken = Files.write(folder.resolve("other.token"), "0123".getBytes(StandardCharsets.UTF_8));
+
+    Output output = clientWithToken(otherToken, "--", "list_copybooks");
+    assertEquals(1, output.exitCode);
+    assertTrue(output.text.startsWith("The daemon token is not valid"));
+    assertEquals(1, clientWithToken(otherToken, "--stop").exitCode);
+  }
+
+  @Test
+  void testInvalidRequestsKeepTheDaemonRunning() throws IOException {
+    sendRaw("{[".getBytes(StandardCharsets.UTF_8));
+    sendRaw(new byte[0]);
+    sendRaw("null".getBytes(StandardCharsets.UTF_8));
+
+    assertTrue(Files.exists(tokenFile));
+    assertEquals(CommandLine.ExitCode.USAGE, client("--", "daemon").exitCode);
+  }
+
+  @Test
+  void testErrorOutputIsForwarded() throws IOException {
+    Path source = Files.write(folder.resolve("TEST1.cbl"), TEXT.getBytes(StandardCharsets.UTF_8));
+
+    Output output = client("--", "analysis", "-s", source.toString(), "--repeat", "2");
+    assertEquals(CommandLine.ExitCode.OK, output.exitCode);
+    assertFalse(JsonParser.parseString(output.error).getAsJsonObject()
+        .getAsJsonObject("stageLatencies").entrySet().isEmpty());
+  }
+
+  @Test
+  void testTokenFileIsPrivate() throws IOException {
+    if (Files.getFileStore(tokenFile).supportsFileAttributeView("posix")) {
+      assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(tokenFile));
+    }
+  }
+
+  @Test
+  void testUnsupportedCommand() {
+    Output output = client("--", "daemon");
+    assertEquals(CommandLine.ExitCode.USAGE, output.exitCode);
+    assertTrue(output.text.startsWith("The daemon runs only these commands"));
+  }
+
+  private boolean isListening() {
+    try (Socket ignored = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(port))) {
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /** Send a request that the client would never send and wait until the daemon closes it */
+  private void sendRaw(byte[] request) throws IOException {
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(port))) {
+      DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+      out.writeInt(request.length);
+      out.write(request);
+      out.flush();
+      assertEquals(-1, socket.getInputStream().read());
+    }
+  }
+
+  private static int diagnostics(Output output) {
+    assertEquals(CommandLine.ExitCode.OK, output.exitCode);
+    return JsonParser.parseString(output.text).getAsJsonObject().getAsJsonArray("diagnostics").size();
+  }
+
+  private Output client(String... args) {
+    return clientWithToken(tokenFile, args);
+  }
+
+  private Output clientWithToken(Path token, String... args) {
+    String[] clientArgs = new String[args.length + 5];
+    clientArgs[0] = "client";
+    clientArgs[1] = "--port";
+    clientArgs[2] = port;
+    clientArgs[3] = "--token-file";
+    clientArgs[4] = token.toString();
+    System.arraycopy(args, 0, clientArgs, 5, args.length);
+
+    PrintStream stdout = System.out;
+    PrintStream stderr = System.err;
+    ByteArrayOutputStream text = new ByteArrayOutputStream();
+    ByteArrayOutputStream error = new ByteArrayOutputStream();
+    System.setOut(new PrintStream(text, true));
+    System.setErr(new PrintStream(error, true));
+    try {
+      int exitCode = new CommandLine(new Cli()).execute(clientArgs);
+      return new Output(exitCode, new String(text.toByteArray(), StandardCharsets.UTF_8),
+          new String(error.toByteArray(), StandardCharsets.UTF_8));
+    } finally {
+      System.setOut(stdout);
+      System.setErr(stderr);
+    }
+  }
+
+  /** The output of a client command */
+  private static final class Output {
+    private final int exitCode;
+    private final String text;
+    private final String error;
+
+    private Output(int exitCode, String text, String error) {
+      this.exitCode = exitCode;
+      this.text = text;
+      this.error = error;
+    }
+  }
+}
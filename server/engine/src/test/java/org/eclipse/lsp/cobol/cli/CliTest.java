@@ -15,14 +15,25 @@
 package org.eclipse.lsp.cobol.cli;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
 import java.util.Set;
 import org.eclipse.lsp.cobol.cli.command.Cli;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.junit.jupiter.MockitoExtension;
 import picocli.CommandLine;
 
@@ -47,6 +58,10 @@ class CliTest {
           + "  analysis        analyse cobol source"
           + System.lineSeparator()
           + "  cfast           generate cfast from cobol source"
+          + System.lineSeparator()
+          + "  daemon          run a warm engine for the client command"
+          + System.lineSeparator()
+          + "  client          run a command in the daemon"
           + System.lineSeparator();
 
   @Test
@@ -75,10 +90,36 @@ class CliTest {
   void testCliCommands() {
     CommandLine commandLine = new CommandLine(new Cli());
     Set<String> commandList = commandLine.getSubcommands().keySet();
-    assertEquals(4, commandList.size());
+    assertEquals(6, commandList.size());
     assertTrue(commandList.contains("analysis"));
     assertTrue(commandList.contains("list_copybooks"));
     assertTrue(commandList.contains("list_sources"));
     assertTrue(commandList.contains("cfast"));
+    assertTrue(commandList.contains("daemon"));
+    assertTrue(commandList.contains("client"));
+  }
+
+  @Test
+  void testRepeatedAnalysisReportsStageLatencies(@TempDir Path folder) throws IOException {
+    Path source = Files.write(folder.resolve("TEST1.cbl"),
+        "       IDENTIFICATION DIVISION.\n       PROGRAM-ID. TEST1.".getBytes(StandardCharsets.UTF_8));
+    PrintStream stdout = System.out;
+    PrintStream stderr = System.err;
+    ByteArrayOutputStream error = new ByteArrayOutputStream();
+    System.setOut(new PrintStream(new ByteArrayOutputStream(), true));
+    System.setErr(new PrintStream(error, true));
+    try {
+      assertEquals(CommandLine.ExitCode.OK,
+          new CommandLine(new Cli()).execute("analysis", "-s", source.toString(), "--repeat", "2"));
+    } finally {
+      System.setOut(stdout);
+      System.setErr(stderr);
+    }
+    JsonObject stages = JsonParser.parseString(new String(error.toByteArray(), StandardCharsets.UTF_8))
+        .getAsJsonObject().getAsJsonObject("stageLatencies");
+    assertFalse(stages.entrySet().isEmpty());
+    for (Map.Entry<String, ?> stage : stages.entrySet()) {
+      assertEquals(2, stages.getAsJsonObject(stage.getKey()).get("count").getAsInt(), stage.getKey());
+    }
   }
 }
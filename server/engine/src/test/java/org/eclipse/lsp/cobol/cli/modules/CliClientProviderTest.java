@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.cli.modules;
+
+import static java.util.Optional.ofNullable;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.google.common.collect.ImmutableList;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.eclipse.lsp.cobol.lsp.jrpc.CobolLanguageClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Test for {@link CliClientProvider} copybook resolution */
+class CliClientProviderTest {
+  private static final List<String> EXTENSIONS = ImmutableList.of("", "cpy", ".CPY", "2", "bms");
+  private static final int FOLDERS = 40;
+  private static final int COPYBOOKS_PER_FOLDER = 250;
+
+  @TempDir Path workspace;
+
+  /**
+   * Resolve every copybook of the test_files corpora behind a large synthetic copybook tree and
+   * check that the index gives the same answers as probing the file system for each candidate.
+   */
+  @Test
+  void testIndexResolvesCorpusCopybooksLikeFileProbes() throws Exception {
+    Path corpus = Paths.get(ofNullable(System.getProperty("filesToTestPath")).orElse("../../tests/test_files"));
+    assumeTrue(Files.isDirectory(corpus));
+    List<File> cpyPaths = new ArrayList<>(createSyntheticTree());
+    Set<String> names = new LinkedHashSet<>();
+    try (Stream<Path> folders = Files.walk(corpus)) {
+      for (Path folder : folders.filter(Files::isDirectory).filter(f -> f.getFileName().toString().contains("copybooks")).collect(Collectors.toList())) {
+        cpyPaths.add(folder.toAbsolutePath().toFile());
+        try (Stream<Path> files = Files.list(folder)) {
+          files.map(f -> f.getFileName().toString()).forEach(name -> {
+            String baseName = name.contains(".") ? name.substring(0, name.indexOf('.')) : name;
+            names.add(baseName);
+            names.add(baseName.toLowerCase(Locale.ROOT));
+            names.add(baseName + "MISSING");
+          });
+        }
+      }
+    }
+    assumeTrue(!names.isEmpty());
+    CliClientProvider provider = new CliClientProvider();
+    provider.setCpyPaths(cpyPaths);
+    provider.setCpyExt(EXTENSIONS);
+    CobolLanguageClient client = provider.get();
+    String programUri = workspace.resolve("PROGRAM.cbl").toUri().toString();
+
+    for (String name : names) {
+      assertEquals(probe(cpyPaths, name), client.resolveCopybook(programUri, name, "COBOL").get(), name);
+    }
+  }
+
+  @Test
+  void testRelativeFolderAndRefresh() throws Exception {
+    Path copybooks = Files.createDirectories(workspace.resolve("src").resolve("cpy"));
+    String programUri = workspace.resolve("src").resolve("PROGRAM.cbl").toUri().toString();
+    CliClientProvider provider = new CliClientProvider();
+    provider.setCpyPaths(ImmutableList.of(new File("cpy")));
+    provider.setCpyExt(EXTENSIONS);
+    CobolLanguageClient client = provider.get();
+    assertNull(client.resolveCopybook(programUri, "BOOK", "COBOL").get());
+
+    FileTime indexed = Files.getLastModifiedTime(copybooks);
+    Path book = Files.createFile(copybooks.resolve("BOOK.cpy"));
+    Files.setLastModifiedTime(copybooks, FileTime.fromMillis(indexed.toMillis() + 1000));
+    assertNull(client.resolveCopybook(programUri, "BOOK", "COBOL").get());
+
+    provider.setRefreshCopybookIndexOnChange(true);
+    assertEquals(book.toUri().toString(), client.resolveCopybook(programUri, "BOOK", "COBOL").get());
+
+    Files.delete(book);
+    provider.setRefreshCopybookIndexOnChange(false);
+    provider.refreshCopybookIndex();
+    assertNull(client.resolveCopybook(programUri, "BOOK", "COBOL").get());
+  }
+
+  @Test
+  void testNameCaseFollowsTheFileSystem() throws Exception {
+    Path copybooks = Files.createDirectories(workspace.resolve("cpy"));
+    Path book = Files.createFile(copybooks.resolve("book.cpy"));
+    CliClientProvider provider = new CliClientProvider();
+    provider.setCpyPaths(ImmutableList.of(copybooks.toFile()));
+    provider.setCpyExt(ImmutableList.of("cpy"));
+    CobolLanguageClient client = provider.get();
+    String programUri = workspace.resolve("PROGRAM.cbl").toUri().toString();
+
+    assertEquals(book.toUri().toString(), client.resolveCopybook(programUri, "book", "COBOL").get());
+    assertEquals(Files.exists(copybooks.resolve("BOOK.cpy")) ? copybooks.resolve("BOOK.cpy").toUri().toString() : null,
+        client.resolveCopybook(programUri, "BOOK", "COBOL").get());
+  }
+
+  private List<File> createSyntheticTree() throws IOException {
+    List<File> folders = new ArrayList<>();
+    for (int i = 0; i < FOLDERS; i++) {
+      Path folder = Files.createDirectories(workspace.resolve("copybooks" + i));
+      for (int j = 0; j < COPYBOOKS_PER_FOLDER; j++) {
+        Files.createFile(folder.resolve(String.format("CB%02d%04d.cpy", i, j)));
+      }
+      folders.add(folder.toFile());
+    }
+    return folders;
+  }
+
+  private static String probe(List<File> cpyPaths, String name) {
+    for (File folder : cpyPaths) {
+      for (String ext : EXTENSIONS) {
+        Path cpy = Paths.get(folder.toString(), name + (ext.isEmpty() || ext.startsWith(".") ? ext : "." + ext));
+        if (Files.exists(cpy)) {
+          return cpy.toUri().toString();
+        }
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.cli.modules;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.common.collect.ImmutableList;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import org.eclipse.lsp.cobol.lsp.jrpc.CobolLanguageClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * This test resolves every copybook of a generated tree of {@value #FOLDERS} folders with {@value
+ * #COPYBOOKS_PER_FOLDER} copybooks each, and the same number of missing names, by probing the file
+ * system for every folder and extension, as it was done before, and with the folder index of {@link
+ * CliClientProvider}. The result outputs to the console in the form "RESOLVE 900 30" where the
+ * numbers are the best time in ms of the previous and the current approach of {@value #RUNS} runs.
+ * Disabled by default, to enable provide <code>-Dtests.perf=true</code> as a system property for
+ * the run configuration.
+ */
+class CopybookDirectoryIndexPerformanceTest {
+  private static final String MODE_PROPERTY_NAME = "tests.perf";
+  private static final String TEST_MODE = System.getProperty(MODE_PROPERTY_NAME);
+  private static final int RUNS = 5;
+  private static final int FOLDERS = 40;
+  private static final int COPYBOOKS_PER_FOLDER = 250;
+  private static final List<String> EXTENSIONS = ImmutableList.of("", "cpy", "copy");
+
+  @Test
+  void copybookDirectoryIndexPerformanceTest(@TempDir Path workspace) throws IOException, ExecutionException, InterruptedException {
+    if (!Boolean.TRUE.toString().equals(TEST_MODE)) return;
+    List<File> cpyPaths = new ArrayList<>();
+    List<String> names = new ArrayList<>();
+    for (int i = 0; i < FOLDERS; i++) {
+      Path folder = Files.createDirectories(workspace.resolve("copybooks" + i));
+      for (int j = 0; j < COPYBOOKS_PER_FOLDER; j++) {
+        String name = String.format("CB%02d%04d", i, j);
+        Files.createFile(folder.resolve(name + ".cpy"));
+        names.add(name);
+        names.add(name + "X");
+      }
+      cpyPaths.add(folder.toFile());
+    }
+    CliClientProvider provider = new CliClientProvider();
+    provider.setCpyPaths(cpyPaths);
+    provider.setCpyExt(EXTENSIONS);
+    CobolLanguageClient client = provider.get();
+    String programUri = workspace.resolve("PROGRAM.cbl").toUri().toString();
+    for (String name : names) {
+      assertEquals(probe(cpyPaths, name), client.resolveCopybook(programUri, name, "COBOL").get(), name);
+    }
+
+    long probed = Long.MAX_VALUE;
+    long indexed = Long.MAX_VALUE;
+    for (int i = 0; i < RUNS; i++) {
+      long start = System.nanoTime();
+      for (String name : names) {
+        probe(cpyPaths, name);
+      }
+      probed = Math.min(probed, System.nanoTime() - start);
+      start = System.nanoTime();
+      for (String name : names) {
+        client.resolveCopybook(programUri, name, "COBOL").get();
+      }
+      indexed = Math.min(indexed, System.nanoTime() - start);
+    }
+    System.out.printf("RESOLVE %d %d\n", probed / 1_000_000, indexed / 1_000_000);
+  }
+
+  /** The copybook resolution as it was done before, with a file system probe per folder and extension */
+  private static String probe(List<File> cpyPaths, String name) {
+    for (File folder : cpyPaths) {
+      for (String ext : EXTENSIONS) {
+        Path cpy = Paths.get(folder.toString(), name + (ext.isEmpty() || ext.startsWith(".") ? ext : "." + ext));
+        if (Files.exists(cpy)) {
+          return cpy.toUri().toString();
+        }
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.core.engine;
+
+import static org.eclipse.lsp.cobol.common.copybook.CopybookProcessingMode.ENABLED;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.eclipse.lsp.cobol.common.AnalysisConfig;
+import org.eclipse.lsp.cobol.common.AnalysisResult;
+import org.eclipse.lsp.cobol.common.SubroutineService;
+import org.eclipse.lsp.cobol.common.benchmark.BenchmarkService;
+import org.eclipse.lsp.cobol.common.benchmark.BenchmarkServiceImpl;
+import org.eclipse.lsp.cobol.common.benchmark.CacheStatistics;
+import org.eclipse.lsp.cobol.common.copybook.CopybookModel;
+import org.eclipse.lsp.cobol.common.copybook.CopybookName;
+import org.eclipse.lsp.cobol.common.copybook.CopybookService;
+import org.eclipse.lsp.cobol.common.dialects.CobolLanguageId;
+import org.eclipse.lsp.cobol.common.file.FileSystemService;
+import org.eclipse.lsp.cobol.common.file.WorkspaceFileService;
+import org.eclipse.lsp.cobol.common.model.DefinedAndUsedStructure;
+import org.eclipse.lsp.cobol.common.model.Locality;
+import org.eclipse.lsp.cobol.common.model.NodeType;
+import org.eclipse.lsp.cobol.common.model.tree.RootNode;
+import org.eclipse.lsp.cobol.common.model.tree.SubroutineNameNode;
+import org.eclipse.lsp.cobol.service.copybooks.CopybookCache;
+import org.eclipse.lsp.cobol.test.engine.UseCase;
+import org.eclipse.lsp.cobol.test.engine.UseCaseUtils;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.Location;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Test {@link AnalysisResultCache} */
+class AnalysisResultCacheTest {
+  private static final String URI = "file:///PROGRAM.cbl";
+  private static final String TEXT = "       IDENTIFICATION DIVISION.";
+  private static final CopybookName COPYBOOK_NAME = new CopybookName("BOOK");
+
+  private final CopybookService copybookService = mock(CopybookService.class);
+  private final SubroutineService subroutineService = mock(SubroutineService.class);
+  private final BenchmarkService benchmarkService = new BenchmarkServiceImpl();
+  private final FileSystemService files = new WorkspaceFileService();
+  private CopybookCache copybookCache;
+  private AnalysisResultCache cache;
+  private CopybookModel copybook;
+
+  @BeforeEach
+  void init() {
+    copybookCache = new CopybookCache(10, 1, "HOURS");
+    cache = new AnalysisResultCache(copybookService, copybookCache, subroutineService, benchmarkService, files, 10, null, Runnable::run);
+    copybook = new CopybookModel(COPYBOOK_NAME.toCopybookId(URI), COPYBOOK_NAME, "file:///BOOK.cpy", "01 A PIC X.");
+    copybookCache.store(copybook);
+    when(copybookService.getCopybookUsage(URI)).thenReturn(ImmutableSet.of(copybook));
+    when(subroutineService.getUri("SUB")).thenReturn(Optional.of("file:///SUB.cbl"));
+  }
+
+  @Test
+  void testHitForSameTextAndDependencies() {
+    AnalysisResult result = analysisResult();
+    cache.put(key(TEXT), result, 1_000_000_000L);
+
+    Optional<AnalysisResult> cached = cache.get(key(TEXT));
+    assertTrue(cached.isPresent());
+    assertSame(result.getRootNode(), cached.get().getRootNode());
+    assertEquals(result.getDiagnostics(), cached.get().getDiagnostics());
+    assertNotSame(result.getDiagnostics(), cached.get().getDiagnostics());
+    verify(copybookService).registerCopybookUsage(URI, ImmutableList.of(copybook));
+
+    assertFalse(cache.get(key(TEXT + " ")).isPresent());
+    assertFalse(cache.get(cache.createKey(URI, TEXT, AnalysisConfig.defaultConfig(ENABLED, true), CobolLanguageId.COBOL)).isPresent());
+
+    CacheStatistics statistics = benchmarkService.getCacheStatistics().get(AnalysisResultCache.CACHE_ID);
+    assertEquals(1, statistics.getHits());
+    assertEquals(2, statistics.getMisses());
+    assertTrue(statistics.getSavedTime() > 0);
+  }
+
+  @Test
+  void testMissWhenCopybookChanged() {
+    cache.put(key(TEXT), analysisResult(), 0);
+    copybookCache.store(new CopybookModel(copybook.getCopybookId(), COPYBOOK_NAME, copybook.getUri(), "01 B PIC X."));
+
+    assertFalse(cache.get(key(TEXT)).isPresent());
+  }
+
+  @Test
+  void testMissWhenCopybookInvalidated() {
+    cache.put(key(TEXT), analysisResult(), 0);
+    copybookCache.invalidateAllNonImplicit();
+
+    assertFalse(cache.get(key(TEXT)).isPresent());
+  }
+
+  @Test
+  void testMissWhenSubroutineMoved() {
+    cache.put(key(TEXT), analysisResult(), 0);
+    when(subroutineService.getUri("SUB")).thenReturn(Optional.empty());
+
+    assertFalse(cache.get(key(TEXT)).isPresent());
+  }
+
+  @Test
+  void testNotStoredWithoutCachedCopybook() {
+    copybookCache.invalidateAll();
+    cache.put(key(TEXT), analysisResult(), 0);
+    copybookCache.store(copybook);
+
+    assertFalse(cache.get(key(TEXT)).isPresent());
+  }
+
+  @Test
+  void testDisabled() {
+    AnalysisResultCache disabled = new AnalysisResultCache(copybookService, copybookCache, subroutineService, benchmarkService, files, 0, null, Runnable::run);
+    disabled.put(key(TEXT), analysisResult(), 0);
+
+    assertFalse(disabled.get(key(TEXT)).isPresent());
+    assertNull(benchmarkService.getCacheStatistics().get(AnalysisResultCache.CACHE_ID));
+  }
+
+  @Test
+  void testStoredResultSurvivesRestart(@TempDir Path directory) throws IOException {
+    storeCopybookFile(directory, "01 A PIC X.");
+    AnalysisResult result = UseCaseUtils.analyze(UseCase.builder()
+        .documentUri(URI)
+        .text(TEXT + "\n       PROGRAM-ID. TEST1.\n       DATA DIVISION.\n       WORKING-STORAGE SECTION.\n"
+            + "       01 A PIC X.\n       LINKAGE SECTION.\n       PROCEDURE DIVISION.\n           MOVE 1 TO A B.\n"
+            + "           MOVE EIBCALEN TO A.\n           CALL 'SUB'.")
+        .build());
+    storedCache(directory).put(key(TEXT), result, 0);
+
+    copybookCache.invalidateAll();
+    Optional<AnalysisResult> restored = storedCache(directory).get(key(TEXT));
+    assertTrue(restored.isPresent());
+    assertNotSame(result.getRootNode(), restored.get().getRootNode());
+    assertEquals(Optional.of(copybook), copybookCache.getIfPresent(copybook.getCopybookId()));
+    assertEquals(result.getRootNode().getDepthFirstStream().count(), restored.get().getRootNode().getDepthFirstStream().count());
+    assertEquals(result.getDiagnostics(), restored.get().getDiagnostics());
+    assertEquals(result.getSymbolTableMap().keySet(), restored.get().getSymbolTableMap().keySet());
+    assertEquals(usages(result, NodeType.VARIABLE_USAGE), usages(restored.get(), NodeType.VARIABLE_USAGE));
+    assertEquals(usages(result, NodeType.SUBROUTINE_NAME_NODE), usages(restored.get(), NodeType.SUBROUTINE_NAME_NODE));
+    assertFalse(storedCache(directory).get(key(TEXT + " ")).isPresent());
+  }
+
+  @Test
+  void testStoredResultMissWhenCopybookFileChanged(@TempDir Path directory) throws IOException {
+    storeCopybookFile(directory, "01 A PIC X.");
+    storedCache(directory).put(key(TEXT), analysisResult(), 0);
+
+    copybookCache.invalidateAll();
+    storeCopybookFile(directory, "01 B PIC X.");
+    assertFalse(storedCache(directory).get(key(TEXT)).isPresent());
+  }
+
+  @Test
+  void testStoredOffTheCallerThread(@TempDir Path directory) throws IOException {
+    storeCopybookFile(directory, "01 A PIC X.");
+    List<Runnable> tasks = new ArrayList<>();
+    AnalysisResultCache stored =
+        new AnalysisResultCache(copybookService, copybookCache, subroutineService, benchmarkService, files, 10, directory, tasks::add);
+
+    stored.put(key(TEXT), analysisResult(), 0);
+    stored.put(key(TEXT), analysisResult(), 0);
+
+    assertEquals(1, tasks.size());
+    assertFalse(storedCache(directory).get(key(TEXT)).isPresent());
+    tasks.get(0).run();
+    assertTrue(storedCache(directory).get(key(TEXT)).isPresent());
+  }
+
+  @Test
+  void testCorruptedStoredResultIsMiss(@TempDir Path directory) throws IOException {
+    AnalysisResultCache stored = storedCache(directory);
+    stored.put(key(TEXT), analysisResult(), 0);
+    try (Stream<Path> list = Files.list(directory)) {
+      for (Path file : (Iterable<Path>) list::iterator) {
+        Files.write(file, new byte[] {1, 2, 3});
+      }
+    }
+
+    assertFalse(storedCache(directory).get(key(TEXT)).isPresent());
+  }
+
+  private static List<List<Location>> usages(AnalysisResult result, NodeType type) {
+    return result.getRootNode().getDepthFirstStream(type)
+        .map(DefinedAndUsedStructure.class::cast)
+        .map(DefinedAndUsedStructure::getUsages)
+        .collect(Collectors.toList());
+  }
+
+  private AnalysisResultCache storedCache(Path directory) {
+    return new AnalysisResultCache(copybookService, copybookCache, subroutineService, benchmarkService, files, 10, directory, Runnable::run);
+  }
+
+  private void storeCopybookFile(Path directory, String content) throws IOException {
+    Path file = directory.resolve("BOOK.cpy");
+    Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    copybook = new CopybookModel(copybook.getCopybookId(), COPYBOOK_NAME, file.toUri().toString(), files.getContentByPath(file));
+    copybookCache.store(copybook);
+    when(copybookService.getCopybookUsage(URI)).thenReturn(ImmutableSet.of(copybook));
+  }
+
+  private AnalysisResultCache.Key key(String text) {
+    return cache.createKey(URI, text, AnalysisConfig.defaultConfig(ENABLED), CobolLanguageId.COBOL);
+  }
+
+  private static AnalysisResult analysisResult() {
+    RootNode rootNode = new RootNode();
+    rootNode.addChild(new SubroutineNameNode(Locality.builder().uri(URI).build(), "SUB"));
+    Diagnostic diagnostic = new Diagnostic(new org.eclipse.lsp4j.Range(), "message");
+    return AnalysisResult.builder().rootNode(rootNode).diagnostics(ImmutableMap.of(URI, ImmutableList.of(diagnostic))).build();
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.core.engine;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.awaitility.Awaitility.await;
+import static org.eclipse.lsp.cobol.common.copybook.CopybookProcessingMode.ENABLED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.inject.Injector;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.eclipse.lsp.cobol.common.AnalysisConfig;
+import org.eclipse.lsp.cobol.common.AnalysisResult;
+import org.eclipse.lsp.cobol.common.benchmark.BenchmarkService;
+import org.eclipse.lsp.cobol.common.copybook.CopybookModel;
+import org.eclipse.lsp.cobol.common.copybook.CopybookName;
+import org.eclipse.lsp.cobol.common.copybook.CopybookService;
+import org.eclipse.lsp.cobol.common.dialects.TrueDialectService;
+import org.eclipse.lsp.cobol.common.dialects.CobolLanguageId;
+import org.eclipse.lsp.cobol.common.model.DefinedAndUsedStructure;
+import org.eclipse.lsp.cobol.common.model.NodeType;
+import org.eclipse.lsp.cobol.common.model.tree.Node;
+import org.eclipse.lsp.cobol.common.model.tree.ProgramNode;
+import org.eclipse.lsp.cobol.core.engine.symbols.SymbolsRepository;
+import org.eclipse.lsp.cobol.usecases.engine.UseCaseInitializerService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Test the analysis results reused by {@link CobolLanguageEngine} with the real pipeline */
+class CachedAnalysisTest {
+  private static final String URI = "file:///PROGRAM.cbl";
+  private static final String TEXT = "       IDENTIFICATION DIVISION.\n"
+      + "       PROGRAM-ID. TEST1.\n"
+      + "       DATA DIVISION.\n"
+      + "       WORKING-STORAGE SECTION.\n"
+      + "       01 %s PIC X.\n"
+      + "       PROCEDURE DIVISION.\n"
+      + "           MOVE 1 TO %1$s.";
+  private static final String TEXT_WITH_COPYBOOK = "       IDENTIFICATION DIVISION.\n"
+      + "       PROGRAM-ID. TEST1.\n"
+      + "       DATA DIVISION.\n"
+      + "       WORKING-STORAGE SECTION.\n"
+      + "       COPY BOOK.\n"
+      + "       PROCEDURE DIVISION.\n"
+      + "           MOVE 1 TO CPY-A.";
+  private static final String COPYBOOK = "000100 01 CPY-A PIC X.                                                  BOOK0001\n";
+  private static final String PROGRAMS = "       IDENTIFICATION DIVISION.\n"
+      + "       PROGRAM-ID. PROG1.\n"
+      + "       DATA DIVISION.\n"
+      + "       WORKING-STORAGE SECTION.\n"
+      + "       COPY BOOK.\n"
+      + "       PROCEDURE DIVISION.\n"
+      + "           CALL 'SUB'.\n"
+      + "           MOVE 1 TO UNKNOWN1.\n"
+      + "       END PROGRAM PROG1.\n"
+      + "      * The second program\n"
+      + "       IDENTIFICATION DIVISION.\n"
+      + "       PROGRAM-ID. PROG2.\n"
+      + "       DATA DIVISION.\n"
+      + "       WORKING-STORAGE SECTION.\n"
+      + "       COPY BOOK.\n"
+      + "       PROCEDURE DIVISION.\n"
+      + "           CALL 'SUB'.\n"
+      + "           MOVE 1 TO %s.\n"
+      + "       END PROGRAM PROG2.";
+  private static final String DIRECTORY_PROPERTY = "analysis.cache.dir";
+
+  private final Injector injector = new UseCaseInitializerService().createInjector();
+  private final CobolLanguageEngine engine = injector.getInstance(CobolLanguageEngine.class);
+  private final SymbolsRepository symbolsRepository = injector.getInstance(SymbolsRepository.class);
+
+  @Test
+  void testUndoRestoresSymbols() {
+    AnalysisResult original = analyze("AAA");
+    analyze("BBB");
+    AnalysisResult undone = analyze("AAA");
+
+    assertSame(original.getRootNode(), undone.getRootNode());
+    ProgramNode program = (ProgramNode) undone.getRootNode().getDepthFirstStream(NodeType.PROGRAM).findFirst().get();
+    assertTrue(symbolsRepository.getVariables(program).containsKey("AAA"));
+    assertFalse(symbolsRepository.getVariables(program).containsKey("BBB"));
+  }
+
+  @Test
+  void testStoredResultWithCopybookSurvivesRestart(@TempDir Path directory) throws IOException {
+    Path copybook = directory.resolve("BOOK.cpy");
+    Files.write(copybook, COPYBOOK.getBytes(UTF_8));
+    Path results = directory.resolve("results");
+    System.setProperty(DIRECTORY_PROPERTY, results.toString());
+    try {
+      Injector first = new UseCaseInitializerService().createInjector();
+      storeCopybook(first, copybook);
+      AnalysisResult result = analyzeWithCopybook(first);
+      assertEquals(0, result.getDiagnostics().get(URI).size());
+      await().atMost(10, TimeUnit.SECONDS).until(() -> isStored(results));
+
+      Injector restarted = new UseCaseInitializerService().createInjector();
+      AnalysisResult restored = analyzeWithCopybook(restarted);
+      assertNotSame(result.getRootNode(), restored.getRootNode());
+      assertEquals(1, restarted.getInstance(BenchmarkService.class)
+          .getCacheStatistics().get(AnalysisResultCache.CACHE_ID).getHits());
+      assertEquals(1, restarted.getInstance(CopybookService.class).getCopybookUsage(URI).size());
+    } finally {
+      System.clearProperty(DIRECTORY_PROPERTY);
+    }
+  }
+
+  @Test
+  void testOnlyChangedProgramIsAnalysedAgain(@TempDir Path directory) throws IOException {
+    Path copybook = directory.resolve("BOOK.cpy");
+    Files.write(copybook, COPYBOOK.getBytes(UTF_8));
+    storeCopybook(injector, copybook);
+    analyzePrograms(engine, "CPY-A");
+    AnalysisResult previous = analyzePrograms(engine, "UNKNOWN2");
+    AnalysisResult result = analyzePrograms(engine, "UNKNOWN3");
+
+    List<Node> programs = result.getRootNode().getChildren();
+    assertSame(previous.getRootNode().getChildren().get(0), programs.get(0));
+    assertNotSame(previous.getRootNode().getChildren().get(1), programs.get(1));
+    assertSame(result.getRootNode(), programs.get(0).getParent());
+    assertEquals(1, injector.getInstance(BenchmarkService.class)
+        .getCacheStatistics().get("ProgramUnitCache").getHits());
+
+    Injector fresh = new UseCaseInitializerService().createInjector();
+    storeCopybook(fresh, copybook);
+    AnalysisResult full = analyzePrograms(fresh.getInstance(CobolLanguageEngine.class), "UNKNOWN3");
+    assertEquals(describe(full), describe(result));
+    assertEquals(new HashSet<>(full.getDiagnostics().get(URI)), new HashSet<>(result.getDiagnostics().get(URI)));
+    assertEquals(2, result.getDiagnostics().get(URI).size());
+    assertEquals(full.getSymbolTableMap().keySet(), result.getSymbolTableMap().keySet());
+    assertTrue(symbolsRepository.getVariables((ProgramNode) programs.get(1)).containsKey("CPY-A"));
+  }
+
+  private static AnalysisResult analyzePrograms(CobolLanguageEngine engine, String variable) {
+    return engine.run(URI, String.format(PROGRAMS, variable), AnalysisConfig.defaultConfig(ENABLED), CobolLanguageId.COBOL);
+  }
+
+  /** The nodes of the tree with the locations they refer to */
+  private static List<String> describe(AnalysisResult result) {
+    return result.getRootNode().getDepthFirstStream()
+        .map(node -> node instanceof DefinedAndUsedStructure
+            ? node.getLocality() + " " + ((DefinedAndUsedStructure) node).getDefinitions() + " " + ((DefinedAndUsedStructure) node).getUsages()
+            : node.getNodeType() + " " + node.getLocality())
+        .collect(Collectors.toList());
+  }
+
+  private static void storeCopybook(Injector injector, Path file) throws IOException {
+    CopybookName name = new CopybookName("BOOK");
+    CopybookModel model = new CopybookModel(name.toCopybookId(URI), name, file.toUri().toString(), new String(Files.readAllBytes(file), UTF_8));
+    injector.getInstance(CopybookService.class)
+        .store(model, injector.getInstance(TrueDialectService.class).getPreprocessor(CobolLanguageId.COBOL));
+  }
+
+  private static AnalysisResult analyzeWithCopybook(Injector injector) {
+    return injector.getInstance(CobolLanguageEngine.class)
+        .run(URI, TEXT_WITH_COPYBOOK, AnalysisConfig.defaultConfig(ENABLED), CobolLanguageId.COBOL);
+  }
+
+  private static boolean isStored(Path results) throws IOException {
+    if (!Files.isDirectory(results)) {
+      return false;
+    }
+    try (Stream<Path> files = Files.list(results)) {
+      return files.anyMatch(file -> file.toString().endsWith(".ast"));
+    }
+  }
+
+  private AnalysisResult analyze(String variable) {
+    return engine.run(URI, String.format(TEXT, variable), AnalysisConfig.defaultConfig(ENABLED), CobolLanguageId.COBOL);
+  }
+}
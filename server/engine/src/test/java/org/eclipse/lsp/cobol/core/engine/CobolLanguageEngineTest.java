@@ -18,8 +18,11 @@ package org.eclipse.lsp.cobol.core.engine;
 import static org.eclipse.lsp.cobol.common.copybook.CopybookProcessingMode.ENABLED;
 import static org.eclipse.lsp.cobol.common.error.ErrorSeverity.ERROR;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
@@ -33,6 +36,7 @@ import org.eclipse.lsp.cobol.common.dialects.DialectProcessingContext;
 import org.eclipse.lsp.cobol.common.dialects.TrueDialectService;
 import org.eclipse.lsp.cobol.common.error.ErrorSource;
 import org.eclipse.lsp.cobol.common.error.SyntaxError;
+import org.eclipse.lsp.cobol.common.file.FileSystemService;
 import org.eclipse.lsp.cobol.common.mapping.ExtendedDocument;
 import org.eclipse.lsp.cobol.common.mapping.ExtendedText;
 import org.eclipse.lsp.cobol.common.message.MessageService;
@@ -50,6 +54,7 @@ import org.eclipse.lsp.cobol.core.strategy.CobolErrorStrategy;
 import org.eclipse.lsp.cobol.core.strategy.ErrorMessageHelper;
 import org.eclipse.lsp.cobol.common.dialects.CobolLanguageId;
 import org.eclipse.lsp.cobol.dialects.TrueDialectServiceImpl;
+import org.eclipse.lsp.cobol.service.copybooks.CopybookCache;
 import org.eclipse.lsp.cobol.service.settings.layout.CodeLayoutStore;
 import org.eclipse.lsp.cobol.usecases.DialectConfigs;
 import org.eclipse.lsp4j.Position;
@@ -93,11 +98,15 @@ class CobolLanguageEngineTest {
     TrueDialectService<AnalysisContext> trueDialectService = new TrueDialectServiceImpl(grammarPreprocessor, mockMessageService, treeListener, mock(SubroutineService.class),
         null,
         dialectService, astProcessor, symbolsRepository, store, copybookService);
+    AnalysisResultCache resultCache = new AnalysisResultCache(copybookService, mock(CopybookCache.class),
+        mock(SubroutineService.class), benchmarkService, mock(FileSystemService.class), 1, null, Runnable::run);
     CobolLanguageEngine engine =
             new CobolLanguageEngine(trueDialectService,
                 mockMessageService,
                 mock(ErrorFinalizerService.class),
-                benchmarkService);
+                benchmarkService,
+                resultCache,
+                symbolsRepository);
     when(mockMessageService.getMessage(anyString(), anyString(), anyString())).thenReturn("");
     Locality locality =
             Locality.builder()
@@ -151,6 +160,13 @@ class CobolLanguageEngineTest {
     assertEquals(NodeType.DIVISION, division.getNodeType());
     assertEquals(programRange, division.getLocality().getRange());
     assertEquals(0, division.getChildren().size());
+
+    AnalysisResult cached = engine.run(URI, TEXT, AnalysisConfig.defaultConfig(ENABLED), CobolLanguageId.COBOL);
+    assertSame(root, cached.getRootNode());
+    assertEquals(actual.getDiagnostics(), cached.getDiagnostics());
+    verify(grammarPreprocessor, times(1)).preprocess(any(), any());
+    verify(symbolsRepository, times(2)).updateSymbols(actual.getSymbolTableMap());
+    verify(benchmarkService).logCacheLookup(eq(AnalysisResultCache.CACHE_ID), eq(true), anyLong());
   }
 
   @Test
@@ -169,7 +185,9 @@ class CobolLanguageEngineTest {
         new CobolLanguageEngine(trueDialectService,
             mockMessageService,
             mock(ErrorFinalizerService.class),
-            benchmarkService);
+            benchmarkService,
+            mock(AnalysisResultCache.class),
+            symbolsRepository);
 
     AnalysisResult actual = engine.run(URI, TEXT, DialectConfigs.getDaCoAnalysisConfig(), CobolLanguageId.COBOL);
     Assertions.assertEquals(1, actual.getDiagnostics().size());
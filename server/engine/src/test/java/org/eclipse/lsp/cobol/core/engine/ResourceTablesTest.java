@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.core.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import org.eclipse.lsp.cobol.common.utils.KeywordsUtils;
+import org.junit.jupiter.api.Test;
+
+/** Test for {@link ResourceTables} */
+class ResourceTablesTest {
+
+  @Test
+  void testKeywordsSameAsKeywordsUtils() {
+    for (String fileName : new String[] {ResourceTables.COBOL_KEYWORDS, ResourceTables.SQL_KEYWORDS}) {
+      assertFalse(ResourceTables.getKeywords(fileName).isEmpty());
+      assertEquals(KeywordsUtils.getKeywords(getClass().getClassLoader(), fileName), ResourceTables.getKeywords(fileName));
+      assertSame(ResourceTables.getKeywords(fileName), ResourceTables.getKeywords(fileName));
+    }
+  }
+
+  @Test
+  void testEnglishMessagesSameAsBundle() {
+    ResourceBundle expected = ResourceBundle.getBundle(ResourceTables.MESSAGES, Locale.ENGLISH);
+    ResourceBundle messages = ResourceTables.getMessages(ResourceTables.MESSAGES, Locale.US);
+    assertSame(messages, ResourceTables.getMessages(ResourceTables.MESSAGES, Locale.ENGLISH));
+    assertEquals(expected.keySet(), messages.keySet());
+    for (String key : expected.keySet()) {
+      assertEquals(expected.getString(key), messages.getString(key), key);
+    }
+  }
+
+  @Test
+  void testOtherBundles() {
+    assertEquals(Collections.list(ResourceBundle.getBundle("resourceBundles/test", Locale.FRENCH).getKeys()),
+        Collections.list(ResourceTables.getMessages("resourceBundles/test", Locale.FRENCH).getKeys()));
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.core.engine.processors.implicit;
+
+import org.eclipse.lsp.cobol.common.model.Locality;
+import org.eclipse.lsp.cobol.common.model.SectionType;
+import org.eclipse.lsp.cobol.common.model.tree.ProgramNode;
+import org.eclipse.lsp.cobol.common.model.tree.ProgramSubtype;
+import org.eclipse.lsp.cobol.common.model.tree.SectionNode;
+import org.eclipse.lsp.cobol.common.model.tree.variable.VariableNode;
+import org.eclipse.lsp.cobol.common.model.tree.variable.VariableUsageNode;
+import org.eclipse.lsp.cobol.common.processor.ProcessingContext;
+import org.eclipse.lsp.cobol.core.engine.symbols.SymbolAccumulatorService;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Test for ImplicitVariablesProcessor
+ */
+class ImplicitVariablesProcessorTest {
+  private static final int PROGRAMS = 200;
+  private List<SectionNode> sections;
+  private List<ProcessingContext> contexts;
+
+  @Test
+  void testSpecialRegistersAreSharedBetweenPrograms() {
+    SymbolAccumulatorService firstAccumulator = new SymbolAccumulatorService();
+    SymbolAccumulatorService secondAccumulator = new SymbolAccumulatorService();
+    SectionNode firstSection = workingStorage();
+    SectionNode secondSection = workingStorage();
+    ImplicitVariablesProcessor processor = new ImplicitVariablesProcessor();
+    processor.accept(firstSection, context(firstAccumulator));
+    processor.accept(secondSection, context(secondAccumulator));
+    ProgramNode firstProgram = firstSection.getProgram().get();
+    ProgramNode secondProgram = secondSection.getProgram().get();
+
+    VariableNode returnCode = findVariable(firstAccumulator, "RETURN-CODE");
+    assertTrue(returnCode.isShared());
+    assertSame(returnCode, findVariable(secondAccumulator, "RETURN-CODE"));
+
+    VariableUsageNode firstUsage = usage(firstProgram, "RETURN-CODE", 10);
+    VariableUsageNode secondUsage = usage(secondProgram, "RETURN-CODE", 20);
+    returnCode.addUsage(firstUsage);
+    returnCode.addUsage(firstUsage);
+    returnCode.addUsage(secondUsage);
+
+    assertEquals(Collections.singletonList(firstUsage.getLocality().toLocation()), firstUsage.getUsages());
+    assertEquals(Collections.singletonList(secondUsage.getLocality().toLocation()), secondUsage.getUsages());
+    assertSame(returnCode, firstUsage.getDefinition().get());
+    assertEquals(1, firstUsage.getDefinitions().size());
+    assertEquals(Collections.singletonList(firstUsage.getLocality().toLocation()), returnCode.getUsages(firstProgram));
+    assertTrue(returnCode.getUsages().isEmpty());
+    assertThrows(UnsupportedOperationException.class, () -> returnCode.getUsages().add(firstUsage.getLocality().toLocation()));
+    assertThrows(UnsupportedOperationException.class, () -> returnCode.addChild(usage(firstProgram, "RETURN-CODE", 30)));
+  }
+
+  @Test
+  void testSharedRegistersReduceAllocationPerProgram() {
+    assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+    com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+    ImplicitVariablesProcessor processor = new ImplicitVariablesProcessor();
+    IntConsumer registerShared = i -> processor.accept(sections.get(i), contexts.get(i));
+    IntConsumer registerGenerated = i -> register(contexts.get(i), sections.get(i).getProgram().get(),
+        SRImplicitVariablesGenerator.generate());
+    IntConsumer buildShared = i -> SRImplicitVariablesGenerator.getSharedNodes();
+    IntConsumer buildGenerated = i -> SRImplicitVariablesGenerator.generate();
+
+    measure(threadBean, registerShared);
+    measure(threadBean, registerGenerated);
+    long sharedNodes = measure(threadBean, buildShared);
+    long generatedNodes = measure(threadBean, buildGenerated);
+    long sharedRegistration = measure(threadBean, registerShared);
+    long generatedRegistration = measure(threadBean, registerGenerated);
+
+    assertTrue(sharedNodes * 100 < generatedNodes,
+        "Shared registers allocated " + sharedNodes + " bytes, generated ones " + generatedNodes + " bytes");
+    assertTrue(sharedRegistration < generatedRegistration,
+        "Shared registration allocated " + sharedRegistration + " bytes, generated one " + generatedRegistration + " bytes");
+  }
+
+  private long measure(com.sun.management.ThreadMXBean threadBean, IntConsumer registration) {
+    prepare();
+    long threadId = Thread.currentThread().getId();
+    long start = threadBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < PROGRAMS; i++) {
+      registration.accept(i);
+    }
+    return threadBean.getThreadAllocatedBytes(threadId) - start;
+  }
+
+  private static void register(ProcessingContext context, ProgramNode program, List<VariableNode> nodes) {
+    for (VariableNode node : nodes) {
+      context.getVariableAccumulator().addVariableDefinition(program, node);
+      node.getChildren().stream()
+          .map(VariableNode.class::cast)
+          .forEach(child -> context.getVariableAccumulator().addVariableDefinition(program, child));
+    }
+  }
+
+  private void prepare() {
+    sections = new ArrayList<>();
+    contexts = new ArrayList<>();
+    for (int i = 0; i < PROGRAMS; i++) {
+      sections.add(workingStorage());
+      contexts.add(context(new SymbolAccumulatorService()));
+    }
+  }
+
+  private static SectionNode workingStorage() {
+    SectionNode sectionNode = new SectionNode(Locality.builder().build(), SectionType.WORKING_STORAGE);
+    ProgramNode programNode = new ProgramNode(Locality.builder().build(), ProgramSubtype.Program, 0);
+    programNode.addChild(sectionNode);
+    return sectionNode;
+  }
+
+  private static ProcessingContext context(SymbolAccumulatorService accumulator) {
+    return new ProcessingContext(new ArrayList<>(), accumulator, Collections.emptyMap());
+  }
+
+  private static VariableNode findVariable(SymbolAccumulatorService accumulator, String name) {
+    return accumulator.getProgramSymbols().values().iterator().next().getVariables().get(name).iterator().next();
+  }
+
+  private static VariableUsageNode usage(ProgramNode program, String name, int line) {
+    VariableUsageNode usageNode = new VariableUsageNode(name, Locality.builder()
+        .uri("file:///PROGRAM.cbl")
+        .range(new Range(new Position(line, 12), new Position(line, 23)))
+        .build());
+    program.addChild(usageNode);
+    return usageNode;
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.core.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.eclipse.lsp.cobol.common.model.Locality;
+import org.eclipse.lsp.cobol.common.model.tree.variable.ElementaryItemNode;
+import org.eclipse.lsp.cobol.common.model.tree.variable.GroupItemNode;
+import org.eclipse.lsp.cobol.common.model.tree.variable.UsageFormat;
+import org.eclipse.lsp.cobol.common.model.tree.variable.VariableNode;
+import org.eclipse.lsp.cobol.common.model.tree.variable.VariableUsageNode;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This test resolves qualified references in a program of {@value #GROUPS} groups with the same
+ * {@value #FIELDS} field names each. It compares checking the parents of every definition with the
+ * name, as it was done before, with the definitions grouped by qualifier in {@link
+ * VariableNameIndex}, and building the index for every lookup, as it was done for global variables
+ * before, with reusing it. The result outputs to the console in the form "QUALIFIED 900 300" and
+ * "GLOBAL 2000 10" where the numbers are the best time in ms of the previous and the current
+ * approach of {@value #RUNS} runs. Disabled by default, to enable provide <code>
+ * -Dtests.perf=true</code> as a system property for the run configuration.
+ */
+class VariableNameIndexPerformanceTest {
+  private static final String MODE_PROPERTY_NAME = "tests.perf";
+  private static final String TEST_MODE = System.getProperty(MODE_PROPERTY_NAME);
+  private static final int RUNS = 5;
+  private static final int GROUPS = 500;
+  private static final int FIELDS = 100;
+  private static final int GLOBAL_LOOKUPS = 200;
+  private static final Locality LOCALITY = Locality.builder().uri("file:///PROGRAM.cbl").build();
+
+  @Test
+  void variableNameIndexPerformanceTest() {
+    if (!Boolean.TRUE.toString().equals(TEST_MODE)) return;
+    Multimap<String, VariableNode> definedVariables = generateProgram();
+    List<List<VariableUsageNode>> usages = new ArrayList<>();
+    for (int i = 0; i < GROUPS; i++) {
+      for (int j = 0; j < FIELDS; j++) {
+        usages.add(Arrays.asList(new VariableUsageNode("FIELD-" + j, LOCALITY), new VariableUsageNode("GRP-" + i, LOCALITY)));
+      }
+    }
+    VariableNameIndex index = new VariableNameIndex(definedVariables);
+    for (List<VariableUsageNode> usage : usages) {
+      assertEquals(scanCandidates(index, usage), VariableUsageUtils.findVariablesForUsage(index, usage));
+    }
+
+    long scanned = Long.MAX_VALUE;
+    long grouped = Long.MAX_VALUE;
+    long rebuilt = Long.MAX_VALUE;
+    long reused = Long.MAX_VALUE;
+    for (int i = 0; i < RUNS; i++) {
+      long start = System.nanoTime();
+      for (List<VariableUsageNode> usage : usages) {
+        scanCandidates(index, usage);
+      }
+      scanned = Math.min(scanned, System.nanoTime() - start);
+      VariableNameIndex fresh = new VariableNameIndex(definedVariables);
+      start = System.nanoTime();
+      for (List<VariableUsageNode> usage : usages) {
+        VariableUsageUtils.findVariablesForUsage(fresh, usage);
+      }
+      grouped = Math.min(grouped, System.nanoTime() - start);
+      start = System.nanoTime();
+      for (int j = 0; j < GLOBAL_LOOKUPS; j++) {
+        VariableUsageUtils.findVariablesForUsage(definedVariables, usages.get(j));
+      }
+      rebuilt = Math.min(rebuilt, System.nanoTime() - start);
+      start = System.nanoTime();
+      for (int j = 0; j < GLOBAL_LOOKUPS; j++) {
+        VariableUsageUtils.findVariablesForUsage(index, usages.get(j));
+      }
+      reused = Math.min(reused, System.nanoTime() - start);
+    }
+    System.out.printf("QUALIFIED %d %d\n", scanned / 1_000_000, grouped / 1_000_000);
+    System.out.printf("GLOBAL %d %d\n", rebuilt / 1_000_000, reused / 1_000_000);
+  }
+
+  /** The qualified lookup as it was done before, checking the parents of every definition with the name */
+  private static List<VariableNode> scanCandidates(VariableNameIndex index, List<VariableUsageNode> usage) {
+    List<VariableNode> result = new ArrayList<>();
+    for (VariableNode candidate : index.find(usage.get(0).getName())) {
+      List<VariableNode> parents = index.getParents(candidate);
+      if (!parents.isEmpty() && parents.get(0).getName().equals(usage.get(1).getName())) {
+        result.add(candidate);
+      }
+    }
+    return result;
+  }
+
+  private static Multimap<String, VariableNode> generateProgram() {
+    Multimap<String, VariableNode> definedVariables = ArrayListMultimap.create();
+    for (int i = 0; i < GROUPS; i++) {
+      VariableNode group = new GroupItemNode(localityAt(i * (FIELDS + 1)), 1, "GRP-" + i, false, false, UsageFormat.UNDEFINED);
+      definedVariables.put(group.getName(), group);
+      for (int j = 0; j < FIELDS; j++) {
+        VariableNode field = new ElementaryItemNode(localityAt(i * (FIELDS + 1) + j + 1), 5, "FIELD-" + j, false, "X",
+            null, UsageFormat.UNDEFINED, false, false, false);
+        group.addChild(field);
+        definedVariables.put(field.getName(), field);
+      }
+    }
+    return definedVariables;
+  }
+
+  private static Locality localityAt(int line) {
+    return Locality.builder().uri("file:///PROGRAM.cbl").range(new Range(new Position(line, 7), new Position(line, 20))).build();
+  }
+}
@@ -27,6 +27,8 @@ import org.eclipse.lsp.cobol.common.model.Locality;
 import org.eclipse.lsp.cobol.common.model.tree.variable.*;
 import org.eclipse.lsp.cobol.common.utils.ImplicitCodeUtils;
 import org.eclipse.lsp.cobol.implicitDialects.sql.generator.Db2ImplicitVariablesGenerator;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
 import org.junit.jupiter.api.Test;
 
 /** Check if the variable used is part of the defined variables */
@@ -59,4 +61,40 @@ public class VariableUsageUtilsTest {
 
         assertTrue(result.isEmpty());
     }
+
+    @Test
+    void testQualifiedLookups() {
+        Multimap<String, VariableNode> definedVariables = ArrayListMultimap.create();
+        for (int i = 0; i < 3; i++) {
+            VariableNode group = new GroupItemNode(localityAt(i * 3), 1, "GRP-" + i, false, false, UsageFormat.UNDEFINED);
+            VariableNode subgroup = new GroupItemNode(localityAt(i * 3 + 1), 5, "SUB", false, false, UsageFormat.UNDEFINED);
+            VariableNode field = new ElementaryItemNode(localityAt(i * 3 + 2), 10, "FIELD", false, "X",
+                    null, UsageFormat.UNDEFINED, false, false, false);
+            group.addChild(subgroup);
+            subgroup.addChild(field);
+            definedVariables.put(group.getName(), group);
+            definedVariables.put(subgroup.getName(), subgroup);
+            definedVariables.put(field.getName(), field);
+        }
+        VariableNameIndex index = new VariableNameIndex(definedVariables);
+
+        List<VariableNode> result = VariableUsageUtils.findVariablesForUsage(index,
+                Arrays.asList(new VariableUsageNode("FIELD", locality), new VariableUsageNode("GRP-1", locality)));
+        assertEquals(1, result.size());
+        assertEquals("GRP-1", ((VariableNode) result.get(0).getParent().getParent()).getName());
+        result = VariableUsageUtils.findVariablesForUsage(index, Arrays.asList(new VariableUsageNode("FIELD", locality),
+                new VariableUsageNode("SUB", locality), new VariableUsageNode("GRP-2", locality)));
+        assertEquals(1, result.size());
+        assertEquals("GRP-2", ((VariableNode) result.get(0).getParent().getParent()).getName());
+        assertEquals(3, VariableUsageUtils.findVariablesForUsage(index,
+                Arrays.asList(new VariableUsageNode("FIELD", locality), new VariableUsageNode("SUB", locality))).size());
+        assertTrue(VariableUsageUtils.findVariablesForUsage(index, Arrays.asList(new VariableUsageNode("FIELD", locality),
+                new VariableUsageNode("GRP-1", locality), new VariableUsageNode("SUB", locality))).isEmpty());
+        assertTrue(VariableUsageUtils.findVariablesForUsage(index,
+                Arrays.asList(new VariableUsageNode("FIELD", locality), new VariableUsageNode("GRP-3", locality))).isEmpty());
+    }
+
+    private static Locality localityAt(int line) {
+        return Locality.builder().uri("file:///PROGRAM.cbl").range(new Range(new Position(line, 7), new Position(line, 20))).build();
+    }
 }
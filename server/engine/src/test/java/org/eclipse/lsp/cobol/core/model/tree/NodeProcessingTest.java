@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /** Test that nodes can be processed in several steps */
@@ -216,6 +217,68 @@ class NodeProcessingTest {
     assertEquals(ImmutableList.of(ERROR_2), errors);
   }
 
+  @Test
+  void testPreOrderWithChildrenTakenAfterProcessing() {
+    /** Node that records the processing order */
+    class NamedNode extends Node {
+      private final String name;
+
+      NamedNode(String name) {
+        super(null, NodeType.ROOT);
+        this.name = name;
+      }
+    }
+
+    NamedNode root = new NamedNode("root");
+    NamedNode first = new NamedNode("first");
+    root.addChild(first);
+    first.addChild(new NamedNode("first-child"));
+    root.addChild(new NamedNode("second"));
+
+    List<String> order = new ArrayList<>();
+    ProcessingContext ctx = new ProcessingContext(new ArrayList<>(), new SymbolAccumulatorService(), ImmutableMap.of());
+    ctx.register(
+        new ProcessorDescription(
+            NamedNode.class,
+            ProcessingPhase.TRANSFORMATION,
+            (NamedNode n, ProcessingContext c) -> {
+              order.add(n.name);
+              if (n == root) {
+                n.addChild(new NamedNode("added"));
+              }
+            }));
+
+    new AstProcessor().process(ProcessingPhase.TRANSFORMATION, root, ctx);
+    assertEquals(ImmutableList.of("root", "first", "first-child", "second", "added"), order);
+  }
+
+  @Test
+  void testDeepTree() {
+    /** Do nothing */
+    class SimpleNode extends Node {
+      SimpleNode() {
+        super(null, NodeType.ROOT);
+      }
+    }
+
+    SimpleNode root = new SimpleNode();
+    Node current = root;
+    for (int i = 0; i < 100_000; i++) {
+      SimpleNode child = new SimpleNode();
+      current.addChild(child);
+      current = child;
+    }
+    List<Node> processed = new ArrayList<>();
+    ProcessingContext ctx = new ProcessingContext(new ArrayList<>(), new SymbolAccumulatorService(), ImmutableMap.of());
+    ctx.register(
+        new ProcessorDescription(
+            SimpleNode.class, ProcessingPhase.TRANSFORMATION, (n, c) -> processed.add(n)));
+
+    new AstProcessor().process(ProcessingPhase.TRANSFORMATION, root, ctx);
+    assertEquals(100_001, processed.size());
+    assertSame(current, processed.get(100_000));
+  }
+
   private static SyntaxError getError(String message) {
     return SyntaxError.syntaxError().messageTemplate(MessageTemplate.of(message)).build();
   }
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.core.model.tree.logic;
+
+import static org.eclipse.lsp.cobol.core.model.tree.logic.SectionNodeProcessorHelperTest.generateProgramWithCopybook;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.eclipse.lsp.cobol.common.model.tree.Node;
+import org.eclipse.lsp.cobol.core.engine.processors.SectionNodeProcessorHelper;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This test processes the data definitions of generated copybooks of structures with REDEFINES and
+ * RENAMES items, with 10 times more structures in each next copybook, so the time of a linear
+ * processing grows by 10 times as well. The data layout of the section is indexed by {@code
+ * DataLayoutIndex}, it was quadratic when the preceding siblings and the renamed groups were
+ * scanned for every item. The result outputs to the console in the form "DATA_LAYOUT 10000 90"
+ * where the numbers are the number of structures and the best time in ms of {@value #RUNS} runs.
+ * Disabled by default, to enable provide <code>-Dtests.perf=true</code> as a system property for
+ * the run configuration.
+ */
+class SectionNodeProcessorHelperPerformanceTest {
+  private static final String MODE_PROPERTY_NAME = "tests.perf";
+  private static final String TEST_MODE = System.getProperty(MODE_PROPERTY_NAME);
+  private static final int RUNS = 5;
+  private static final int[] STRUCTURES = {1000, 10000, 100000};
+
+  @Test
+  void sectionNodeProcessorHelperPerformanceTest() {
+    if (!Boolean.TRUE.toString().equals(TEST_MODE)) return;
+    for (int structures : STRUCTURES) {
+      long best = Long.MAX_VALUE;
+      for (int i = 0; i < RUNS; i++) {
+        Node programNode = generateProgramWithCopybook(structures);
+        long start = System.nanoTime();
+        int errors = SectionNodeProcessorHelper.processNodeWithVariableDefinitions(programNode).size();
+        best = Math.min(best, System.nanoTime() - start);
+        assertEquals(1, errors);
+      }
+      System.out.printf("DATA_LAYOUT %d %d\n", structures, best / 1_000_000);
+    }
+  }
+}
@@ -16,11 +16,14 @@ package org.eclipse.lsp.cobol.core.model.tree.logic;
 
 import com.google.common.collect.ImmutableList;
 import org.eclipse.lsp.cobol.common.model.Locality;
+import org.eclipse.lsp.cobol.common.error.SyntaxError;
 import org.eclipse.lsp.cobol.common.model.NodeType;
+import org.eclipse.lsp.cobol.common.model.tree.CopyNode;
 import org.eclipse.lsp.cobol.common.model.tree.Node;
 import org.eclipse.lsp.cobol.common.model.tree.ProgramNode;
 import org.eclipse.lsp.cobol.common.model.tree.ProgramSubtype;
 import org.eclipse.lsp.cobol.common.model.tree.variable.*;
+import org.eclipse.lsp.cobol.common.model.tree.variables.RenameItemNode;
 import org.eclipse.lsp.cobol.core.engine.processors.SectionNodeProcessorHelper;
 import org.eclipse.lsp.cobol.core.engine.symbols.SymbolAccumulatorService;
 import org.eclipse.lsp4j.Position;
@@ -28,11 +31,13 @@ import org.eclipse.lsp4j.Range;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import static org.eclipse.lsp.cobol.common.model.tree.Node.hasType;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /** Test {@link SectionNodeProcessorHelper} */
 class SectionNodeProcessorHelperTest {
@@ -216,6 +221,86 @@ class SectionNodeProcessorHelperTest {
     checkNames(nodesUnder01, "Cond-1", "Level-05-1", "Level-05-2");
   }
 
+  @Test
+  void redefinesAndRenamesInLargeCopybook() {
+    int structures = 3000;
+    Node programNode = generateProgramWithCopybook(structures);
+
+    List<SyntaxError> errors = SectionNodeProcessorHelper.processNodeWithVariableDefinitions(programNode);
+
+    assertEquals(1, errors.size());
+    List<VariableNode> topLevel = getVariables(programNode);
+    assertEquals(structures * 3 + 1, topLevel.size());
+    for (int i = 0; i < structures; i++) {
+      VariableNode group = topLevel.get(i * 3);
+      RenameItemNode rename = (RenameItemNode) topLevel.get(i * 3 + 1);
+      List<VariableNode> fields = getVariables(group);
+      checkNames(fields, "FLD-" + i + "-A", "FLD-" + i + "-B", "FLD-" + i + "-C");
+      assertSame(group, rename.getVarGroupParent());
+      assertEquals(1, group.getUsages().size());
+      assertEquals(2, fields.get(0).getUsages().size());
+      assertEquals(0, fields.get(1).getUsages().size());
+      assertEquals(1, fields.get(2).getUsages().size());
+    }
+  }
+
+  /**
+   * Generate a program with a copybook of the given number of structures with REDEFINES and RENAMES
+   * items, followed by one item redefining a structure that is not the preceding one.
+   *
+   * @param structures the number of structures
+   * @return the program node
+   */
+  static Node generateProgramWithCopybook(int structures) {
+    String copybookUri = "file:///STRUCTS.cpy";
+    Node programNode = new ProgramNode(LOCALITY, ProgramSubtype.Program, 0);
+    CopyNode copyNode = new CopyNode(localityAt("", 1), null, "STRUCTS", copybookUri);
+    programNode.addChild(copyNode);
+    // 01 GRP-i.
+    //    05 FLD-i-A PIC X.
+    //    05 FLD-i-B REDEFINES FLD-i-A PIC X.
+    //    05 FLD-i-C PIC X.
+    // 66 REN-i RENAMES FLD-i-A THRU FLD-i-C.
+    // 01 ALT-i REDEFINES GRP-i PIC XX.
+    for (int i = 0; i < structures; i++) {
+      int line = i * 6;
+      copyNode.addChild(definition(copybookUri, line, 1, "GRP-" + i).build());
+      copyNode.addChild(definition(copybookUri, line + 1, 5, "FLD-" + i + "-A")
+          .picClauses(ImmutableList.of("X")).build());
+      copyNode.addChild(definition(copybookUri, line + 2, 5, "FLD-" + i + "-B")
+          .picClauses(ImmutableList.of("X"))
+          .redefinesClauses(nameAt(copybookUri, line + 2, "FLD-" + i + "-A")).build());
+      copyNode.addChild(definition(copybookUri, line + 3, 5, "FLD-" + i + "-C")
+          .picClauses(ImmutableList.of("X")).build());
+      copyNode.addChild(definition(copybookUri, line + 4, 66, "REN-" + i)
+          .renamesClause(nameAt(copybookUri, line + 4, "FLD-" + i + "-A"))
+          .renamesThruClause(nameAt(copybookUri, line + 4, "FLD-" + i + "-C")).build());
+      copyNode.addChild(definition(copybookUri, line + 5, 1, "ALT-" + i)
+          .picClauses(ImmutableList.of("XX"))
+          .redefinesClauses(nameAt(copybookUri, line + 5, "GRP-" + i)).build());
+    }
+    // 01 BAD REDEFINES GRP-0 PIC X.
+    copyNode.addChild(definition(copybookUri, structures * 6, 1, "BAD")
+        .picClauses(ImmutableList.of("X"))
+        .redefinesClauses(nameAt(copybookUri, structures * 6, "GRP-0")).build());
+    return programNode;
+  }
+
+  private static VariableDefinitionNode.Builder definition(String uri, int line, int level, String name) {
+    return VariableDefinitionNode.builder()
+        .level(level)
+        .statementLocality(localityAt(uri, line))
+        .variableNameAndLocality(new VariableNameAndLocality(name, localityAt(uri, line)));
+  }
+
+  private static List<VariableNameAndLocality> nameAt(String uri, int line, String name) {
+    return Collections.singletonList(new VariableNameAndLocality(name, localityAt(uri, line)));
+  }
+
+  private static Locality localityAt(String uri, int line) {
+    return Locality.builder().uri(uri).range(new Range(new Position(line, 7), new Position(line, 40))).build();
+  }
+
   private static List<VariableNode> getVariables(Node node) {
     return node.getChildren().stream()
         .filter(hasType(NodeType.VARIABLE))
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.extendedapi;
+
+import static org.eclipse.lsp.cobol.extendedapi.CFASTBuilderTest.GENERATED_PROGRAM_URI;
+import static org.eclipse.lsp.cobol.extendedapi.CFASTBuilderTest.GSON;
+import static org.eclipse.lsp.cobol.extendedapi.CFASTBuilderTest.buildStreaming;
+import static org.eclipse.lsp.cobol.extendedapi.CFASTBuilderTest.generateProgram;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.eclipse.lsp.cobol.cfg.CFASTBuilder;
+import org.eclipse.lsp.cobol.cfg.CFASTBuilderImpl;
+import org.eclipse.lsp.cobol.common.model.tree.ProgramNode;
+import org.eclipse.lsp.cobol.core.model.extendedapi.Program;
+import org.eclipse.lsp.cobol.service.DocumentModelService;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This test builds the CF AST of generated programs of {@value #STATEMENTS} nested statements per
+ * paragraph, with 10 times more paragraphs in each next program, so the time of a linear build
+ * grows by 10 times as well. It also checks that the tree and the streaming output are the same.
+ * The result outputs to the console in the form "CFAST 10000 5 90" where the numbers are the
+ * number of statements and the best time in ms of building the tree and of writing the JSON while
+ * the tree is built of {@value #RUNS} runs. Disabled by default, to enable provide
+ * <code>-Dtests.perf=true</code> as a system property for the run configuration.
+ */
+class CFASTBuilderPerformanceTest {
+  private static final String MODE_PROPERTY_NAME = "tests.perf";
+  private static final String TEST_MODE = System.getProperty(MODE_PROPERTY_NAME);
+  private static final int RUNS = 5;
+  private static final int[] PARAGRAPHS = {10, 100, 1000};
+  private static final int STATEMENTS = 100;
+
+  @Test
+  void cfastBuilderPerformanceTest() {
+    if (!Boolean.TRUE.toString().equals(TEST_MODE)) return;
+    for (int paragraphs : PARAGRAPHS) {
+      StringBuilder text = new StringBuilder();
+      ProgramNode programNode = generateProgram(paragraphs, STATEMENTS, text);
+      DocumentModelService documentModelService = new DocumentModelService();
+      documentModelService.openDocument(GENERATED_PROGRAM_URI, text.toString(), "COBOL");
+      CFASTBuilder builder = new CFASTBuilderImpl(documentModelService);
+      List<Program> programs = builder.build(programNode).getControlFlowAST();
+      assertEquals(paragraphs, programs.get(0).getChildren().size());
+      assertEquals(GSON.toJson(programs), buildStreaming(builder, programNode));
+
+      long tree = Long.MAX_VALUE;
+      long streaming = Long.MAX_VALUE;
+      for (int i = 0; i < RUNS; i++) {
+        long start = System.nanoTime();
+        builder.build(programNode);
+        tree = Math.min(tree, System.nanoTime() - start);
+        start = System.nanoTime();
+        buildStreaming(builder, programNode);
+        streaming = Math.min(streaming, System.nanoTime() - start);
+      }
+      System.out.printf("CFAST %d %d %d\n", paragraphs * STATEMENTS, tree / 1_000_000, streaming / 1_000_000);
+    }
+  }
+}
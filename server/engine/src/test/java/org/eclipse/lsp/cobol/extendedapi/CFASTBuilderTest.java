@@ -18,6 +18,8 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.ToNumberPolicy;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -27,10 +29,21 @@ import lombok.extern.slf4j.Slf4j;
 import org.eclipse.lsp.cobol.cfg.CFASTBuilder;
 import org.eclipse.lsp.cobol.cfg.CFASTBuilderImpl;
 import org.eclipse.lsp.cobol.common.AnalysisResult;
+import org.eclipse.lsp.cobol.common.model.Locality;
+import org.eclipse.lsp.cobol.common.model.tree.*;
+import org.eclipse.lsp.cobol.common.model.tree.statements.StatementNode;
+import org.eclipse.lsp.cobol.common.model.variables.DivisionType;
+import org.eclipse.lsp.cobol.core.model.extendedapi.Paragraph;
+import org.eclipse.lsp.cobol.core.model.extendedapi.Program;
+import org.eclipse.lsp.cobol.implicitDialects.sql.node.ExecSqlNode;
+import org.eclipse.lsp.cobol.implicitDialects.sql.node.ExecSqlWheneverNode;
 import org.eclipse.lsp.cobol.service.DocumentModelService;
 import org.eclipse.lsp.cobol.test.engine.UseCase;
 import org.eclipse.lsp.cobol.test.engine.UseCaseUtils;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -38,7 +51,8 @@ import org.junit.jupiter.params.provider.MethodSource;
 /** Test for @link({@link CFASTBuilderImpl}. */
 @Slf4j
 class CFASTBuilderTest {
-  private static final Gson GSON =
+  static final String GENERATED_PROGRAM_URI = "file:///GENERATED.cbl";
+  static final Gson GSON =
       new GsonBuilder()
           .setPrettyPrinting()
           .setObjectToNumberStrategy(ToNumberPolicy.LONG_OR_DOUBLE)
@@ -69,12 +83,87 @@ class CFASTBuilderTest {
     DocumentModelService documentModelService = new DocumentModelService();
     documentModelService.openDocument("fake/path", src, "COBOL");
     CFASTBuilder builder = new CFASTBuilderImpl(documentModelService);
+    ProgramNode programNode = analysisResult.getRootNode().findFirstProgramNode();
+    String json = GSON.toJson(builder.build(programNode).getControlFlowAST());
     Assertions.assertEquals(
         GSON.toJson(GSON.fromJson(jsonTree, List.class)),
-        GSON.toJson(
-            GSON.fromJson(
-                GSON.toJson(builder.build(analysisResult.getRootNode().findFirstProgramNode()).getControlFlowAST()),
-                List.class)));
+        GSON.toJson(GSON.fromJson(json, List.class)));
+    Assertions.assertEquals(json, buildStreaming(builder, programNode));
+  }
+
+  /** Test that a generated program produces the same CF AST in both output modes. */
+  @Test
+  void testGeneratedProgram() {
+    int paragraphs = 10;
+    StringBuilder text = new StringBuilder();
+    ProgramNode programNode = generateProgram(paragraphs, 100, text);
+    DocumentModelService documentModelService = new DocumentModelService();
+    documentModelService.openDocument(GENERATED_PROGRAM_URI, text.toString(), "COBOL");
+    CFASTBuilder builder = new CFASTBuilderImpl(documentModelService);
+
+    List<Program> programs = builder.build(programNode).getControlFlowAST();
+    Assertions.assertEquals(paragraphs, programs.get(0).getChildren().size());
+    Assertions.assertEquals("       PARAGRAPH-9.", ((Paragraph) programs.get(0).getChildren().get(paragraphs - 1)).getSnippet().split("\r\n")[0]);
+    Assertions.assertEquals(GSON.toJson(programs), buildStreaming(builder, programNode));
+  }
+
+  /**
+   * Generate a program with the given number of paragraphs, each with a sentence of the given number
+   * of statements, where every tenth one is an IF with an EXEC SQL WHENEVER nested in the previous one.
+   *
+   * @param paragraphs the number of paragraphs
+   * @param statements the number of statements in a paragraph
+   * @param text the builder to append the program text to
+   * @return the program node
+   */
+  static ProgramNode generateProgram(int paragraphs, int statements, StringBuilder text) {
+    ProgramNode programNode = new ProgramNode(locality(0, 0), ProgramSubtype.Program, 0);
+    programNode.setProgramName("GENERATED");
+    DivisionNode division = new DivisionNode(locality(0, paragraphs * (statements + 1)), DivisionType.PROCEDURE_DIVISION);
+    programNode.addChild(division);
+    ProcedureDivisionBodyNode body = new ProcedureDivisionBodyNode(locality(0, paragraphs * (statements + 1)));
+    division.addChild(body);
+    for (int p = 0; p < paragraphs; p++) {
+      int line = p * (statements + 1);
+      text.append("       PARAGRAPH-").append(p).append(".\n");
+      ParagraphNode paragraph = new ParagraphNode(locality(line, line + statements), "PARAGRAPH-" + p, "", locality(line, line));
+      body.addChild(paragraph);
+      SentenceNode sentence = new SentenceNode(locality(line + 1, line + statements));
+      paragraph.addChild(sentence);
+      Node parent = sentence;
+      for (int s = 1; s <= statements; s++) {
+        text.append("           MOVE A TO B\n");
+        if (s % 10 == 0) {
+          IfNode ifNode = new IfNode(locality(line + s, line + statements));
+          parent.addChild(ifNode);
+          parent = ifNode;
+          ExecSqlNode sqlNode = new ExecSqlNode(locality(line + s, line + s));
+          sqlNode.addChild(new ExecSqlWheneverNode(locality(line + s, line + s),
+              ExecSqlWheneverNode.WheneverConditionType.SQLERROR, ExecSqlWheneverNode.WheneverType.GOTO, "PARAGRAPH-0"));
+          parent.addChild(sqlNode);
+        } else {
+          parent.addChild(new StatementNode(locality(line + s, line + s)));
+        }
+      }
+    }
+    return programNode;
+  }
+
+  static String buildStreaming(CFASTBuilder builder, ProgramNode programNode) {
+    StringWriter writer = new StringWriter();
+    try {
+      builder.build(programNode, GSON, GSON.newJsonWriter(writer));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return writer.toString();
+  }
+
+  private static Locality locality(int startLine, int endLine) {
+    return Locality.builder()
+        .uri(GENERATED_PROGRAM_URI)
+        .range(new Range(new Position(startLine, 7), new Position(endLine, 20)))
+        .build();
   }
 
   private static Arguments toArguments(Path p) {
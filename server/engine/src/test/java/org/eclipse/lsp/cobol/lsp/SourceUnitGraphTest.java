@@ -23,6 +23,7 @@ import java.util.stream.Stream;
 import org.eclipse.lsp.cobol.common.AnalysisResult;
 import org.eclipse.lsp.cobol.common.file.WorkspaceFileService;
 import org.eclipse.lsp.cobol.common.model.Locality;
+import org.eclipse.lsp.cobol.common.model.NodeType;
 import org.eclipse.lsp.cobol.common.model.tree.CopyNode;
 import org.eclipse.lsp.cobol.common.model.tree.RootNode;
 import org.eclipse.lsp.cobol.lsp.analysis.AnalysisState;
@@ -94,7 +95,7 @@ class SourceUnitGraphTest {
             new Location(copy2Uri, new Range(new Position(0, 7), new Position(0, 16))),
             "COPY3",
             copy3Uri);
-    when(rootNode.getDepthFirstStream()).thenReturn(Stream.of(copyNode1, copyNode2, copyNode3));
+    when(rootNode.getDepthFirstStream(NodeType.COPY)).thenReturn(Stream.of(copyNode1, copyNode2, copyNode3));
     AnalysisResult analysisResult = AnalysisResult.builder().rootNode(rootNode).build();
     CobolDocumentModel model = new CobolDocumentModel(URI, "text", analysisResult);
     sourceUnitGraph.notifyState(
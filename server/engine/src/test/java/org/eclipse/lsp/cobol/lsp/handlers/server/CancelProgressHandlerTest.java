@@ -28,6 +28,6 @@ class CancelProgressHandlerTest {
     AsyncAnalysisService asyncAnalysisService = mock(AsyncAnalysisService.class);
     CancelProgressHandler handler = new CancelProgressHandler(asyncAnalysisService);
     handler.cancel("test-uri");
-    verify(asyncAnalysisService).cancelAnalysis("test-uri");
+    verify(asyncAnalysisService).cancelProgress("test-uri");
   }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.positive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.CharStreams;
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.lsp.cobol.cli.command.AstJsonWriter;
+import org.eclipse.lsp.cobol.cli.command.CliUtils;
+import org.eclipse.lsp.cobol.common.model.tree.BinaryTreeReader;
+import org.eclipse.lsp.cobol.common.model.tree.BinaryTreeWriter;
+import org.eclipse.lsp.cobol.common.model.tree.Node;
+import org.eclipse.lsp.cobol.common.processor.ProcessingPhase;
+import org.eclipse.lsp.cobol.test.CobolText;
+import org.eclipse.lsp.cobol.test.engine.UseCase;
+import org.eclipse.lsp.cobol.test.engine.UseCaseUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.NullSource;
+
+/**
+ * This test compares the heap high-water mark of the CLI "--ast" output written from a JSON tree,
+ * as it was done before, and streamed with {@link AstJsonWriter} from a binary snapshot. The
+ * outputs must be the same. The CLI keeps one snapshot per processing phase, so the difference of
+ * the retained snapshots is {@value #SNAPSHOTS} times larger. The result outputs to the console in the form "TEST.cbl 1000 100 20" where "TEST.cbl" is a
+ * file name, "1000" and "100" are the heap high-water marks of the JSON tree and the streaming
+ * variants in KB, and "20" is the output size in KB. The trees too deep for Gson are skipped, the
+ * JSON tree variant is skipped for the outputs over 100 MB, they don't fit the default test heap.
+ * Disabled by default, to enable provide <code>-Dtests.perf=true
+ * </code> as a system property for the run configuration.
+ */
+class AstJsonPerformanceTest extends FileBasedTest {
+  private static final String MODE_PROPERTY_NAME = "tests.perf";
+  private static final String TEST_MODE = System.getProperty(MODE_PROPERTY_NAME);
+  private static final int SNAPSHOTS = ProcessingPhase.values().length + 1;
+  private static final long MAX_TREE_OUTPUT = 100L << 20;
+
+  @ParameterizedTest
+  @MethodSource("getSourceFolder")
+  @DisplayName("AST JSON performance test")
+  @NullSource
+  void astJsonPerformanceTest(String testFolder) throws IOException {
+    if (!Boolean.TRUE.toString().equals(TEST_MODE) || testFolder == null) return;
+    CobolTextRegistry cobolTextRegistry = retrieveTextsRegistry(testFolder);
+    long totalTree = 0;
+    long totalStream = 0;
+    for (CobolText text : getTextsToTest(cobolTextRegistry)) {
+      String name = text.getFileName();
+      Node root = UseCaseUtils.analyze(
+              UseCase.builder().documentUri(name).text(text.getFullText()).copybooks(getCopybooks(cobolTextRegistry)).build())
+          .getRootNode();
+
+      long size = size(root);
+      if (size > MAX_TREE_OUTPUT) {
+        System.out.printf("%s - - %d\n", name, size / 1024);
+        continue;
+      }
+      Hasher treeOutput = Hashing.murmur3_128().newHasher();
+      long treeHeap;
+      try {
+        treeHeap = measure(() -> writeTree(root, treeOutput));
+      } catch (StackOverflowError e) {
+        continue;
+      }
+      Hasher streamOutput = Hashing.murmur3_128().newHasher();
+      long streamHeap = measure(() -> writeStream(root, streamOutput));
+      assertEquals(treeOutput.hash(), streamOutput.hash(), name);
+      totalTree += treeHeap;
+      totalStream += streamHeap;
+      System.out.printf("%s %d %d %d\n", name, treeHeap / 1024, streamHeap / 1024, size / 1024);
+    }
+    System.out.printf("%s %d %d\n", testFolder, totalTree / 1024, totalStream / 1024);
+  }
+
+  private static void writeTree(Node root, Hasher output) throws IOException {
+    JsonElement snapshot = CliUtils.GSON.toJsonTree(root);
+    JsonWriter out = CliUtils.GSON.newJsonWriter(writer(output));
+    CliUtils.GSON.toJson(snapshot, out);
+    out.flush();
+  }
+
+  private static void writeStream(Node root, Hasher output) throws IOException {
+    byte[] snapshot = BinaryTreeWriter.toBytes(root);
+    JsonWriter out = CliUtils.GSON.newJsonWriter(writer(output));
+    new AstJsonWriter(CliUtils.GSON).write(BinaryTreeReader.fromBytes(snapshot), out);
+    out.flush();
+  }
+
+  private static long size(Node root) throws IOException {
+    long[] size = {0};
+    JsonWriter out = CliUtils.GSON.newJsonWriter(new Writer() {
+      @Override
+      public void write(char[] buffer, int offset, int length) {
+        size[0] += length;
+      }
+
+      @Override
+      public void flush() {
+      }
+
+      @Override
+      public void close() {
+      }
+    });
+    new AstJsonWriter(CliUtils.GSON).write(root, out);
+    out.flush();
+    return size[0];
+  }
+
+  private static Writer writer(Hasher output) {
+    return CharStreams.asWriter(new Appendable() {
+      @Override
+      public Appendable append(CharSequence csq) {
+        output.putUnencodedChars(csq);
+        return this;
+      }
+
+      @Override
+      public Appendable append(CharSequence csq, int start, int end) {
+        return append(csq.subSequence(start, end));
+      }
+
+      @Override
+      public Appendable append(char c) {
+        output.putChar(c);
+        return this;
+      }
+    });
+  }
+
+  private static long measure(Action action) throws IOException {
+    System.gc();
+    long baseline = 0;
+    for (MemoryPoolMXBean pool : heapPools()) {
+      pool.resetPeakUsage();
+      baseline += pool.getUsage().getUsed();
+    }
+    action.run();
+    long peak = 0;
+    for (MemoryPoolMXBean pool : heapPools()) {
+      peak += pool.getPeakUsage().getUsed();
+    }
+    return Math.max(0, peak - baseline);
+  }
+
+  private static List<MemoryPoolMXBean> heapPools() {
+    List<MemoryPoolMXBean> pools = new ArrayList<>();
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        pools.add(pool);
+      }
+    }
+    return pools;
+  }
+
+  /** A measured action */
+  private interface Action {
+    void run() throws IOException;
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.positive;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.eclipse.lsp.cobol.common.AnalysisResult;
+import org.eclipse.lsp.cobol.common.model.tree.BinaryTreeReader;
+import org.eclipse.lsp.cobol.common.model.tree.BinaryTreeWriter;
+import org.eclipse.lsp.cobol.common.model.tree.Node;
+import org.eclipse.lsp.cobol.test.CobolText;
+import org.eclipse.lsp.cobol.test.engine.UseCase;
+import org.eclipse.lsp.cobol.test.engine.UseCaseUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.NullSource;
+
+/**
+ * This test compares the binary tree format with the JSON form of the trees of the positive tests
+ * set. The result outputs to the console in the form "TEST.cbl 1000 100 20 5 4" where "TEST.cbl" is
+ * a file name, "1000" and "100" are the sizes of the JSON and the binary forms in bytes, "20" is
+ * the JSON writing time, "5" and "4" are the binary writing and reading times in microseconds, each
+ * the best of {@value #RUNS} runs. The JSON form is streamed, the binary form is kept in memory.
+ * The JSON size is -1 for the trees too deep for Gson.
+ * Disabled by default, to enable provide <code>-Dtests.perf=true
+ * </code> as a system property for the run configuration.
+ */
+class BinaryTreePerformanceTest extends FileBasedTest {
+  private static final String MODE_PROPERTY_NAME = "tests.perf";
+  private static final String TEST_MODE = System.getProperty(MODE_PROPERTY_NAME);
+  private static final int RUNS = 10;
+  private static final Gson GSON = new Gson();
+
+  @ParameterizedTest
+  @MethodSource("getSourceFolder")
+  @DisplayName("Binary tree performance test")
+  @NullSource
+  void binaryTreePerformanceTest(String testFolder) throws IOException {
+    if (!Boolean.TRUE.toString().equals(TEST_MODE) || testFolder == null) return;
+    CobolTextRegistry cobolTextRegistry = retrieveTextsRegistry(testFolder);
+    List<CobolText> textsToTest = getTextsToTest(cobolTextRegistry);
+    long totalJson = 0;
+    long totalBinary = 0;
+    for (CobolText text : textsToTest) {
+      String name = text.getFileName();
+      AnalysisResult result =
+          UseCaseUtils.analyze(
+              UseCase.builder().documentUri(name).text(text.getFullText()).copybooks(getCopybooks(cobolTextRegistry)).build());
+      Node root = result.getRootNode();
+
+      long jsonTime = Long.MAX_VALUE;
+      long writeTime = Long.MAX_VALUE;
+      long readTime = Long.MAX_VALUE;
+      long jsonSize = 0;
+      byte[] bytes = null;
+      for (int i = 0; i < RUNS; i++) {
+        long start = System.nanoTime();
+        jsonSize = jsonSize < 0 ? jsonSize : jsonSize(root);
+        jsonTime = Math.min(jsonTime, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        bytes = BinaryTreeWriter.toBytes(root);
+        writeTime = Math.min(writeTime, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        BinaryTreeReader.fromBytes(bytes);
+        readTime = Math.min(readTime, System.nanoTime() - start);
+      }
+      totalJson += Math.max(jsonSize, 0);
+      totalBinary += bytes.length;
+      System.out.printf("%s %d %d %d %d %d\n", name, jsonSize, bytes.length, jsonTime / 1000, writeTime / 1000, readTime / 1000);
+    }
+    System.out.printf("%s %d %d\n", testFolder, totalJson, totalBinary);
+  }
+
+  /**
+   * Stream the JSON form of the tree without keeping it in memory
+   *
+   * @param root - the tree to serialize
+   * @return the size of the JSON in bytes or -1 if Gson can't handle the depth of the tree
+   * @throws IOException if the writer fails
+   */
+  private static long jsonSize(Node root) throws IOException {
+    CountingOutputStream json = new CountingOutputStream(ByteStreams.nullOutputStream());
+    try (Writer writer = new OutputStreamWriter(json, StandardCharsets.UTF_8)) {
+      GSON.toJson(root, writer);
+    } catch (StackOverflowError e) {
+      return -1;
+    }
+    return json.getCount();
+  }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.positive;
+
+import static java.lang.System.getProperty;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.eclipse.lsp.cobol.common.copybook.CopyBookDTO;
+import org.eclipse.lsp.cobol.lsp.jrpc.CobolLanguageClient;
+import org.eclipse.lsp4j.*;
+import org.eclipse.lsp4j.jsonrpc.Launcher;
+import org.eclipse.lsp4j.launch.LSPLauncher;
+import org.eclipse.lsp4j.services.LanguageServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * This test starts the server jar in the pipe mode with and without the AppCDS archive of the cds
+ * profile, and measures the time to the initialize response and to the first published
+ * diagnostics of an opened document. The result outputs to the console in the form "CDS 900 2500"
+ * where "900" and "2500" are the medians of {@value #RUNS} runs in ms. The jar and the archive are
+ * taken from the <code>server.jar</code> and <code>cds.archive</code> properties, by default the
+ * ones in the target folder, the CDS variant is skipped if there is no archive. Disabled by
+ * default, to enable provide <code>-Dtests.perf=true</code> as a system property for the run
+ * configuration.
+ */
+class CdsStartupPerformanceTest {
+  private static final String MODE_PROPERTY_NAME = "tests.perf";
+  private static final String TEST_MODE = System.getProperty(MODE_PROPERTY_NAME);
+  private static final int RUNS = 5;
+  private static final long TIMEOUT = 120;
+  private static final String TEXT =
+      "       IDENTIFICATION DIVISION.\n"
+          + "       PROGRAM-ID. TEST1.\n"
+          + "       DATA DIVISION.\n"
+          + "       WORKING-STORAGE SECTION.\n"
+          + "       01 ITEM PIC X(5).\n"
+          + "       PROCEDURE DIVISION.\n"
+          + "           DISPLAY ITEM.\n"
+          + "           DISPLAY UNKNOWN.\n";
+
+  @TempDir Path folder;
+
+  @Test
+  void cdsStartupPerformanceTest() throws Exception {
+    if (!Boolean.TRUE.toString().equals(TEST_MODE)) return;
+    File jar = new File(getProperty("server.jar", Paths.get("target", "server.jar").toString()));
+    File archive = new File(getProperty("cds.archive", Paths.get("target", "server.jsa").toString()));
+    assertTrue(jar.exists(), "Build the server jar first: " + jar.getAbsolutePath());
+    Path source = Files.write(folder.resolve("TEST1.cbl"), TEXT.getBytes(StandardCharsets.UTF_8));
+
+    measure("NO-CDS", jar, null, source);
+    if (archive.exists()) {
+      measure("CDS", jar, archive, source);
+    }
+  }
+
+  private void measure(String name, File jar, File archive, Path source) throws Exception {
+    long[] initialize = new long[RUNS];
+    long[] diagnostics = new long[RUNS];
+    for (int i = 0; i < RUNS; i++) {
+      long[] times = run(jar, archive, source);
+      initialize[i] = times[0];
+      diagnostics[i] = times[1];
+    }
+    Arrays.sort(initialize);
+    Arrays.sort(diagnostics);
+    System.out.printf("%s %d %d\n", name, initialize[RUNS / 2], diagnostics[RUNS / 2]);
+  }
+
+  private long[] run(File jar, File archive, Path source) throws Exception {
+    List<String> command = new ArrayList<>();
+    command.add(Paths.get(getProperty("java.home"), "bin", "java").toString());
+    if (archive != null) {
+      command.add("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+    }
+    command.addAll(Arrays.asList("-jar", jar.getAbsolutePath(), "pipeEnabled"));
+
+    long start = System.nanoTime();
+    Process process = new ProcessBuilder(command)
+        .redirectError(new File(getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null"))
+        .start();
+    try {
+      BenchmarkClient client = new BenchmarkClient();
+      Launcher<LanguageServer> launcher = new LSPLauncher.Builder<LanguageServer>()
+          .setLocalService(client)
+          .setRemoteInterface(LanguageServer.class)
+          .setInput(process.getInputStream())
+          .setOutput(process.getOutputStream())
+          .create();
+      launcher.startListening();
+      LanguageServer server = launcher.getRemoteProxy();
+
+      InitializeParams params = new InitializeParams();
+      params.setCapabilities(new ClientCapabilities());
+      params.setWorkspaceFolders(Collections.singletonList(new WorkspaceFolder(folder.toUri().toString(), "benchmark")));
+      server.initialize(params).get(TIMEOUT, TimeUnit.SECONDS);
+      long initialize = elapsed(start);
+
+      server.initialized(new InitializedParams());
+      server.getTextDocumentService().didOpen(new DidOpenTextDocumentParams(
+          new TextDocumentItem(source.toUri().toString(), "cobol", 1, TEXT)));
+      client.diagnostics.get(TIMEOUT, TimeUnit.SECONDS);
+      long diagnostics = elapsed(start);
+
+      server.shutdown().get(TIMEOUT, TimeUnit.SECONDS);
+      server.exit();
+      process.waitFor(TIMEOUT, TimeUnit.SECONDS);
+      return new long[] {initialize, diagnostics};
+    } finally {
+      process.destroy();
+    }
+  }
+
+  private static long elapsed(long start) {
+    return (System.nanoTime() - start) / 1_000_000;
+  }
+
+  /** A client that answers the server requests with empty results */
+  private static final class BenchmarkClient implements CobolLanguageClient {
+    private final CompletableFuture<Void> diagnostics = new CompletableFuture<>();
+
+    @Override
+    public void publishDiagnostics(PublishDiagnosticsParams params) {
+      diagnostics.complete(null);
+    }
+
+    @Override
+    public CompletableFuture<List<Object>> configuration(ConfigurationParams params) {
+      return CompletableFuture.completedFuture(params.getItems().stream().map(item -> null).collect(Collectors.toList()));
+    }
+
+    @Override
+    public CompletableFuture<Void> registerCapability(RegistrationParams params) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> unregisterCapability(UnregistrationParams params) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> createProgress(WorkDoneProgressCreateParams params) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<List<WorkspaceFolder>> workspaceFolders() {
+      return CompletableFuture.completedFuture(Collections.emptyList());
+    }
+
+    @Override
+    public CompletableFuture<String> resolveSubroutine(String name) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<String> resolveCopybook(String cobolFileUri, String copybookName, String dialectType) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> downloadCopybooks(String cobolFileUri, List<CopyBookDTO> copybooks, boolean quietMode) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<MessageActionItem> showMessageRequest(ShowMessageRequestParams params) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void telemetryEvent(Object object) {
+    }
+
+    @Override
+    public void showMessage(MessageParams params) {
+    }
+
+    @Override
+    public void logMessage(MessageParams params) {
+    }
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.positive;
+
+import static java.lang.System.getProperty;
+import static java.util.Optional.ofNullable;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.eclipse.lsp.cobol.LangServerBootstrap;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This test compares the wall-clock time of analysing the carddemo programs one file at a time, with
+ * a new CLI process per file (cold) and with a client process per file that forwards the analysis to
+ * a running daemon (warm). The result outputs to the console in the form "TEST.cbl 3000 400" where
+ * "TEST.cbl" is a file name, "3000" and "400" are the cold and the warm times in ms. The first warm
+ * run includes the warmup of the daemon. Disabled by default, to enable provide <code>
+ * -Dtests.perf=true</code> as a system property for the run configuration.
+ */
+class CliDaemonPerformanceTest {
+  private static final String MODE_PROPERTY_NAME = "tests.perf";
+  private static final String TEST_MODE = System.getProperty(MODE_PROPERTY_NAME);
+  private static final String CARDDEMO = "aws-mainframe-modernization-carddemo";
+
+  @Test
+  void daemonPerformanceTest() throws Exception {
+    if (!Boolean.TRUE.toString().equals(TEST_MODE)) return;
+    Path corpus = Paths.get(ofNullable(getProperty("filesToTestPath")).orElse("../../tests/test_files"), CARDDEMO)
+        .toAbsolutePath();
+    String copybooks = corpus.resolve("copybooks").toString();
+    List<Path> programs;
+    try (Stream<Path> files = Files.list(corpus.resolve("positive"))) {
+      programs = files.sorted().collect(Collectors.toList());
+    }
+    String port;
+    try (ServerSocket socket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+      port = String.valueOf(socket.getLocalPort());
+    }
+
+    Process daemon = cli("daemon", "--port", port).start();
+    try {
+      waitForDaemon(Integer.parseInt(port));
+      long totalCold = 0;
+      long totalWarm = 0;
+      for (Path program : programs) {
+        long cold = run(cli("analysis", "-nd", "-s", program.toString(), "-cf", copybooks));
+        long warm = run(cli("client", "--port", port, "--", "analysis", "-nd", "-s", program.toString(), "-cf", copybooks));
+        totalCold += cold;
+        totalWarm += warm;
+        System.out.printf("%s %d %d\n", program.getFileName(), cold, warm);
+      }
+      System.out.printf("%s %d %d\n", CARDDEMO, totalCold, totalWarm);
+    } finally {
+      run(cli("client", "--port", port, "--stop"));
+      daemon.destroy();
+    }
+  }
+
+  private static ProcessBuilder cli(String... args) {
+    List<String> command = new ArrayList<>();
+    command.add(Paths.get(getProperty("java.home"), "bin", "java").toString());
+    command.add("-cp");
+    command.add(getProperty("java.class.path"));
+    command.add(LangServerBootstrap.class.getName());
+    command.addAll(Arrays.asList(args));
+    return new ProcessBuilder(command)
+        .redirectOutput(nullFile())
+        .redirectError(nullFile());
+  }
+
+  private static long run(ProcessBuilder process) throws IOException, InterruptedException {
+    long start = System.currentTimeMillis();
+    assertEquals(0, process.start().waitFor());
+    return System.currentTimeMillis() - start;
+  }
+
+  private static void waitForDaemon(int port) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 60_000;
+    while (true) {
+      try (Socket ignored = new Socket(InetAddress.getLoopbackAddress(), port)) {
+        return;
+      } catch (IOException e) {
+        assertTrue(System.currentTimeMillis() < deadline, "The daemon did not start");
+        Thread.sleep(100);
+      }
+    }
+  }
+
+  private static File nullFile() {
+    return new File(System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null");
+  }
+}
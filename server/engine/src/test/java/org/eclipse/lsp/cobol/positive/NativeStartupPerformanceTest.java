@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.positive;
+
+import static java.lang.System.getProperty;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.eclipse.lsp.cobol.LangServerBootstrap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * This test measures the time from the start of a CLI analysis process to its first printed
+ * diagnostic, for the JVM and for the native executable. The result outputs to the console in the
+ * form "JVM 1500 1450" where "1500" and "1450" are the median and the minimal time in ms of {@value
+ * #RUNS} runs. The native executable is taken from the <code>native.executable</code> property,
+ * by default the one built by the native profiles in the target folder, and is skipped if it does
+ * not exist. Disabled by default, to enable provide <code>-Dtests.perf=true</code> as a system
+ * property for the run configuration.
+ */
+class NativeStartupPerformanceTest {
+  private static final String MODE_PROPERTY_NAME = "tests.perf";
+  private static final String TEST_MODE = System.getProperty(MODE_PROPERTY_NAME);
+  private static final int RUNS = 5;
+  private static final String TEXT =
+      "       IDENTIFICATION DIVISION.\n"
+          + "       PROGRAM-ID. TEST1.\n"
+          + "       PROCEDURE DIVISION.\n"
+          + "           DISPLAY UNKNOWN.\n";
+
+  @TempDir Path folder;
+
+  @Test
+  void startupPerformanceTest() throws Exception {
+    if (!Boolean.TRUE.toString().equals(TEST_MODE)) return;
+    String source = Files.write(folder.resolve("TEST1.cbl"), TEXT.getBytes(StandardCharsets.UTF_8)).toString();
+
+    List<String> jvm = new ArrayList<>(Arrays.asList(
+        Paths.get(getProperty("java.home"), "bin", "java").toString(),
+        "-cp", getProperty("java.class.path"),
+        LangServerBootstrap.class.getName()));
+    measure("JVM", jvm, source);
+
+    File executable = new File(getProperty("native.executable",
+        "target" + File.separator + (getProperty("os.name").startsWith("Windows") ? "engine.exe" : "engine")));
+    if (executable.exists()) {
+      measure("NATIVE", new ArrayList<>(Arrays.asList(executable.getAbsolutePath())), source);
+    }
+  }
+
+  private static void measure(String name, List<String> command, String source) throws IOException, InterruptedException {
+    command.addAll(Arrays.asList("analysis", "-s", source));
+    long[] times = new long[RUNS];
+    for (int i = 0; i < RUNS; i++) {
+      times[i] = timeToFirstDiagnostic(command);
+    }
+    Arrays.sort(times);
+    System.out.printf("%s %d %d\n", name, times[RUNS / 2], times[0]);
+  }
+
+  private static long timeToFirstDiagnostic(List<String> command) throws IOException, InterruptedException {
+    long start = System.nanoTime();
+    Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    long time = -1;
+    try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = output.readLine()) != null) {
+        if (time < 0 && line.contains("\"diagnostics\"")) {
+          time = (System.nanoTime() - start) / 1_000_000;
+        }
+      }
+    }
+    process.waitFor();
+    assertTrue(time >= 0, "No diagnostics in the output of " + command.get(0));
+    return time;
+  }
+}
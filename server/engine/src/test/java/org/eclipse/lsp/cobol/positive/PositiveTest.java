@@ -86,6 +86,7 @@ class PositiveTest extends ConfigurableTest {
                     .build();
     AnalysisResult analyze = UseCaseUtils.analyze(useCase);
     PositiveTestUtility.assetDefinitionsNReferencesFromSnap(analyze.getSymbolTableMap(), dataNameRefs, analyze.getRootNode(), fileName);
+    PositiveTestUtility.assertBinaryTreeRoundTrip(analyze.getRootNode(), fileName);
     assertNoError(fileName, analyze);
   }
 
@@ -16,13 +16,21 @@ package org.eclipse.lsp.cobol.positive;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import lombok.experimental.UtilityClass;
 import org.eclipse.lsp.cobol.common.model.Locality;
 import org.eclipse.lsp.cobol.common.model.NodeType;
+import org.eclipse.lsp.cobol.common.model.tree.BinaryTreeReader;
+import org.eclipse.lsp.cobol.common.model.tree.BinaryTreeWriter;
 import org.eclipse.lsp.cobol.common.model.tree.CopyNode;
 import org.eclipse.lsp.cobol.common.model.tree.Node;
 import org.eclipse.lsp.cobol.common.model.tree.ProgramNode;
 import org.eclipse.lsp.cobol.common.model.tree.variable.VariableNode;
+import org.eclipse.lsp.cobol.common.model.tree.variable.VariableUsageNode;
+import org.eclipse.lsp.cobol.common.model.tree.variables.RenameItemNode;
 import org.eclipse.lsp.cobol.common.symbols.CodeBlockReference;
 import org.eclipse.lsp.cobol.common.symbols.SymbolTable;
 import org.eclipse.lsp.cobol.common.utils.ImplicitCodeUtils;
@@ -31,6 +39,7 @@ import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.Range;
 import org.junit.jupiter.api.Assertions;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -43,6 +52,23 @@ import static java.util.stream.Collectors.toList;
 /** Utility class for Positive Tests. */
 @UtilityClass
 public class PositiveTestUtility {
+  private static final Gson TREE_GSON =
+      new GsonBuilder()
+          .setExclusionStrategies(
+              new ExclusionStrategy() {
+                @Override
+                public boolean shouldSkipField(FieldAttributes field) {
+                  return (field.getDeclaringClass() == Node.class && field.getName().equals("children"))
+                      || (field.getDeclaringClass() == VariableUsageNode.class && field.getName().equals("definitions"))
+                      || (field.getDeclaringClass() == RenameItemNode.class && field.getName().equals("varGroupParent"));
+                }
+
+                @Override
+                public boolean shouldSkipClass(Class<?> type) {
+                  return false;
+                }
+              })
+          .create();
   private final List<String> blacklistedTestFiles =
       Arrays.asList(
           "DB1054.2.cbl",
@@ -103,6 +129,7 @@ public class PositiveTestUtility {
     assertDataName(
         dataNameRefs.getOrDefault(ReportSection.DATA_NAMES, Collections.emptyList()),
         variableDefinitionFromLSPEngine,
+        rootNode,
         fileName);
     assertProcedures(
         dataNameRefs.getOrDefault(ReportSection.PROCEDURES, Collections.emptyList()),
@@ -114,6 +141,58 @@ public class PositiveTestUtility {
         fileName);
   }
 
+  /**
+   * Check that the tree is restored from its binary form with the same content and the same links
+   * between the nodes. The nodes are compared one by one in the depth-first order by their JSON
+   * form without the children, the references to the definitions are compared by the positions of
+   * the referred nodes. A node may be listed by more than one node, so the restored parent is only
+   * required to list it.
+   *
+   * @param rootNode root Node generated by LSP engine
+   * @param fileName test file
+   */
+  void assertBinaryTreeRoundTrip(Node rootNode, String fileName) {
+    Node restored;
+    try {
+      restored = BinaryTreeReader.fromBytes(BinaryTreeWriter.toBytes(rootNode));
+    } catch (IOException e) {
+      throw new AssertionError(fileName + ": the binary tree cannot be read", e);
+    }
+    List<Node> nodes = rootNode.getDepthFirstStream().collect(toList());
+    List<Node> restoredNodes = restored.getDepthFirstStream().collect(toList());
+    Assertions.assertEquals(nodes.size(), restoredNodes.size(), fileName);
+    Map<Node, Integer> positions = positions(nodes);
+    Map<Node, Integer> restoredPositions = positions(restoredNodes);
+    for (int i = 0; i < restoredNodes.size(); i++) {
+      Node node = restoredNodes.get(i);
+      Assertions.assertEquals(TREE_GSON.toJsonTree(nodes.get(i)), TREE_GSON.toJsonTree(node), fileName);
+      Assertions.assertEquals(nodes.get(i).getChildren().size(), node.getChildren().size(), fileName);
+      node.getChildren()
+          .forEach(child -> Assertions.assertTrue(child.getParent().getChildren().stream().anyMatch(c -> c == child), fileName));
+      if (node instanceof VariableUsageNode) {
+        Assertions.assertEquals(
+            reference(((VariableUsageNode) nodes.get(i)).getDefinition().orElse(null), positions),
+            reference(((VariableUsageNode) node).getDefinition().orElse(null), restoredPositions),
+            fileName);
+      } else if (node instanceof RenameItemNode) {
+        Assertions.assertEquals(
+            reference(((RenameItemNode) nodes.get(i)).getVarGroupParent(), positions),
+            reference(((RenameItemNode) node).getVarGroupParent(), restoredPositions),
+            fileName);
+      }
+    }
+  }
+
+  private Map<Node, Integer> positions(List<Node> nodes) {
+    Map<Node, Integer> positions = new IdentityHashMap<>();
+    for (int i = 0; i < nodes.size(); i++) positions.put(nodes.get(i), i);
+    return positions;
+  }
+
+  private String reference(VariableNode node, Map<Node, Integer> positions) {
+    return node == null ? null : node.getName() + "@" + positions.getOrDefault(node, -1);
+  }
+
   private void assertPrograms(
       List<SysprintSnap> allProgRef,
       Multimap<String, Node> programDefinitionFromLSPEngine,
@@ -213,21 +292,22 @@ public class PositiveTestUtility {
   private void assertDataName(
       List<SysprintSnap> dataNameRefs,
       Multimap<String, Node> variableDefinitionFromLSPEngine,
+      Node rootNode,
       String fileName) {
     dataNameRefs.forEach(
         snap -> {
           String dataName = snap.getDataName();
           Collection<Node> nodes = variableDefinitionFromLSPEngine.get(dataName);
           if (Objects.nonNull(snap.getDefinitionLocation())) {
-            assertSnapRangeReferencesByDataName(snap, nodes, fileName);
+            assertSnapRangeReferencesByDataName(snap, nodes, rootNode, fileName);
           } else {
-            assertReferencesByDataName(snap, nodes, fileName);
+            assertReferencesByDataName(snap, nodes, rootNode, fileName);
           }
         });
   }
 
   private void assertSnapRangeReferencesByDataName(
-      SysprintSnap snap, Collection<Node> nodes, String fileName) {
+      SysprintSnap snap, Collection<Node> nodes, Node rootNode, String fileName) {
     Optional<VariableNode> foundVariableNodeInLSP =
         nodes.stream()
             .filter(node -> snap.getDefinitionLocation().equals(node.getLocality().getRange()))
@@ -258,7 +338,7 @@ public class PositiveTestUtility {
     foundVariableNodeInLSP.ifPresent(
         node -> {
           List<Range> usagesFromEngine =
-              node.getUsages().stream().map(Location::getRange).collect(Collectors.toList());
+              getUsages(node, rootNode).stream().map(Location::getRange).collect(Collectors.toList());
 
           List<Range> unmatchedReferences =
               snap.getReferencesLocation().stream()
@@ -281,7 +361,7 @@ public class PositiveTestUtility {
   }
 
   private void assertReferencesByDataName(
-      SysprintSnap snap, Collection<Node> nodes, String fileName) {
+      SysprintSnap snap, Collection<Node> nodes, Node rootNode, String fileName) {
     Optional<Node> first =
         nodes.stream()
             .filter(
@@ -310,7 +390,7 @@ public class PositiveTestUtility {
     foundVariableNodeInLSP.ifPresent(
         node -> {
           List<Object> usagesFromEngine =
-              node.getUsages().stream()
+              getUsages(node, rootNode).stream()
                   .flatMap(
                       usage -> {
                         if (usage.getUri().contains(fileName)) {
@@ -345,13 +425,25 @@ public class PositiveTestUtility {
           if (!updateFlag.equals("false")) {
             Range location = foundVariableNodeInLSP.get().getLocality().getRange();
             List<Range> collect =
-                node.getUsages().stream().map(Location::getRange).collect(toList());
+                getUsages(node, rootNode).stream().map(Location::getRange).collect(toList());
             snap.setReferencesLocation(collect);
             snap.setDefinitionLocation(location);
           }
         });
   }
 
+  /** A shared definition has separate usages in each program that registered it */
+  private List<Location> getUsages(VariableNode node, Node rootNode) {
+    if (!node.isShared()) return node.getUsages();
+    return rootNode
+        .getDepthFirstStream()
+        .filter(it -> it.getNodeType() == NodeType.PROGRAM)
+        .map(ProgramNode.class::cast)
+        .filter(program -> program.hasSharedVariable(node))
+        .flatMap(program -> node.getUsages(program).stream())
+        .collect(toList());
+  }
+
   private List<Integer> getCopyBookLineNumber(Node node, Location usage) {
     return node
         .getNearestParentByType(NodeType.PROGRAM)
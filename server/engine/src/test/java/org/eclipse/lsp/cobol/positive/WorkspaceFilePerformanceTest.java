@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.positive;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.eclipse.lsp.cobol.common.file.WorkspaceFileService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * This test compares reading the files of a generated workspace of {@value #PROGRAMS} programs with
+ * {@value #FILES_PER_PROGRAM} copybooks each line by line, as it was done before, and with {@link
+ * WorkspaceFileService#getContentByPath}, and listing the copybook folders with the pattern
+ * compiled for every visited path and with {@link WorkspaceFileService#listFilesInDirectory}. The
+ * result outputs to the console in the form "READ 900 300" and "LIST 200 50" where the numbers are
+ * the best time in ms of the previous and the current approach of {@value #RUNS} runs. Disabled by
+ * default, to enable provide <code>-Dtests.perf=true</code> as a system property for the run
+ * configuration.
+ */
+class WorkspaceFilePerformanceTest {
+  private static final String MODE_PROPERTY_NAME = "tests.perf";
+  private static final String TEST_MODE = System.getProperty(MODE_PROPERTY_NAME);
+  private static final int RUNS = 5;
+  private static final int PROGRAMS = 100;
+  private static final int FILES_PER_PROGRAM = 100;
+  private static final int LINES_PER_FILE = 500;
+
+  @Test
+  void workspaceFilePerformanceTest(@TempDir Path workspace) throws IOException {
+    if (!Boolean.TRUE.toString().equals(TEST_MODE)) return;
+    generateWorkspace(workspace);
+    List<Path> files;
+    try (Stream<Path> paths = Files.walk(workspace)) {
+      files = paths.filter(Files::isRegularFile).collect(Collectors.toList());
+    }
+    WorkspaceFileService service = new WorkspaceFileService();
+    String copybooks = workspace.toUri().getPath() + "*/copybooks";
+
+    for (Path file : files) {
+      assertEquals(readLineByLine(file), service.getContentByPath(file));
+    }
+    assertEquals(listCompilingPatterns(workspace).size(), service.listFilesInDirectory(copybooks).size());
+
+    long lineByLine = Long.MAX_VALUE;
+    long bulk = Long.MAX_VALUE;
+    long compiling = Long.MAX_VALUE;
+    long cached = Long.MAX_VALUE;
+    for (int i = 0; i < RUNS; i++) {
+      long start = System.nanoTime();
+      for (Path file : files) {
+        readLineByLine(file);
+      }
+      lineByLine = Math.min(lineByLine, System.nanoTime() - start);
+      start = System.nanoTime();
+      for (Path file : files) {
+        service.getContentByPath(file);
+      }
+      bulk = Math.min(bulk, System.nanoTime() - start);
+      start = System.nanoTime();
+      listCompilingPatterns(workspace);
+      compiling = Math.min(compiling, System.nanoTime() - start);
+      start = System.nanoTime();
+      service.listFilesInDirectory(copybooks);
+      cached = Math.min(cached, System.nanoTime() - start);
+    }
+    System.out.printf("READ %d %d\n", lineByLine / 1_000_000, bulk / 1_000_000);
+    System.out.printf("LIST %d %d\n", compiling / 1_000_000, cached / 1_000_000);
+  }
+
+  private static void generateWorkspace(Path workspace) throws IOException {
+    StringBuilder content = new StringBuilder();
+    for (int i = 0; i < LINES_PER_FILE; i++) {
+      content.append(String.format("       05  FIELD-%04d PIC X(10) VALUE 'ÄÖÜ'.\r\n", i));
+    }
+    byte[] bytes = content.toString().getBytes(UTF_8);
+    for (int i = 0; i < PROGRAMS; i++) {
+      Path copybooks = Files.createDirectories(workspace.resolve("PROG" + i).resolve("copybooks"));
+      for (int j = 0; j < FILES_PER_PROGRAM; j++) {
+        Files.write(copybooks.resolve("CPY" + j + ".cpy"), bytes);
+      }
+    }
+  }
+
+  /** The listing of "*&#47;copybooks" as it was done before, with the pattern compiled per path */
+  private static List<String> listCompilingPatterns(Path workspace) throws IOException {
+    List<String> names = new ArrayList<>();
+    try (Stream<Path> paths = Files.find(workspace, 3,
+        (path, attributes) -> Pattern.compile("/copybooks").matcher(path.toUri().getPath()).find())) {
+      paths.filter(Files::isRegularFile).forEach(path -> names.add(path.getFileName().toString()));
+    }
+    return names;
+  }
+
+  private static String readLineByLine(Path file) throws IOException {
+    CharsetDecoder decoder = UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPLACE);
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(file), decoder))) {
+      StringBuilder sb = new StringBuilder();
+      String line;
+      while ((line = reader.readLine()) != null) {
+        sb.append(line).append("\n");
+      }
+      return sb.toString();
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.eclipse.lsp4j.Position;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This test splits a generated document of {@value #LINES} lines and looks up {@value #LOOKUPS}
+ * lines in it. It compares filling a copy-on-write list one line at a time and searching it for a
+ * line, as it was done before, with the line table of {@link CobolDocumentModel}. The result
+ * outputs to the console in the form "PARSE 4000 3" and "LOOKUP 3000 20" where the numbers are the
+ * best time in ms of the previous and the current approach of {@value #RUNS} runs. Disabled by
+ * default, to enable provide <code>-Dtests.perf=true</code> as a system property for the run
+ * configuration.
+ */
+class CobolDocumentModelPerformanceTest {
+  private static final String MODE_PROPERTY_NAME = "tests.perf";
+  private static final String TEST_MODE = System.getProperty(MODE_PROPERTY_NAME);
+  private static final int RUNS = 5;
+  private static final int LINES = 100_000;
+  private static final int LOOKUPS = 10_000;
+
+  @Test
+  void cobolDocumentModelPerformanceTest() {
+    if (!Boolean.TRUE.toString().equals(TEST_MODE)) return;
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < LINES; i++) {
+      builder.append("       DISPLAY LINE-").append(i).append(".\n");
+    }
+    String text = builder.toString();
+    List<CobolDocumentModel.Line> copyOnWriteLines = parseCopyOnWrite(text);
+    CobolDocumentModel model = new CobolDocumentModel("", text);
+    assertEquals(copyOnWriteLines, model.getLines());
+
+    long copyOnWriteParse = Long.MAX_VALUE;
+    long tableParse = Long.MAX_VALUE;
+    long streamLookup = Long.MAX_VALUE;
+    long tableLookup = Long.MAX_VALUE;
+    for (int i = 0; i < RUNS; i++) {
+      long start = System.nanoTime();
+      parseCopyOnWrite(text);
+      copyOnWriteParse = Math.min(copyOnWriteParse, System.nanoTime() - start);
+      start = System.nanoTime();
+      model.update(text);
+      tableParse = Math.min(tableParse, System.nanoTime() - start);
+      start = System.nanoTime();
+      for (int j = 0; j < LOOKUPS; j++) {
+        findLine(copyOnWriteLines, lineAt(j));
+      }
+      streamLookup = Math.min(streamLookup, System.nanoTime() - start);
+      start = System.nanoTime();
+      for (int j = 0; j < LOOKUPS; j++) {
+        model.getFullTokenAtPosition(new Position(lineAt(j), 17));
+      }
+      tableLookup = Math.min(tableLookup, System.nanoTime() - start);
+    }
+    System.out.printf("PARSE %d %d\n", copyOnWriteParse / 1_000_000, tableParse / 1_000_000);
+    System.out.printf("LOOKUP %d %d\n", streamLookup / 1_000_000, tableLookup / 1_000_000);
+  }
+
+  /** Spread the lookups over the document */
+  private static int lineAt(int lookup) {
+    return (int) ((long) lookup * LINES / LOOKUPS);
+  }
+
+  /** The lines as they were kept before, a copy-on-write list filled one line at a time */
+  private static List<CobolDocumentModel.Line> parseCopyOnWrite(String text) {
+    List<CobolDocumentModel.Line> lines = new CopyOnWriteArrayList<>();
+    try (BufferedReader reader = new BufferedReader(new StringReader(text))) {
+      String lineText;
+      int lineNumber = 0;
+      while ((lineText = reader.readLine()) != null) {
+        lines.add(new CobolDocumentModel.Line(lineNumber, lineText));
+        lineNumber++;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return lines;
+  }
+
+  /** The line lookup as it was done before, searching the list for the line number */
+  private static CobolDocumentModel.Line findLine(List<CobolDocumentModel.Line> lines, int number) {
+    return lines.stream().filter(line -> line.getNumber() == number).findFirst().orElse(null);
+  }
+}
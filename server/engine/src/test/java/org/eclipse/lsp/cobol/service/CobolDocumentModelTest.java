@@ -74,6 +74,32 @@ class CobolDocumentModelTest {
     assertEquals(LINES_NUMBER, model.getLines().size());
   }
 
+  @Test
+  void testOffsetAndPositionConversion() {
+    int offset = TEXT.indexOf("DATA DIVISION");
+    Position position = new Position(2, 8);
+
+    assertEquals(offset, model.getOffset(position));
+    assertEquals(position, model.getPosition(offset));
+    assertEquals(new Position(9, 21), model.getPosition(TEXT.length()));
+    assertNull(model.getPosition(TEXT.length() + 1));
+    assertEquals(-1, model.getOffset(new Position(LINES_NUMBER, 0)));
+  }
+
+  @Test
+  void testLargeDocument() {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 100_000; i++) {
+      text.append("       DISPLAY LINE-").append(i).append(".\n");
+    }
+    CobolDocumentModel largeModel = new CobolDocumentModel("", text.toString());
+
+    assertEquals(100_000, largeModel.getLines().size());
+    assertEquals("       DISPLAY LINE-99999.", largeModel.getLine(99_999).getText());
+    assertEquals("LINE-54321", largeModel.getFullTokenAtPosition(new Position(54_321, 17)));
+    assertEquals(text.indexOf("LINE-54321"), largeModel.getOffset(new Position(54_321, 15)));
+  }
+
   @Test
   void testGetTokenEmptyPosition() {
     Position pos = new Position();
@@ -125,6 +125,29 @@ class DocumentModelServiceTest {
     assertTrue(service.isDocumentSynced(uri));
   }
 
+  @Test
+  void testOutlineAndFoldingRangesAreComputedOnDemand() {
+    String uri = UUID.randomUUID().toString();
+    String text = UUID.randomUUID().toString();
+    service.openDocument(uri, text, languageId);
+    service.processAnalysisResult(uri, createAnalysisResult(uri), text);
+
+    assertEquals(0, service.getOutlineStatistics().getComputed());
+    assertEquals(0, service.getFoldingRangeStatistics().getComputed());
+
+    CobolDocumentModel document = service.get(uri);
+    assertSame(document.getOutlineResult(), document.getOutlineResult());
+    assertSame(document.getFoldingRanges(), document.getFoldingRanges());
+    assertEquals(1, service.getOutlineStatistics().getComputed());
+    assertEquals(1, service.getOutlineStatistics().getCached());
+    assertEquals(1, service.getFoldingRangeStatistics().getComputed());
+    assertEquals(1, service.getFoldingRangeStatistics().getCached());
+
+    service.processAnalysisResult(uri, createAnalysisResult(uri), text);
+    service.get(uri).getOutlineResult();
+    assertEquals(2, service.getOutlineStatistics().getComputed());
+  }
+
   @Test
   void testRemove() {
     String uri = UUID.randomUUID().toString();
@@ -15,18 +15,25 @@
 
 package org.eclipse.lsp.cobol.service.delegates.communications;
 
+import static org.awaitility.Awaitility.await;
 import static org.eclipse.lsp.cobol.test.engine.UseCaseUtils.DOCUMENT_URI;
 import static org.eclipse.lsp4j.MessageType.Info;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.inject.Provider;
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import org.eclipse.lsp.cobol.common.file.FileSystemService;
 import org.eclipse.lsp.cobol.common.message.MessageService;
 import org.eclipse.lsp.cobol.lsp.jrpc.CobolLanguageClient;
+import org.eclipse.lsp.cobol.service.mocks.MockLanguageClient;
 import org.eclipse.lsp4j.*;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.junit.jupiter.api.BeforeEach;
@@ -49,7 +56,7 @@ class ServerCommunicationsTest {
 
   @Mock private FileSystemService files;
 
-  @Mock private HashSet<String> uriInProgress;
+  @Mock private HashMap<String, Integer> uriInProgress;
 
   @InjectMocks private ServerCommunications communications;
 
@@ -113,12 +120,11 @@ class ServerCommunicationsTest {
   }
 
   @Test
-  void testNotifyProgressBegin() throws NoSuchFieldException {
+  void testNotifyProgressBegin() {
     String uri = UUID.randomUUID().toString();
     when(files.getNameFromURI(uri)).thenReturn(uri);
     when(files.decodeURI(uri)).thenReturn(uri);
     when(messageService.getMessage("Communications.syntaxAnalysisInProgressTitle", uri)).thenReturn("TITLE");
-    setUpProgressDataStructure(uri);
     ProgressParams expectedNotifyBeginParams = new ProgressParams();
     expectedNotifyBeginParams.setToken(uri);
     WorkDoneProgressBegin workDoneProgressBegin = new WorkDoneProgressBegin();
@@ -141,6 +147,115 @@ class ServerCommunicationsTest {
     verify(client).notifyProgress(new ProgressParams(Either.forLeft(uri), Either.forLeft(new WorkDoneProgressEnd())));
   }
 
+  @Test
+  void testConcurrentAnalysesShareOneProgress() {
+    CountingLanguageClient countingClient = new CountingLanguageClient();
+    when(provider.get()).thenReturn(countingClient);
+    ServerCommunications serverCommunications =
+        new ServerCommunications(provider, files, messageService);
+    serverCommunications.setMinReportInterval(TimeUnit.HOURS.toMillis(1));
+    when(messageService.getMessage(anyString(), any())).thenReturn("TITLE");
+    List<String> uris = createUris(500);
+
+    uris.forEach(serverCommunications::notifyProgressBegin);
+    assertEquals(ImmutableSet.copyOf(uris), serverCommunications.getUrisInProgress(uris.get(0)));
+    uris.forEach(serverCommunications::notifyProgressEnd);
+
+    assertEquals(1, countingClient.created.size());
+    // begin, the first report, the report held back by the interval, end
+    assertEquals(4, countingClient.progress.size());
+    assertTrue(countingClient.progress.stream().allMatch(p -> p.getToken().getLeft().equals(uris.get(0))));
+    assertEquals(100, ((WorkDoneProgressReport) countingClient.progress.get(2).getValue().getLeft()).getPercentage());
+    assertTrue(countingClient.progress.get(3).getValue().getLeft() instanceof WorkDoneProgressEnd);
+    assertEquals(ImmutableSet.of("other"), serverCommunications.getUrisInProgress("other"));
+  }
+
+  @Test
+  void testSharedProgressReportsPercentage() {
+    CountingLanguageClient countingClient = new CountingLanguageClient();
+    when(provider.get()).thenReturn(countingClient);
+    ServerCommunications serverCommunications =
+        new ServerCommunications(provider, files, messageService);
+    serverCommunications.setMinReportInterval(0);
+    when(messageService.getMessage(anyString(), any())).thenReturn("TITLE");
+    when(messageService.getMessage(anyString(), any(), any())).thenReturn("REPORT");
+    List<String> uris = createUris(500);
+
+    uris.forEach(serverCommunications::notifyProgressBegin);
+    uris.forEach(serverCommunications::notifyProgressEnd);
+
+    assertEquals(1, countingClient.created.size());
+    // begin and the first report, a report per joined and per finished document but the last, end
+    assertEquals(2 + 499 + 499 + 1, countingClient.progress.size());
+    WorkDoneProgressReport lastReport =
+        (WorkDoneProgressReport) countingClient.progress.get(countingClient.progress.size() - 2).getValue().getLeft();
+    assertEquals(99, lastReport.getPercentage());
+  }
+
+  @Test
+  void testSharedProgressPercentageNeverDecreases() {
+    CountingLanguageClient countingClient = new CountingLanguageClient();
+    when(provider.get()).thenReturn(countingClient);
+    ServerCommunications serverCommunications =
+        new ServerCommunications(provider, files, messageService);
+    serverCommunications.setMinReportInterval(0);
+    when(messageService.getMessage(anyString(), any())).thenReturn("TITLE");
+    when(messageService.getMessage(anyString(), any(), any())).thenReturn("REPORT");
+    List<String> uris = createUris(3);
+
+    serverCommunications.notifyProgressBegin(uris.get(0));
+    serverCommunications.notifyProgressBegin(uris.get(1));
+    serverCommunications.notifyProgressEnd(uris.get(0));
+    serverCommunications.notifyProgressBegin(uris.get(2));
+
+    WorkDoneProgressReport lastReport =
+        (WorkDoneProgressReport) countingClient.progress.get(countingClient.progress.size() - 1).getValue().getLeft();
+    assertEquals(50, lastReport.getPercentage());
+  }
+
+  @Test
+  void testHeldBackReportIsSentAfterInterval() {
+    CountingLanguageClient countingClient = new CountingLanguageClient();
+    when(provider.get()).thenReturn(countingClient);
+    ServerCommunications serverCommunications =
+        new ServerCommunications(provider, files, messageService);
+    serverCommunications.setMinReportInterval(TimeUnit.SECONDS.toMillis(1));
+    when(messageService.getMessage(anyString(), any())).thenReturn("TITLE");
+    when(messageService.getMessage(anyString(), any(), any())).thenReturn("REPORT");
+    List<String> uris = createUris(3);
+
+    uris.forEach(serverCommunications::notifyProgressBegin);
+    serverCommunications.notifyProgressEnd(uris.get(0));
+    // begin and the first report, the next ones are held back by the interval
+    assertEquals(2, countingClient.progress.size());
+
+    await().atMost(10, TimeUnit.SECONDS).until(() -> countingClient.progress.size() == 3);
+    WorkDoneProgressReport report = (WorkDoneProgressReport) countingClient.progress.get(2).getValue().getLeft();
+    assertEquals(33, report.getPercentage());
+    uris.subList(1, 3).forEach(serverCommunications::notifyProgressEnd);
+    assertTrue(countingClient.progress.get(countingClient.progress.size() - 1).getValue().getLeft() instanceof WorkDoneProgressEnd);
+  }
+
+  @Test
+  void testSameDocumentBeginsTwice() {
+    CountingLanguageClient countingClient = new CountingLanguageClient();
+    when(provider.get()).thenReturn(countingClient);
+    ServerCommunications serverCommunications =
+        new ServerCommunications(provider, files, messageService);
+    when(messageService.getMessage(anyString(), any())).thenReturn("TITLE");
+    String uri = createUris(1).get(0);
+
+    serverCommunications.notifyProgressBegin(uri);
+    serverCommunications.notifyProgressBegin(uri);
+    serverCommunications.notifyProgressEnd(uri);
+    assertTrue(countingClient.progress.stream().noneMatch(p -> p.getValue().getLeft() instanceof WorkDoneProgressEnd));
+    assertEquals(ImmutableSet.of(uri), serverCommunications.getUrisInProgress(uri));
+
+    serverCommunications.notifyProgressEnd(uri);
+    assertEquals(1, countingClient.created.size());
+    assertTrue(countingClient.progress.get(countingClient.progress.size() - 1).getValue().getLeft() instanceof WorkDoneProgressEnd);
+  }
+
   @Test
   void testNotifyProgressReport() {
     String uri = UUID.randomUUID().toString();
@@ -168,9 +283,34 @@ class ServerCommunicationsTest {
     verify(client).unregisterCapability(unregistrationParams);
   }
 
+  private static List<String> createUris(int count) {
+    List<String> uris = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      uris.add("file:///c:/workspace/PROG" + i + ".cbl");
+    }
+    return uris;
+  }
+
+  /** Language client stand-in that counts the progress messages sent by the server */
+  private static class CountingLanguageClient extends MockLanguageClient {
+    private final List<WorkDoneProgressCreateParams> created = new ArrayList<>();
+    private final List<ProgressParams> progress = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public CompletableFuture<Void> createProgress(WorkDoneProgressCreateParams params) {
+      created.add(params);
+      return super.createProgress(params);
+    }
+
+    @Override
+    public void notifyProgress(ProgressParams params) {
+      progress.add(params);
+    }
+  }
+
   private void setUpProgressDataStructure(String data) throws NoSuchFieldException {
-    HashSet<String> uriInProgress = new HashSet<>();
-    uriInProgress.add(data);
+    HashMap<String, Integer> uriInProgress = new HashMap<>();
+    uriInProgress.put(data, 1);
     Field f = communications.getClass().getDeclaredField("uriInProgress");
     f.setAccessible(true);
     try {
@@ -16,26 +16,39 @@
 package org.eclipse.lsp.cobol.service.utils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.times;
 
+import com.google.common.collect.ImmutableList;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.io.FileSystem;
 import org.eclipse.lsp.cobol.common.file.FileSystemService;
 import org.eclipse.lsp.cobol.common.file.WorkspaceFileService;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.MockedStatic;
 
-/** This test checks the logic File Service methods that do not interact with the file system */
+/** This test checks the logic of File Service methods */
 class WorkspaceFileServiceTest {
 
   private static String pathPrefix() {
@@ -171,4 +184,82 @@ class WorkspaceFileServiceTest {
 
     assertEquals(actualPathString, expectedPath.toString());
   }
+
+  @Test
+  void getContentByPathKeepsLineByLineResult(@TempDir Path folder) throws IOException {
+    WorkspaceFileService service = new WorkspaceFileService();
+    StringBuilder large = new StringBuilder();
+    while (large.length() < 3 << 20) {
+      large.append("       MOVE 'ÄÖÜ' TO WS-TEXT.\r\n");
+    }
+    List<byte[]> contents =
+        ImmutableList.of(
+            new byte[0],
+            "\n".getBytes(UTF_8),
+            "line".getBytes(UTF_8),
+            "first\nsecond\n".getBytes(UTF_8),
+            "first\r\nsecond\rthird\r\n\r\n".getBytes(UTF_8),
+            "       DISPLAY 'привет'.\n".getBytes(UTF_8),
+            new byte[] {'A', (byte) 0xC3, '\n', (byte) 0xFF, 'B'},
+            large.toString().getBytes(UTF_8));
+    for (int i = 0; i < contents.size(); i++) {
+      Path file = Files.write(folder.resolve("FILE" + i + ".cbl"), contents.get(i));
+      assertEquals(readLineByLine(file), service.getContentByPath(file), file.toString());
+    }
+  }
+
+  @Test
+  void getContentByPathDecodesEbcdic(@TempDir Path folder) throws IOException {
+    String first = String.format("%-80s", "       IDENTIFICATION DIVISION.");
+    String second = String.format("%-80s", "       PROGRAM-ID. TEST1.");
+    Charset ebcdic = Charset.forName("IBM1047");
+    Path records = Files.write(folder.resolve("RECORDS.cbl"), (first + second).getBytes(ebcdic));
+    Path lines = Files.write(folder.resolve("LINES.cbl"), (first + "\u0085" + second).getBytes(ebcdic));
+
+    WorkspaceFileService service = new WorkspaceFileService();
+    assertEquals(first + "\n" + second + "\n", service.getContentByPath(records));
+    assertEquals(first + "\n" + second + "\n", service.getContentByPath(lines));
+
+    Path latin = Files.write(folder.resolve("LATIN.cbl"), "@\u00C4@\u00D6".getBytes(StandardCharsets.ISO_8859_1));
+    assertEquals(readLineByLine(latin), service.getContentByPath(latin));
+  }
+
+  @Test
+  void listAndReadLargeWorkspace(@TempDir Path workspace) throws IOException {
+    int programs = 40;
+    int filesPerProgram = 50;
+    for (int i = 0; i < programs; i++) {
+      Path copybooks = Files.createDirectories(workspace.resolve("PROG" + i).resolve("copybooks"));
+      Path sources = Files.createDirectories(workspace.resolve("PROG" + i).resolve("sources"));
+      for (int j = 0; j < filesPerProgram; j++) {
+        Files.write(copybooks.resolve("CPY" + j + ".cpy"), ("       01 CPY" + j + " PIC X.\n").getBytes(UTF_8));
+        Files.write(sources.resolve("SRC" + j + ".cbl"), ("       PROGRAM-ID. SRC" + j + ".\n").getBytes(UTF_8));
+      }
+    }
+    WorkspaceFileService service = new WorkspaceFileService();
+    String root = workspace.toUri().getPath();
+
+    List<String> copybooks = service.listFilesInDirectory(root + "*/copybooks");
+    assertEquals(programs * filesPerProgram, copybooks.size());
+    assertTrue(copybooks.stream().allMatch(name -> name.endsWith(".cpy")));
+    assertEquals(filesPerProgram, service.listFilesInDirectory(root + "PROG7/sources").size());
+
+    try (Stream<Path> files = Files.walk(workspace)) {
+      for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+        assertEquals(readLineByLine(file), service.getContentByPath(file));
+      }
+    }
+  }
+
+  private static String readLineByLine(Path file) throws IOException {
+    CharsetDecoder decoder = UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPLACE);
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(file), decoder))) {
+      StringBuilder sb = new StringBuilder();
+      String line;
+      while ((line = reader.readLine()) != null) {
+        sb.append(line).append("\n");
+      }
+      return sb.toString();
+    }
+  }
 }
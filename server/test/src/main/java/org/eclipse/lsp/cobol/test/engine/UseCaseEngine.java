@@ -29,6 +29,8 @@ import com.google.common.collect.Multimap;
 import com.google.gson.JsonElement;
 
 import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collector;
@@ -419,33 +421,42 @@ public class UseCaseEngine {
   private Map<String, List<Location>> extractVariableDefinitions(AnalysisResult result) {
     return extractVariables(
         result,
-        it -> !ImplicitCodeUtils.isImplicit(it.getLocality().getUri()),
-        DefinedAndUsedStructure::getDefinitions);
+        (program, it) -> !ImplicitCodeUtils.isImplicit(it.getLocality().getUri()),
+        (program, it) -> it.getDefinitions());
   }
 
   private Map<String, List<Location>> extractVariableUsages(AnalysisResult result) {
     return extractVariables(
-        result, variable -> !variable.getUsages().isEmpty(), DefinedAndUsedStructure::getUsages);
+        result,
+        (program, variable) -> !variable.getUsages(program).isEmpty(),
+        (program, variable) -> variable.getUsages(program));
   }
 
   private Map<String, List<Location>> extractVariables(
       AnalysisResult result,
-      Predicate<VariableNode> predicate,
-      Function<DefinedAndUsedStructure, List<Location>> extractor) {
+      BiPredicate<ProgramNode, VariableNode> predicate,
+      BiFunction<ProgramNode, VariableNode, List<Location>> extractor) {
 
     return result
         .getRootNode()
         .getDepthFirstStream()
         .filter(hasType(PROGRAM))
         .map(ProgramNode.class::cast)
-        .map(p -> result.getSymbolTableMap().get(SymbolTable.generateKey(p)))
-        .filter(Objects::nonNull)
-        .map(SymbolTable::getVariables)
-        .map(Multimap::values)
-        .flatMap(Collection::stream)
-        .filter(it -> !FILLER_NAME.equals(it.getName()))
-        .filter(predicate)
-        .collect(toMap(extractor, PROGRAM));
+        .flatMap(
+            program ->
+                Optional.ofNullable(result.getSymbolTableMap().get(SymbolTable.generateKey(program)))
+                    .map(SymbolTable::getVariables)
+                    .map(Multimap::values)
+                    .map(Collection::stream)
+                    .orElseGet(Stream::empty)
+                    .filter(it -> !FILLER_NAME.equals(it.getName()))
+                    .filter(it -> predicate.test(program, it))
+                    .map(it -> new AbstractMap.SimpleEntry<>(it.getName().toUpperCase(), extractor.apply(program, it))))
+        .collect(
+            Collectors.toMap(
+                Map.Entry::getKey,
+                Map.Entry::getValue,
+                (l1, l2) -> Stream.concat(l1.stream(), l2.stream()).distinct().collect(toList())));
   }
 
   private Map<String, List<Location>> extractDefinitions(AnalysisResult result, NodeType nodeType) {